@@ -52,6 +52,11 @@ public class MetricNames {
      */
     public static final String RECORDS_IN_BUFFER = "recordsInBuffer";
 
+    /**
+     * Metric representing the estimated size in bytes of the records currently in the buffer.
+     */
+    public static final String BYTES_IN_BUFFER = "bytesInBuffer";
+
     /**
      * Metric representing the number of records read from a buffer and processed by the pipeline.
      */
@@ -10,12 +10,27 @@ package com.amazon.dataprepper.model;
  */
 public class CheckpointState {
     private final int numRecordsToBeChecked;
+    private final long numBytesToBeChecked;
 
     public CheckpointState(final int numRecordsToBeChecked) {
+        this(numRecordsToBeChecked, 0);
+    }
+
+    /**
+     * @param numRecordsToBeChecked the number of records read in the batch
+     * @param numBytesToBeChecked the estimated size in bytes of the records read in the batch, or 0 if the buffer
+     *                            does not track sizes
+     */
+    public CheckpointState(final int numRecordsToBeChecked, final long numBytesToBeChecked) {
         this.numRecordsToBeChecked = numRecordsToBeChecked;
+        this.numBytesToBeChecked = numBytesToBeChecked;
     }
 
     public int getNumRecordsToBeChecked() {
         return numRecordsToBeChecked;
     }
+
+    public long getNumBytesToBeChecked() {
+        return numBytesToBeChecked;
+    }
 }
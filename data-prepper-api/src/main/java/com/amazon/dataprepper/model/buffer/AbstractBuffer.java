@@ -28,6 +28,7 @@ public abstract class AbstractBuffer<T extends Record<?>> implements Buffer<T> {
     private final Counter recordsReadCounter;
     private final AtomicLong recordsInFlight;
     private final AtomicLong recordsInBuffer;
+    private final AtomicLong bytesInBuffer;
     private final Counter recordsProcessedCounter;
     private final Counter writeTimeoutCounter;
     private final Timer writeTimer;
@@ -48,6 +49,7 @@ public abstract class AbstractBuffer<T extends Record<?>> implements Buffer<T> {
         this.recordsReadCounter = pluginMetrics.counter(MetricNames.RECORDS_READ);
         this.recordsInFlight = pluginMetrics.gauge(MetricNames.RECORDS_INFLIGHT, new AtomicLong());
         this.recordsInBuffer = pluginMetrics.gauge(MetricNames.RECORDS_IN_BUFFER, new AtomicLong());
+        this.bytesInBuffer = pluginMetrics.gauge(MetricNames.BYTES_IN_BUFFER, new AtomicLong());
         this.recordsProcessedCounter = pluginMetrics.counter(MetricNames.RECORDS_PROCESSED, pipelineName);
         this.writeTimeoutCounter = pluginMetrics.counter(MetricNames.WRITE_TIMEOUTS);
         this.writeTimer = pluginMetrics.timer(MetricNames.WRITE_TIME_ELAPSED);
@@ -115,10 +117,27 @@ public abstract class AbstractBuffer<T extends Record<?>> implements Buffer<T> {
      */
     @Override
     public Map.Entry<Collection<T>, CheckpointState> read(int timeoutInMillis) {
-        final Map.Entry<Collection<T>, CheckpointState> readResult = readTimer.record(() -> doRead(timeoutInMillis));
+        return recordRead(readTimer.record(() -> doRead(timeoutInMillis)));
+    }
+
+    /**
+     * Records egress and time elapsed metrics, while calling the doRead function with the batch size to do the
+     * actual read
+     *
+     * @param timeoutInMillis how long to wait before giving up
+     * @param batchSize       the maximum number of records to return
+     * @return Records collection and checkpoint state read from the buffer
+     */
+    @Override
+    public Map.Entry<Collection<T>, CheckpointState> read(int timeoutInMillis, int batchSize) {
+        return recordRead(readTimer.record(() -> doRead(timeoutInMillis, batchSize)));
+    }
+
+    private Map.Entry<Collection<T>, CheckpointState> recordRead(final Map.Entry<Collection<T>, CheckpointState> readResult) {
         recordsReadCounter.increment(readResult.getKey().size() * 1.0);
         recordsInFlight.addAndGet(readResult.getValue().getNumRecordsToBeChecked());
         recordsInBuffer.addAndGet(-1 * readResult.getValue().getNumRecordsToBeChecked());
+        bytesInBuffer.addAndGet(-1 * readResult.getValue().getNumBytesToBeChecked());
         return readResult;
     }
 
@@ -134,6 +153,27 @@ public abstract class AbstractBuffer<T extends Record<?>> implements Buffer<T> {
         return recordsInFlight.intValue();
     }
 
+    /**
+     * Adds to the bytes in buffer gauge. Implementations which track record sizes should call this after a
+     * successful write with the estimated size of the written records, and report the size of the records read
+     * through {@link CheckpointState#getNumBytesToBeChecked()}.
+     *
+     * @param numBytes estimated size in bytes of the records written
+     */
+    protected void recordBytesWritten(final long numBytes) {
+        bytesInBuffer.addAndGet(numBytes);
+    }
+
+    /**
+     * Adds to the records in buffer gauge. Persistent implementations should call this on startup with the number of
+     * records recovered from a previous run, as those were never counted by {@link #write(Record, int)}.
+     *
+     * @param numRecords number of records recovered
+     */
+    protected void recordRecoveredRecords(final long numRecords) {
+        recordsInBuffer.addAndGet(numRecords);
+    }
+
     /**
      * This method should implement the logic for writing to the buffer
      *
@@ -160,6 +200,18 @@ public abstract class AbstractBuffer<T extends Record<?>> implements Buffer<T> {
      */
     public abstract Map.Entry<Collection<T>, CheckpointState> doRead(int timeoutInMillis);
 
+    /**
+     * This method should implement the logic for reading at most batchSize records from the buffer. Buffers which
+     * do not override it ignore batchSize and read as {@link #doRead(int)}.
+     *
+     * @param timeoutInMillis Timeout in millis
+     * @param batchSize       the maximum number of records to return
+     * @return Records collection and checkpoint state read from the buffer
+     */
+    public Map.Entry<Collection<T>, CheckpointState> doRead(int timeoutInMillis, int batchSize) {
+        return doRead(timeoutInMillis);
+    }
+
     public abstract void doCheckpoint(CheckpointState checkpointState);
 
     public abstract boolean isEmpty();
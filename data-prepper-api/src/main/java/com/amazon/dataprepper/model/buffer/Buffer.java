@@ -45,6 +45,18 @@ public interface Buffer<T extends Record<?>> {
      */
     Map.Entry<Collection<T>, CheckpointState> read(int timeoutInMillis);
 
+    /**
+     * Retrieves and removes a batch of at most batchSize records from the head of the queue, overriding the
+     * configured batch size for this read. Buffers which do not support it ignore batchSize and read as
+     * {@link #read(int)}.
+     * @param timeoutInMillis how long to wait before giving up
+     * @param batchSize the maximum number of records to return
+     * @return The earliest batch of records in the buffer which are still not read and its corresponding checkpoint state.
+     */
+    default Map.Entry<Collection<T>, CheckpointState> read(int timeoutInMillis, int batchSize) {
+        return read(timeoutInMillis);
+    }
+
     /**
      * Check summary of records processed by data-prepper downstreams(preppers, sinks, pipelines).
      *
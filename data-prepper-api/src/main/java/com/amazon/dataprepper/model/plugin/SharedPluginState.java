@@ -0,0 +1,38 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.model.plugin;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * State shared by the instances of a plugin which are loaded together, such as the instances of a
+ * {@link com.amazon.dataprepper.model.annotations.SingleThread} plugin created for each worker of a pipeline. Plugins
+ * which need to coordinate their instances can take it as a constructor argument instead of keeping static state, so
+ * that the same plugin can run in several pipelines of one Data Prepper process.
+ *
+ * @since 1.3
+ */
+public final class SharedPluginState {
+    private final Map<Class<?>, Object> objects = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared object of the given type, creating it on the first call for the type.
+     *
+     * @param type The type of the shared object
+     * @param supplier Creates the shared object, called at most once for the type
+     * @param <T> The type
+     * @return The object shared by the instances of the plugin
+     * @since 1.3
+     */
+    public <T> T computeIfAbsent(final Class<T> type, final Supplier<? extends T> supplier) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(supplier);
+        return type.cast(objects.computeIfAbsent(type, key -> supplier.get()));
+    }
+}
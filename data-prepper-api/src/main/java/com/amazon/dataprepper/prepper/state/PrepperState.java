@@ -25,6 +25,14 @@ public interface PrepperState<K, V> {
      */
     void put(K key, V value);
 
+    /**
+     * Puts all the key value pairs in the prepper state
+     * @param data Key value pairs to put in the state
+     */
+    default void putAll(final Map<K, V> data) {
+        data.forEach(this::put);
+    }
+
     /**
      * Gets the value in the prepper state for the given key
      * @param key Key to look up value for
@@ -168,6 +168,104 @@ public class AbstractBufferTest {
                 0.001));
     }
 
+    @Test
+    public void testBytesInBufferMetric() throws Exception {
+        // Given
+        final AbstractBuffer<Record<String>> abstractBuffer = new AbstractBufferSizeTrackingImpl(testPluginSetting);
+        final Collection<Record<String>> testRecords = new ArrayList<>();
+        for(int i=0; i<5; i++) {
+            testRecords.add(new Record<>(UUID.randomUUID().toString()));
+        }
+        final List<Measurement> bytesInBufferMeasurements = MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add(PIPELINE_NAME).add(BUFFER_NAME).add(MetricNames.BYTES_IN_BUFFER).toString());
+
+        // When
+        abstractBuffer.writeAll(testRecords, 1000);
+
+        // Then
+        Assert.assertEquals(1, bytesInBufferMeasurements.size());
+        Assert.assertEquals(5 * 36.0, bytesInBufferMeasurements.get(0).getValue(), 0);
+
+        // When
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = abstractBuffer.read(1000);
+
+        // Then
+        Assert.assertEquals(5 * 36, readResult.getValue().getNumBytesToBeChecked());
+        Assert.assertEquals(0.0, MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add(PIPELINE_NAME).add(BUFFER_NAME).add(MetricNames.BYTES_IN_BUFFER).toString())
+                .get(0).getValue(), 0);
+    }
+
+    @Test
+    public void testReadWithBatchSizeMetrics() throws Exception {
+        // Given
+        final AbstractBuffer<Record<String>> abstractBuffer = new AbstractBufferImpl(testPluginSetting);
+        final Collection<Record<String>> testRecords = new ArrayList<>();
+        for(int i=0; i<5; i++) {
+            testRecords.add(new Record<>(UUID.randomUUID().toString()));
+        }
+        abstractBuffer.writeAll(testRecords, 1000);
+
+        // When
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = abstractBuffer.read(1000, 2);
+
+        // Then
+        // AbstractBufferImpl does not override doRead(int, int), so the batch size is ignored
+        Assert.assertEquals(5, readResult.getKey().size());
+        final List<Measurement> recordsReadMeasurements = MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add(PIPELINE_NAME).add(BUFFER_NAME).add(MetricNames.RECORDS_READ).toString());
+        final List<Measurement> readTimeMeasurements = MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add(PIPELINE_NAME).add(BUFFER_NAME).add(MetricNames.READ_TIME_ELAPSED).toString());
+        Assert.assertEquals(5.0, recordsReadMeasurements.get(0).getValue(), 0);
+        Assert.assertEquals(5, abstractBuffer.getRecordsInFlight());
+        Assert.assertEquals(1.0, MetricsTestUtil.getMeasurementFromList(readTimeMeasurements, Statistic.COUNT).getValue(), 0);
+    }
+
+    @Test
+    public void testBufferReadWithBatchSizeDefaultsToRead() {
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult =
+                new AbstractMap.SimpleEntry<>(Collections.emptyList(), new CheckpointState(0));
+        final Buffer<Record<String>> buffer = new Buffer<Record<String>>() {
+            @Override
+            public void write(final Record<String> record, final int timeoutInMillis) {
+            }
+
+            @Override
+            public void writeAll(final Collection<Record<String>> records, final int timeoutInMillis) {
+            }
+
+            @Override
+            public Map.Entry<Collection<Record<String>>, CheckpointState> read(final int timeoutInMillis) {
+                return readResult;
+            }
+
+            @Override
+            public void checkpoint(final CheckpointState checkpointState) {
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return true;
+            }
+        };
+
+        Assert.assertSame(readResult, buffer.read(1000, 2));
+    }
+
+    @Test
+    public void testRecoveredRecordsMetric() {
+        // Given
+        final AbstractBuffer<Record<String>> abstractBuffer = new AbstractBufferRecoveringImpl(testPluginSetting, 3);
+
+        // When
+        final List<Measurement> recordsInBufferMeasurements = MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add(PIPELINE_NAME).add(BUFFER_NAME).add(MetricNames.RECORDS_IN_BUFFER).toString());
+
+        // Then
+        Assert.assertEquals(1, recordsInBufferMeasurements.size());
+        Assert.assertEquals(3.0, recordsInBufferMeasurements.get(0).getValue(), 0);
+    }
+
     @Test
     public void testWriteTimeoutMetric() throws TimeoutException {
         // Given
@@ -289,6 +387,32 @@ public class AbstractBufferTest {
         }
     }
 
+    public static class AbstractBufferSizeTrackingImpl extends AbstractBufferImpl {
+        public AbstractBufferSizeTrackingImpl(final PluginSetting pluginSetting) {
+            super(pluginSetting);
+        }
+
+        @Override
+        public void doWriteAll(final Collection<Record<String>> records, final int timeoutInMillis) throws Exception {
+            super.doWriteAll(records, timeoutInMillis);
+            recordBytesWritten(records.stream().mapToLong(record -> record.getData().length()).sum());
+        }
+
+        @Override
+        public Map.Entry<Collection<Record<String>>, CheckpointState> doRead(final int timeoutInMillis) {
+            final Collection<Record<String>> records = super.doRead(timeoutInMillis).getKey();
+            final long numBytes = records.stream().mapToLong(record -> record.getData().length()).sum();
+            return new AbstractMap.SimpleEntry<>(records, new CheckpointState(records.size(), numBytes));
+        }
+    }
+
+    public static class AbstractBufferRecoveringImpl extends AbstractBufferImpl {
+        public AbstractBufferRecoveringImpl(final PluginSetting pluginSetting, final long numRecoveredRecords) {
+            super(pluginSetting);
+            recordRecoveredRecords(numRecoveredRecords);
+        }
+    }
+
     public static class AbstractBufferTimeoutImpl extends AbstractBufferImpl {
         public AbstractBufferTimeoutImpl(PluginSetting pluginSetting) {
             super(pluginSetting);
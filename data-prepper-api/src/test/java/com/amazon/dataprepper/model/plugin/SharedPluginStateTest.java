@@ -0,0 +1,53 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.model.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SharedPluginStateTest {
+
+    @Test
+    void computeIfAbsent_should_create_the_object_once_per_type() {
+        final SharedPluginState objectUnderTest = new SharedPluginState();
+        final AtomicInteger created = new AtomicInteger();
+
+        final AtomicInteger first = objectUnderTest.computeIfAbsent(AtomicInteger.class, () -> {
+            created.incrementAndGet();
+            return new AtomicInteger();
+        });
+        final AtomicInteger second = objectUnderTest.computeIfAbsent(AtomicInteger.class, () -> {
+            created.incrementAndGet();
+            return new AtomicInteger();
+        });
+
+        assertThat(second, sameInstance(first));
+        assertThat(created.get(), equalTo(1));
+    }
+
+    @Test
+    void computeIfAbsent_should_not_share_objects_between_states() {
+        final AtomicInteger first = new SharedPluginState().computeIfAbsent(AtomicInteger.class, AtomicInteger::new);
+        final AtomicInteger second = new SharedPluginState().computeIfAbsent(AtomicInteger.class, AtomicInteger::new);
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    void computeIfAbsent_should_throw_for_null_arguments() {
+        final SharedPluginState objectUnderTest = new SharedPluginState();
+
+        assertThrows(NullPointerException.class, () -> objectUnderTest.computeIfAbsent(null, Object::new));
+        assertThrows(NullPointerException.class, () -> objectUnderTest.computeIfAbsent(Object.class, null));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.pipeline;
+
+import com.amazon.dataprepper.model.buffer.Buffer;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.model.source.Source;
+
+import java.util.Collection;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory source which writes the records handed to it by the benchmark thread into the buffer of the pipeline,
+ * waiting for room when the buffer is full as a push-based source would.
+ */
+class BenchmarkSource implements Source<Record<String>> {
+    private static final int WRITE_TIMEOUT_MILLIS = 1_000;
+
+    private volatile Buffer<Record<String>> buffer;
+
+    @Override
+    public void start(final Buffer<Record<String>> buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    void write(final Collection<Record<String>> records) throws InterruptedException {
+        for (final Record<String> record : records) {
+            while (true) {
+                try {
+                    buffer.write(record, WRITE_TIMEOUT_MILLIS);
+                    break;
+                } catch (final TimeoutException ex) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.pipeline;
+
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.model.sink.Sink;
+
+import java.util.Collection;
+
+/**
+ * In-memory sink which counts the records it outputs, so that the benchmark thread can wait until the records it
+ * wrote have passed through the pipeline.
+ */
+class CountingSink implements Sink<Record<String>> {
+    private long recordsOutput;
+
+    @Override
+    public synchronized void output(final Collection<Record<String>> records) {
+        recordsOutput += records.size();
+        notifyAll();
+    }
+
+    synchronized void awaitRecordsOutput(final long expectedRecordsOutput) throws InterruptedException {
+        while (recordsOutput < expectedRecordsOutput) {
+            wait();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
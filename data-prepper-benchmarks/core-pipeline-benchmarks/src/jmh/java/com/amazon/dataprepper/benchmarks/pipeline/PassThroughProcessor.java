@@ -0,0 +1,34 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.pipeline;
+
+import com.amazon.dataprepper.model.processor.Processor;
+import com.amazon.dataprepper.model.record.Record;
+
+import java.util.Collection;
+
+/**
+ * Processor which outputs its input unchanged, so that the benchmarks measure the cost of the pipeline itself.
+ */
+class PassThroughProcessor implements Processor<Record<String>, Record<String>> {
+    @Override
+    public Collection<Record<String>> execute(final Collection<Record<String>> records) {
+        return records;
+    }
+
+    @Override
+    public void prepareForShutdown() {
+    }
+
+    @Override
+    public boolean isReadyForShutdown() {
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+}
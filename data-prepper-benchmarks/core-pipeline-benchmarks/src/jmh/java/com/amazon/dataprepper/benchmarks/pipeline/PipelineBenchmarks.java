@@ -0,0 +1,131 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.pipeline;
+
+import com.amazon.dataprepper.model.processor.Processor;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.model.sink.Sink;
+import com.amazon.dataprepper.model.source.Source;
+import com.amazon.dataprepper.pipeline.Pipeline;
+import com.amazon.dataprepper.pipeline.PipelineConnector;
+import com.amazon.dataprepper.plugins.buffer.blockingbuffer.BlockingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmarks of the core {@link Pipeline}: records are written by an in-memory source into a
+ * {@link BlockingBuffer}, read by the process workers, passed through a processor and counted by an in-memory sink.
+ * With connectedPipelines greater than 0, the records additionally pass through that many downstream pipelines
+ * connected by {@link PipelineConnector}s.
+ * <p>
+ * Every invocation writes {@value #RECORDS_PER_INVOCATION} records and waits until the sink of the last pipeline has
+ * output them. {@link #throughput()} reports records per second, and {@link #latency()} reports the distribution of
+ * the time the records of an invocation take to pass through the pipelines, including its p99.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+public class PipelineBenchmarks {
+    private static final int RECORDS_PER_INVOCATION = 1024;
+
+    @Param(value = {"1", "4"})
+    private int workers;
+
+    @Param(value = {"8", "256"})
+    private int batchSize;
+
+    @Param(value = {"512", "4096"})
+    private int bufferCapacity;
+
+    @Param(value = {"0", "1"})
+    private int connectedPipelines;
+
+    @Param(value = "10")
+    private int delay;
+
+    private final List<Pipeline> pipelines = new ArrayList<>();
+    private List<Record<String>> records;
+    private BenchmarkSource source;
+    private CountingSink sink;
+    private long recordsWritten;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        records = new ArrayList<>(RECORDS_PER_INVOCATION);
+        for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+            records.add(new Record<>(UUID.randomUUID().toString()));
+        }
+
+        source = new BenchmarkSource();
+        sink = new CountingSink();
+        Source<Record<String>> pipelineSource = source;
+        for (int i = 0; i < connectedPipelines; i++) {
+            final String pipelineName = "pipeline-" + i;
+            final String connectedPipelineName = "pipeline-" + (i + 1);
+            final PipelineConnector<Record<String>> pipelineConnector = new PipelineConnector<>(pipelineName);
+            pipelineConnector.setSourcePipelineName(connectedPipelineName);
+            pipelines.add(createPipeline(pipelineName, pipelineSource, pipelineConnector));
+            pipelineSource = pipelineConnector;
+        }
+        pipelines.add(createPipeline("pipeline-" + connectedPipelines, pipelineSource, sink));
+
+        for (int i = pipelines.size() - 1; i >= 0; i--) {
+            pipelines.get(i).execute();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipelines.forEach(Pipeline::shutdown);
+        pipelines.clear();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public void throughput() throws InterruptedException {
+        writeAndAwaitRecords();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void latency() throws InterruptedException {
+        writeAndAwaitRecords();
+    }
+
+    private void writeAndAwaitRecords() throws InterruptedException {
+        source.write(records);
+        recordsWritten += records.size();
+        sink.awaitRecordsOutput(recordsWritten);
+    }
+
+    private Pipeline createPipeline(final String name, final Source<Record<String>> pipelineSource,
+                                    final Sink<Record<String>> pipelineSink) {
+        final List<List<Processor>> processorSets = Collections.singletonList(
+                Collections.<Processor>singletonList(new PassThroughProcessor()));
+        return new Pipeline(name, pipelineSource, new BlockingBuffer<Record<String>>(bufferCapacity, batchSize, name),
+                processorSets, Collections.<Sink>singletonList(pipelineSink), workers, delay);
+    }
+}
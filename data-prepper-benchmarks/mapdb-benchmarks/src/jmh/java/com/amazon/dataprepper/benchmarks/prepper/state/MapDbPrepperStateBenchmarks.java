@@ -12,7 +12,12 @@
 package com.amazon.dataprepper.benchmarks.prepper.state;
 
 import com.amazon.dataprepper.plugins.prepper.state.MapDbPrepperState;
+import com.amazon.dataprepper.plugins.prepper.state.OffHeapPrepperState;
+import com.amazon.dataprepper.plugins.prepper.state.RecordLayout;
+import com.amazon.dataprepper.plugins.prepper.state.StringDictionary;
+import com.amazon.dataprepper.plugins.prepper.state.ValueSerializer;
 import com.google.common.primitives.SignedBytes;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
@@ -23,8 +28,18 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -40,8 +55,27 @@ public class MapDbPrepperStateBenchmarks {
     private static final Random RANDOM = new Random();
     private static final String DB_PATH = "data/benchmark";
     private static final String DB_NAME = "benchmarkDb";
+    private static final String SPANS_DB_NAME = "benchmarkSpansDb";
+    private static final String JAVA_SERIALIZED_SPANS_DB_NAME = "benchmarkJavaSerializedSpansDb";
+    private static final String COMPACT_SERIALIZED_SPANS_DB_NAME = "benchmarkCompactSerializedSpansDb";
+    private static final int NUM_SERVICES = 20;
+    private static final int NUM_SPAN_NAMES = 200;
 
     private MapDbPrepperState<String> mapDbPrepperState;
+    private MapDbPrepperState<SpanState> mapDbSpanState;
+    private OffHeapPrepperState<SpanState> offHeapSpanState;
+    private MapDbPrepperState<SpanState> javaSerializedSpanState;
+    private MapDbPrepperState<SpanState> compactSerializedSpanState;
+    private List<Map<byte[], SpanState>> spanData = new ArrayList<Map<byte[], SpanState>>(){{
+        for(int i=0; i<NUM_BATCHES; i++) {
+            final TreeMap<byte[], SpanState> batch = new TreeMap<>(SignedBytes.lexicographicalComparator());
+            for(int j=0; j<BATCH_SIZE; j++) {
+                batch.put(getRandomBytes(), new SpanState(
+                        "service-" + RANDOM.nextInt(NUM_SERVICES), RANDOM.nextLong(), "span-" + RANDOM.nextInt(NUM_SPAN_NAMES)));
+            }
+            add(batch);
+        }
+    }};
     private List<Map<byte[], String>> data = new ArrayList<Map<byte[], String>>(){{
         for(int i=0; i<NUM_BATCHES; i++) {
             final TreeMap<byte[], String> batch = new TreeMap<>(SignedBytes.lexicographicalComparator());
@@ -67,12 +101,28 @@ public class MapDbPrepperStateBenchmarks {
             }
         }
         mapDbPrepperState = new MapDbPrepperState<>(new File(DB_PATH), DB_NAME, DEFAULT_CONCURRENCY);
-
+        mapDbSpanState = new MapDbPrepperState<>(new File(DB_PATH), SPANS_DB_NAME, DEFAULT_CONCURRENCY);
+        offHeapSpanState = new OffHeapPrepperState<>(new SpanStateLayout(), BATCH_SIZE, DEFAULT_CONCURRENCY);
+        javaSerializedSpanState = new MapDbPrepperState<>(
+                new File(DB_PATH), JAVA_SERIALIZED_SPANS_DB_NAME, DEFAULT_CONCURRENCY, new JavaSpanStateSerializer());
+        compactSerializedSpanState = new MapDbPrepperState<>(
+                new File(DB_PATH), COMPACT_SERIALIZED_SPANS_DB_NAME, DEFAULT_CONCURRENCY, new CompactSpanStateSerializer());
+        // the get benchmarks look up keys of the first batch, half of which are then found
+        spanData.get(0).entrySet().stream().limit(BATCH_SIZE / 2).forEach(entry -> {
+            mapDbSpanState.put(entry.getKey(), entry.getValue());
+            offHeapSpanState.put(entry.getKey(), entry.getValue());
+            javaSerializedSpanState.put(entry.getKey(), entry.getValue());
+            compactSerializedSpanState.put(entry.getKey(), entry.getValue());
+        });
     }
 
     @TearDown(Level.Iteration)
     public void teardown() {
         mapDbPrepperState.delete();
+        mapDbSpanState.delete();
+        offHeapSpanState.delete();
+        javaSerializedSpanState.delete();
+        compactSerializedSpanState.delete();
     }
 
     @Benchmark
@@ -84,5 +134,175 @@ public class MapDbPrepperStateBenchmarks {
         mapDbPrepperState.putAll(data.get(RANDOM.nextInt(NUM_BATCHES)));
     }
 
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 2)
+    @Measurement(iterations = 5)
+    public void benchmarkMapDbPutAllSpans() {
+        mapDbSpanState.putAll(spanData.get(RANDOM.nextInt(NUM_BATCHES)));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 2)
+    @Measurement(iterations = 5)
+    public void benchmarkOffHeapPutAllSpans() {
+        offHeapSpanState.putAll(spanData.get(RANDOM.nextInt(NUM_BATCHES)));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 2)
+    @Measurement(iterations = 5)
+    public void benchmarkMapDbGetSpans(final Blackhole blackhole) {
+        spanData.get(0).keySet().forEach(key -> blackhole.consume(mapDbSpanState.get(key)));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 2)
+    @Measurement(iterations = 5)
+    public void benchmarkOffHeapGetSpans(final Blackhole blackhole) {
+        spanData.get(0).keySet().forEach(key -> blackhole.consume(offHeapSpanState.get(key)));
+    }
+
+    /**
+     * Runs on one thread, so that the footprint reported is that of the single state filled by the benchmark.
+     */
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 1)
+    @Measurement(iterations = 5)
+    public void benchmarkJavaSerializedPutAllSpans(final Footprint footprint) {
+        javaSerializedSpanState.putAll(spanData.get(RANDOM.nextInt(NUM_BATCHES)));
+        footprint.record(javaSerializedSpanState);
+    }
+
+    /**
+     * Runs on one thread, so that the footprint reported is that of the single state filled by the benchmark.
+     */
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 1)
+    @Measurement(iterations = 5)
+    public void benchmarkCompactSerializedPutAllSpans(final Footprint footprint) {
+        compactSerializedSpanState.putAll(spanData.get(RANDOM.nextInt(NUM_BATCHES)));
+        footprint.record(compactSerializedSpanState);
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 2)
+    @Measurement(iterations = 5)
+    public void benchmarkJavaSerializedGetSpans(final Blackhole blackhole) {
+        spanData.get(0).keySet().forEach(key -> blackhole.consume(javaSerializedSpanState.get(key)));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @Warmup(iterations = 3)
+    @Threads(value = 2)
+    @Measurement(iterations = 5)
+    public void benchmarkCompactSerializedGetSpans(final Blackhole blackhole) {
+        spanData.get(0).keySet().forEach(key -> blackhole.consume(compactSerializedSpanState.get(key)));
+    }
+
+    /**
+     * Reports the bytes the serialized state takes per span at the end of each iteration, next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerSpan;
+
+        void record(final MapDbPrepperState<SpanState> prepperState) {
+            bytesPerSpan = prepperState.sizeInBytes() / Math.max(1, prepperState.size());
+        }
+    }
+
+    /**
+     * Span data shaped like the service map state: low cardinality service and span names, and a parent span ID.
+     */
+    public static class SpanState implements Serializable {
+        public String serviceName;
+        public long parentSpanId;
+        public String name;
 
+        public SpanState(final String serviceName, final long parentSpanId, final String name) {
+            this.serviceName = serviceName;
+            this.parentSpanId = parentSpanId;
+            this.name = name;
+        }
+    }
+
+    private static class SpanStateLayout implements RecordLayout<SpanState> {
+        @Override
+        public int getRecordSize() {
+            return Integer.BYTES + Long.BYTES + Integer.BYTES;
+        }
+
+        @Override
+        public void write(final SpanState value, final ByteBuffer buffer, final int offset, final StringDictionary dictionary) {
+            buffer.putInt(offset, dictionary.intern(value.serviceName));
+            buffer.putLong(offset + Integer.BYTES, value.parentSpanId);
+            buffer.putInt(offset + Integer.BYTES + Long.BYTES, dictionary.intern(value.name));
+        }
+
+        @Override
+        public SpanState read(final ByteBuffer buffer, final int offset, final StringDictionary dictionary) {
+            return new SpanState(dictionary.get(buffer.getInt(offset)), buffer.getLong(offset + Integer.BYTES),
+                    dictionary.get(buffer.getInt(offset + Integer.BYTES + Long.BYTES)));
+        }
+    }
+
+    /**
+     * Writes the span with Java serialization, as MapDB does by default, prefixed with its length.
+     */
+    private static class JavaSpanStateSerializer implements ValueSerializer<SpanState> {
+        @Override
+        public void serialize(final DataOutput out, final SpanState value, final StringDictionary dictionary) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                objectOut.writeObject(value);
+            }
+            ValueSerializer.writeVarInt(out, bytes.size());
+            out.write(bytes.toByteArray());
+        }
+
+        @Override
+        public SpanState deserialize(final DataInput in, final StringDictionary dictionary) throws IOException {
+            final byte[] bytes = new byte[ValueSerializer.readVarInt(in)];
+            in.readFully(bytes);
+            try (final ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (SpanState) objectIn.readObject();
+            } catch (final ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the service name as a varint dictionary ID and the span name as a varint-length string.
+     */
+    private static class CompactSpanStateSerializer implements ValueSerializer<SpanState> {
+        @Override
+        public void serialize(final DataOutput out, final SpanState value, final StringDictionary dictionary) throws IOException {
+            ValueSerializer.writeVarInt(out, dictionary.intern(value.serviceName) - StringDictionary.NULL_ID);
+            out.writeLong(value.parentSpanId);
+            ValueSerializer.writeString(out, value.name);
+        }
+
+        @Override
+        public SpanState deserialize(final DataInput in, final StringDictionary dictionary) throws IOException {
+            return new SpanState(dictionary.get(ValueSerializer.readVarInt(in) + StringDictionary.NULL_ID), in.readLong(),
+                    ValueSerializer.readString(in));
+        }
+    }
 }
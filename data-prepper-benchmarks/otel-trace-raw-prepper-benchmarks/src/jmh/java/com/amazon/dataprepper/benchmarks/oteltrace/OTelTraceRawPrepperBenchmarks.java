@@ -0,0 +1,194 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.oteltrace;
+
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.OTelTraceRawPrepper;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.OTelProtoHelper;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpan;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpanBuilder;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.SharedAttributes;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.TraceGroup;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OTelTraceRawPrepper} as a whole and each stage of its span conversion on its own:
+ * <ul>
+ *     <li>{@link #doExecute()} - the whole prepper, from export requests to JSON records</li>
+ *     <li>{@link #setFromSpan(Blackhole)} - building a {@link RawSpan} from a span, including its attributes, events
+ *     and links</li>
+ *     <li>{@link #attributes(Blackhole)} - flattening the resource, span, instrumentation library, status, event and
+ *     link attributes with {@link OTelProtoHelper}</li>
+ *     <li>{@link #toJson(Blackhole)} - serializing a {@link RawSpan}</li>
+ * </ul>
+ * Every invocation covers {@value #SPANS_PER_BATCH} spans, so the average time is reported in nanoseconds per span.
+ * Run with the gc profiler (the default for this module) and gc.alloc.rate.norm is the allocation in bytes per span.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OTelTraceRawPrepperBenchmarks {
+    private static final int SPANS_PER_BATCH = 1000;
+    private static final long SEED = 42L;
+
+    @Param(value = {"SMALL", "MEDIUM", "LARGE"})
+    private SpanShape spanShape;
+
+    /**
+     * The number of spans per trace, one of which is the root span. 1 means every span is a root span.
+     */
+    @Param(value = {"1", "10"})
+    private int spansPerTrace;
+
+    private OTelTraceRawPrepper oTelTraceRawPrepper;
+    private List<Record<ExportTraceServiceRequest>> batch;
+    private List<SpanEntry> spanEntries;
+    private List<RawSpan> rawSpans;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final PluginSetting pluginSetting = new PluginSetting("otel_trace_raw_prepper", Collections.emptyMap());
+        pluginSetting.setPipelineName("benchmark");
+        pluginSetting.setProcessWorkers(1);
+        oTelTraceRawPrepper = new OTelTraceRawPrepper(pluginSetting);
+
+        final List<ExportTraceServiceRequest> requests = new TracePayloadGenerator(spanShape, SEED)
+                .generate(SPANS_PER_BATCH / spansPerTrace, spansPerTrace);
+        batch = new ArrayList<>(requests.size());
+        spanEntries = new ArrayList<>(SPANS_PER_BATCH);
+        rawSpans = new ArrayList<>(SPANS_PER_BATCH);
+        for (final ExportTraceServiceRequest request : requests) {
+            batch.add(new Record<>(request));
+            for (final ResourceSpans resourceSpans : request.getResourceSpansList()) {
+                final String serviceName = OTelProtoHelper.getServiceName(resourceSpans.getResource()).orElse(null);
+                final SharedAttributes resourceAttributes = SharedAttributes.of(
+                        OTelProtoHelper.getResourceAttributes(resourceSpans.getResource()));
+                for (final InstrumentationLibrarySpans instrumentationLibrarySpans :
+                        resourceSpans.getInstrumentationLibrarySpansList()) {
+                    final SharedAttributes instrumentationLibraryAttributes = SharedAttributes.of(
+                            OTelProtoHelper.getInstrumentationLibraryAttributes(
+                                    instrumentationLibrarySpans.getInstrumentationLibrary()));
+                    TraceGroup traceGroup = null;
+                    for (final Span span : instrumentationLibrarySpans.getSpansList()) {
+                        final SpanEntry spanEntry = new SpanEntry(span, instrumentationLibraryAttributes, serviceName,
+                                resourceAttributes);
+                        spanEntries.add(spanEntry);
+                        final RawSpan rawSpan = spanEntry.toRawSpan();
+                        if (traceGroup == null) {
+                            traceGroup = rawSpan.getTraceGroup();
+                        } else {
+                            rawSpan.setTraceGroup(traceGroup);
+                        }
+                        rawSpans.add(rawSpan);
+                    }
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        oTelTraceRawPrepper.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPANS_PER_BATCH)
+    public Collection<Record<String>> doExecute() {
+        return oTelTraceRawPrepper.doExecute(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPANS_PER_BATCH)
+    public void setFromSpan(final Blackhole blackhole) {
+        for (final SpanEntry spanEntry : spanEntries) {
+            blackhole.consume(spanEntry.toRawSpan());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPANS_PER_BATCH)
+    public void attributes(final Blackhole blackhole) {
+        for (final Record<ExportTraceServiceRequest> record : batch) {
+            for (final ResourceSpans resourceSpans : record.getData().getResourceSpansList()) {
+                blackhole.consume(OTelProtoHelper.getResourceAttributes(resourceSpans.getResource()));
+                for (final InstrumentationLibrarySpans instrumentationLibrarySpans :
+                        resourceSpans.getInstrumentationLibrarySpansList()) {
+                    for (final Span span : instrumentationLibrarySpans.getSpansList()) {
+                        blackhole.consume(OTelProtoHelper.getSpanAttributes(span));
+                        blackhole.consume(OTelProtoHelper.getInstrumentationLibraryAttributes(
+                                instrumentationLibrarySpans.getInstrumentationLibrary()));
+                        blackhole.consume(OTelProtoHelper.getSpanStatusAttributes(span.getStatus()));
+                        for (final Span.Event event : span.getEventsList()) {
+                            blackhole.consume(OTelProtoHelper.getEventAttributes(event));
+                        }
+                        for (final Span.Link link : span.getLinksList()) {
+                            blackhole.consume(OTelProtoHelper.getLinkAttributes(link));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPANS_PER_BATCH)
+    public void toJson(final Blackhole blackhole) throws JsonProcessingException {
+        for (final RawSpan rawSpan : rawSpans) {
+            blackhole.consume(rawSpan.toJson());
+        }
+    }
+
+    /**
+     * A span along with the values {@link OTelTraceRawPrepper} derives once per resource and instrumentation library.
+     */
+    private static final class SpanEntry {
+        private final Span span;
+        private final SharedAttributes instrumentationLibraryAttributes;
+        private final String serviceName;
+        private final SharedAttributes resourceAttributes;
+
+        private SpanEntry(final Span span, final SharedAttributes instrumentationLibraryAttributes,
+                          final String serviceName, final SharedAttributes resourceAttributes) {
+            this.span = span;
+            this.instrumentationLibraryAttributes = instrumentationLibraryAttributes;
+            this.serviceName = serviceName;
+            this.resourceAttributes = resourceAttributes;
+        }
+
+        private RawSpan toRawSpan() {
+            return new RawSpanBuilder()
+                    .setFromSpan(span, instrumentationLibraryAttributes, serviceName, resourceAttributes)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.oteltrace;
+
+/**
+ * The size of the spans and resources of a generated payload, ranging from bare auto-instrumented spans to heavily
+ * annotated ones.
+ */
+public enum SpanShape {
+    SMALL(4, 2, 0, 0, 0),
+    MEDIUM(12, 6, 2, 1, 3),
+    LARGE(32, 12, 8, 4, 6);
+
+    private final int spanAttributes;
+    private final int resourceAttributes;
+    private final int events;
+    private final int links;
+    private final int attributesPerEventOrLink;
+
+    SpanShape(final int spanAttributes, final int resourceAttributes, final int events, final int links,
+              final int attributesPerEventOrLink) {
+        this.spanAttributes = spanAttributes;
+        this.resourceAttributes = resourceAttributes;
+        this.events = events;
+        this.links = links;
+        this.attributesPerEventOrLink = attributesPerEventOrLink;
+    }
+
+    int getSpanAttributes() {
+        return spanAttributes;
+    }
+
+    int getResourceAttributes() {
+        return resourceAttributes;
+    }
+
+    int getEvents() {
+        return events;
+    }
+
+    int getLinks() {
+        return links;
+    }
+
+    int getAttributesPerEventOrLink() {
+        return attributesPerEventOrLink;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.oteltrace;
+
+import com.google.protobuf.ByteString;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.ArrayValue;
+import io.opentelemetry.proto.common.v1.InstrumentationLibrary;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.proto.trace.v1.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible OTLP export requests. Every request holds one trace of a single service, root span first, so
+ * that the children of a trace find its trace group when processed in the same batch. Attribute keys contain dots and
+ * the values cycle through strings, integers, doubles and booleans, with every eighth value an array.
+ */
+final class TracePayloadGenerator {
+    private static final String[] SERVICE_NAMES = {"frontend", "checkout", "cart", "payment", "inventory"};
+    private static final String[] OPERATION_NAMES = {"GET /checkout", "POST /cart", "SELECT orders", "charge", "reserve"};
+    private static final Span.SpanKind[] SPAN_KINDS = {Span.SpanKind.SPAN_KIND_SERVER, Span.SpanKind.SPAN_KIND_CLIENT,
+            Span.SpanKind.SPAN_KIND_INTERNAL};
+    private static final InstrumentationLibrary INSTRUMENTATION_LIBRARY = InstrumentationLibrary.newBuilder()
+            .setName("io.opentelemetry.auto.http")
+            .setVersion("1.0.0")
+            .build();
+
+    private final SpanShape spanShape;
+    private final Random random;
+
+    TracePayloadGenerator(final SpanShape spanShape, final long seed) {
+        this.spanShape = spanShape;
+        this.random = new Random(seed);
+    }
+
+    List<ExportTraceServiceRequest> generate(final int traces, final int spansPerTrace) {
+        final List<ExportTraceServiceRequest> requests = new ArrayList<>(traces);
+        for (int i = 0; i < traces; i++) {
+            requests.add(generateTrace(SERVICE_NAMES[i % SERVICE_NAMES.length], spansPerTrace));
+        }
+        return requests;
+    }
+
+    private ExportTraceServiceRequest generateTrace(final String serviceName, final int spansPerTrace) {
+        final Resource.Builder resource = Resource.newBuilder().addAttributes(stringAttribute("service.name", serviceName));
+        for (int i = 1; i < spanShape.getResourceAttributes(); i++) {
+            resource.addAttributes(attribute("resource.attribute." + i, i));
+        }
+
+        final ByteString traceId = randomBytes(16);
+        final ByteString rootSpanId = randomBytes(8);
+        final InstrumentationLibrarySpans.Builder spans = InstrumentationLibrarySpans.newBuilder()
+                .setInstrumentationLibrary(INSTRUMENTATION_LIBRARY)
+                .addSpans(generateSpan(traceId, rootSpanId, ByteString.EMPTY, 0));
+        for (int i = 1; i < spansPerTrace; i++) {
+            spans.addSpans(generateSpan(traceId, randomBytes(8), rootSpanId, i));
+        }
+
+        return ExportTraceServiceRequest.newBuilder()
+                .addResourceSpans(ResourceSpans.newBuilder()
+                        .setResource(resource)
+                        .addInstrumentationLibrarySpans(spans))
+                .build();
+    }
+
+    private Span generateSpan(final ByteString traceId, final ByteString spanId, final ByteString parentSpanId,
+                              final int index) {
+        final long startTimeNanos = 1_600_000_000_000_000_000L + random.nextInt(1_000_000_000);
+        final long endTimeNanos = startTimeNanos + random.nextInt(100_000_000);
+        final Span.Builder span = Span.newBuilder()
+                .setTraceId(traceId)
+                .setSpanId(spanId)
+                .setParentSpanId(parentSpanId)
+                .setName(OPERATION_NAMES[index % OPERATION_NAMES.length])
+                .setKind(SPAN_KINDS[index % SPAN_KINDS.length])
+                .setStartTimeUnixNano(startTimeNanos)
+                .setEndTimeUnixNano(endTimeNanos)
+                .setStatus(Status.newBuilder().setCodeValue(index % 3));
+        for (int i = 0; i < spanShape.getSpanAttributes(); i++) {
+            span.addAttributes(attribute("span.attribute." + i, i));
+        }
+        for (int i = 0; i < spanShape.getEvents(); i++) {
+            final Span.Event.Builder event = Span.Event.newBuilder()
+                    .setName("event-" + i)
+                    .setTimeUnixNano(startTimeNanos + i);
+            for (int j = 0; j < spanShape.getAttributesPerEventOrLink(); j++) {
+                event.addAttributes(attribute("event.attribute." + j, j));
+            }
+            span.addEvents(event);
+        }
+        for (int i = 0; i < spanShape.getLinks(); i++) {
+            final Span.Link.Builder link = Span.Link.newBuilder()
+                    .setTraceId(randomBytes(16))
+                    .setSpanId(randomBytes(8));
+            for (int j = 0; j < spanShape.getAttributesPerEventOrLink(); j++) {
+                link.addAttributes(attribute("link.attribute." + j, j));
+            }
+            span.addLinks(link);
+        }
+        return span.build();
+    }
+
+    private KeyValue attribute(final String key, final int index) {
+        final AnyValue.Builder value = AnyValue.newBuilder();
+        if (index % 8 == 7) {
+            value.setArrayValue(ArrayValue.newBuilder()
+                    .addValues(AnyValue.newBuilder().setStringValue("first"))
+                    .addValues(AnyValue.newBuilder().setIntValue(random.nextInt())));
+        } else {
+            switch (index % 4) {
+                case 0:
+                    value.setStringValue("value-" + random.nextInt(1_000));
+                    break;
+                case 1:
+                    value.setIntValue(random.nextInt());
+                    break;
+                case 2:
+                    value.setDoubleValue(random.nextDouble());
+                    break;
+                default:
+                    value.setBoolValue(random.nextBoolean());
+            }
+        }
+        return KeyValue.newBuilder().setKey(key).setValue(value).build();
+    }
+
+    private static KeyValue stringAttribute(final String key, final String value) {
+        return KeyValue.newBuilder().setKey(key).setValue(AnyValue.newBuilder().setStringValue(value)).build();
+    }
+
+    private ByteString randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return ByteString.copyFrom(bytes);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.prepper;
+
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.event.Event;
+import com.amazon.dataprepper.model.event.JacksonEvent;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.grok.GrokPrepper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the allocations of {@link GrokPrepper} per record. Run with the gc profiler (the default for this module)
+ * and compare gc.alloc.rate.norm, which JMH reports per operation, i.e. per record. The match timeout is disabled so
+ * that the executor used to enforce it does not dominate the allocations, and the captured keys are overwritten so
+ * that the reused events do not grow between invocations.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+public class GrokPrepperAllocationBenchmarks {
+    private static final int BATCH_SIZE = 1000;
+
+    private GrokPrepper grokPrepper;
+    private List<Record<Event>> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Map<String, Object> settings = new HashMap<>();
+        settings.put("match", Collections.singletonMap("message",
+                Collections.singletonList("%{IPORHOST:clientip} %{WORD:verb} %{URIPATHPARAM:request}")));
+        settings.put("keys_to_overwrite", Arrays.asList("clientip", "verb", "request"));
+        settings.put("timeout_millis", 0);
+        final PluginSetting pluginSetting = new PluginSetting("grok", settings);
+        pluginSetting.setPipelineName("benchmark");
+        grokPrepper = new GrokPrepper(pluginSetting);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new Record<>(JacksonEvent.builder()
+                    .withEventType("event")
+                    .withData(Collections.singletonMap("message", "127.0.0.1 GET /checkout?item=" + i))
+                    .build()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        grokPrepper.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Collection<Record<Event>> execute() {
+        return grokPrepper.execute(batch);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.benchmarks.prepper;
+
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.OTelTraceRawPrepper;
+import com.google.protobuf.ByteString;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the allocations of {@link OTelTraceRawPrepper} per span. Run with the gc profiler (the default for this
+ * module) and compare gc.alloc.rate.norm, which JMH reports per operation, i.e. per span.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+public class OTelTraceRawPrepperAllocationBenchmarks {
+    private static final int TRACES_PER_BATCH = 100;
+    private static final int SPANS_PER_TRACE = 10;
+    private static final int SPANS_PER_BATCH = TRACES_PER_BATCH * SPANS_PER_TRACE;
+    private static final Random RANDOM = new Random();
+
+    private OTelTraceRawPrepper oTelTraceRawPrepper;
+    private List<Record<ExportTraceServiceRequest>> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final PluginSetting pluginSetting = new PluginSetting("otel_trace_raw_prepper", Collections.emptyMap());
+        pluginSetting.setPipelineName("benchmark");
+        pluginSetting.setProcessWorkers(1);
+        oTelTraceRawPrepper = new OTelTraceRawPrepper(pluginSetting);
+        batch = new ArrayList<>(TRACES_PER_BATCH);
+        for (int i = 0; i < TRACES_PER_BATCH; i++) {
+            batch.add(new Record<>(createTrace()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPANS_PER_BATCH)
+    public Collection<Record<String>> execute() {
+        return oTelTraceRawPrepper.execute(batch);
+    }
+
+    /**
+     * Creates a request holding a whole trace, root span first, so that every span is output within the batch.
+     */
+    private static ExportTraceServiceRequest createTrace() {
+        final ByteString traceId = randomBytes(16);
+        final ByteString rootSpanId = randomBytes(8);
+        final InstrumentationLibrarySpans.Builder spans = InstrumentationLibrarySpans.newBuilder()
+                .addSpans(createSpan(traceId, rootSpanId, ByteString.EMPTY));
+        for (int i = 1; i < SPANS_PER_TRACE; i++) {
+            spans.addSpans(createSpan(traceId, randomBytes(8), rootSpanId));
+        }
+        return ExportTraceServiceRequest.newBuilder()
+                .addResourceSpans(ResourceSpans.newBuilder()
+                        .setResource(Resource.newBuilder()
+                                .addAttributes(KeyValue.newBuilder()
+                                        .setKey("service.name")
+                                        .setValue(AnyValue.newBuilder().setStringValue("FRONTEND")))
+                                .build())
+                        .addInstrumentationLibrarySpans(spans))
+                .build();
+    }
+
+    private static Span createSpan(final ByteString traceId, final ByteString spanId, final ByteString parentSpanId) {
+        final long startTimeNanos = System.currentTimeMillis() * 1_000_000;
+        return Span.newBuilder()
+                .setTraceId(traceId)
+                .setSpanId(spanId)
+                .setParentSpanId(parentSpanId)
+                .setName("GET /checkout")
+                .setKind(Span.SpanKind.SPAN_KIND_SERVER)
+                .setStartTimeUnixNano(startTimeNanos)
+                .setEndTimeUnixNano(startTimeNanos + 1_000_000)
+                .build();
+    }
+
+    private static ByteString randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return ByteString.copyFrom(bytes);
+    }
+}
@@ -14,7 +14,9 @@ import com.amazon.dataprepper.model.prepper.Prepper;
 import com.amazon.dataprepper.model.processor.Processor;
 import com.amazon.dataprepper.model.sink.Sink;
 import com.amazon.dataprepper.model.source.Source;
+import com.amazon.dataprepper.parser.model.AdaptiveBatchingConfiguration;
 import com.amazon.dataprepper.parser.model.PipelineConfiguration;
+import com.amazon.dataprepper.pipeline.AdaptiveBatchController;
 import com.amazon.dataprepper.pipeline.Pipeline;
 import com.amazon.dataprepper.pipeline.PipelineConnector;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -100,13 +102,24 @@ public class PipelineParser {
                     .map(this::newProcessor)
                     .collect(Collectors.toList());
             final int readBatchDelay = pipelineConfiguration.getReadBatchDelay();
+            final int maxInFlightSinkBatches = pipelineConfiguration.getMaxInFlightSinkBatches();
 
             LOG.info("Building sinks for the pipeline [{}]", pipelineName);
             final List<Sink> sinks = pipelineConfiguration.getSinkPluginSettings().stream()
                     .map(this::buildSinkOrConnector)
                     .collect(Collectors.toList());
 
-            final Pipeline pipeline = new Pipeline(pipelineName, source, buffer, processorSets, sinks, processorThreads, readBatchDelay);
+            final int sinkThreads = pipelineConfiguration.getSinkThreads();
+            final Integer sinkMaxInFlightBatches = pipelineConfiguration.getSinkMaxInFlightBatches();
+            final AdaptiveBatchingConfiguration adaptiveBatching = pipelineConfiguration.getAdaptiveBatching();
+            final AdaptiveBatchController adaptiveBatchController = adaptiveBatching == null ? null :
+                    new AdaptiveBatchController(pipelineName, adaptiveBatching.getMinBatchSize(),
+                            adaptiveBatching.getMaxBatchSize(), adaptiveBatching.getMinDelay(),
+                            adaptiveBatching.getMaxDelay(readBatchDelay));
+            final Pipeline pipeline = new Pipeline(pipelineName, source, buffer, processorSets, sinks, processorThreads, readBatchDelay,
+                    maxInFlightSinkBatches, sinkThreads,
+                    sinkMaxInFlightBatches == null ? (int) Math.min(Integer.MAX_VALUE, (long) processorThreads * maxInFlightSinkBatches)
+                            : sinkMaxInFlightBatches, adaptiveBatchController);
             pipelineMap.put(pipelineName, pipeline);
         } catch (Exception ex) {
             //If pipeline construction errors out, we will skip that pipeline and proceed
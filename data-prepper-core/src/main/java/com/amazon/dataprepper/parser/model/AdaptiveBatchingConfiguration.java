@@ -0,0 +1,89 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.parser.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import static java.lang.String.format;
+
+/**
+ * Class to hold the adaptive_batching configuration of a pipeline, which bounds the batch size and read delay the
+ * process workers may choose from.
+ */
+public class AdaptiveBatchingConfiguration {
+    private static final String MIN_BATCH_SIZE_COMPONENT = "min_batch_size";
+    private static final String MAX_BATCH_SIZE_COMPONENT = "max_batch_size";
+    private static final String MIN_DELAY_COMPONENT = "min_delay";
+    private static final String MAX_DELAY_COMPONENT = "max_delay";
+    private static final int DEFAULT_MIN_BATCH_SIZE = 8;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 512;
+    private static final int DEFAULT_MIN_DELAY = 10;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int minDelay;
+    private final Integer maxDelay;
+
+    /**
+     * @param minBatchSize Deserialized min_batch_size configuration, nullable
+     * @param maxBatchSize Deserialized max_batch_size configuration, nullable
+     * @param minDelay Deserialized min_delay configuration, nullable
+     * @param maxDelay Deserialized max_delay configuration, nullable
+     */
+    @JsonCreator
+    public AdaptiveBatchingConfiguration(
+            @JsonProperty("min_batch_size") final Integer minBatchSize,
+            @JsonProperty("max_batch_size") final Integer maxBatchSize,
+            @JsonProperty("min_delay") final Integer minDelay,
+            @JsonProperty("max_delay") final Integer maxDelay) {
+        this.minBatchSize = getValueOrDefault(minBatchSize, DEFAULT_MIN_BATCH_SIZE, MIN_BATCH_SIZE_COMPONENT);
+        this.maxBatchSize = getValueOrDefault(maxBatchSize, Math.max(DEFAULT_MAX_BATCH_SIZE, this.minBatchSize),
+                MAX_BATCH_SIZE_COMPONENT);
+        this.minDelay = getValueOrDefault(minDelay, DEFAULT_MIN_DELAY, MIN_DELAY_COMPONENT);
+        this.maxDelay = getValueOrDefault(maxDelay, null, MAX_DELAY_COMPONENT);
+        if (this.minBatchSize > this.maxBatchSize) {
+            throw new IllegalArgumentException(format("Invalid configuration, %s cannot be greater than %s",
+                    MIN_BATCH_SIZE_COMPONENT, MAX_BATCH_SIZE_COMPONENT));
+        }
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public int getMinDelay() {
+        return minDelay;
+    }
+
+    /**
+     * @param pipelineDelay the delay of the pipeline
+     * @return the configured max_delay, or the delay of the pipeline if none is configured
+     */
+    public int getMaxDelay(final int pipelineDelay) {
+        final int resolvedMaxDelay = maxDelay == null ? pipelineDelay : maxDelay;
+        if (minDelay > resolvedMaxDelay) {
+            throw new IllegalArgumentException(format("Invalid configuration, %s cannot be greater than %s",
+                    MIN_DELAY_COMPONENT, MAX_DELAY_COMPONENT));
+        }
+        return resolvedMaxDelay;
+    }
+
+    private static Integer getValueOrDefault(final Integer configuration, final Integer defaultValue, final String component) {
+        if (configuration == null) {
+            return defaultValue;
+        }
+        if (configuration <= 0) {
+            throw new IllegalArgumentException(format("Invalid configuration, %s cannot be %s",
+                    component, configuration));
+        }
+        return configuration;
+    }
+}
@@ -53,8 +53,12 @@ public class PipelineConfiguration {
 
     private static final String WORKERS_COMPONENT = "workers";
     private static final String DELAY_COMPONENT = "delay";
+    private static final String MAX_IN_FLIGHT_SINK_BATCHES_COMPONENT = "max_in_flight_sink_batches";
+    private static final String SINK_THREADS_COMPONENT = "sink_threads";
+    private static final String SINK_MAX_IN_FLIGHT_BATCHES_COMPONENT = "sink_max_in_flight_batches";
     private static final int DEFAULT_READ_BATCH_DELAY = 3_000;
     private static final int DEFAULT_WORKERS = 1;
+    private static final int DEFAULT_MAX_IN_FLIGHT_SINK_BATCHES = 1;
 
     private final PluginSetting sourcePluginSetting;
     private final PluginSetting bufferPluginSetting;
@@ -62,6 +66,10 @@ public class PipelineConfiguration {
     private final List<PluginSetting> sinkPluginSettings;
     private final Integer workers;
     private final Integer readBatchDelay;
+    private final Integer maxInFlightSinkBatches;
+    private final Integer sinkThreads;
+    private final Integer sinkMaxInFlightBatches;
+    private final AdaptiveBatchingConfiguration adaptiveBatching;
 
     public PipelineConfiguration(
             final Map.Entry<String, Map<String, Object>> source,
@@ -70,12 +78,34 @@ public class PipelineConfiguration {
             final List<Map.Entry<String, Map<String, Object>>> sinks,
             final Integer workers,
             final Integer delay) {
+        this(source, buffer, processors, sinks, workers, delay, null, null, null, null);
+    }
+
+    public PipelineConfiguration(
+            final Map.Entry<String, Map<String, Object>> source,
+            final Map.Entry<String, Map<String, Object>> buffer,
+            final List<Map.Entry<String, Map<String, Object>>> processors,
+            final List<Map.Entry<String, Map<String, Object>>> sinks,
+            final Integer workers,
+            final Integer delay,
+            final Integer maxInFlightSinkBatches,
+            final Integer sinkThreads,
+            final Integer sinkMaxInFlightBatches,
+            final AdaptiveBatchingConfiguration adaptiveBatching) {
         this.sourcePluginSetting = getSourceFromConfiguration(source);
         this.bufferPluginSetting = getBufferFromConfigurationOrDefault(buffer);
         this.processorPluginSettings = getProcessorsFromConfiguration(processors);
         this.sinkPluginSettings = getSinksFromConfiguration(sinks);
         this.workers = getWorkersFromConfiguration(workers);
         this.readBatchDelay = getReadBatchDelayFromConfiguration(delay);
+        this.maxInFlightSinkBatches = getMaxInFlightSinkBatchesFromConfiguration(maxInFlightSinkBatches);
+        this.sinkThreads = getSinkThreadsFromConfiguration(sinkThreads);
+        this.sinkMaxInFlightBatches = getValueFromConfiguration(sinkMaxInFlightBatches, SINK_MAX_IN_FLIGHT_BATCHES_COMPONENT);
+        this.adaptiveBatching = adaptiveBatching;
+        if (adaptiveBatching != null) {
+            // fails fast if min_delay exceeds max_delay, which defaults to delay
+            adaptiveBatching.getMaxDelay(readBatchDelay);
+        }
     }
 
     /**
@@ -88,6 +118,10 @@ public class PipelineConfiguration {
      * @param sinks Deserialized sinks plugin configuration
      * @param workers Deserialized workers plugin configuration, nullable
      * @param delay Deserialized delay plugin configuration, nullable
+     * @param maxInFlightSinkBatches Deserialized max_in_flight_sink_batches configuration, nullable
+     * @param sinkThreads Deserialized sink_threads configuration, nullable
+     * @param sinkMaxInFlightBatches Deserialized sink_max_in_flight_batches configuration, nullable
+     * @param adaptiveBatching Deserialized adaptive_batching configuration, nullable
      */
     @JsonCreator
     @Deprecated
@@ -98,8 +132,25 @@ public class PipelineConfiguration {
             @JsonProperty("processor") final List<Map.Entry<String, Map<String, Object>>> processors,
             @JsonProperty("sink") final List<Map.Entry<String, Map<String, Object>>> sinks,
             @JsonProperty("workers") final Integer workers,
-            @JsonProperty("delay") final Integer delay) {
-        this(source, buffer, validateProcessor(preppers, processors), sinks, workers, delay);
+            @JsonProperty("delay") final Integer delay,
+            @JsonProperty("max_in_flight_sink_batches") final Integer maxInFlightSinkBatches,
+            @JsonProperty("sink_threads") final Integer sinkThreads,
+            @JsonProperty("sink_max_in_flight_batches") final Integer sinkMaxInFlightBatches,
+            @JsonProperty("adaptive_batching") final AdaptiveBatchingConfiguration adaptiveBatching) {
+        this(source, buffer, validateProcessor(preppers, processors), sinks, workers, delay, maxInFlightSinkBatches,
+                sinkThreads, sinkMaxInFlightBatches, adaptiveBatching);
+    }
+
+    @Deprecated
+    public PipelineConfiguration(
+            final Map.Entry<String, Map<String, Object>> source,
+            final Map.Entry<String, Map<String, Object>> buffer,
+            final List<Map.Entry<String, Map<String, Object>>> preppers,
+            final List<Map.Entry<String, Map<String, Object>>> processors,
+            final List<Map.Entry<String, Map<String, Object>>> sinks,
+            final Integer workers,
+            final Integer delay) {
+        this(source, buffer, preppers, processors, sinks, workers, delay, null, null, null, null);
     }
 
     public PluginSetting getSourcePluginSetting() {
@@ -126,6 +177,32 @@ public class PipelineConfiguration {
         return readBatchDelay;
     }
 
+    public Integer getMaxInFlightSinkBatches() {
+        return maxInFlightSinkBatches;
+    }
+
+    /**
+     * @return the number of threads of each sink, which defaults to the number of workers
+     */
+    public Integer getSinkThreads() {
+        return sinkThreads;
+    }
+
+    /**
+     * @return the number of batches each sink accepts before blocking the workers, or null if unbounded
+     */
+    public Integer getSinkMaxInFlightBatches() {
+        return sinkMaxInFlightBatches;
+    }
+
+    /**
+     * @return the bounds of the adaptive batch size and read delay, or null if batches are read with the buffer's
+     * batch size and the fixed delay
+     */
+    public AdaptiveBatchingConfiguration getAdaptiveBatching() {
+        return adaptiveBatching;
+    }
+
     public void updateCommonPipelineConfiguration(final String pipelineName) {
         updatePluginSetting(sourcePluginSetting, pipelineName);
         updatePluginSetting(bufferPluginSetting, pipelineName);
@@ -192,6 +269,17 @@ public class PipelineConfiguration {
         return configuredDelay == null ? DEFAULT_READ_BATCH_DELAY : configuredDelay;
     }
 
+    private Integer getMaxInFlightSinkBatchesFromConfiguration(final Integer maxInFlightSinkBatchesConfiguration) {
+        final Integer configuredMaxInFlightSinkBatches = getValueFromConfiguration(
+                maxInFlightSinkBatchesConfiguration, MAX_IN_FLIGHT_SINK_BATCHES_COMPONENT);
+        return configuredMaxInFlightSinkBatches == null ? DEFAULT_MAX_IN_FLIGHT_SINK_BATCHES : configuredMaxInFlightSinkBatches;
+    }
+
+    private Integer getSinkThreadsFromConfiguration(final Integer sinkThreadsConfiguration) {
+        final Integer configuredSinkThreads = getValueFromConfiguration(sinkThreadsConfiguration, SINK_THREADS_COMPONENT);
+        return configuredSinkThreads == null ? workers : configuredSinkThreads;
+    }
+
     private Integer getValueFromConfiguration(final Integer configuration, final String component) {
         if (configuration != null && configuration <= 0) {
             throw new IllegalArgumentException(format("Invalid configuration, %s cannot be %s",
@@ -0,0 +1,133 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.pipeline;
+
+import com.amazon.dataprepper.metrics.PluginMetrics;
+import com.google.common.base.Preconditions;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the batch size and read timeout the {@link ProcessWorker}s of a {@link Pipeline} use when reading from the
+ * buffer, within configured bounds. Each read is reported back to the controller:
+ * <ul>
+ *     <li>A full batch means the buffer holds a backlog, so the batch size doubles and the read timeout halves.</li>
+ *     <li>A partial batch means the buffer was drained, so the batch size shrinks towards the number of records read
+ *     and the read timeout follows the time batches take to be processed and output by the sinks. Waiting that long
+ *     for records costs no throughput while the previous batch is still being written.</li>
+ *     <li>An empty batch doubles the read timeout, so that an idle pipeline polls the buffer less often.</li>
+ * </ul>
+ * The controller is shared by all workers of the pipeline and exports its decisions as gauges.
+ */
+public class AdaptiveBatchController {
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveBatchController.class);
+    static final String ADAPTIVE_BATCHING = "adaptiveBatching";
+    static final String EFFECTIVE_BATCH_SIZE = "effectiveBatchSize";
+    static final String EFFECTIVE_READ_TIMEOUT = "effectiveReadTimeoutInMillis";
+    static final String BATCH_LATENCY = "batchLatency";
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+    private final String pipelineName;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int minReadTimeoutInMillis;
+    private final int maxReadTimeoutInMillis;
+    private final AtomicInteger batchSize;
+    private final AtomicInteger readTimeoutInMillis;
+    private final Timer batchLatencyTimer;
+    private double smoothedBatchLatencyInMillis = -1;
+
+    /**
+     * @param pipelineName           name of the pipeline, used to name the metrics
+     * @param minBatchSize           smallest batch size the workers read
+     * @param maxBatchSize           largest batch size the workers read
+     * @param minReadTimeoutInMillis shortest time the workers wait for a batch
+     * @param maxReadTimeoutInMillis longest time the workers wait for a batch, which is also the initial read timeout
+     */
+    public AdaptiveBatchController(
+            final String pipelineName,
+            final int minBatchSize,
+            final int maxBatchSize,
+            final int minReadTimeoutInMillis,
+            final int maxReadTimeoutInMillis) {
+        Preconditions.checkArgument(minBatchSize > 0, "minBatchSize must be greater than 0");
+        Preconditions.checkArgument(maxBatchSize >= minBatchSize, "maxBatchSize must not be less than minBatchSize");
+        Preconditions.checkArgument(minReadTimeoutInMillis > 0, "minReadTimeoutInMillis must be greater than 0");
+        Preconditions.checkArgument(maxReadTimeoutInMillis >= minReadTimeoutInMillis,
+                "maxReadTimeoutInMillis must not be less than minReadTimeoutInMillis");
+        this.pipelineName = pipelineName;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.minReadTimeoutInMillis = minReadTimeoutInMillis;
+        this.maxReadTimeoutInMillis = maxReadTimeoutInMillis;
+
+        final PluginMetrics pluginMetrics = PluginMetrics.fromNames(ADAPTIVE_BATCHING, pipelineName);
+        this.batchSize = pluginMetrics.gauge(EFFECTIVE_BATCH_SIZE, new AtomicInteger(minBatchSize));
+        this.readTimeoutInMillis = pluginMetrics.gauge(EFFECTIVE_READ_TIMEOUT, new AtomicInteger(maxReadTimeoutInMillis));
+        this.batchLatencyTimer = pluginMetrics.timer(BATCH_LATENCY);
+    }
+
+    /**
+     * @return the number of records the next read should return at most
+     */
+    public int getBatchSize() {
+        return batchSize.get();
+    }
+
+    /**
+     * @return how long the next read should wait for a full batch
+     */
+    public int getReadTimeoutInMillis() {
+        return readTimeoutInMillis.get();
+    }
+
+    /**
+     * Adjusts the batch size and read timeout after a read from the buffer.
+     *
+     * @param requestedBatchSize the batch size the read was issued with
+     * @param recordsRead        the number of records the read returned
+     */
+    public synchronized void recordRead(final int requestedBatchSize, final int recordsRead) {
+        final int previousBatchSize = batchSize.get();
+        final int previousReadTimeout = readTimeoutInMillis.get();
+        if (recordsRead >= requestedBatchSize) {
+            batchSize.set(clamp((long) previousBatchSize * 2, minBatchSize, maxBatchSize));
+            readTimeoutInMillis.set(clamp(previousReadTimeout / 2, minReadTimeoutInMillis, maxReadTimeoutInMillis));
+        } else if (recordsRead > 0) {
+            batchSize.set(clamp(Math.max(recordsRead, previousBatchSize / 2), minBatchSize, maxBatchSize));
+            if (smoothedBatchLatencyInMillis >= 0) {
+                readTimeoutInMillis.set(clamp(Math.round(smoothedBatchLatencyInMillis), minReadTimeoutInMillis,
+                        maxReadTimeoutInMillis));
+            }
+        } else {
+            readTimeoutInMillis.set(clamp((long) previousReadTimeout * 2, minReadTimeoutInMillis, maxReadTimeoutInMillis));
+        }
+        if (batchSize.get() != previousBatchSize || readTimeoutInMillis.get() != previousReadTimeout) {
+            LOG.debug("Pipeline [{}] - Adjusted batch size to {} and read timeout to {} ms after reading {} records",
+                    pipelineName, batchSize.get(), readTimeoutInMillis.get(), recordsRead);
+        }
+    }
+
+    /**
+     * Records the time a non-empty batch took from being read until the sinks output it.
+     *
+     * @param latencyInNanos time from the read until the sinks completed
+     */
+    public synchronized void recordBatchLatency(final long latencyInNanos) {
+        batchLatencyTimer.record(latencyInNanos, TimeUnit.NANOSECONDS);
+        final double latencyInMillis = latencyInNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        smoothedBatchLatencyInMillis = smoothedBatchLatencyInMillis < 0 ? latencyInMillis :
+                LATENCY_SMOOTHING_FACTOR * latencyInMillis + (1 - LATENCY_SMOOTHING_FACTOR) * smoothedBatchLatencyInMillis;
+    }
+
+    private static int clamp(final long value, final int min, final int max) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+}
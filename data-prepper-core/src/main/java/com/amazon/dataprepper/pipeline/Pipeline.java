@@ -19,6 +19,8 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
@@ -36,6 +38,7 @@ import static java.lang.String.format;
 public class Pipeline {
     private static final Logger LOG = LoggerFactory.getLogger(Pipeline.class);
     private static final int PROCESSOR_DEFAULT_TERMINATION_IN_MILLISECONDS = 10_000;
+    private static final long FULL_SINK_POLL_MILLIS = 10;
     private volatile boolean stopRequested;
 
     private final String name;
@@ -45,8 +48,10 @@ public class Pipeline {
     private final List<Sink> sinks;
     private final int processorThreads;
     private final int readBatchTimeoutInMillis;
+    private final int maxInFlightSinkBatches;
+    private final AdaptiveBatchController adaptiveBatchController;
     private final ExecutorService processorExecutorService;
-    private final ExecutorService sinkExecutorService;
+    private final List<SinkExecutor> sinkExecutors;
 
     /**
      * Constructs a {@link Pipeline} object with provided {@link Source}, {@link #name}, {@link Collection} of
@@ -72,8 +77,79 @@ public class Pipeline {
             @Nonnull final List<Sink> sinks,
             final int processorThreads,
             final int readBatchTimeoutInMillis) {
+        this(name, source, buffer, processorSets, sinks, processorThreads, readBatchTimeoutInMillis, 1,
+                processorThreads, processorThreads);
+    }
+
+    /**
+     * Constructs a {@link Pipeline} whose sinks each output records on their own pool of sinkThreads threads and
+     * accept at most maxInFlightBatchesPerSink batches which are not yet output. {@link ProcessWorker}s process the
+     * next batch while earlier ones are still being written, and only wait once a sink has reached its limit, so a
+     * slow sink falls behind the others by up to maxInFlightBatchesPerSink batches before it holds up the workers.
+     *
+     * @param name                     name of the pipeline
+     * @param source                   source from where the pipeline reads the records
+     * @param buffer                   buffer for the source to queue records
+     * @param processorSets            processor sets that will be applied to records
+     * @param sinks                    sink to which the transformed records are posted
+     * @param processorThreads         configured or default threads to parallelize processor work
+     * @param readBatchTimeoutInMillis configured or default timeout for reading batch of records from buffer
+     * @param maxInFlightSinkBatches   configured or default number of batches each worker may have in flight in a
+     *                                 sink; maxInFlightBatchesPerSink defaults to processorThreads times this
+     * @param sinkThreads              configured or default number of threads of each sink
+     * @param maxInFlightBatchesPerSink configured or default number of batches each sink accepts before blocking
+     *                                  the workers
+     */
+    public Pipeline(
+            @Nonnull final String name,
+            @Nonnull final Source source,
+            @Nonnull final Buffer buffer,
+            @Nonnull final List<List<Processor>> processorSets,
+            @Nonnull final List<Sink> sinks,
+            final int processorThreads,
+            final int readBatchTimeoutInMillis,
+            final int maxInFlightSinkBatches,
+            final int sinkThreads,
+            final int maxInFlightBatchesPerSink) {
+        this(name, source, buffer, processorSets, sinks, processorThreads, readBatchTimeoutInMillis,
+                maxInFlightSinkBatches, sinkThreads, maxInFlightBatchesPerSink, null);
+    }
+
+    /**
+     * Constructs a {@link Pipeline} whose {@link ProcessWorker}s read batches sized and timed by the given
+     * {@link AdaptiveBatchController} instead of the buffer's batch size and readBatchTimeoutInMillis.
+     *
+     * @param name                     name of the pipeline
+     * @param source                   source from where the pipeline reads the records
+     * @param buffer                   buffer for the source to queue records
+     * @param processorSets            processor sets that will be applied to records
+     * @param sinks                    sink to which the transformed records are posted
+     * @param processorThreads         configured or default threads to parallelize processor work
+     * @param readBatchTimeoutInMillis configured or default timeout for reading batch of records from buffer
+     * @param maxInFlightSinkBatches   configured or default number of batches each worker may have in flight in a
+     *                                 sink; maxInFlightBatchesPerSink defaults to processorThreads times this
+     * @param sinkThreads              configured or default number of threads of each sink
+     * @param maxInFlightBatchesPerSink configured or default number of batches each sink accepts before blocking
+     *                                  the workers
+     * @param adaptiveBatchController  controller choosing the batch size and read timeout, nullable
+     */
+    public Pipeline(
+            @Nonnull final String name,
+            @Nonnull final Source source,
+            @Nonnull final Buffer buffer,
+            @Nonnull final List<List<Processor>> processorSets,
+            @Nonnull final List<Sink> sinks,
+            final int processorThreads,
+            final int readBatchTimeoutInMillis,
+            final int maxInFlightSinkBatches,
+            final int sinkThreads,
+            final int maxInFlightBatchesPerSink,
+            final AdaptiveBatchController adaptiveBatchController) {
         Preconditions.checkArgument(processorSets.stream().allMatch(
                 processorSet -> Objects.nonNull(processorSet) && (processorSet.size() == 1 || processorSet.size() == processorThreads)));
+        Preconditions.checkArgument(maxInFlightSinkBatches > 0, "maxInFlightSinkBatches must be greater than 0");
+        Preconditions.checkArgument(sinkThreads > 0, "sinkThreads must be greater than 0");
+        Preconditions.checkArgument(maxInFlightBatchesPerSink > 0, "maxInFlightBatchesPerSink must be greater than 0");
         this.name = name;
         this.source = source;
         this.buffer = buffer;
@@ -81,12 +157,15 @@ public class Pipeline {
         this.sinks = sinks;
         this.processorThreads = processorThreads;
         this.readBatchTimeoutInMillis = readBatchTimeoutInMillis;
+        this.maxInFlightSinkBatches = maxInFlightSinkBatches;
+        this.adaptiveBatchController = adaptiveBatchController;
         this.processorExecutorService = PipelineThreadPoolExecutor.newFixedThreadPool(processorThreads,
                 new PipelineThreadFactory(format("%s-processor-worker", name)), this);
 
-        // TODO: allow this to be configurable as well?
-        this.sinkExecutorService = PipelineThreadPoolExecutor.newFixedThreadPool(processorThreads,
-                new PipelineThreadFactory(format("%s-sink-worker", name)), this);
+        this.sinkExecutors = new ArrayList<>(sinks.size());
+        for (int i = 0; i < sinks.size(); i++) {
+            sinkExecutors.add(new SinkExecutor(sinks.get(i), i, sinkThreads, maxInFlightBatchesPerSink, this));
+        }
 
         stopRequested = false;
     }
@@ -134,6 +213,21 @@ public class Pipeline {
         return readBatchTimeoutInMillis;
     }
 
+    /**
+     * @return the number of batches each {@link ProcessWorker} may have in flight in a sink.
+     */
+    public int getMaxInFlightSinkBatches() {
+        return maxInFlightSinkBatches;
+    }
+
+    /**
+     * @return the controller choosing the batch size and read timeout of the {@link ProcessWorker}s, or null if the
+     * workers read with the buffer's batch size and {@link #getReadBatchTimeoutInMillis()}.
+     */
+    public AdaptiveBatchController getAdaptiveBatchController() {
+        return adaptiveBatchController;
+    }
+
     /**
      * Executes the current pipeline i.e. reads the data from {@link Source}, executes optional {@link Processor} on the
      * read data and outputs to {@link Sink}.
@@ -176,7 +270,7 @@ public class Pipeline {
      * 3. Waiting for ProcessWorkers to exit their run loop (only after buffer/processors are empty)
      * 4. Stopping the ProcessWorkers if they are unable to exit gracefully
      * 5. Shutting down processors and sinks
-     * 6. Stopping the sink ExecutorService
+     * 6. Stopping the ExecutorService of each sink
      *
      * @param processorTimeout the maximum time to wait after initiating shutdown to forcefully shutdown process worker
      */
@@ -197,7 +291,7 @@ public class Pipeline {
         processorSets.forEach(processorSet -> processorSet.forEach(Processor::shutdown));
         sinks.forEach(Sink::shutdown);
 
-        shutdownExecutorService(sinkExecutorService, processorTimeout);
+        sinkExecutors.forEach(sinkExecutor -> shutdownExecutorService(sinkExecutor.getExecutorService(), processorTimeout));
     }
 
     private void shutdownExecutorService(final ExecutorService executorService, int timeoutForTerminationInMillis) {
@@ -218,17 +312,39 @@ public class Pipeline {
 
     /**
      * Submits the provided collection of records to output to each sink. Collects the future from each sink and returns
-     * them as list of futures
+     * them as list of futures. The records are first handed to every sink with room for another batch; only then does
+     * this wait for the sinks which have reached their limit of in-flight batches, polling them in turn so that a stuck
+     * sink does not keep the other sinks from receiving the batch.
      *
-     * @param records records that needs to published to each sink
+     * @param records  records that needs to published to each sink
+     * @param onOutput callback run each time a sink finished outputting the records
      * @return List of Future, each future for each sink
      */
-    public List<Future<Void>> publishToSinks(final Collection<Record> records) {
-        final int sinksSize = sinks.size();
-        List<Future<Void>> sinkFutures = new ArrayList<>(sinksSize);
-        for (int i = 0; i < sinksSize; i++) {
-            int finalI = i;
-            sinkFutures.add(sinkExecutorService.submit(() -> sinks.get(finalI).output(records), null));
+    public List<Future<Void>> publishToSinks(final Collection<Record> records, final Runnable onOutput) {
+        final List<Future<Void>> sinkFutures = new ArrayList<>(Collections.nCopies(sinkExecutors.size(), null));
+        final List<Integer> fullSinkIndexes = new ArrayList<>();
+        for (int i = 0; i < sinkExecutors.size(); i++) {
+            final Future<Void> sinkFuture = sinkExecutors.get(i).trySubmit(records, onOutput);
+            if (sinkFuture == null) {
+                fullSinkIndexes.add(i);
+            } else {
+                sinkFutures.set(i, sinkFuture);
+            }
+        }
+        if (!fullSinkIndexes.isEmpty()) {
+            LOG.debug("Pipeline [{}] - {} sinks have reached their in-flight limit, waiting for a batch to complete",
+                    name, fullSinkIndexes.size());
+        }
+        while (!fullSinkIndexes.isEmpty()) {
+            final Iterator<Integer> iterator = fullSinkIndexes.iterator();
+            while (iterator.hasNext()) {
+                final int i = iterator.next();
+                final Future<Void> sinkFuture = sinkExecutors.get(i).trySubmit(records, onOutput, FULL_SINK_POLL_MILLIS);
+                if (sinkFuture != null) {
+                    sinkFutures.set(i, sinkFuture);
+                    iterator.remove();
+                }
+            }
         }
         return sinkFutures;
     }
@@ -5,14 +5,23 @@
 
 package com.amazon.dataprepper.pipeline;
 
+import com.amazon.dataprepper.metrics.MetricNames;
+import com.amazon.dataprepper.metrics.PluginMetrics;
 import com.amazon.dataprepper.model.buffer.Buffer;
+import com.amazon.dataprepper.model.buffer.SizeOverflowException;
 import com.amazon.dataprepper.model.record.Record;
 import com.amazon.dataprepper.model.sink.Sink;
 import com.amazon.dataprepper.model.source.Source;
+import com.google.common.base.Throwables;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -20,16 +29,26 @@ import static java.lang.String.format;
 
 /**
  * PipelineConnector is a special type of Plugin which connects two pipelines acting both as Sink and Source.
+ * Each batch output to the connector is handed to the buffer of the connected pipeline with a single
+ * {@link Buffer#writeAll(Collection, int)}. Batches larger than the buffer accepts are split into chunks, and the
+ * chunk size which fits is remembered for later batches. The chunk size doubles again after a batch is split without
+ * overflowing, so that it recovers once the buffer accepts larger chunks.
  *
  * @param <T>
  */
 public final class PipelineConnector<T extends Record<?>> implements Source<T>, Sink<T> {
     private static final Logger LOG = LoggerFactory.getLogger(PipelineConnector.class);
-    private static final int DEFAULT_WRITE_TIMEOUT = Integer.MAX_VALUE;
+    private static final int DEFAULT_WRITE_TIMEOUT = 1_000;
+    static final String CHUNKED_WRITES = "chunkedWrites";
     private String sourcePipelineName; //name of the pipeline for which this connector acts as source
     private String sinkPipelineName; //name of the pipeline for which this connector acts as sink
     private Buffer<T> buffer;
     private AtomicBoolean isStopRequested;
+    private volatile int maxChunkSize = Integer.MAX_VALUE;
+    private Timer writeTimer;
+    private Counter recordsWrittenCounter;
+    private Counter writeTimeoutCounter;
+    private Counter chunkedWritesCounter;
 
     public PipelineConnector() {
         isStopRequested = new AtomicBoolean(false);
@@ -42,6 +61,11 @@ public final class PipelineConnector<T extends Record<?>> implements Source<T>,
 
     @Override
     public void start(final Buffer<T> buffer) {
+        final PluginMetrics pluginMetrics = PluginMetrics.fromNames(sinkPipelineName, sourcePipelineName);
+        writeTimer = pluginMetrics.timer(MetricNames.WRITE_TIME_ELAPSED);
+        recordsWrittenCounter = pluginMetrics.counter(MetricNames.RECORDS_WRITTEN);
+        writeTimeoutCounter = pluginMetrics.counter(MetricNames.WRITE_TIMEOUTS);
+        chunkedWritesCounter = pluginMetrics.counter(CHUNKED_WRITES);
         this.buffer = buffer;
     }
 
@@ -53,18 +77,10 @@ public final class PipelineConnector<T extends Record<?>> implements Source<T>,
     @Override
     public void output(final Collection<T> records) {
         if (buffer != null && !isStopRequested.get()) {
-            for (T record : records) {
-                while (true) {
-                    try {
-                        buffer.write(record, DEFAULT_WRITE_TIMEOUT);
-                        break;
-                    } catch (TimeoutException ex) {
-                        LOG.error("PipelineConnector [{}-{}]: Timed out writing to pipeline [{}]",
-                                sinkPipelineName, sourcePipelineName, sourcePipelineName, ex);
-                    }
-                }
-
-            }
+            final long startTime = System.nanoTime();
+            writeInChunks(records);
+            recordsWrittenCounter.increment(records.size());
+            writeTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
         } else {
             LOG.error("PipelineConnector [{}-{}]: Pipeline [{}] is currently not initialized or has been halted",
                     sinkPipelineName, sourcePipelineName, sourcePipelineName);
@@ -73,6 +89,95 @@ public final class PipelineConnector<T extends Record<?>> implements Source<T>,
         }
     }
 
+    /**
+     * Writes the records in chunks of at most {@link #maxChunkSize} records, halving the chunk size whenever the buffer
+     * reports that a chunk can never fit. A single record which does not fit is written on its own with
+     * {@link Buffer#write(Record, int)}, which leaves it to the buffer to admit it. When the records were split into
+     * chunks and none of them overflowed, the chunk size is doubled for later batches.
+     */
+    private void writeInChunks(final Collection<T> records) {
+        final boolean isSplit = records.size() > maxChunkSize;
+        boolean hasOverflowed = false;
+        List<T> recordList = null;
+        int offset = 0;
+        while (offset < records.size()) {
+            final int chunkSize = Math.min(maxChunkSize, records.size() - offset);
+            final Collection<T> chunk;
+            if (chunkSize == records.size()) {
+                chunk = records;
+            } else {
+                if (recordList == null) {
+                    recordList = records instanceof List ? (List<T>) records : new ArrayList<>(records);
+                }
+                chunk = recordList.subList(offset, offset + chunkSize);
+            }
+            try {
+                writeWithRetry(chunk);
+                offset += chunkSize;
+            } catch (final SizeOverflowException ex) {
+                hasOverflowed = true;
+                chunkedWritesCounter.increment();
+                if (chunkSize == 1) {
+                    writeWithRetry(chunk.iterator().next());
+                    offset++;
+                } else {
+                    maxChunkSize = chunkSize / 2;
+                    LOG.debug("PipelineConnector [{}-{}]: Splitting batches into chunks of {} records to fit pipeline [{}]",
+                            sinkPipelineName, sourcePipelineName, maxChunkSize, sourcePipelineName);
+                }
+            }
+        }
+        if (isSplit && !hasOverflowed) {
+            maxChunkSize = maxChunkSize > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : maxChunkSize * 2;
+        }
+    }
+
+    private void writeWithRetry(final Collection<T> chunk) throws SizeOverflowException {
+        boolean hasTimedOut = false;
+        while (true) {
+            try {
+                buffer.writeAll(chunk, DEFAULT_WRITE_TIMEOUT);
+                return;
+            } catch (final TimeoutException ex) {
+                onWriteTimeout(hasTimedOut);
+                hasTimedOut = true;
+            } catch (final Exception ex) {
+                Throwables.throwIfInstanceOf(ex, SizeOverflowException.class);
+                Throwables.throwIfUnchecked(ex);
+                throw new RuntimeException(format("PipelineConnector [%s-%s]: Failed writing to pipeline [%s]",
+                        sinkPipelineName, sourcePipelineName, sourcePipelineName), ex);
+            }
+        }
+    }
+
+    private void writeWithRetry(final T record) {
+        boolean hasTimedOut = false;
+        while (true) {
+            try {
+                buffer.write(record, DEFAULT_WRITE_TIMEOUT);
+                return;
+            } catch (final TimeoutException ex) {
+                onWriteTimeout(hasTimedOut);
+                hasTimedOut = true;
+            }
+        }
+    }
+
+    /**
+     * Counts every timeout, but only warns on the first one of a blocked write; the write timeouts metric shows how
+     * long it stays blocked.
+     */
+    private void onWriteTimeout(final boolean hasTimedOut) {
+        writeTimeoutCounter.increment();
+        if (hasTimedOut) {
+            LOG.debug("PipelineConnector [{}-{}]: Timed out again writing to pipeline [{}], retrying",
+                    sinkPipelineName, sourcePipelineName, sourcePipelineName);
+        } else {
+            LOG.warn("PipelineConnector [{}-{}]: Timed out writing to pipeline [{}], retrying until it has room",
+                    sinkPipelineName, sourcePipelineName, sourcePipelineName);
+        }
+    }
+
     @Override
     public void shutdown() {
         //TODO: Cleanup resources
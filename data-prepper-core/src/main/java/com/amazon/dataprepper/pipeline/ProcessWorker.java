@@ -11,14 +11,17 @@ import com.amazon.dataprepper.model.processor.Processor;
 import com.amazon.dataprepper.model.record.Record;
 import com.amazon.dataprepper.model.sink.Sink;
 import com.amazon.dataprepper.pipeline.common.FutureHelper;
-import com.amazon.dataprepper.pipeline.common.FutureHelperResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class ProcessWorker implements Runnable {
@@ -28,6 +31,8 @@ public class ProcessWorker implements Runnable {
     private final List<Processor> processors;
     private final Collection<Sink> sinks;
     private final Pipeline pipeline;
+    private final AdaptiveBatchController adaptiveBatchController;
+    private final Deque<InFlightBatch> inFlightBatches = new ArrayDeque<>();
     private boolean isEmptyRecordsLogged = false;
 
     public ProcessWorker(
@@ -39,13 +44,15 @@ public class ProcessWorker implements Runnable {
         this.processors = processors;
         this.sinks = sinks;
         this.pipeline = pipeline;
+        this.adaptiveBatchController = pipeline.getAdaptiveBatchController();
     }
 
     @Override
     public void run() {
         try {
             do {
-                final Map.Entry<Collection, CheckpointState> readResult = readBuffer.read(pipeline.getReadBatchTimeoutInMillis());
+                final Map.Entry<Collection, CheckpointState> readResult = readFromBuffer();
+                final long readCompletedNanos = System.nanoTime();
                 Collection records = readResult.getKey();
                 final CheckpointState checkpointState = readResult.getValue();
                 //TODO Hacky way to avoid logging continuously - Will be removed as part of metrics implementation
@@ -61,17 +68,33 @@ public class ProcessWorker implements Runnable {
                 for (final Processor processor : processors) {
                     records = processor.execute(records);
                 }
-                if (!records.isEmpty()) {
-                    postToSink(records);
-                }
-                // Checkpoint the current batch read from the buffer after being processed by processors and sinks.
-                readBuffer.checkpoint(checkpointState);
+                final InFlightBatch inFlightBatch = new InFlightBatch(checkpointState, readCompletedNanos);
+                inFlightBatch.sinkFutures = records.isEmpty() ? Collections.emptyList() :
+                        postToSink(records, inFlightBatch::onSinkOutput);
+                inFlightBatches.addLast(inFlightBatch);
+                checkpointCompletedBatches();
             } while (!shouldStop());
+            awaitInFlightBatches();
         } catch (final Exception e) {
             LOG.error("Encountered exception during pipeline {} processing", pipeline.getName(), e);
         }
     }
 
+    /**
+     * Reads the next batch with the buffer's batch size and the pipeline's read timeout, or with the batch size and
+     * read timeout chosen by the {@link AdaptiveBatchController} if the pipeline has one.
+     */
+    private Map.Entry<Collection, CheckpointState> readFromBuffer() {
+        if (adaptiveBatchController == null) {
+            return readBuffer.read(pipeline.getReadBatchTimeoutInMillis());
+        }
+        final int batchSize = adaptiveBatchController.getBatchSize();
+        final Map.Entry<Collection, CheckpointState> readResult =
+                readBuffer.read(adaptiveBatchController.getReadTimeoutInMillis(), batchSize);
+        adaptiveBatchController.recordRead(batchSize, readResult.getKey().size());
+        return readResult;
+    }
+
     /**
      * Shutdown should be handled end to end.
      *
@@ -88,14 +111,66 @@ public class ProcessWorker implements Runnable {
     }
 
     /**
-     * TODO Add isolator pattern - Fail if one of the Sink fails [isolator Pattern]
-     * Uses the pipeline method to publish to sinks, waits for each of the sink result to be true before attempting to
-     * process more records from buffer.
+     * Uses the pipeline method to publish to sinks, each of which runs on its own {@link SinkExecutor}. The returned
+     * futures are tracked as an in-flight batch; the worker does not wait on them, and only blocks while handing the
+     * records to a sink which has reached its limit of in-flight batches.
      */
-    private boolean postToSink(final Collection<Record> records) {
+    private List<Future<Void>> postToSink(final Collection<Record> records, final Runnable onOutput) {
         LOG.debug("Pipeline Worker: Submitting {} processed records to sinks", records.size());
-        final List<Future<Void>> sinkFutures = pipeline.publishToSinks(records);
-        final FutureHelperResult<Void> futureResults = FutureHelper.awaitFuturesIndefinitely(sinkFutures);
-        return futureResults.getFailedReasons().size() == 0;
+        return pipeline.publishToSinks(records, onOutput);
+    }
+
+    /**
+     * Checkpoints the batches whose sink writes have all finished, stopping at the first unfinished batch so that
+     * checkpoints are issued in read order.
+     */
+    private void checkpointCompletedBatches() {
+        while (!inFlightBatches.isEmpty() && inFlightBatches.peekFirst().isDone()) {
+            checkpoint(inFlightBatches.removeFirst());
+        }
+    }
+
+    /**
+     * Waits for and checkpoints all in-flight batches.
+     */
+    private void awaitInFlightBatches() {
+        while (!inFlightBatches.isEmpty()) {
+            checkpoint(inFlightBatches.removeFirst());
+        }
+    }
+
+    private void checkpoint(final InFlightBatch inFlightBatch) {
+        FutureHelper.awaitFuturesIndefinitely(inFlightBatch.sinkFutures);
+        if (adaptiveBatchController != null && !inFlightBatch.sinkFutures.isEmpty()) {
+            adaptiveBatchController.recordBatchLatency(
+                    inFlightBatch.outputCompletedNanos.get() - inFlightBatch.readCompletedNanos);
+        }
+        // Checkpoint the batch read from the buffer after being processed by processors and sinks.
+        readBuffer.checkpoint(inFlightBatch.checkpointState);
+    }
+
+    private static class InFlightBatch {
+        private final CheckpointState checkpointState;
+        private final long readCompletedNanos;
+        private final AtomicLong outputCompletedNanos = new AtomicLong();
+        private List<Future<Void>> sinkFutures;
+
+        private InFlightBatch(final CheckpointState checkpointState, final long readCompletedNanos) {
+            this.checkpointState = checkpointState;
+            this.readCompletedNanos = readCompletedNanos;
+        }
+
+        /**
+         * Records when the last sink finished outputting the batch, so its latency does not include the time the
+         * worker spent reading later batches before checkpointing it.
+         */
+        private void onSinkOutput() {
+            final long nowNanos = System.nanoTime();
+            outputCompletedNanos.accumulateAndGet(nowNanos, Math::max);
+        }
+
+        private boolean isDone() {
+            return sinkFutures.stream().allMatch(Future::isDone);
+        }
     }
 }
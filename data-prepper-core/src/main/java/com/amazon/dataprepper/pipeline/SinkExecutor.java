@@ -0,0 +1,93 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.pipeline;
+
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.model.sink.Sink;
+import com.amazon.dataprepper.pipeline.common.PipelineThreadFactory;
+import com.amazon.dataprepper.pipeline.common.PipelineThreadPoolExecutor;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Runs the output of a single {@link Sink} on its own thread pool, so that a slow or stuck sink only queues work on
+ * its own threads instead of delaying the other sinks of the {@link Pipeline} (isolator pattern). The number of
+ * batches submitted to the sink and not yet output is bounded; once the bound is reached {@link #trySubmit} refuses
+ * the batch and the timed {@code trySubmit} waits, pushing back on the {@link ProcessWorker}s instead of queueing batches without
+ * limit.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class SinkExecutor {
+    private final Sink sink;
+    private final ExecutorService executorService;
+    private final Semaphore inFlightPermits;
+    private final String pipelineName;
+
+    SinkExecutor(final Sink sink, final int sinkIndex, final int threads, final int maxInFlightBatches, final Pipeline pipeline) {
+        this.sink = sink;
+        this.pipelineName = pipeline.getName();
+        this.inFlightPermits = new Semaphore(maxInFlightBatches);
+        this.executorService = PipelineThreadPoolExecutor.newFixedThreadPool(threads,
+                new PipelineThreadFactory(format("%s-sink-%d-worker", pipelineName, sinkIndex)), pipeline);
+    }
+
+    /**
+     * Submits the records to be output by the sink if it has fewer than the maximum number of batches in flight.
+     *
+     * @param records  records to output
+     * @param onOutput callback run on the sink thread once the sink output the records
+     * @return Future which completes once the sink output the records, or null if the sink is at its limit
+     */
+    Future<Void> trySubmit(final Collection<Record> records, final Runnable onOutput) {
+        return inFlightPermits.tryAcquire() ? doSubmit(records, onOutput) : null;
+    }
+
+    /**
+     * Submits the records to be output by the sink, waiting up to the given time for a batch to complete if the sink
+     * already has the maximum number of batches in flight.
+     *
+     * @param records       records to output
+     * @param onOutput      callback run on the sink thread once the sink output the records
+     * @param timeoutMillis how long to wait for the sink to have room for the records
+     * @return Future which completes once the sink output the records, or null if the sink is still at its limit
+     */
+    Future<Void> trySubmit(final Collection<Record> records, final Runnable onOutput, final long timeoutMillis) {
+        try {
+            return inFlightPermits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS) ? doSubmit(records, onOutput) : null;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(format("Pipeline [%s] - Interrupted while waiting for sink %s",
+                    pipelineName, sink.getClass().getSimpleName()), ex);
+        }
+    }
+
+    private Future<Void> doSubmit(final Collection<Record> records, final Runnable onOutput) {
+        try {
+            return executorService.submit(() -> {
+                try {
+                    sink.output(records);
+                } finally {
+                    inFlightPermits.release();
+                    onOutput.run();
+                }
+            }, null);
+        } catch (final RejectedExecutionException ex) {
+            inFlightPermits.release();
+            throw ex;
+        }
+    }
+
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+}
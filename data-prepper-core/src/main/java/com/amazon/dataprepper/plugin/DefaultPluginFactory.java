@@ -9,6 +9,7 @@ import com.amazon.dataprepper.model.annotations.DataPrepperPlugin;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.plugin.NoPluginFoundException;
 import com.amazon.dataprepper.model.plugin.PluginFactory;
+import com.amazon.dataprepper.model.plugin.SharedPluginState;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,7 +33,8 @@ public class DefaultPluginFactory implements PluginFactory {
         this(new PluginProviderLoader(), new PluginCreator(), new PluginConfigurationConverter());
         // TODO: Remove this along with the removal of com.amazon.dataprepper.plugins.PluginFactory
         com.amazon.dataprepper.plugins.PluginFactory.dangerousMethod_setPluginFunction(
-                ((pluginSetting, aClass) -> pluginCreator.newPluginInstance(aClass, getConstructionContext(pluginSetting, aClass), pluginSetting.getName()))
+                ((pluginSetting, aClass) -> pluginCreator.newPluginInstance(aClass,
+                        getConstructionContext(pluginSetting, aClass, new SharedPluginState()), pluginSetting.getName()))
         );
     }
 
@@ -61,7 +63,7 @@ public class DefaultPluginFactory implements PluginFactory {
         final String pluginName = pluginSetting.getName();
         final Class<? extends T> pluginClass = getPluginClass(baseClass, pluginName);
 
-        final PluginArgumentsContext constructionContext = getConstructionContext(pluginSetting, pluginClass);
+        final PluginArgumentsContext constructionContext = getConstructionContext(pluginSetting, pluginClass, new SharedPluginState());
 
         return pluginCreator.newPluginInstance(pluginClass, constructionContext, pluginName);
     }
@@ -79,7 +81,8 @@ public class DefaultPluginFactory implements PluginFactory {
         if(numberOfInstances == null || numberOfInstances < 0)
             throw new IllegalArgumentException("The numberOfInstances must be provided as a non-negative integer.");
 
-        final PluginArgumentsContext constructionContext = getConstructionContext(pluginSetting, pluginClass);
+        // the instances share one state, so that they can coordinate without static state
+        final PluginArgumentsContext constructionContext = getConstructionContext(pluginSetting, pluginClass, new SharedPluginState());
 
         final List<T> plugins = new ArrayList<>(numberOfInstances);
         for (int i = 0; i < numberOfInstances; i++) {
@@ -88,7 +91,9 @@ public class DefaultPluginFactory implements PluginFactory {
         return plugins;
     }
 
-    private <T> PluginArgumentsContext getConstructionContext(final PluginSetting pluginSetting, final Class<? extends T> pluginClass) {
+    private <T> PluginArgumentsContext getConstructionContext(final PluginSetting pluginSetting,
+                                                              final Class<? extends T> pluginClass,
+                                                              final SharedPluginState sharedPluginState) {
         final DataPrepperPlugin pluginAnnotation = pluginClass.getAnnotation(DataPrepperPlugin.class);
 
         final Class<?> pluginConfigurationType = pluginAnnotation.pluginConfigurationType();
@@ -99,6 +104,7 @@ public class DefaultPluginFactory implements PluginFactory {
                 .withPluginConfiguration(configuration)
                 .withPipelineDescription(pluginSetting)
                 .withPluginFactory(this)
+                .withSharedPluginState(sharedPluginState)
                 .build();
     }
 
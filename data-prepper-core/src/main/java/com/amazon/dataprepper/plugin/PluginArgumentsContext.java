@@ -10,6 +10,7 @@ import com.amazon.dataprepper.model.configuration.PipelineDescription;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.plugin.InvalidPluginDefinitionException;
 import com.amazon.dataprepper.model.plugin.PluginFactory;
+import com.amazon.dataprepper.model.plugin.SharedPluginState;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,6 +44,9 @@ class PluginArgumentsContext {
 
         if(builder.pluginFactory != null)
             typedArgumentsSuppliers.put(PluginFactory.class, () -> builder.pluginFactory);
+
+        if(builder.sharedPluginState != null)
+            typedArgumentsSuppliers.put(SharedPluginState.class, () -> builder.sharedPluginState);
     }
 
     Object[] createArguments(final Class<?>[] parameterTypes) {
@@ -65,6 +69,7 @@ class PluginArgumentsContext {
         private PluginSetting pluginSetting;
         private PluginFactory pluginFactory;
         private PipelineDescription pipelineDescription;
+        private SharedPluginState sharedPluginState;
 
         Builder withPluginConfiguration(final Object pluginConfiguration) {
             this.pluginConfiguration = pluginConfiguration;
@@ -86,6 +91,11 @@ class PluginArgumentsContext {
             return this;
         }
 
+        Builder withSharedPluginState(final SharedPluginState sharedPluginState) {
+            this.sharedPluginState = sharedPluginState;
+            return this;
+        }
+
         PluginArgumentsContext build() {
             return new PluginArgumentsContext(this);
         }
@@ -31,6 +31,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -163,6 +164,86 @@ public class PipelineConfigurationTests {
         comparePluginSettings(actualSinkPluginSettings.get(0), VALID_PLUGIN_SETTING_1);
         assertThat(pipelineConfiguration.getWorkers(), is(DEFAULT_WORKERS));
         assertThat(pipelineConfiguration.getReadBatchDelay(), is(DEFAULT_READ_BATCH_DELAY));
+        assertThat(pipelineConfiguration.getMaxInFlightSinkBatches(), is(1));
+    }
+
+    @Test
+    public void testMaxInFlightSinkBatchesConfiguration() {
+        final PipelineConfiguration pipelineConfiguration = new PipelineConfiguration(validSingleConfiguration(),
+                null,
+                null,
+                validMultipleConfigurationOfSizeOne(),
+                TEST_WORKERS, TEST_DELAY, 4, null, null, null);
+        assertThat(pipelineConfiguration.getMaxInFlightSinkBatches(), is(4));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new PipelineConfiguration(validSingleConfiguration(), null, null,
+                        validMultipleConfigurationOfSizeOne(), TEST_WORKERS, TEST_DELAY, 0, null, null, null));
+        assertThat(exception.getMessage(), is("Invalid configuration, max_in_flight_sink_batches cannot be 0"));
+    }
+
+    @Test
+    public void testSinkExecutorConfiguration() {
+        final PipelineConfiguration defaultConfiguration = new PipelineConfiguration(validSingleConfiguration(),
+                null,
+                null,
+                validMultipleConfigurationOfSizeOne(),
+                TEST_WORKERS, TEST_DELAY);
+        assertThat(defaultConfiguration.getSinkThreads(), is(TEST_WORKERS));
+        assertThat(defaultConfiguration.getSinkMaxInFlightBatches(), is(nullValue()));
+
+        final PipelineConfiguration pipelineConfiguration = new PipelineConfiguration(validSingleConfiguration(),
+                null,
+                null,
+                validMultipleConfigurationOfSizeOne(),
+                TEST_WORKERS, TEST_DELAY, null, 2, 8, null);
+        assertThat(pipelineConfiguration.getSinkThreads(), is(2));
+        assertThat(pipelineConfiguration.getSinkMaxInFlightBatches(), is(8));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new PipelineConfiguration(validSingleConfiguration(), null, null,
+                        validMultipleConfigurationOfSizeOne(), TEST_WORKERS, TEST_DELAY, null, null, -1, null));
+        assertThat(exception.getMessage(), is("Invalid configuration, sink_max_in_flight_batches cannot be -1"));
+    }
+
+    @Test
+    public void testAdaptiveBatchingConfiguration() {
+        final PipelineConfiguration defaultConfiguration = new PipelineConfiguration(validSingleConfiguration(),
+                null,
+                null,
+                validMultipleConfigurationOfSizeOne(),
+                TEST_WORKERS, TEST_DELAY);
+        assertThat(defaultConfiguration.getAdaptiveBatching(), is(nullValue()));
+
+        final PipelineConfiguration pipelineConfiguration = new PipelineConfiguration(validSingleConfiguration(),
+                null,
+                null,
+                validMultipleConfigurationOfSizeOne(),
+                TEST_WORKERS, TEST_DELAY, null, null, null,
+                new AdaptiveBatchingConfiguration(null, 1024, 5, null));
+        final AdaptiveBatchingConfiguration adaptiveBatching = pipelineConfiguration.getAdaptiveBatching();
+        assertThat(adaptiveBatching.getMinBatchSize(), is(8));
+        assertThat(adaptiveBatching.getMaxBatchSize(), is(1024));
+        assertThat(adaptiveBatching.getMinDelay(), is(5));
+        assertThat(adaptiveBatching.getMaxDelay(TEST_DELAY), is(TEST_DELAY));
+
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new PipelineConfiguration(validSingleConfiguration(), null, null,
+                        validMultipleConfigurationOfSizeOne(), TEST_WORKERS, TEST_DELAY, null, null, null,
+                        new AdaptiveBatchingConfiguration(null, null, TEST_DELAY + 1, null)));
+        assertThat(exception.getMessage(), is("Invalid configuration, min_delay cannot be greater than max_delay"));
+    }
+
+    @Test
+    public void testInvalidAdaptiveBatchingConfiguration() {
+        final IllegalArgumentException invalidValueException = assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchingConfiguration(0, null, null, null));
+        assertThat(invalidValueException.getMessage(), is("Invalid configuration, min_batch_size cannot be 0"));
+
+        final IllegalArgumentException invalidRangeException = assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveBatchingConfiguration(16, 8, null, null));
+        assertThat(invalidRangeException.getMessage(),
+                is("Invalid configuration, min_batch_size cannot be greater than max_batch_size"));
     }
 
     @Test //not using expected to assert the message
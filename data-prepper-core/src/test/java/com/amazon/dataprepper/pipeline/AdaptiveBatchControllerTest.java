@@ -0,0 +1,113 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.pipeline;
+
+import com.amazon.dataprepper.metrics.MetricNames;
+import com.amazon.dataprepper.metrics.MetricsTestUtil;
+import io.micrometer.core.instrument.Measurement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveBatchControllerTest {
+    private static final String TEST_PIPELINE_NAME = "test-pipeline";
+    private static final int MIN_BATCH_SIZE = 8;
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final int MIN_READ_TIMEOUT = 10;
+    private static final int MAX_READ_TIMEOUT = 1_000;
+
+    private AdaptiveBatchController adaptiveBatchController;
+
+    @BeforeEach
+    void setUp() {
+        MetricsTestUtil.initMetrics();
+        adaptiveBatchController = new AdaptiveBatchController(TEST_PIPELINE_NAME, MIN_BATCH_SIZE, MAX_BATCH_SIZE,
+                MIN_READ_TIMEOUT, MAX_READ_TIMEOUT);
+    }
+
+    @Test
+    void testInitialValues() {
+        assertThat(adaptiveBatchController.getBatchSize(), is(MIN_BATCH_SIZE));
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(MAX_READ_TIMEOUT));
+    }
+
+    @Test
+    void testFullBatchesGrowBatchSizeUpToMax() {
+        for (int i = 0; i < 10; i++) {
+            final int batchSize = adaptiveBatchController.getBatchSize();
+            adaptiveBatchController.recordRead(batchSize, batchSize);
+        }
+        assertThat(adaptiveBatchController.getBatchSize(), is(MAX_BATCH_SIZE));
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(MIN_READ_TIMEOUT));
+    }
+
+    @Test
+    void testPartialBatchShrinksBatchSizeAndFollowsBatchLatency() {
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE, MIN_BATCH_SIZE);
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE * 2, MIN_BATCH_SIZE * 2);
+        assertThat(adaptiveBatchController.getBatchSize(), is(MIN_BATCH_SIZE * 4));
+
+        adaptiveBatchController.recordBatchLatency(TimeUnit.MILLISECONDS.toNanos(200));
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE * 4, 3);
+        assertThat(adaptiveBatchController.getBatchSize(), is(MIN_BATCH_SIZE * 2));
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(200));
+
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE * 2, 3);
+        assertThat(adaptiveBatchController.getBatchSize(), is(MIN_BATCH_SIZE));
+    }
+
+    @Test
+    void testPartialBatchKeepsReadTimeoutWithoutBatchLatency() {
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE, 1);
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(MAX_READ_TIMEOUT));
+    }
+
+    @Test
+    void testEmptyBatchesGrowReadTimeoutUpToMax() {
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE, MIN_BATCH_SIZE);
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(MAX_READ_TIMEOUT / 2));
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE * 2, 0);
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(MAX_READ_TIMEOUT));
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE * 2, 0);
+        assertThat(adaptiveBatchController.getReadTimeoutInMillis(), is(MAX_READ_TIMEOUT));
+    }
+
+    @Test
+    void testDecisionsAreExportedAsMetrics() {
+        adaptiveBatchController.recordRead(MIN_BATCH_SIZE, MIN_BATCH_SIZE);
+        adaptiveBatchController.recordBatchLatency(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(gaugeValue(AdaptiveBatchController.EFFECTIVE_BATCH_SIZE), is((double) MIN_BATCH_SIZE * 2));
+        assertThat(gaugeValue(AdaptiveBatchController.EFFECTIVE_READ_TIMEOUT), is((double) MAX_READ_TIMEOUT / 2));
+        final List<Measurement> batchLatencyMeasurements = MetricsTestUtil.getMeasurementList(
+                metricName(AdaptiveBatchController.BATCH_LATENCY));
+        assertThat(batchLatencyMeasurements.get(0).getValue(), is(1.0));
+    }
+
+    @Test
+    void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchController(TEST_PIPELINE_NAME,
+                MAX_BATCH_SIZE, MIN_BATCH_SIZE, MIN_READ_TIMEOUT, MAX_READ_TIMEOUT));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchController(TEST_PIPELINE_NAME,
+                MIN_BATCH_SIZE, MAX_BATCH_SIZE, 0, MAX_READ_TIMEOUT));
+    }
+
+    private static double gaugeValue(final String name) {
+        return MetricsTestUtil.getMeasurementList(metricName(name)).get(0).getValue();
+    }
+
+    private static String metricName(final String name) {
+        return new StringJoiner(MetricNames.DELIMITER).add(TEST_PIPELINE_NAME)
+                .add(AdaptiveBatchController.ADAPTIVE_BATCHING).add(name).toString();
+    }
+}
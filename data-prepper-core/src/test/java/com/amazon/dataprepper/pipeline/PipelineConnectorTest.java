@@ -5,23 +5,41 @@
 
 package com.amazon.dataprepper.pipeline;
 
+import com.amazon.dataprepper.metrics.MetricNames;
+import com.amazon.dataprepper.metrics.MetricsTestUtil;
 import com.amazon.dataprepper.model.buffer.Buffer;
+import com.amazon.dataprepper.model.buffer.SizeOverflowException;
 import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.buffer.diskbuffer.DiskBuffer;
+import com.amazon.dataprepper.plugins.buffer.diskbuffer.StringRecordSerializer;
+import io.micrometer.core.instrument.Statistic;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -30,6 +48,10 @@ public class PipelineConnectorTest {
     private static final String RECORD_DATA = "RECORD_DATA";
     private static final Record<String> RECORD = new Record<>(RECORD_DATA);
     private static final String SINK_PIPELINE_NAME = "SINK_PIPELINE_NAME";
+    private static final String SOURCE_PIPELINE_NAME = "SOURCE_PIPELINE_NAME";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Mock
     private Buffer<Record<String>> buffer;
@@ -40,9 +62,11 @@ public class PipelineConnectorTest {
 
     @Before
     public void setup() {
+        MetricsTestUtil.initMetrics();
         recordList = Collections.singletonList(RECORD);
 
-        sut = new PipelineConnector<>();
+        sut = new PipelineConnector<>(SINK_PIPELINE_NAME);
+        sut.setSourcePipelineName(SOURCE_PIPELINE_NAME);
     }
 
     @Test(expected = RuntimeException.class)
@@ -60,13 +84,42 @@ public class PipelineConnectorTest {
 
     @Test
     public void testOutputBufferTimesOutThenSucceeds() throws Exception {
-        doThrow(new TimeoutException()).doNothing().when(buffer).write(any(), anyInt());
+        doThrow(new TimeoutException()).doNothing().when(buffer).writeAll(any(), anyInt());
+
+        sut.start(buffer);
+
+        sut.output(recordList);
+
+        verify(buffer, times(2)).writeAll(eq(recordList), anyInt());
+        assertEquals(1.0, MetricsTestUtil.getMeasurementList(metricName(MetricNames.WRITE_TIMEOUTS)).get(0).getValue(), 0);
+    }
+
+    @Test
+    public void testOutputCountsEveryTimeoutOfABlockedWrite() throws Exception {
+        doThrow(new TimeoutException()).doThrow(new TimeoutException()).doNothing().when(buffer).writeAll(any(), anyInt());
 
         sut.start(buffer);
 
         sut.output(recordList);
 
-        verify(buffer, times(2)).write(eq(RECORD), anyInt());
+        verify(buffer, times(3)).writeAll(eq(recordList), anyInt());
+        assertEquals(2.0, MetricsTestUtil.getMeasurementList(metricName(MetricNames.WRITE_TIMEOUTS)).get(0).getValue(), 0);
+    }
+
+    @Test
+    public void testOutputWrapsCheckedBufferException() throws Exception {
+        final Exception bufferException = new Exception("buffer failed");
+        doThrow(bufferException).when(buffer).writeAll(any(), anyInt());
+
+        sut.start(buffer);
+
+        try {
+            sut.output(recordList);
+            fail("A checked exception from the buffer should fail the output");
+        } catch (final RuntimeException ex) {
+            assertEquals(bufferException, ex.getCause());
+        }
+        verify(buffer, never()).write(any(), anyInt());
     }
 
     @Test
@@ -75,9 +128,97 @@ public class PipelineConnectorTest {
 
         sut.output(recordList);
 
+        verify(buffer).writeAll(eq(recordList), anyInt());
+        verify(buffer, never()).write(any(), anyInt());
+        assertEquals(1.0, MetricsTestUtil.getMeasurementList(metricName(MetricNames.RECORDS_WRITTEN)).get(0).getValue(), 0);
+        assertEquals(1.0, MetricsTestUtil.getMeasurementList(metricName(MetricNames.WRITE_TIME_ELAPSED)).stream()
+                .filter(measurement -> measurement.getStatistic() == Statistic.COUNT).findFirst().get().getValue(), 0);
+    }
+
+    @Test
+    public void testOutputSplitsBatchLargerThanBuffer() throws Exception {
+        final List<Record<String>> records = Arrays.asList(RECORD, RECORD, RECORD, RECORD, RECORD);
+        final List<Integer> writtenChunkSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            final Collection<Record<String>> chunk = invocation.getArgument(0);
+            if (chunk.size() > 2) {
+                throw new SizeOverflowException("too large");
+            }
+            writtenChunkSizes.add(chunk.size());
+            return null;
+        }).when(buffer).writeAll(any(), anyInt());
+
+        sut.start(buffer);
+
+        sut.output(records);
+        assertEquals(Arrays.asList(2, 2, 1), writtenChunkSizes);
+
+        // the chunk size which fits is remembered for later batches
+        sut.output(records);
+        assertEquals(Arrays.asList(2, 2, 1, 2, 2, 1), writtenChunkSizes);
+        assertEquals(1.0, MetricsTestUtil.getMeasurementList(metricName(PipelineConnector.CHUNKED_WRITES)).get(0).getValue(), 0);
+    }
+
+    @Test
+    public void testOutputChunkSizeRecoversWhenBufferAcceptsLargerChunks() throws Exception {
+        final List<Record<String>> records = Arrays.asList(RECORD, RECORD, RECORD, RECORD, RECORD);
+        final List<Integer> writtenChunkSizes = new ArrayList<>();
+        final AtomicInteger maxRecords = new AtomicInteger(2);
+        doAnswer(invocation -> {
+            final Collection<Record<String>> chunk = invocation.getArgument(0);
+            if (chunk.size() > maxRecords.get()) {
+                throw new SizeOverflowException("too large");
+            }
+            writtenChunkSizes.add(chunk.size());
+            return null;
+        }).when(buffer).writeAll(any(), anyInt());
+
+        sut.start(buffer);
+
+        sut.output(records);
+        assertEquals(Arrays.asList(2, 2, 1), writtenChunkSizes);
+
+        // the chunk size doubles after each batch which fits, until the whole batch is written at once
+        maxRecords.set(records.size());
+        writtenChunkSizes.clear();
+        sut.output(records);
+        sut.output(records);
+        sut.output(records);
+        assertEquals(Arrays.asList(2, 2, 1, 4, 1, 5), writtenChunkSizes);
+        assertEquals(1.0, MetricsTestUtil.getMeasurementList(metricName(PipelineConnector.CHUNKED_WRITES)).get(0).getValue(), 0);
+    }
+
+    @Test
+    public void testOutputWritesSingleRecordWhichOverflows() throws Exception {
+        doThrow(new SizeOverflowException("too large")).when(buffer).writeAll(any(), anyInt());
+
+        sut.start(buffer);
+
+        sut.output(recordList);
+
         verify(buffer).write(eq(RECORD), anyInt());
     }
 
+    @Test
+    public void testOutputToDiskBufferWritesRecordsAroundRecordLargerThanSegment() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = new DiskBuffer<>(temporaryFolder.getRoot().toPath(), 64, 4, 8,
+                new StringRecordSerializer(), SOURCE_PIPELINE_NAME);
+        final Record<String> largeRecord = new Record<>(String.join("", Collections.nCopies(64, "x")));
+
+        sut.start(diskBuffer);
+
+        try {
+            sut.output(Arrays.asList(RECORD, RECORD, largeRecord));
+            fail("Writing a record larger than a segment should fail");
+        } catch (final IllegalStateException ex) {
+            assertTrue(ex.getCause() instanceof SizeOverflowException);
+        }
+        final Collection<Record<String>> writtenRecords = diskBuffer.read(10).getKey();
+        assertEquals(Arrays.asList(RECORD_DATA, RECORD_DATA),
+                writtenRecords.stream().map(Record::getData).collect(Collectors.toList()));
+        assertEquals(2.0, MetricsTestUtil.getMeasurementList(metricName(PipelineConnector.CHUNKED_WRITES)).get(0).getValue(), 0);
+    }
+
     @Test
     public void testSetSinkPipelineName() {
         sut.setSinkPipelineName(SINK_PIPELINE_NAME);
@@ -88,4 +229,8 @@ public class PipelineConnectorTest {
             assertTrue(e.getMessage().contains(SINK_PIPELINE_NAME));
         }
     }
+
+    private static String metricName(final String name) {
+        return new StringJoiner(MetricNames.DELIMITER).add(SOURCE_PIPELINE_NAME).add(SINK_PIPELINE_NAME).add(name).toString();
+    }
 }
@@ -5,6 +5,7 @@
 
 package com.amazon.dataprepper.pipeline;
 
+import com.amazon.dataprepper.model.buffer.Buffer;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.processor.Processor;
 import com.amazon.dataprepper.model.record.Record;
@@ -18,11 +19,17 @@ import com.amazon.dataprepper.plugins.buffer.blockingbuffer.BlockingBuffer;
 import org.junit.After;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
@@ -165,6 +172,56 @@ public class PipelineTests {
         }
     }
 
+    @Test
+    public void testStuckSinkDoesNotStopOtherSinkReceivingLaterBatches() throws Exception {
+        final CountDownLatch releaseStuckSink = new CountDownLatch(1);
+        final Sink<Record<String>> stuckSink = new TestSink() {
+            @Override
+            public void output(final Collection<Record<String>> records) {
+                try {
+                    releaseStuckSink.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        final BlockingQueue<Record<String>> receivedRecords = new LinkedBlockingQueue<>();
+        final Sink<Record<String>> receivingSink = new TestSink() {
+            @Override
+            public void output(final Collection<Record<String>> records) {
+                receivedRecords.addAll(records);
+            }
+        };
+        final Source<Record<String>> idleSource = new Source<Record<String>>() {
+            @Override
+            public void start(final Buffer<Record<String>> buffer) {
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+        final BlockingBuffer<Record<String>> buffer = new BlockingBuffer<>(16, 1, TEST_PIPELINE_NAME);
+        testPipeline = new Pipeline(TEST_PIPELINE_NAME, idleSource, buffer, Collections.emptyList(),
+                Arrays.asList(stuckSink, receivingSink), TEST_PROCESSOR_THREADS, 10, 1, 1, 2);
+        testPipeline.execute();
+        try {
+            for (int i = 0; i < 4; i++) {
+                buffer.write(new Record<>(String.valueOf(i)), 1_000);
+            }
+
+            // The stuck sink holds the first batch and queues the second; the third still reaches the other sink
+            // before the worker waits for the stuck sink.
+            for (int i = 0; i < 3; i++) {
+                final Record<String> record = receivedRecords.poll(5, TimeUnit.SECONDS);
+                assertThat("Sink should receive batches while another sink is stuck", record, notNullValue());
+            }
+            assertThat(receivedRecords.poll(100, TimeUnit.MILLISECONDS), nullValue());
+        } finally {
+            releaseStuckSink.countDown();
+        }
+    }
+
     @Test
     public void testGetSource() {
         final Source<Record<String>> testSource = new TestSource();
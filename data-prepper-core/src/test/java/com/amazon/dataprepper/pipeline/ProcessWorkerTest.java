@@ -0,0 +1,146 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.pipeline;
+
+import com.amazon.dataprepper.model.CheckpointState;
+import com.amazon.dataprepper.model.buffer.Buffer;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.model.sink.Sink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"rawtypes", "unchecked"})
+class ProcessWorkerTest {
+    private static final int TEST_READ_BATCH_TIMEOUT = 10;
+    private static final long VERIFY_TIMEOUT_MILLIS = 5_000;
+
+    @Mock
+    private Buffer buffer;
+
+    @Mock
+    private Pipeline pipeline;
+
+    private final CheckpointState firstCheckpointState = new CheckpointState(1);
+    private final CheckpointState secondCheckpointState = new CheckpointState(1);
+    private final CheckpointState emptyCheckpointState = new CheckpointState(0);
+    private final CompletableFuture<Void> firstSinkFuture = new CompletableFuture<>();
+    private final CompletableFuture<Void> secondSinkFuture = new CompletableFuture<>();
+    private final AtomicInteger publishedBatches = new AtomicInteger();
+    private final Set<CheckpointState> checkedStates = Collections.synchronizedSet(new HashSet<>());
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newSingleThreadExecutor();
+        when(pipeline.isStopRequested()).thenReturn(true);
+        when(pipeline.publishToSinks(any(Collection.class), any(Runnable.class))).thenAnswer(invocation -> {
+            final CompletableFuture<Void> sinkFuture = publishedBatches.getAndIncrement() == 0 ? firstSinkFuture : secondSinkFuture;
+            final Runnable onOutput = invocation.getArgument(1);
+            sinkFuture.thenRun(onOutput);
+            return Collections.<Future<Void>>singletonList(sinkFuture);
+        });
+        when(buffer.isEmpty()).thenAnswer(invocation ->
+                checkedStates.contains(firstCheckpointState) && checkedStates.contains(secondCheckpointState));
+        doAnswer(invocation -> checkedStates.add(invocation.getArgument(0)))
+                .when(buffer).checkpoint(any(CheckpointState.class));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void testProcessesNextBatchWhileSinksAreWriting() throws Exception {
+        stubRead();
+        final Future<?> worker = executorService.submit(createObjectUnderTest());
+
+        verify(pipeline, timeout(VERIFY_TIMEOUT_MILLIS).times(2)).publishToSinks(any(Collection.class), any(Runnable.class));
+        verify(buffer, never()).checkpoint(any(CheckpointState.class));
+
+        secondSinkFuture.complete(null);
+        Thread.sleep(100);
+        verify(buffer, never()).checkpoint(any(CheckpointState.class));
+
+        firstSinkFuture.complete(null);
+        worker.get(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        final InOrder inOrder = inOrder(buffer);
+        inOrder.verify(buffer).checkpoint(firstCheckpointState);
+        inOrder.verify(buffer).checkpoint(secondCheckpointState);
+    }
+
+    @Test
+    void testAdaptiveBatchControllerChoosesBatchSizeAndReadTimeout() throws Exception {
+        final AdaptiveBatchController adaptiveBatchController = mock(AdaptiveBatchController.class);
+        when(adaptiveBatchController.getBatchSize()).thenReturn(16);
+        when(adaptiveBatchController.getReadTimeoutInMillis()).thenReturn(TEST_READ_BATCH_TIMEOUT);
+        when(pipeline.getAdaptiveBatchController()).thenReturn(adaptiveBatchController);
+        when(buffer.read(anyInt(), anyInt())).thenReturn(
+                batch(firstCheckpointState, new Record<>("first")),
+                batch(secondCheckpointState, new Record<>("second")));
+        firstSinkFuture.complete(null);
+        secondSinkFuture.complete(null);
+
+        createObjectUnderTest().run();
+
+        verify(buffer, never()).read(anyInt());
+        verify(buffer, times(2)).read(TEST_READ_BATCH_TIMEOUT, 16);
+        verify(adaptiveBatchController, times(2)).recordRead(16, 1);
+        verify(adaptiveBatchController, times(2)).recordBatchLatency(anyLong());
+    }
+
+    private void stubRead() {
+        when(pipeline.getReadBatchTimeoutInMillis()).thenReturn(TEST_READ_BATCH_TIMEOUT);
+        when(buffer.read(anyInt())).thenReturn(
+                batch(firstCheckpointState, new Record<>("first")),
+                batch(secondCheckpointState, new Record<>("second")),
+                batch(emptyCheckpointState));
+    }
+
+    private ProcessWorker createObjectUnderTest() {
+        return new ProcessWorker(buffer, Collections.emptyList(), Collections.<Sink>emptyList(), pipeline);
+    }
+
+    private static Map.Entry<Collection, CheckpointState> batch(final CheckpointState checkpointState, final Record... records) {
+        final Collection collection = new ArrayList<>(Arrays.asList(records));
+        return new AbstractMap.SimpleEntry<>(collection, checkpointState);
+    }
+}
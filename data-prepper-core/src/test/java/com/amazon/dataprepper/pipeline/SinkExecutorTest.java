@@ -0,0 +1,122 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.pipeline;
+
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.model.sink.Sink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"rawtypes", "unchecked"})
+class SinkExecutorTest {
+    private static final long TIMEOUT_MILLIS = 5_000;
+    private static final Collection<Record> RECORDS = Collections.singletonList(new Record<>("record"));
+    private static final Runnable NO_OP = () -> { };
+
+    @Mock
+    private Pipeline pipeline;
+
+    @Mock
+    private Sink slowSink;
+
+    @Mock
+    private Sink fastSink;
+
+    private final CountDownLatch releaseSlowSink = new CountDownLatch(1);
+    private ExecutorService submittingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        when(pipeline.getName()).thenReturn("test-pipeline");
+        doAnswer(invocation -> releaseSlowSink.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                .when(slowSink).output(any(Collection.class));
+        submittingExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowSink.countDown();
+        submittingExecutor.shutdownNow();
+    }
+
+    @Test
+    void testSlowSinkDoesNotDelayOtherSink() throws Exception {
+        final SinkExecutor slowSinkExecutor = new SinkExecutor(slowSink, 0, 1, Integer.MAX_VALUE, pipeline);
+        final SinkExecutor fastSinkExecutor = new SinkExecutor(fastSink, 1, 1, Integer.MAX_VALUE, pipeline);
+
+        final Future<Void> slowFuture = slowSinkExecutor.trySubmit(RECORDS, NO_OP);
+        slowSinkExecutor.trySubmit(RECORDS, NO_OP);
+        fastSinkExecutor.trySubmit(RECORDS, NO_OP).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        fastSinkExecutor.trySubmit(RECORDS, NO_OP).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(slowFuture.isDone(), is(false));
+
+        releaseSlowSink.countDown();
+        slowFuture.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        shutdown(slowSinkExecutor, fastSinkExecutor);
+    }
+
+    @Test
+    void testTimedTrySubmitWaitsAtInFlightLimit() throws Exception {
+        final SinkExecutor sinkExecutor = new SinkExecutor(slowSink, 0, 1, 2, pipeline);
+        sinkExecutor.trySubmit(RECORDS, NO_OP);
+        sinkExecutor.trySubmit(RECORDS, NO_OP);
+        assertThat(sinkExecutor.trySubmit(RECORDS, NO_OP, 10), nullValue());
+
+        final Future<Future<Void>> blockedSubmit = submittingExecutor.submit(
+                () -> sinkExecutor.trySubmit(RECORDS, NO_OP, TIMEOUT_MILLIS));
+        Thread.sleep(100);
+        assertThat(blockedSubmit.isDone(), is(false));
+
+        releaseSlowSink.countDown();
+        blockedSubmit.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        verify(slowSink, timeout(TIMEOUT_MILLIS).times(3)).output(RECORDS);
+        shutdown(sinkExecutor);
+    }
+
+    @Test
+    void testTrySubmitRefusesAtInFlightLimit() throws Exception {
+        final SinkExecutor sinkExecutor = new SinkExecutor(slowSink, 0, 1, 1, pipeline);
+        final CountDownLatch outputs = new CountDownLatch(2);
+        final Future<Void> firstFuture = sinkExecutor.trySubmit(RECORDS, outputs::countDown);
+        assertThat(firstFuture, notNullValue());
+        assertThat(sinkExecutor.trySubmit(RECORDS, outputs::countDown), nullValue());
+
+        releaseSlowSink.countDown();
+        firstFuture.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        sinkExecutor.trySubmit(RECORDS, outputs::countDown).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertThat(outputs.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), is(true));
+        shutdown(sinkExecutor);
+    }
+
+    private static void shutdown(final SinkExecutor... sinkExecutors) {
+        for (final SinkExecutor sinkExecutor : sinkExecutors) {
+            sinkExecutor.getExecutorService().shutdownNow();
+        }
+    }
+}
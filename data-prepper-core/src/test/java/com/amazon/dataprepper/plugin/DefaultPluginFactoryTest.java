@@ -7,6 +7,7 @@ package com.amazon.dataprepper.plugin;
 
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.plugin.NoPluginFoundException;
+import com.amazon.dataprepper.model.plugin.SharedPluginState;
 import com.amazon.dataprepper.model.sink.Sink;
 import com.amazon.dataprepper.plugins.TestSink;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -23,13 +25,17 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 class DefaultPluginFactoryTest {
@@ -229,5 +235,26 @@ class DefaultPluginFactoryTest {
             assertThat(plugins.get(1), equalTo(expectedInstance2));
             assertThat(plugins.get(2), equalTo(expectedInstance3));
         }
+
+        @Test
+        void loadPlugins_should_share_the_plugin_state_between_the_instances() {
+            final Object convertedConfiguration = mock(Object.class);
+            given(pluginConfigurationConverter.convert(PluginSetting.class, pluginSetting))
+                    .willReturn(convertedConfiguration);
+
+            final DefaultPluginFactory objectUnderTest = createObjectUnderTest();
+            objectUnderTest.loadPlugins(baseClass, pluginSetting, c -> 2);
+            objectUnderTest.loadPlugins(baseClass, pluginSetting, c -> 1);
+
+            final ArgumentCaptor<PluginArgumentsContext> contextCaptor = ArgumentCaptor.forClass(PluginArgumentsContext.class);
+            verify(pluginCreator, times(3)).newPluginInstance(eq(expectedPluginClass), contextCaptor.capture(), eq(pluginName));
+            final Object[] sharedPluginStates = contextCaptor.getAllValues().stream()
+                    .map(context -> context.createArguments(new Class[] { SharedPluginState.class })[0])
+                    .toArray();
+
+            assertThat(sharedPluginStates[0], notNullValue());
+            assertThat(sharedPluginStates[1], sameInstance(sharedPluginStates[0]));
+            assertThat(sharedPluginStates[2], not(sameInstance(sharedPluginStates[0])));
+        }
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import com.amazon.dataprepper.model.configuration.PipelineDescription;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.plugin.InvalidPluginDefinitionException;
 import com.amazon.dataprepper.model.plugin.PluginFactory;
+import com.amazon.dataprepper.model.plugin.SharedPluginState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -101,6 +102,18 @@ class PluginArgumentsContextTest {
                 equalTo(new Object[] { pluginFactory }));
     }
 
+    @Test
+    void createArguments_with_sharedPluginState_should_return_the_instance_from_the_builder() {
+        final SharedPluginState sharedPluginState = new SharedPluginState();
+        final PluginArgumentsContext objectUnderTest = new PluginArgumentsContext.Builder()
+                .withPluginSetting(pluginSetting)
+                .withSharedPluginState(sharedPluginState)
+                .build();
+
+        assertThat(objectUnderTest.createArguments(new Class[] { SharedPluginState.class }),
+                equalTo(new Object[] { sharedPluginState }));
+    }
+
     @Test
     void createArguments_with_PluginMetrics() {
         final PluginArgumentsContext objectUnderTest = new PluginArgumentsContext.Builder()
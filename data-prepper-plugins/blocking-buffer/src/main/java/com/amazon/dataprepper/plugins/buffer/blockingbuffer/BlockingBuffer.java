@@ -34,6 +34,7 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.String.format;
 
@@ -43,7 +44,9 @@ import static java.lang.String.format;
  * not provided); {@link #write(Record, int)} inserts specified non-null record into this buffer, waiting up to the
  * specified timeout in milliseconds if necessary for space to become available; and throws an exception if the
  * record is null. {@link #read(int)} retrieves and removes the batch of records from the head of the queue. The
- * batch size is defined/determined by the configuration attribute {@link #ATTRIBUTE_BATCH_SIZE} or the timeout parameter
+ * batch size is defined/determined by the configuration attribute {@link #ATTRIBUTE_BATCH_SIZE} or the timeout parameter.
+ * If {@link #ATTRIBUTE_MAX_BYTES} is provided, the buffer is additionally bounded by the estimated size in bytes of the
+ * unchecked records, as estimated by {@link RecordSizeEstimator}.
  */
 @DataPrepperPlugin(name = "bounded_blocking", pluginType = Buffer.class)
 public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
@@ -53,13 +56,17 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
     private static final String PLUGIN_NAME = "bounded_blocking";
     private static final String ATTRIBUTE_BUFFER_CAPACITY = "buffer_size";
     private static final String ATTRIBUTE_BATCH_SIZE = "batch_size";
+    private static final String ATTRIBUTE_MAX_BYTES = "max_bytes";
+    private static final long NO_MAX_BYTES = 0;
 
     private final int bufferCapacity;
     private final int batchSize;
     private final BlockingQueue<T> blockingQueue;
+    private final BlockingQueue<QueuedRecord<T>> sizedQueue;
     private final String pipelineName;
 
     private final Semaphore capacitySemaphore;
+    private final ByteCapacityLimiter byteCapacityLimiter;
 
     /**
      * Creates a BlockingBuffer with the given (fixed) capacity.
@@ -69,19 +76,35 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
      * @param pipelineName   the name of the associated Pipeline
      */
     public BlockingBuffer(final int bufferCapacity, final int batchSize, final String pipelineName) {
+        this(bufferCapacity, NO_MAX_BYTES, batchSize, pipelineName);
+    }
+
+    /**
+     * Creates a BlockingBuffer with the given (fixed) record and byte capacities.
+     *
+     * @param bufferCapacity the capacity of the buffer
+     * @param maxBytes       the maximum estimated size in bytes of unchecked records, or 0 to not track sizes
+     * @param batchSize      the batch size for {@link #read(int)}
+     * @param pipelineName   the name of the associated Pipeline
+     */
+    public BlockingBuffer(final int bufferCapacity, final long maxBytes, final int batchSize, final String pipelineName) {
         super("BlockingBuffer", pipelineName);
+        checkArgument(maxBytes >= 0, "max_bytes cannot be negative");
         this.bufferCapacity = bufferCapacity;
         this.batchSize = batchSize;
-        this.blockingQueue = new LinkedBlockingQueue<>(bufferCapacity);
         this.capacitySemaphore = new Semaphore(bufferCapacity);
+        this.byteCapacityLimiter = maxBytes == NO_MAX_BYTES ? null : new ByteCapacityLimiter(maxBytes);
+        // Records only carry their estimated size when it is needed to release bytes on checkpoint.
+        this.blockingQueue = isTrackingBytes() ? null : new LinkedBlockingQueue<>(bufferCapacity);
+        this.sizedQueue = isTrackingBytes() ? new LinkedBlockingQueue<>(bufferCapacity) : null;
         this.pipelineName = pipelineName;
     }
 
     /**
      * Mandatory constructor for Data Prepper Component - This constructor is used by Data Prepper runtime engine to construct an
      * instance of {@link BlockingBuffer} using an instance of {@link PluginSetting} which has access to
-     * pluginSetting metadata from pipeline pluginSetting file. Buffer settings like `buffer-size`, `batch-size`,
-     * `batch-timeout` are optional and can be passed via {@link PluginSetting}, if not present default values will
+     * pluginSetting metadata from pipeline pluginSetting file. Buffer settings like `buffer_size`, `batch_size`,
+     * `max_bytes` are optional and can be passed via {@link PluginSetting}, if not present default values will
      * be used to create the buffer.
      *
      * @param pluginSetting instance with metadata information from pipeline pluginSetting file.
@@ -89,6 +112,7 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
     public BlockingBuffer(final PluginSetting pluginSetting) {
         this(checkNotNull(pluginSetting, "PluginSetting cannot be null")
                         .getIntegerOrDefault(ATTRIBUTE_BUFFER_CAPACITY, DEFAULT_BUFFER_CAPACITY),
+                pluginSetting.getLongOrDefault(ATTRIBUTE_MAX_BYTES, NO_MAX_BYTES),
                 pluginSetting.getIntegerOrDefault(ATTRIBUTE_BATCH_SIZE, DEFAULT_BATCH_SIZE),
                 pluginSetting.getPipelineName());
     }
@@ -99,13 +123,26 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
 
     @Override
     public void doWrite(T record, int timeoutInMillis) throws TimeoutException {
+        checkNotNull(record, "Record cannot be null");
+        final long recordBytes = isTrackingBytes() ? RecordSizeEstimator.estimateSize(record) : 0;
         try {
+            final Stopwatch stopwatch = Stopwatch.createStarted();
             final boolean permitAcquired = capacitySemaphore.tryAcquire(timeoutInMillis, TimeUnit.MILLISECONDS);
             if (!permitAcquired) {
                 throw new TimeoutException(format("Pipeline [%s] - Buffer is full, timed out waiting for a slot",
                         pipelineName));
             }
-            blockingQueue.offer(record);
+            if (!tryAcquireBytes(recordBytes, timeoutInMillis - stopwatch.elapsed(TimeUnit.MILLISECONDS))) {
+                capacitySemaphore.release();
+                throw new TimeoutException(format("Pipeline [%s] - Buffer is full, timed out waiting for %d bytes",
+                        pipelineName, recordBytes));
+            }
+            if (isTrackingBytes()) {
+                sizedQueue.offer(new QueuedRecord<>(record, recordBytes));
+            } else {
+                blockingQueue.offer(record);
+            }
+            recordBytesWritten(recordBytes);
         } catch (InterruptedException ex) {
             LOG.error("Pipeline [{}] - Buffer is full, interrupted while waiting to write the record", pipelineName, ex);
             throw new TimeoutException("Buffer is full, timed out waiting for a slot");
@@ -118,7 +155,22 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
         if (size > bufferCapacity) {
             throw new SizeOverflowException(format("Buffer capacity too small for the size of records: %d", size));
         }
+        final List<QueuedRecord<T>> queuedRecords = isTrackingBytes() ? new ArrayList<>(size) : null;
+        long recordsBytes = 0;
+        for (final T record : records) {
+            checkNotNull(record, "Record cannot be null");
+            if (isTrackingBytes()) {
+                final long recordBytes = RecordSizeEstimator.estimateSize(record);
+                queuedRecords.add(new QueuedRecord<>(record, recordBytes));
+                recordsBytes += recordBytes;
+            }
+        }
+        if (isTrackingBytes() && recordsBytes > byteCapacityLimiter.getMaxBytes()) {
+            throw new SizeOverflowException(format("Buffer byte capacity too small for the size of records: %d bytes",
+                    recordsBytes));
+        }
         try {
+            final Stopwatch stopwatch = Stopwatch.createStarted();
             final boolean permitAcquired = capacitySemaphore.tryAcquire(size, timeoutInMillis, TimeUnit.MILLISECONDS);
             if (!permitAcquired) {
                 throw new TimeoutException(
@@ -126,7 +178,19 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
                                         "timed out waiting for slots.",
                         pipelineName, size));
             }
-            blockingQueue.addAll(records);
+            if (!tryAcquireBytes(recordsBytes, timeoutInMillis - stopwatch.elapsed(TimeUnit.MILLISECONDS))) {
+                capacitySemaphore.release(size);
+                throw new TimeoutException(
+                        format("Pipeline [%s] - Buffer does not have enough byte capacity left for the size of records: " +
+                                        "%d bytes, timed out waiting for bytes.",
+                        pipelineName, recordsBytes));
+            }
+            if (isTrackingBytes()) {
+                sizedQueue.addAll(queuedRecords);
+            } else {
+                blockingQueue.addAll(records);
+            }
+            recordBytesWritten(recordsBytes);
         } catch (InterruptedException ex) {
             LOG.error("Pipeline [{}] - Buffer does not have enough capacity left for the size of records: {}, " +
                             "interrupted while waiting to write the records",
@@ -147,25 +211,52 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
      * @return The earliest batch of records in the buffer which are still not read.
      */
     @Override
-    public Map.Entry<Collection<T>, CheckpointState> doRead(int timeoutInMillis) {
-        final List<T> records = new ArrayList<>();
+    public Map.Entry<Collection<T>, CheckpointState> doRead(final int timeoutInMillis) {
+        return doRead(timeoutInMillis, batchSize);
+    }
+
+    /**
+     * Same as {@link #doRead(int)}, but the batch is capped at maxRecords instead of the configured
+     * {@link #ATTRIBUTE_BATCH_SIZE}.
+     *
+     * @param timeoutInMillis how long to wait before giving up
+     * @param maxRecords maximum number of records in the batch
+     * @return The earliest batch of records in the buffer which are still not read.
+     */
+    @Override
+    public Map.Entry<Collection<T>, CheckpointState> doRead(final int timeoutInMillis, final int maxRecords) {
+        if (!isTrackingBytes()) {
+            final List<T> records = pollBatch(blockingQueue, timeoutInMillis, maxRecords);
+            return new AbstractMap.SimpleEntry<>(records, new CheckpointState(records.size()));
+        }
+        final List<QueuedRecord<T>> queuedRecords = pollBatch(sizedQueue, timeoutInMillis, maxRecords);
+        final List<T> records = new ArrayList<>(queuedRecords.size());
+        long recordsBytes = 0;
+        for (final QueuedRecord<T> queuedRecord : queuedRecords) {
+            records.add(queuedRecord.record);
+            recordsBytes += queuedRecord.numBytes;
+        }
+        return new AbstractMap.SimpleEntry<>(records, new CheckpointState(records.size(), recordsBytes));
+    }
+
+    private <E> List<E> pollBatch(final BlockingQueue<E> queue, final int timeoutInMillis, final int maxRecords) {
+        final List<E> elements = new ArrayList<>();
         final Stopwatch stopwatch = Stopwatch.createStarted();
         try {
-            while (stopwatch.elapsed(TimeUnit.MILLISECONDS) < timeoutInMillis && records.size() < batchSize) {
-                final T record = blockingQueue.poll(timeoutInMillis, TimeUnit.MILLISECONDS);
-                if (record != null) { //record can be null, avoiding adding nulls
-                    records.add(record);
+            while (stopwatch.elapsed(TimeUnit.MILLISECONDS) < timeoutInMillis && elements.size() < maxRecords) {
+                final E element = queue.poll(timeoutInMillis, TimeUnit.MILLISECONDS);
+                if (element != null) { //record can be null, avoiding adding nulls
+                    elements.add(element);
                 }
-                if (records.size() < batchSize) {
-                    blockingQueue.drainTo(records, batchSize - records.size());
+                if (elements.size() < maxRecords) {
+                    queue.drainTo(elements, maxRecords - elements.size());
                 }
             }
         } catch (InterruptedException ex) {
             LOG.info("Pipeline [{}] - Interrupt received while reading from buffer", pipelineName);
             throw new RuntimeException(ex);
         }
-        final CheckpointState checkpointState = new CheckpointState(records.size());
-        return new AbstractMap.SimpleEntry<>(records, checkpointState);
+        return elements;
     }
 
     /**
@@ -183,10 +274,36 @@ public class BlockingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
     public void doCheckpoint(final CheckpointState checkpointState) {
         final int numCheckedRecords = checkpointState.getNumRecordsToBeChecked();
         capacitySemaphore.release(numCheckedRecords);
+        if (isTrackingBytes()) {
+            byteCapacityLimiter.release(checkpointState.getNumBytesToBeChecked());
+        }
     }
 
     @Override
     public boolean isEmpty() {
-        return blockingQueue.isEmpty() && getRecordsInFlight() == 0;
+        final boolean isQueueEmpty = isTrackingBytes() ? sizedQueue.isEmpty() : blockingQueue.isEmpty();
+        return isQueueEmpty && getRecordsInFlight() == 0;
+    }
+
+    private boolean isTrackingBytes() {
+        return byteCapacityLimiter != null;
+    }
+
+    private boolean tryAcquireBytes(final long numBytes, final long timeoutInMillis) throws InterruptedException {
+        return !isTrackingBytes() || byteCapacityLimiter.tryAcquire(numBytes, timeoutInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A record in the queue with the size in bytes estimated when it was written, so that reading it does not estimate
+     * its size again. Only used when the buffer tracks bytes.
+     */
+    private static final class QueuedRecord<T> {
+        private final T record;
+        private final long numBytes;
+
+        private QueuedRecord(final T record, final long numBytes) {
+            this.record = record;
+            this.numBytes = numBytes;
+        }
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.blockingbuffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counting limiter for the estimated bytes of unchecked records. Unlike a {@link java.util.concurrent.Semaphore}
+ * it supports budgets beyond {@link Integer#MAX_VALUE}, and it always admits a request when nothing is held so that a
+ * single record larger than the budget cannot block the buffer forever.
+ */
+class ByteCapacityLimiter {
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition bytesReleased = lock.newCondition();
+    private long uncheckedBytes;
+
+    ByteCapacityLimiter(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Acquires the given number of bytes, waiting up to the timeout for enough bytes to be released.
+     *
+     * @return true if the bytes were acquired, false if the timeout elapsed first
+     */
+    boolean tryAcquire(final long numBytes, final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (uncheckedBytes > 0 && uncheckedBytes + numBytes > maxBytes) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = bytesReleased.awaitNanos(remainingNanos);
+            }
+            uncheckedBytes += numBytes;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(final long numBytes) {
+        if (numBytes == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            uncheckedBytes -= numBytes;
+            bytesReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.blockingbuffer;
+
+import com.amazon.dataprepper.model.event.Event;
+import com.amazon.dataprepper.model.record.Record;
+import com.google.common.base.Utf8;
+import com.google.protobuf.MessageLite;
+
+import java.util.Collection;
+
+/**
+ * Estimates the serialized size of a {@link Record} for byte-capacity accounting. The estimate only needs to be
+ * roughly proportional to the memory the record holds; it is computed once on write and kept with the queued record,
+ * so the bytes released on checkpoint match the bytes acquired.
+ */
+class RecordSizeEstimator {
+    private RecordSizeEstimator() {
+    }
+
+    /**
+     * @param record the record to size
+     * @return the estimated size in bytes of the record data, or 0 for data types which are not sized
+     */
+    static long estimateSize(final Record<?> record) {
+        return estimateDataSize(record.getData());
+    }
+
+    private static long estimateDataSize(final Object data) {
+        if (data instanceof MessageLite) {
+            // protobuf memoizes the serialized size, so this is only computed once per message
+            return ((MessageLite) data).getSerializedSize();
+        } else if (data instanceof String) {
+            return Utf8.encodedLength((String) data);
+        } else if (data instanceof byte[]) {
+            return ((byte[]) data).length;
+        } else if (data instanceof Event) {
+            return Utf8.encodedLength(((Event) data).toJsonString());
+        } else if (data instanceof Collection) {
+            long size = 0;
+            for (final Object element : (Collection<?>) data) {
+                size += estimateDataSize(element);
+            }
+            return size;
+        }
+        return 0;
+    }
+}
@@ -18,9 +18,11 @@ import com.amazon.dataprepper.model.CheckpointState;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeoutException;
@@ -37,9 +39,11 @@ import static org.junit.Assert.assertTrue;
 public class BlockingBufferTests {
     private static final String ATTRIBUTE_BATCH_SIZE = "batch_size";
     private static final String ATTRIBUTE_BUFFER_SIZE = "buffer_size";
+    private static final String ATTRIBUTE_MAX_BYTES = "max_bytes";
     private static final String TEST_PIPELINE_NAME = "test-pipeline";
     private static final int TEST_BATCH_SIZE = 3;
     private static final int TEST_BUFFER_SIZE = 13;
+    private static final long TEST_MAX_BYTES = 100;
     private static final int TEST_WRITE_TIMEOUT = 1_00;
     private static final int TEST_BATCH_READ_TIMEOUT = 5_000;
 
@@ -204,6 +208,117 @@ public class BlockingBufferTests {
         }
     }
 
+    @Test
+    public void testBatchReadWithBatchSize() throws Exception {
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_BATCH_SIZE,
+                TEST_PIPELINE_NAME);
+        final int testSize = 5;
+        for (int i = 0; i < testSize; i++) {
+            blockingBuffer.write(new Record<>("TEST" + i), TEST_WRITE_TIMEOUT);
+        }
+        final Map.Entry<Collection<Record<String>>, CheckpointState> partialReadResult = blockingBuffer.read(TEST_BATCH_READ_TIMEOUT, 4);
+        assertThat(partialReadResult.getKey().size(), is(4));
+        assertEquals(4, partialReadResult.getValue().getNumRecordsToBeChecked());
+        final Map.Entry<Collection<Record<String>>, CheckpointState> finalReadResult = blockingBuffer.read(TEST_BATCH_READ_TIMEOUT, 4);
+        assertThat(finalReadResult.getKey().size(), is(testSize - 4));
+        assertThat(finalReadResult.getKey().iterator().next().getData(), equalTo("TEST4"));
+    }
+
+    @Test
+    public void testCreationUsingMaxBytesPluginSetting() {
+        final PluginSetting pluginSetting = completePluginSettingForBlockingBuffer();
+        pluginSetting.getSettings().put(ATTRIBUTE_MAX_BYTES, TEST_MAX_BYTES);
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(pluginSetting);
+        assertThat(blockingBuffer, notNullValue());
+    }
+
+    @Test
+    public void testCreationUsingNegativeMaxBytes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockingBuffer<Record<String>>(TEST_BUFFER_SIZE, -1L, TEST_BATCH_SIZE, TEST_PIPELINE_NAME));
+    }
+
+    @Test
+    public void testNoAvailBytesWriteOnly() throws TimeoutException {
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_MAX_BYTES,
+                TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        blockingBuffer.write(new Record<>(recordOfSize(TEST_MAX_BYTES - 1)), TEST_WRITE_TIMEOUT);
+        assertThrows(TimeoutException.class, () -> blockingBuffer.write(new Record<>("AB"), TEST_WRITE_TIMEOUT));
+
+        // the bytes of the timed out write are not held
+        blockingBuffer.write(new Record<>("A"), TEST_WRITE_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = blockingBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(readResult.getKey().size(), is(2));
+        assertThat(readResult.getValue().getNumBytesToBeChecked(), is(TEST_MAX_BYTES));
+    }
+
+    @Test
+    public void testWriteOversizedRecordIntoEmptyBuffer() throws TimeoutException {
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_MAX_BYTES,
+                TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        blockingBuffer.write(new Record<>(recordOfSize(TEST_MAX_BYTES * 2)), TEST_WRITE_TIMEOUT);
+        assertThrows(TimeoutException.class, () -> blockingBuffer.write(new Record<>("A"), TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testWriteAllBytesOverflow() {
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_MAX_BYTES,
+                TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        final Collection<Record<String>> testRecords = Arrays.asList(
+                new Record<>(recordOfSize(TEST_MAX_BYTES)), new Record<>("A"));
+        assertThrows(SizeOverflowException.class, () -> blockingBuffer.writeAll(testRecords, TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testNoAvailBytesWriteAllOnly() throws Exception {
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_MAX_BYTES,
+                TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        blockingBuffer.write(new Record<>(recordOfSize(TEST_MAX_BYTES / 2)), TEST_WRITE_TIMEOUT);
+        final Collection<Record<String>> testRecords = Arrays.asList(
+                new Record<>(recordOfSize(TEST_MAX_BYTES / 2)), new Record<>("A"));
+        assertThrows(TimeoutException.class, () -> blockingBuffer.writeAll(testRecords, TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testWriteIntoReleasedBytesAfterCheckedRead() throws Exception {
+        // Given
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_MAX_BYTES,
+                TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        blockingBuffer.writeAll(Arrays.asList(new Record<>(recordOfSize(TEST_MAX_BYTES / 2)),
+                new Record<>(recordOfSize(TEST_MAX_BYTES / 2))), TEST_WRITE_TIMEOUT);
+
+        // When
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = blockingBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(readResult.getValue().getNumBytesToBeChecked(), is(TEST_MAX_BYTES));
+        assertThrows(TimeoutException.class, () -> blockingBuffer.write(new Record<>("A"), TEST_WRITE_TIMEOUT));
+        blockingBuffer.checkpoint(readResult.getValue());
+
+        // Then
+        blockingBuffer.write(new Record<>(recordOfSize(TEST_MAX_BYTES)), TEST_WRITE_TIMEOUT);
+        assertThrows(TimeoutException.class, () -> blockingBuffer.write(new Record<>("A"), TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testReadChecksTheBytesEstimatedOnWrite() throws Exception {
+        final BlockingBuffer<Record<List<String>>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_MAX_BYTES,
+                TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        final List<String> data = new ArrayList<>(Collections.singletonList("AB"));
+        blockingBuffer.write(new Record<>(data), TEST_WRITE_TIMEOUT);
+        data.add("CDE");
+
+        final Map.Entry<Collection<Record<List<String>>>, CheckpointState> readResult = blockingBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(readResult.getValue().getNumBytesToBeChecked(), is(2L));
+    }
+
+    @Test
+    public void testBytesAreNotTrackedWithoutMaxBytes() throws Exception {
+        final BlockingBuffer<Record<String>> blockingBuffer = new BlockingBuffer<>(TEST_BUFFER_SIZE, TEST_BATCH_SIZE,
+                TEST_PIPELINE_NAME);
+        blockingBuffer.write(new Record<>(recordOfSize(TEST_MAX_BYTES * 2)), TEST_WRITE_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = blockingBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(readResult.getValue().getNumBytesToBeChecked(), is(0L));
+    }
+
     @Test
     public void testBufferIsEmpty() {
         final PluginSetting completePluginSetting = completePluginSettingForBlockingBuffer();
@@ -233,6 +348,14 @@ public class BlockingBufferTests {
         return testSettings;
     }
 
+    private String recordOfSize(final long numBytes) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < numBytes; i++) {
+            stringBuilder.append('x');
+        }
+        return stringBuilder.toString();
+    }
+
     private Collection<Record<String>> generateBatchRecords(final int numRecords) {
         final Collection<Record<String>> results = new ArrayList<>();
         for (int i = 0; i < numRecords; i++) {
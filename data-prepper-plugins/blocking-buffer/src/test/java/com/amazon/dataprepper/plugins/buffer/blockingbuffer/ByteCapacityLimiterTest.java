@@ -0,0 +1,53 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.blockingbuffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ByteCapacityLimiterTest {
+    private static final long MAX_BYTES = 100;
+
+    @Test
+    void tryAcquire_within_budget_succeeds() throws InterruptedException {
+        final ByteCapacityLimiter limiter = new ByteCapacityLimiter(MAX_BYTES);
+        assertThat(limiter.tryAcquire(60, 0, TimeUnit.MILLISECONDS), equalTo(true));
+        assertThat(limiter.tryAcquire(40, 0, TimeUnit.MILLISECONDS), equalTo(true));
+        assertThat(limiter.tryAcquire(1, 10, TimeUnit.MILLISECONDS), equalTo(false));
+    }
+
+    @Test
+    void tryAcquire_larger_than_budget_succeeds_when_nothing_is_held() throws InterruptedException {
+        final ByteCapacityLimiter limiter = new ByteCapacityLimiter(MAX_BYTES);
+        assertThat(limiter.tryAcquire(MAX_BYTES * 2, 0, TimeUnit.MILLISECONDS), equalTo(true));
+        assertThat(limiter.tryAcquire(1, 10, TimeUnit.MILLISECONDS), equalTo(false));
+        limiter.release(MAX_BYTES * 2);
+        assertThat(limiter.tryAcquire(1, 0, TimeUnit.MILLISECONDS), equalTo(true));
+    }
+
+    @Test
+    void tryAcquire_waits_for_release() throws Exception {
+        final ByteCapacityLimiter limiter = new ByteCapacityLimiter(MAX_BYTES);
+        assertThat(limiter.tryAcquire(MAX_BYTES, 0, TimeUnit.MILLISECONDS), equalTo(true));
+
+        final CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire(50, 5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                return false;
+            }
+        });
+        limiter.release(50);
+
+        assertThat(acquired.get(5, TimeUnit.SECONDS), equalTo(true));
+        assertThat(limiter.getMaxBytes(), equalTo(MAX_BYTES));
+    }
+}
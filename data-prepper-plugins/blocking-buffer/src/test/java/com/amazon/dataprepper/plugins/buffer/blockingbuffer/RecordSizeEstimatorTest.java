@@ -0,0 +1,62 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.blockingbuffer;
+
+import com.amazon.dataprepper.model.event.Event;
+import com.amazon.dataprepper.model.event.JacksonEvent;
+import com.amazon.dataprepper.model.record.Record;
+import com.google.protobuf.StringValue;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class RecordSizeEstimatorTest {
+
+    @Test
+    void estimateSize_of_String_is_its_length() {
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>("abcdef")), equalTo(6L));
+    }
+
+    @Test
+    void estimateSize_of_String_counts_its_UTF8_bytes() {
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>("d\u00e9j\u00e0")), equalTo(6L));
+    }
+
+    @Test
+    void estimateSize_of_bytes_is_their_length() {
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>(new byte[42])), equalTo(42L));
+    }
+
+    @Test
+    void estimateSize_of_protobuf_message_is_its_serialized_size() {
+        final StringValue message = StringValue.of("some-value");
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>(message)), equalTo((long) message.getSerializedSize()));
+    }
+
+    @Test
+    void estimateSize_of_Event_is_its_json_length() {
+        final Event event = JacksonEvent.builder()
+                .withEventType("event")
+                .withData(Collections.singletonMap("message", "hello"))
+                .build();
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>(event)), equalTo((long) event.toJsonString().getBytes(StandardCharsets.UTF_8).length));
+    }
+
+    @Test
+    void estimateSize_of_Collection_is_the_sum_of_its_elements() {
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>(Arrays.asList("ab", "cde"))), equalTo(5L));
+    }
+
+    @Test
+    void estimateSize_of_unknown_type_is_zero() {
+        assertThat(RecordSizeEstimator.estimateSize(new Record<>(new Object())), equalTo(0L));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.metrics.PluginMetrics;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Records the hits, misses and evictions of a cache of trace groups by trace ID as {@link PluginMetrics} counters, for
+ * the preppers which cache trace groups. A trace ID cached as missing counts as a hit. The caches are filled without a
+ * loader, so loads are not recorded.
+ */
+public final class TraceGroupCacheStatsCounter implements StatsCounter {
+    public static final String TRACE_GROUP_CACHE_HITS = "traceGroupCacheHits";
+    public static final String TRACE_GROUP_CACHE_MISSES = "traceGroupCacheMisses";
+    public static final String TRACE_GROUP_CACHE_EVICTIONS = "traceGroupCacheEvictions";
+
+    private final Counter hitsCounter;
+    private final Counter missesCounter;
+    private final Counter evictionsCounter;
+
+    public TraceGroupCacheStatsCounter(final PluginMetrics pluginMetrics) {
+        hitsCounter = pluginMetrics.counter(TRACE_GROUP_CACHE_HITS);
+        missesCounter = pluginMetrics.counter(TRACE_GROUP_CACHE_MISSES);
+        evictionsCounter = pluginMetrics.counter(TRACE_GROUP_CACHE_EVICTIONS);
+    }
+
+    @Override
+    public void recordHits(final int count) {
+        hitsCounter.increment(count);
+    }
+
+    @Override
+    public void recordMisses(final int count) {
+        missesCounter.increment(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(final long loadTime) {
+    }
+
+    @Override
+    public void recordLoadFailure(final long loadTime) {
+    }
+
+    @Override
+    @Deprecated
+    public void recordEviction() {
+        evictionsCounter.increment();
+    }
+
+    @Override
+    public void recordEviction(final int weight, final RemovalCause cause) {
+        evictionsCounter.increment();
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.of((long) hitsCounter.count(), (long) missesCounter.count(), 0L, 0L, 0L,
+                (long) evictionsCounter.count(), 0L);
+    }
+}
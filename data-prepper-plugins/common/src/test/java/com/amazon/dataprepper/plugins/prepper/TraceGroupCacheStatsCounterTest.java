@@ -0,0 +1,42 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.metrics.PluginMetrics;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TraceGroupCacheStatsCounterTest {
+
+    @Test
+    void snapshot_should_return_the_recorded_hits_misses_and_evictions() {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final PluginMetrics pluginMetrics = mock(PluginMetrics.class);
+        when(pluginMetrics.counter(anyString())).thenAnswer(invocation -> meterRegistry.counter(invocation.getArgument(0)));
+        final TraceGroupCacheStatsCounter objectUnderTest = new TraceGroupCacheStatsCounter(pluginMetrics);
+
+        objectUnderTest.recordHits(3);
+        objectUnderTest.recordMisses(2);
+        objectUnderTest.recordLoadSuccess(10L);
+        objectUnderTest.recordLoadFailure(10L);
+        objectUnderTest.recordEviction(1, RemovalCause.SIZE);
+
+        final CacheStats cacheStats = objectUnderTest.snapshot();
+        assertThat(cacheStats.hitCount(), equalTo(3L));
+        assertThat(cacheStats.missCount(), equalTo(2L));
+        assertThat(cacheStats.loadCount(), equalTo(0L));
+        assertThat(cacheStats.evictionCount(), equalTo(1L));
+        assertThat(meterRegistry.counter(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_HITS).count(), equalTo(3.0));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file holding the durable read offset of a {@link DiskBuffer}: the position of the first record which
+ * has not been checked yet. It is laid out as {@code [long segmentId][int offset][int crc32]}. Writes go to the page
+ * cache, so the offset survives a crash or restart of the process without paying for an fsync per checkpoint.
+ */
+class CheckpointFile {
+    static final String FILE_NAME = "checkpoint";
+    private static final int DATA_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int FILE_SIZE = DATA_SIZE + Integer.BYTES;
+
+    private final MappedByteBuffer mappedByteBuffer;
+
+    CheckpointFile(final Path directory) throws IOException {
+        try (final RandomAccessFile file = new RandomAccessFile(directory.resolve(FILE_NAME).toFile(), "rw");
+             final FileChannel channel = file.getChannel()) {
+            mappedByteBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        }
+    }
+
+    /**
+     * @return the last written position, or null if none was written or the file is corrupt
+     */
+    SegmentPosition read() {
+        final long segmentId = mappedByteBuffer.getLong(0);
+        final int offset = mappedByteBuffer.getInt(Long.BYTES);
+        final int crc = mappedByteBuffer.getInt(DATA_SIZE);
+        return crc == checksum(segmentId, offset) ? new SegmentPosition(segmentId, offset) : null;
+    }
+
+    void write(final SegmentPosition position) {
+        mappedByteBuffer.putLong(0, position.getSegmentId());
+        mappedByteBuffer.putInt(Long.BYTES, position.getOffset());
+        mappedByteBuffer.putInt(DATA_SIZE, checksum(position.getSegmentId(), position.getOffset()));
+    }
+
+    private static int checksum(final long segmentId, final int offset) {
+        final ByteBuffer data = ByteBuffer.allocate(DATA_SIZE);
+        data.putLong(segmentId);
+        data.putInt(offset);
+        final CRC32 crc32 = new CRC32();
+        crc32.update(data.array(), 0, DATA_SIZE);
+        return (int) crc32.getValue();
+    }
+}
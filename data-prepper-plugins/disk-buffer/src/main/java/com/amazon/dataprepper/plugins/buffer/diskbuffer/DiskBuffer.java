@@ -0,0 +1,464 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import com.amazon.dataprepper.model.CheckpointState;
+import com.amazon.dataprepper.model.annotations.DataPrepperPlugin;
+import com.amazon.dataprepper.model.buffer.AbstractBuffer;
+import com.amazon.dataprepper.model.buffer.Buffer;
+import com.amazon.dataprepper.model.buffer.SizeOverflowException;
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+/**
+ * A DiskBuffer is a persistent implementation of {@link Buffer} which appends records to fixed-size, memory-mapped
+ * segment files in the directory {@link #ATTRIBUTE_PATH}, using the {@link RecordSerializer} named by
+ * {@link #ATTRIBUTE_SERIALIZER}. It is bounded to {@link #ATTRIBUTE_MAX_SEGMENTS} segments of
+ * {@link #ATTRIBUTE_SEGMENT_SIZE} bytes; {@link #write(Record, int)} waits up to the specified timeout in
+ * milliseconds for a segment to be released when the buffer is full.
+ * <p>
+ * Each batch returned by {@link #read(int)} is tracked until it is checked through {@link #checkpoint(CheckpointState)}.
+ * The position of the first record of the oldest unchecked batch is kept in a durable {@link CheckpointFile}, and
+ * segments before that position are deleted. When the buffer is created over an existing directory, it replays every
+ * record from the durable position onwards, so records which were not checked before a crash or shutdown are
+ * processed again.
+ */
+@DataPrepperPlugin(name = "disk_buffer", pluginType = Buffer.class)
+public class DiskBuffer<T extends Record<?>> extends AbstractBuffer<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(DiskBuffer.class);
+    private static final String PLUGIN_NAME = "disk_buffer";
+    private static final String DEFAULT_PATH_PREFIX = "data/disk-buffer";
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_MAX_SEGMENTS = 16;
+    private static final int DEFAULT_BATCH_SIZE = 8;
+    private static final String DEFAULT_SERIALIZER = "string";
+    private static final String ATTRIBUTE_PATH = "path";
+    private static final String ATTRIBUTE_SEGMENT_SIZE = "segment_size";
+    private static final String ATTRIBUTE_MAX_SEGMENTS = "max_segments";
+    private static final String ATTRIBUTE_BATCH_SIZE = "batch_size";
+    private static final String ATTRIBUTE_SERIALIZER = "serializer";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int batchSize;
+    private final RecordSerializer<T> recordSerializer;
+    private final String pipelineName;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private final NavigableMap<Long, SegmentPosition> uncheckedBatches = new TreeMap<>();
+    private final CheckpointFile checkpointFile;
+    private Segment writeSegment;
+    private int writeOffset;
+    private Segment readSegment;
+    private int readOffset;
+    private long nextBatchId;
+
+    /**
+     * Creates a DiskBuffer over the given directory, replaying any records left unchecked by a previous run.
+     *
+     * @param directory        the directory holding the segment and checkpoint files
+     * @param segmentSize      the size in bytes of each segment file
+     * @param maxSegments      the maximum number of segment files
+     * @param batchSize        the batch size for {@link #read(int)}
+     * @param recordSerializer the serializer for records
+     * @param pipelineName     the name of the associated Pipeline
+     */
+    public DiskBuffer(final Path directory,
+                      final int segmentSize,
+                      final int maxSegments,
+                      final int batchSize,
+                      final RecordSerializer<T> recordSerializer,
+                      final String pipelineName) {
+        super("DiskBuffer", pipelineName);
+        checkArgument(segmentSize > Segment.FRAME_HEADER_SIZE, "segment_size is too small");
+        checkArgument(maxSegments > 0, "max_segments must be greater than 0");
+        checkArgument(batchSize > 0, "batch_size must be greater than 0");
+        this.directory = checkNotNull(directory, "path cannot be null");
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.batchSize = batchSize;
+        this.recordSerializer = checkNotNull(recordSerializer, "recordSerializer cannot be null");
+        this.pipelineName = pipelineName;
+
+        try {
+            Files.createDirectories(directory);
+            checkpointFile = new CheckpointFile(directory);
+            recover();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(format("Pipeline [%s] - Unable to open disk buffer at %s", pipelineName, directory), e);
+        }
+    }
+
+    /**
+     * Mandatory constructor for Data Prepper Component - This constructor is used by Data Prepper runtime engine to construct an
+     * instance of {@link DiskBuffer} using an instance of {@link PluginSetting} which has access to
+     * pluginSetting metadata from pipeline pluginSetting file. Buffer settings like `path`, `segment_size`,
+     * `max_segments`, `batch_size` and `serializer` are optional and can be passed via {@link PluginSetting}, if not
+     * present default values will be used to create the buffer.
+     *
+     * @param pluginSetting instance with metadata information from pipeline pluginSetting file.
+     */
+    public DiskBuffer(final PluginSetting pluginSetting) {
+        this(Paths.get(checkNotNull(pluginSetting, "PluginSetting cannot be null")
+                        .getStringOrDefault(ATTRIBUTE_PATH, DEFAULT_PATH_PREFIX + "/" + pluginSetting.getPipelineName())),
+                pluginSetting.getIntegerOrDefault(ATTRIBUTE_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE),
+                pluginSetting.getIntegerOrDefault(ATTRIBUTE_MAX_SEGMENTS, DEFAULT_MAX_SEGMENTS),
+                pluginSetting.getIntegerOrDefault(ATTRIBUTE_BATCH_SIZE, DEFAULT_BATCH_SIZE),
+                DiskBuffer.<T>createRecordSerializer(pluginSetting.getStringOrDefault(ATTRIBUTE_SERIALIZER, DEFAULT_SERIALIZER)),
+                pluginSetting.getPipelineName());
+    }
+
+    @Override
+    public void doWrite(final T record, final int timeoutInMillis) throws TimeoutException {
+        final byte[] payload = serialize(record);
+        try {
+            checkFitsSegment(payload);
+        } catch (final SizeOverflowException ex) {
+            // Buffer#write only declares TimeoutException, so the overflow travels as the cause of an unchecked one.
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+        try {
+            if (!append(Collections.singletonList(payload), timeoutInMillis)) {
+                throw new TimeoutException(format("Pipeline [%s] - Buffer is full, timed out waiting for a slot",
+                        pipelineName));
+            }
+        } catch (final InterruptedException ex) {
+            LOG.error("Pipeline [{}] - Buffer is full, interrupted while waiting to write the record", pipelineName, ex);
+            throw new TimeoutException("Buffer is full, timed out waiting for a slot");
+        }
+    }
+
+    @Override
+    public void doWriteAll(final Collection<T> records, final int timeoutInMillis) throws Exception {
+        final List<byte[]> payloads = new ArrayList<>(records.size());
+        for (final T record : records) {
+            final byte[] payload = serialize(record);
+            checkFitsSegment(payload);
+            payloads.add(payload);
+        }
+        if (segmentsNeeded(payloads, 0, segmentSize) > maxSegments) {
+            throw new SizeOverflowException(format("Buffer capacity too small for the size of records: %d", records.size()));
+        }
+        try {
+            if (!append(payloads, timeoutInMillis)) {
+                throw new TimeoutException(
+                        format("Pipeline [%s] - Buffer does not have enough capacity left for the size of records: %d, " +
+                                        "timed out waiting for slots.",
+                                pipelineName, records.size()));
+            }
+        } catch (final InterruptedException ex) {
+            LOG.error("Pipeline [{}] - Buffer does not have enough capacity left for the size of records: {}, " +
+                            "interrupted while waiting to write the records",
+                    pipelineName, records.size(), ex);
+            throw new TimeoutException(
+                    format("Pipeline [%s] - Buffer does not have enough capacity left for the size of records: %d, " +
+                                    "timed out waiting for slots.",
+                            pipelineName, records.size()));
+        }
+    }
+
+    /**
+     * Retrieves the batch of records following the previous read. The batch size is defined/determined by the
+     * configuration attribute {@link #ATTRIBUTE_BATCH_SIZE} or the @param timeoutInMillis. The records are only
+     * removed from disk once the batch is checked.
+     *
+     * @param timeoutInMillis how long to wait before giving up
+     * @return The earliest batch of records in the buffer which are still not read.
+     */
+    @Override
+    public Map.Entry<Collection<T>, CheckpointState> doRead(final int timeoutInMillis) {
+        return doRead(timeoutInMillis, batchSize);
+    }
+
+    /**
+     * Same as {@link #doRead(int)}, but the batch is capped at maxRecords instead of the configured
+     * {@link #ATTRIBUTE_BATCH_SIZE}.
+     *
+     * @param timeoutInMillis how long to wait before giving up
+     * @param maxRecords maximum number of records in the batch
+     * @return The earliest batch of records in the buffer which are still not read.
+     */
+    @Override
+    public Map.Entry<Collection<T>, CheckpointState> doRead(final int timeoutInMillis, final int maxRecords) {
+        final List<byte[]> payloads = new ArrayList<>(maxRecords);
+        long batchId = DiskBufferCheckpointState.NO_BATCH;
+        try {
+            lock.lockInterruptibly();
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+                SegmentPosition batchStart = null;
+                while (payloads.size() < maxRecords) {
+                    final SegmentPosition recordPosition = readNext(payloads);
+                    if (recordPosition == null) {
+                        if (remainingNanos <= 0) {
+                            break;
+                        }
+                        remainingNanos = notEmpty.awaitNanos(remainingNanos);
+                    } else if (batchStart == null) {
+                        batchStart = recordPosition;
+                    }
+                }
+                if (batchStart != null) {
+                    batchId = nextBatchId++;
+                    uncheckedBatches.put(batchId, batchStart);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (final InterruptedException ex) {
+            LOG.info("Pipeline [{}] - Interrupt received while reading from buffer", pipelineName);
+            throw new RuntimeException(ex);
+        }
+
+        final List<T> records = new ArrayList<>(payloads.size());
+        for (final byte[] payload : payloads) {
+            records.add(recordSerializer.deserialize(payload));
+        }
+        return new AbstractMap.SimpleEntry<>(records, new DiskBufferCheckpointState(records.size(), batchId));
+    }
+
+    /**
+     * Returns the default PluginSetting object with default values.
+     * @return PluginSetting
+     */
+    public static PluginSetting getDefaultPluginSettings() {
+        final Map<String, Object> settings = new HashMap<>();
+        settings.put(ATTRIBUTE_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE);
+        settings.put(ATTRIBUTE_MAX_SEGMENTS, DEFAULT_MAX_SEGMENTS);
+        settings.put(ATTRIBUTE_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        settings.put(ATTRIBUTE_SERIALIZER, DEFAULT_SERIALIZER);
+        return new PluginSetting(PLUGIN_NAME, settings);
+    }
+
+    @Override
+    public void doCheckpoint(final CheckpointState checkpointState) {
+        if (!(checkpointState instanceof DiskBufferCheckpointState)) {
+            return;
+        }
+        final long batchId = ((DiskBufferCheckpointState) checkpointState).getBatchId();
+        if (batchId == DiskBufferCheckpointState.NO_BATCH) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (uncheckedBatches.remove(batchId) == null) {
+                return;
+            }
+            final SegmentPosition durablePosition = uncheckedBatches.isEmpty() ?
+                    new SegmentPosition(readSegment.getId(), readOffset) : uncheckedBatches.firstEntry().getValue();
+            checkpointFile.write(durablePosition);
+            deleteSegmentsBefore(durablePosition.getSegmentId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return readSegment == writeSegment && readOffset == writeOffset && uncheckedBatches.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens the segments left by a previous run, drops those before the durable read offset and positions the
+     * read cursor at that offset and the write cursor at the end of the last segment.
+     */
+    private void recover() throws IOException {
+        try (final DirectoryStream<Path> paths = Files.newDirectoryStream(directory, Segment::isSegmentFile)) {
+            for (final Path path : paths) {
+                final Segment segment = Segment.open(path);
+                segments.put(segment.getId(), segment);
+            }
+        }
+
+        final SegmentPosition durablePosition = checkpointFile.read();
+        if (durablePosition != null) {
+            deleteSegmentsBefore(durablePosition.getSegmentId());
+        }
+        if (segments.isEmpty()) {
+            // keep segment ids increasing so that a stale checkpoint never points into the new segment
+            final long firstSegmentId = durablePosition != null ? durablePosition.getSegmentId() + 1 : 0;
+            segments.put(firstSegmentId, Segment.create(directory, firstSegmentId, segmentSize));
+        }
+
+        writeSegment = segments.lastEntry().getValue();
+        writeOffset = writeSegment.findEnd();
+        if (durablePosition != null && segments.containsKey(durablePosition.getSegmentId())) {
+            readSegment = segments.get(durablePosition.getSegmentId());
+            readOffset = readSegment == writeSegment ?
+                    Math.min(durablePosition.getOffset(), writeOffset) : durablePosition.getOffset();
+        } else {
+            readSegment = segments.firstEntry().getValue();
+            readOffset = 0;
+        }
+
+        long recoveredRecords = readSegment.countFrames(readOffset);
+        for (final Segment segment : segments.tailMap(readSegment.getId(), false).values()) {
+            recoveredRecords += segment.countFrames(0);
+        }
+        if (recoveredRecords > 0) {
+            LOG.info("Pipeline [{}] - Replaying {} unchecked records from disk buffer at {}",
+                    pipelineName, recoveredRecords, directory);
+            recordRecoveredRecords(recoveredRecords);
+        }
+    }
+
+    private boolean append(final List<byte[]> payloads, final int timeoutInMillis) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+        lock.lockInterruptibly();
+        try {
+            while (segments.size() - 1 + segmentsNeeded(payloads, writeOffset, writeSegment.size()) > maxSegments) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            for (final byte[] payload : payloads) {
+                if (!writeSegment.hasRoomFor(writeOffset, payload.length)) {
+                    rollWriteSegment();
+                }
+                writeOffset = writeSegment.write(writeOffset, payload);
+            }
+            notEmpty.signalAll();
+            return true;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(format("Pipeline [%s] - Unable to create a new disk buffer segment", pipelineName), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the next record payload into the list, moving on to the next segment when the current one is exhausted.
+     *
+     * @return the position of the record read, or null if there is no record to read
+     */
+    private SegmentPosition readNext(final List<byte[]> payloads) {
+        while (true) {
+            if (readSegment == writeSegment && readOffset >= writeOffset) {
+                return null;
+            }
+            final byte[] payload = readSegment.read(readOffset);
+            if (payload != null) {
+                final SegmentPosition position = new SegmentPosition(readSegment.getId(), readOffset);
+                payloads.add(payload);
+                readOffset += Segment.frameSize(payload.length);
+                return position;
+            }
+            readSegment = segments.higherEntry(readSegment.getId()).getValue();
+            readOffset = 0;
+        }
+    }
+
+    private void rollWriteSegment() throws IOException {
+        final long nextSegmentId = writeSegment.getId() + 1;
+        writeSegment = Segment.create(directory, nextSegmentId, segmentSize);
+        writeOffset = 0;
+        segments.put(nextSegmentId, writeSegment);
+    }
+
+    private void deleteSegmentsBefore(final long segmentId) {
+        final Iterator<Segment> iterator = segments.headMap(segmentId, false).values().iterator();
+        boolean deleted = false;
+        while (iterator.hasNext()) {
+            final Segment segment = iterator.next();
+            try {
+                segment.delete();
+            } catch (final IOException e) {
+                LOG.warn("Pipeline [{}] - Unable to delete checked disk buffer segment {}", pipelineName, segment.getId(), e);
+            }
+            iterator.remove();
+            deleted = true;
+        }
+        if (deleted) {
+            notFull.signalAll();
+        }
+    }
+
+    private byte[] serialize(final T record) {
+        return recordSerializer.serialize(checkNotNull(record, "record cannot be null"));
+    }
+
+    /**
+     * A record is never split across segments, so one whose frame is larger than a segment can not be written.
+     */
+    private void checkFitsSegment(final byte[] payload) throws SizeOverflowException {
+        if (Segment.frameSize(payload.length) > segmentSize) {
+            throw new SizeOverflowException(format("Record of %d bytes does not fit in a segment of %d bytes",
+                    payload.length, segmentSize));
+        }
+    }
+
+    /**
+     * @return the number of segments, counting the current one, needed to append the payloads from the given offset
+     */
+    private int segmentsNeeded(final List<byte[]> payloads, final int startOffset, final int currentSegmentSize) {
+        int segmentsNeeded = 1;
+        int offset = startOffset;
+        int currentSize = currentSegmentSize;
+        for (final byte[] payload : payloads) {
+            final int frameSize = Segment.frameSize(payload.length);
+            if (offset + frameSize > currentSize) {
+                segmentsNeeded++;
+                offset = 0;
+                currentSize = segmentSize;
+            }
+            offset += frameSize;
+        }
+        return segmentsNeeded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Record<?>> RecordSerializer<T> createRecordSerializer(final String serializer) {
+        switch (serializer) {
+            case "string":
+                return (RecordSerializer<T>) new StringRecordSerializer();
+            case "otel_trace":
+                return (RecordSerializer<T>) new OTelTraceRequestRecordSerializer();
+            default:
+                try {
+                    return (RecordSerializer<T>) Class.forName(serializer).getDeclaredConstructor().newInstance();
+                } catch (final ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException(format("Unknown disk buffer serializer [%s]", serializer), e);
+                }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import com.amazon.dataprepper.model.CheckpointState;
+
+/**
+ * {@link CheckpointState} which identifies the batch it was read with, so that {@link DiskBuffer} can advance its
+ * durable read offset past exactly the batches which were checked, even when workers finish out of order.
+ */
+class DiskBufferCheckpointState extends CheckpointState {
+    static final long NO_BATCH = -1;
+
+    private final long batchId;
+
+    DiskBufferCheckpointState(final int numRecordsToBeChecked, final long batchId) {
+        super(numRecordsToBeChecked);
+        this.batchId = batchId;
+    }
+
+    long getBatchId() {
+        return batchId;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import com.amazon.dataprepper.model.record.Record;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+
+/**
+ * Serializes the {@link ExportTraceServiceRequest} records written by the otel_trace_source using the protobuf wire
+ * format.
+ */
+public class OTelTraceRequestRecordSerializer implements RecordSerializer<Record<ExportTraceServiceRequest>> {
+    @Override
+    public byte[] serialize(final Record<ExportTraceServiceRequest> record) {
+        return record.getData().toByteArray();
+    }
+
+    @Override
+    public Record<ExportTraceServiceRequest> deserialize(final byte[] bytes) {
+        try {
+            return new Record<>(ExportTraceServiceRequest.parseFrom(bytes));
+        } catch (final InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Unable to deserialize ExportTraceServiceRequest from disk buffer", e);
+        }
+    }
+}
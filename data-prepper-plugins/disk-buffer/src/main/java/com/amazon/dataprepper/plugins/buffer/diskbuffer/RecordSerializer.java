@@ -0,0 +1,29 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import com.amazon.dataprepper.model.record.Record;
+
+/**
+ * Converts records to and from the bytes stored in the segment files of a {@link DiskBuffer}. Implementations must
+ * be stateless and thread-safe, and {@link #deserialize(byte[])} must accept anything {@link #serialize(Record)}
+ * produced by an earlier run, since records are replayed across restarts.
+ *
+ * @param <T> the type of record
+ */
+public interface RecordSerializer<T extends Record<?>> {
+    /**
+     * @param record the record to serialize
+     * @return the serialized record
+     */
+    byte[] serialize(T record);
+
+    /**
+     * @param bytes the bytes previously returned by {@link #serialize(Record)}
+     * @return the deserialized record
+     */
+    T deserialize(byte[] bytes);
+}
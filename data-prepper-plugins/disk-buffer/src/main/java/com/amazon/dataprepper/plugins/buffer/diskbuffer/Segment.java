@@ -0,0 +1,173 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * A fixed-size, memory-mapped segment file holding a sequence of length-prefixed, checksummed record frames.
+ * A frame is laid out as {@code [int payloadLength + 1][int crc32][payload]} and the end of the written data is marked
+ * by a zero length field, which a freshly created (zero-filled) file provides for free; the length is stored off by one
+ * so that empty payloads remain distinguishable from the end marker. A frame which is truncated or fails
+ * its checksum, as left behind by a crash during a write, is treated as the end of the data.
+ * <p>
+ * Segments are not thread-safe; {@link DiskBuffer} guards all access with its lock.
+ */
+class Segment {
+    static final int FRAME_HEADER_SIZE = Integer.BYTES * 2;
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_NAME_FORMAT = FILE_PREFIX + "%019d";
+
+    private final long id;
+    private final Path path;
+    private final MappedByteBuffer mappedByteBuffer;
+
+    private Segment(final long id, final Path path, final MappedByteBuffer mappedByteBuffer) {
+        this.id = id;
+        this.path = path;
+        this.mappedByteBuffer = mappedByteBuffer;
+    }
+
+    /**
+     * Creates a new, empty segment file.
+     */
+    static Segment create(final Path directory, final long id, final int size) throws IOException {
+        final Path path = directory.resolve(String.format(FILE_NAME_FORMAT, id));
+        return new Segment(id, path, map(path, size));
+    }
+
+    /**
+     * Maps an existing segment file, keeping its current size.
+     */
+    static Segment open(final Path path) throws IOException {
+        return new Segment(parseId(path), path, map(path, (int) Files.size(path)));
+    }
+
+    static boolean isSegmentFile(final Path path) {
+        final String fileName = path.getFileName().toString();
+        if (!fileName.startsWith(FILE_PREFIX)) {
+            return false;
+        }
+        try {
+            parseId(path);
+            return true;
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static int frameSize(final int payloadLength) {
+        return FRAME_HEADER_SIZE + payloadLength;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    int size() {
+        return mappedByteBuffer.capacity();
+    }
+
+    boolean hasRoomFor(final int offset, final int payloadLength) {
+        return offset + frameSize(payloadLength) <= size();
+    }
+
+    /**
+     * Writes a frame at the given offset, which must be the end of the written data.
+     *
+     * @return the offset following the written frame
+     */
+    int write(final int offset, final byte[] payload) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+
+        final ByteBuffer buffer = mappedByteBuffer.duplicate();
+        buffer.position(offset + FRAME_HEADER_SIZE);
+        buffer.put(payload);
+        final int nextOffset = buffer.position();
+        if (nextOffset + Integer.BYTES <= size()) {
+            // guard against leftovers of a torn write from a previous run being read as a frame
+            buffer.putInt(0);
+        }
+        // the length is written last so that a reader never observes a partially written frame
+        buffer.putInt(offset + Integer.BYTES, (int) crc32.getValue());
+        buffer.putInt(offset, payload.length + 1);
+        return nextOffset;
+    }
+
+    /**
+     * Reads the payload of the frame at the given offset.
+     *
+     * @return the payload, or null if there is no valid frame at the offset
+     */
+    byte[] read(final int offset) {
+        if (offset + FRAME_HEADER_SIZE > size()) {
+            return null;
+        }
+        final int payloadLength = mappedByteBuffer.getInt(offset) - 1;
+        if (payloadLength < 0 || payloadLength > size() - offset - FRAME_HEADER_SIZE) {
+            return null;
+        }
+        final int expectedCrc = mappedByteBuffer.getInt(offset + Integer.BYTES);
+        final byte[] payload = new byte[payloadLength];
+        final ByteBuffer buffer = mappedByteBuffer.duplicate();
+        buffer.position(offset + FRAME_HEADER_SIZE);
+        buffer.get(payload);
+
+        final CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return (int) crc32.getValue() == expectedCrc ? payload : null;
+    }
+
+    /**
+     * @return the offset following the last valid frame
+     */
+    int findEnd() {
+        int offset = 0;
+        byte[] payload;
+        while ((payload = read(offset)) != null) {
+            offset += frameSize(payload.length);
+        }
+        return offset;
+    }
+
+    /**
+     * @return the number of valid frames from the given offset to the end of the data
+     */
+    int countFrames(final int fromOffset) {
+        int count = 0;
+        int offset = fromOffset;
+        byte[] payload;
+        while ((payload = read(offset)) != null) {
+            offset += frameSize(payload.length);
+            count++;
+        }
+        return count;
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static long parseId(final Path path) {
+        return Long.parseLong(path.getFileName().toString().substring(FILE_PREFIX.length()));
+    }
+
+    private static MappedByteBuffer map(final Path path, final int size) throws IOException {
+        try (final RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+             final FileChannel channel = file.getChannel()) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
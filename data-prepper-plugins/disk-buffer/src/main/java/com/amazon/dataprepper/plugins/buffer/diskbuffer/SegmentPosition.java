@@ -0,0 +1,51 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import java.util.Objects;
+
+/**
+ * An offset within a segment file.
+ */
+class SegmentPosition {
+    private final long segmentId;
+    private final int offset;
+
+    SegmentPosition(final long segmentId, final int offset) {
+        this.segmentId = segmentId;
+        this.offset = offset;
+    }
+
+    long getSegmentId() {
+        return segmentId;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SegmentPosition that = (SegmentPosition) o;
+        return segmentId == that.segmentId && offset == that.offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(segmentId, offset);
+    }
+
+    @Override
+    public String toString() {
+        return segmentId + ":" + offset;
+    }
+}
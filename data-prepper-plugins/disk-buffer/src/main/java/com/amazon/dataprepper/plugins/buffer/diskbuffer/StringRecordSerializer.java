@@ -0,0 +1,25 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import com.amazon.dataprepper.model.record.Record;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes {@link String} records as UTF-8.
+ */
+public class StringRecordSerializer implements RecordSerializer<Record<String>> {
+    @Override
+    public byte[] serialize(final Record<String> record) {
+        return record.getData().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Record<String> deserialize(final byte[] bytes) {
+        return new Record<>(new String(bytes, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import com.amazon.dataprepper.model.CheckpointState;
+import com.amazon.dataprepper.model.buffer.SizeOverflowException;
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DiskBufferTests {
+    private static final String TEST_PIPELINE_NAME = "test-pipeline";
+    private static final int TEST_BATCH_SIZE = 2;
+    // room for two frames of a 36 character UUID string per segment
+    private static final int TEST_SEGMENT_SIZE = 100;
+    private static final int TEST_MAX_SEGMENTS = 2;
+    private static final int TEST_WRITE_TIMEOUT = 1_00;
+    private static final int TEST_BATCH_READ_TIMEOUT = 1_00;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCreationUsingPluginSetting() {
+        final Map<String, Object> settings = new HashMap<>();
+        settings.put("path", tempDir.toString());
+        settings.put("segment_size", TEST_SEGMENT_SIZE);
+        settings.put("max_segments", TEST_MAX_SEGMENTS);
+        settings.put("batch_size", TEST_BATCH_SIZE);
+        settings.put("serializer", StringRecordSerializer.class.getName());
+        final PluginSetting pluginSetting = new PluginSetting("disk_buffer", settings);
+        pluginSetting.setPipelineName(TEST_PIPELINE_NAME);
+
+        final DiskBuffer<Record<String>> diskBuffer = new DiskBuffer<>(pluginSetting);
+        assertThat(diskBuffer, notNullValue());
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testCreationUsingNullPluginSetting() {
+        final NullPointerException ex = assertThrows(NullPointerException.class,
+                () -> new DiskBuffer<Record<String>>((PluginSetting) null));
+        assertThat(ex.getMessage(), is(equalTo("PluginSetting cannot be null")));
+    }
+
+    @Test
+    public void testCreationUsingUnknownSerializer() {
+        final PluginSetting pluginSetting = DiskBuffer.getDefaultPluginSettings();
+        pluginSetting.getSettings().put("path", tempDir.toString());
+        pluginSetting.getSettings().put("serializer", "com.example.UnknownSerializer");
+        assertThrows(IllegalArgumentException.class, () -> new DiskBuffer<Record<String>>(pluginSetting));
+    }
+
+    @Test
+    public void testCreationUsingInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> createDiskBuffer(Segment.FRAME_HEADER_SIZE, TEST_MAX_SEGMENTS, TEST_BATCH_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> createDiskBuffer(TEST_SEGMENT_SIZE, 0, TEST_BATCH_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> createDiskBuffer(TEST_SEGMENT_SIZE, TEST_MAX_SEGMENTS, 0));
+    }
+
+    @Test
+    public void testInsertNull() {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        assertThrows(NullPointerException.class, () -> diskBuffer.write(null, TEST_WRITE_TIMEOUT));
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testWriteRecordLargerThanSegment() {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> diskBuffer.write(new Record<>(String.join("", randomStrings(3))), TEST_WRITE_TIMEOUT));
+        assertThat(exception.getCause(), instanceOf(SizeOverflowException.class));
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testWriteAllRecordLargerThanSegment() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        final long segmentFileCount = segmentFileCount();
+        assertThrows(SizeOverflowException.class, () -> diskBuffer.writeAll(
+                toRecords(Arrays.asList(UUID.randomUUID().toString(), String.join("", randomStrings(3)))), TEST_WRITE_TIMEOUT));
+        assertTrue(diskBuffer.isEmpty());
+        assertThat(segmentFileCount(), is(segmentFileCount));
+    }
+
+    @Test
+    public void testWriteAndReadInOrder() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        final List<String> data = Arrays.asList("", "a", UUID.randomUUID().toString());
+        for (final String value : data) {
+            diskBuffer.write(new Record<>(value), TEST_WRITE_TIMEOUT);
+        }
+        assertFalse(diskBuffer.isEmpty());
+
+        final List<String> read = readAll(diskBuffer, 3);
+        assertThat(read, is(equalTo(data)));
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testReadWithBatchSize() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.writeAll(toRecords(Arrays.asList("a", "b", "c")), TEST_WRITE_TIMEOUT);
+
+        final Map.Entry<Collection<Record<String>>, CheckpointState> firstReadResult = diskBuffer.read(TEST_BATCH_READ_TIMEOUT, 1);
+        assertThat(firstReadResult.getKey().size(), is(1));
+        assertThat(firstReadResult.getKey().iterator().next().getData(), is(equalTo("a")));
+        diskBuffer.checkpoint(firstReadResult.getValue());
+
+        final Map.Entry<Collection<Record<String>>, CheckpointState> secondReadResult = diskBuffer.read(TEST_BATCH_READ_TIMEOUT, 3);
+        assertThat(secondReadResult.getKey().size(), is(2));
+        diskBuffer.checkpoint(secondReadResult.getValue());
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testReadEmptyBuffer() {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = diskBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(readResult.getKey().size(), is(0));
+        diskBuffer.checkpoint(readResult.getValue());
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testNotEmptyUntilCheckpointed() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.write(new Record<>(UUID.randomUUID().toString()), TEST_WRITE_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = diskBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(readResult.getKey().size(), is(1));
+        assertFalse(diskBuffer.isEmpty());
+        diskBuffer.checkpoint(readResult.getValue());
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testWriteAllSpanningSegments() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        final List<String> data = randomStrings(4);
+        diskBuffer.writeAll(toRecords(data), TEST_WRITE_TIMEOUT);
+        assertThat(segmentFileCount(), is(2L));
+        assertThat(readAll(diskBuffer, 4), is(equalTo(data)));
+    }
+
+    @Test
+    public void testWriteAllSizeOverflow() {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        assertThrows(SizeOverflowException.class, () -> diskBuffer.writeAll(toRecords(randomStrings(5)), TEST_WRITE_TIMEOUT));
+        assertTrue(diskBuffer.isEmpty());
+    }
+
+    @Test
+    public void testWriteTimeoutWhenFull() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.writeAll(toRecords(randomStrings(4)), TEST_WRITE_TIMEOUT);
+        assertThrows(TimeoutException.class, () -> diskBuffer.write(new Record<>(UUID.randomUUID().toString()), TEST_WRITE_TIMEOUT));
+        assertThrows(TimeoutException.class, () -> diskBuffer.writeAll(toRecords(randomStrings(1)), TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testCheckpointReleasesSegments() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.writeAll(toRecords(randomStrings(4)), TEST_WRITE_TIMEOUT);
+        readAll(diskBuffer, 4);
+        assertThat(segmentFileCount(), is(1L));
+
+        diskBuffer.writeAll(toRecords(randomStrings(2)), TEST_WRITE_TIMEOUT);
+        assertThat(segmentFileCount(), is(2L));
+    }
+
+    @Test
+    public void testBlockedWriteResumesAfterCheckpoint() throws Exception {
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.writeAll(toRecords(randomStrings(4)), TEST_WRITE_TIMEOUT);
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> blockedWrite = executorService.submit(() -> {
+                diskBuffer.write(new Record<>(UUID.randomUUID().toString()), 5_000);
+                return null;
+            });
+            Thread.sleep(TEST_WRITE_TIMEOUT);
+            assertFalse(blockedWrite.isDone());
+            readAll(diskBuffer, 4);
+            blockedWrite.get(5, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(readAll(diskBuffer, 1).size(), is(1));
+    }
+
+    @Test
+    public void testUncheckedRecordsAreReplayedAfterRestart() throws Exception {
+        final List<String> data = randomStrings(4);
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.writeAll(toRecords(data), TEST_WRITE_TIMEOUT);
+
+        final Map.Entry<Collection<Record<String>>, CheckpointState> firstBatch = diskBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> secondBatch = diskBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        assertThat(secondBatch.getKey().size(), is(2));
+        // only the second batch is acknowledged, so the durable offset cannot move past the first
+        diskBuffer.checkpoint(secondBatch.getValue());
+
+        final DiskBuffer<Record<String>> restartedBuffer = createDiskBuffer();
+        assertFalse(restartedBuffer.isEmpty());
+        assertThat(readAll(restartedBuffer, 4), is(equalTo(data)));
+        assertThat(firstBatch.getKey().size(), is(2));
+    }
+
+    @Test
+    public void testCheckedRecordsAreNotReplayedAfterRestart() throws Exception {
+        final List<String> data = randomStrings(3);
+        final DiskBuffer<Record<String>> diskBuffer = createDiskBuffer();
+        diskBuffer.writeAll(toRecords(data), TEST_WRITE_TIMEOUT);
+        readAll(diskBuffer, 2);
+
+        final DiskBuffer<Record<String>> restartedBuffer = createDiskBuffer();
+        assertThat(readAll(restartedBuffer, 1), is(equalTo(data.subList(2, 3))));
+        restartedBuffer.write(new Record<>("after-restart"), TEST_WRITE_TIMEOUT);
+        assertThat(readAll(restartedBuffer, 1), is(equalTo(Arrays.asList("after-restart"))));
+    }
+
+    private DiskBuffer<Record<String>> createDiskBuffer() {
+        return createDiskBuffer(TEST_SEGMENT_SIZE, TEST_MAX_SEGMENTS, TEST_BATCH_SIZE);
+    }
+
+    private DiskBuffer<Record<String>> createDiskBuffer(final int segmentSize, final int maxSegments, final int batchSize) {
+        return new DiskBuffer<>(tempDir, segmentSize, maxSegments, batchSize, new StringRecordSerializer(), TEST_PIPELINE_NAME);
+    }
+
+    /**
+     * Reads and checkpoints batches until the given number of records is read.
+     */
+    private static List<String> readAll(final DiskBuffer<Record<String>> diskBuffer, final int numRecords) {
+        final List<String> read = new ArrayList<>();
+        while (read.size() < numRecords) {
+            final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = diskBuffer.read(TEST_BATCH_READ_TIMEOUT);
+            assertFalse(readResult.getKey().isEmpty());
+            readResult.getKey().forEach(record -> read.add(record.getData()));
+            diskBuffer.checkpoint(readResult.getValue());
+        }
+        return read;
+    }
+
+    private long segmentFileCount() throws IOException {
+        try (final Stream<Path> paths = Files.list(tempDir)) {
+            return paths.filter(Segment::isSegmentFile).count();
+        }
+    }
+
+    private static List<String> randomStrings(final int count) {
+        return Stream.generate(() -> UUID.randomUUID().toString()).limit(count).collect(Collectors.toList());
+    }
+
+    private static Collection<Record<String>> toRecords(final List<String> data) {
+        return data.stream().map(Record::new).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.diskbuffer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SegmentTest {
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final Segment segment = Segment.create(tempDir, 3, SEGMENT_SIZE);
+        final int secondOffset = segment.write(0, bytes("first"));
+        final int endOffset = segment.write(secondOffset, bytes(""));
+
+        assertThat(segment.getId(), is(3L));
+        assertThat(segment.read(0), is(equalTo(bytes("first"))));
+        assertThat(segment.read(secondOffset), is(equalTo(bytes(""))));
+        assertThat(segment.read(endOffset), is(nullValue()));
+        assertThat(segment.findEnd(), is(endOffset));
+        assertThat(segment.countFrames(0), is(2));
+        assertThat(segment.countFrames(secondOffset), is(1));
+    }
+
+    @Test
+    public void testHasRoomFor() throws IOException {
+        final Segment segment = Segment.create(tempDir, 0, SEGMENT_SIZE);
+        assertTrue(segment.hasRoomFor(0, SEGMENT_SIZE - Segment.FRAME_HEADER_SIZE));
+        assertFalse(segment.hasRoomFor(1, SEGMENT_SIZE - Segment.FRAME_HEADER_SIZE));
+    }
+
+    @Test
+    public void testReopenKeepsFrames() throws IOException {
+        final Segment segment = Segment.create(tempDir, 7, SEGMENT_SIZE);
+        final int endOffset = segment.write(0, bytes("persisted"));
+
+        final Path path = tempDir.resolve(String.format("segment-%019d", 7));
+        assertTrue(Segment.isSegmentFile(path));
+        final Segment reopened = Segment.open(path);
+        assertThat(reopened.getId(), is(7L));
+        assertThat(reopened.size(), is(SEGMENT_SIZE));
+        assertThat(reopened.read(0), is(equalTo(bytes("persisted"))));
+        assertThat(reopened.findEnd(), is(endOffset));
+    }
+
+    @Test
+    public void testCorruptFrameIsTreatedAsEnd() throws IOException {
+        final Segment segment = Segment.create(tempDir, 0, SEGMENT_SIZE);
+        final int secondOffset = segment.write(0, bytes("intact"));
+        segment.write(secondOffset, bytes("torn"));
+
+        final Path path = tempDir.resolve(String.format("segment-%019d", 0));
+        try (final RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(secondOffset + Segment.FRAME_HEADER_SIZE);
+            file.write('X');
+        }
+
+        final Segment reopened = Segment.open(path);
+        assertThat(reopened.read(secondOffset), is(nullValue()));
+        assertThat(reopened.findEnd(), is(secondOffset));
+    }
+
+    @Test
+    public void testIsSegmentFile() {
+        assertFalse(Segment.isSegmentFile(tempDir.resolve(CheckpointFile.FILE_NAME)));
+        assertFalse(Segment.isSegmentFile(tempDir.resolve("segment-abc")));
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
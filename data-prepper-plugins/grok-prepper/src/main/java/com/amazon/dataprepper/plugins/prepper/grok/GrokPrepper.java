@@ -43,7 +43,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -107,13 +106,14 @@ public class GrokPrepper extends AbstractPrepper<Record<Event>, Record<Event>> {
      * execute the prepper logic which could potentially modify the incoming record. The level to which the record has
      * been modified depends on the implementation
      *
+     * Grok merges its captures into the events of the input records, so the input collection is returned as the
+     * output rather than copying every record into a new collection.
+     *
      * @param records Input records that will be modified/processed
      * @return Record  modified output records
      */
     @Override
     public Collection<Record<Event>> doExecute(final Collection<Record<Event>> records) {
-        final List<Record<Event>> recordsOut = new LinkedList<>();
-
         for (final Record<Event> record : records) {
             try {
                 final Event event = record.getData();
@@ -123,28 +123,21 @@ public class GrokPrepper extends AbstractPrepper<Record<Event>, Record<Event>> {
                 } else {
                     runWithTimeout(() -> grokProcessingTime.record(() -> matchAndMerge(event)));
                 }
-
-                final Record<Event> grokkedRecord = new Record<>(event, record.getMetadata());
-                recordsOut.add(grokkedRecord);
             } catch (TimeoutException e) {
                 LOG.error("Matching on record [{}] took longer than [{}] and timed out", record.getData(), grokPrepperConfig.getTimeoutMillis());
-                recordsOut.add(record);
                 grokProcessingTimeoutsCounter.increment();
             } catch (ExecutionException e) {
                 LOG.error("An exception occurred while matching on record [{}]", record.getData(), e);
-                recordsOut.add(record);
                 grokProcessingErrorsCounter.increment();
             } catch (InterruptedException e) {
                 LOG.error("Matching on record [{}] was interrupted", record.getData(), e);
-                recordsOut.add(record);
                 grokProcessingErrorsCounter.increment();
             } catch (RuntimeException e) {
                 LOG.error("Unknown exception occurred when matching record [{}]", record.getData(), e);
-                recordsOut.add(record);
                 grokProcessingErrorsCounter.increment();
             }
          }
-        return recordsOut;
+        return records;
     }
 
     @Override
@@ -35,6 +35,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +48,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.mockito.ArgumentMatchers.eq;
@@ -184,6 +186,22 @@ public class GrokPrepperTests {
         verifyNoInteractions(grokProcessingErrorsCounter, grokProcessingMatchFailureCounter, grokProcessingTimeoutsCounter);
     }
 
+    @Test
+    public void testInputRecordsAreReturnedInPlace() {
+        grokPrepper = createObjectUnderTest();
+
+        capture.put("key_capture_1", "value_capture_1");
+
+        final Map<String, Object> testData = new HashMap();
+        testData.put("message", messageInput);
+        final List<Record<Event>> records = Collections.singletonList(buildRecordWithEvent(testData));
+
+        final Collection<Record<Event>> grokkedRecords = grokPrepper.doExecute(records);
+
+        assertThat(grokkedRecords, sameInstance(records));
+        assertThat(records.get(0).getData().get("key_capture_1", String.class), equalTo("value_capture_1"));
+    }
+
     @Test
     public void testTarget() throws JsonProcessingException {
         pluginSetting.getSettings().put(GrokPrepperConfig.TARGET_KEY, "test_target");
@@ -14,11 +14,18 @@ package com.amazon.dataprepper.plugins.prepper.state;
 import com.amazon.dataprepper.prepper.state.PrepperState;
 import com.google.common.primitives.SignedBytes;
 import org.mapdb.BTreeMap;
+import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
 import org.mapdb.Serializer;
+import org.mapdb.StoreDirect;
+import org.mapdb.serializer.GroupSerializer;
+import org.mapdb.serializer.GroupSerializerObjectArray;
 import org.mapdb.serializer.SerializerByteArray;
 
 import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,24 +44,71 @@ public class MapDbPrepperState<V> implements PrepperState<byte[], V> {
         }
     }
 
+    /**
+     * Adapts a {@link ValueSerializer} to MapDB, passing it the dictionary of the state.
+     */
+    private static class DictionaryValueSerializer<V> extends GroupSerializerObjectArray<V> {
+        private final ValueSerializer<V> valueSerializer;
+        private final StringDictionary dictionary;
+
+        private DictionaryValueSerializer(final ValueSerializer<V> valueSerializer, final StringDictionary dictionary) {
+            this.valueSerializer = valueSerializer;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public void serialize(final DataOutput2 out, final V value) throws IOException {
+            valueSerializer.serialize(out, value, dictionary);
+        }
+
+        @Override
+        public V deserialize(final DataInput2 input, final int available) throws IOException {
+            return valueSerializer.deserialize(input, dictionary);
+        }
+    }
+
     private static final SignedByteArraySerializer SIGNED_BYTE_ARRAY_SERIALIZER = new SignedByteArraySerializer();
 
+    private final DB db;
     private final BTreeMap<byte[], V> map;
     private final File dbFile;
+    private final StringDictionary dictionary = new StringDictionary();
 
+    /**
+     * Creates a state which keeps the values as objects on the heap.
+     */
     public MapDbPrepperState(final File dbPath, final String dbName, final int concurrencyScale) {
+        this(dbPath, dbName, concurrencyScale, null);
+    }
+
+    /**
+     * Creates a state which keeps the values serialized in byte arrays on the heap, so that each entry takes the bytes
+     * written by the serializer rather than a graph of objects. The serializer is called on every put and every read.
+     *
+     * @param valueSerializer Serializer of the values, or null to keep the values as objects
+     */
+    public MapDbPrepperState(final File dbPath, final String dbName, final int concurrencyScale,
+                             final ValueSerializer<V> valueSerializer) {
         // TODO: Cleanup references to file-based map
         this.dbFile = new File(String.join("/", dbPath.getPath(), dbName));
+        this.db = (valueSerializer == null ? DBMaker.heapDB() : DBMaker.memoryDB())
+                .executorEnable()
+                .closeOnJvmShutdown()
+                .concurrencyScale(concurrencyScale)
+                .make();
         map =
-                (BTreeMap<byte[], V>) DBMaker.heapDB()
-                        .executorEnable()
-                        .closeOnJvmShutdown()
-                        .concurrencyScale(concurrencyScale)
-                        .make()
-                        .treeMap(dbName)
+                db.treeMap(dbName)
                         .counterEnable() //Treemap doesnt keep:q size counter by default
                         .keySerializer(SIGNED_BYTE_ARRAY_SERIALIZER)
-                        .valueSerializer(Serializer.JAVA).createOrOpen();
+                        .valueSerializer(valueSerializer == null ?
+                                javaSerializer() :
+                                new DictionaryValueSerializer<>(valueSerializer, dictionary))
+                        .createOrOpen();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> GroupSerializer<V> javaSerializer() {
+        return (GroupSerializer<V>) Serializer.JAVA;
     }
 
     @Override
@@ -62,6 +116,7 @@ public class MapDbPrepperState<V> implements PrepperState<byte[], V> {
         map.put(key, value);
     }
 
+    @Override
     public void putAll(final Map<byte[], V> data) {
         map.putAll(data);
     }
@@ -129,19 +184,37 @@ public class MapDbPrepperState<V> implements PrepperState<byte[], V> {
     }
 
 
+    /**
+     * @return Bytes of the memory store which are not on its free lists when the values are serialized, or the size of
+     * the database file when the values are kept as objects
+     */
     @Override
     public long sizeInBytes() {
+        if (db.getStore() instanceof StoreDirect) {
+            final StoreDirect store = (StoreDirect) db.getStore();
+            return store.getTotalSize() - store.getFreeSize();
+        }
         return dbFile.length();
     }
 
+    /**
+     * Clears the entries and the dictionary of the serialized values. The state must not be read or written
+     * concurrently, as a value deserialized while the dictionary is cleared would miss its strings.
+     */
     @Override
     public void clear() {
         map.clear();
+        dictionary.clear();
     }
 
+    /**
+     * Closes the state and clears the dictionary of the serialized values. The state must not be read or written
+     * concurrently.
+     */
     @Override
     public void delete() {
         map.close();
+        dictionary.clear();
     }
 
     private static class KeyRange {
@@ -0,0 +1,325 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.state;
+
+import com.amazon.dataprepper.prepper.state.PrepperState;
+import com.google.common.primitives.Longs;
+import com.google.common.primitives.SignedBytes;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * Prepper state keyed by 8 byte IDs, such as span IDs, stored in open addressing hash tables in direct buffers outside
+ * of the Java heap. Each key is packed into a long and each value is written as a fixed-size record by a
+ * {@link RecordLayout}, so an entry takes a fixed number of bytes and no objects on the heap.
+ * <p>
+ * The keys are spread over several tables, each guarded by its own lock, so that concurrent workers mostly write to
+ * different tables. A table doubles in size when it is three quarters full, and keeps its size when it is cleared so
+ * that a window refilled with a similar number of entries does not grow again. The direct buffers are released when
+ * they are garbage collected.
+ *
+ * @param <V> Type of the values
+ */
+public class OffHeapPrepperState<V> implements PrepperState<byte[], V> {
+    private static final int KEY_SIZE = Long.BYTES;
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final int MIN_TABLE_CAPACITY = 16;
+
+    private final RecordLayout<V> recordLayout;
+    private final StringDictionary dictionary = new StringDictionary();
+    private final int slotSize;
+    private final List<Table> tables;
+    private final int tableMask;
+
+    /**
+     * @param recordLayout Layout of the values
+     * @param initialCapacity Number of entries the state holds before growing
+     * @param concurrencyScale Number of tables, rounded up to a power of two
+     */
+    public OffHeapPrepperState(final RecordLayout<V> recordLayout, final int initialCapacity, final int concurrencyScale) {
+        this.recordLayout = recordLayout;
+        this.slotSize = 1 + KEY_SIZE + recordLayout.getRecordSize();
+        final int tableCount = concurrencyScale <= 1 ? 1 : Integer.highestOneBit(concurrencyScale - 1) << 1;
+        final int tableCapacity = tableCapacityFor(Math.max(1, initialCapacity / tableCount));
+        this.tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            tables.add(new Table(tableCapacity));
+        }
+        this.tableMask = tableCount - 1;
+    }
+
+    /**
+     * @return the smallest power of two capacity which holds the number of entries below the load factor
+     */
+    private static int tableCapacityFor(final int entries) {
+        final int capacity = Integer.highestOneBit(Math.max(MIN_TABLE_CAPACITY, entries + entries / 3) - 1) << 1;
+        return Math.max(MIN_TABLE_CAPACITY, capacity);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key is not 8 bytes long
+     */
+    @Override
+    public void put(final byte[] key, final V value) {
+        final long packedKey = packKey(key);
+        final long hash = hash(packedKey);
+        tableFor(hash).put(packedKey, hash, value);
+    }
+
+    /**
+     * Puts all the entries, after checking that every key is 8 bytes long and every value fits in the layout.
+     *
+     * @throws IllegalArgumentException if a key is not 8 bytes long or a value does not fit in the layout, in which
+     * case no entry is put
+     */
+    @Override
+    public void putAll(final Map<byte[], V> data) {
+        data.forEach((key, value) -> {
+            packKey(key);
+            if (!recordLayout.fits(value)) {
+                throw new IllegalArgumentException("Value does not fit in the record layout");
+            }
+        });
+        data.forEach(this::put);
+    }
+
+    @Override
+    public V get(final byte[] key) {
+        if (key == null || key.length != KEY_SIZE) {
+            return null;
+        }
+        final long packedKey = Longs.fromByteArray(key);
+        final long hash = hash(packedKey);
+        return tableFor(hash).get(packedKey, hash);
+    }
+
+    /**
+     * @return a copy of the entries, sorted by key
+     */
+    @Override
+    public Map<byte[], V> getAll() {
+        final Map<byte[], V> entries = new TreeMap<>(SignedBytes.lexicographicalComparator());
+        for (final Table table : tables) {
+            table.collect(1, 0).forEach(entry -> entries.put(entry.getKey(), entry.getValue()));
+        }
+        return entries;
+    }
+
+    @Override
+    public <R> List<R> iterate(final BiFunction<byte[], V, R> fn) {
+        return iterate(fn, 1, 0);
+    }
+
+    /**
+     * Iterates over the entries of an equal share of the slots of each table. The entries of a table are copied before
+     * the function is applied, so the function may read or write the state.
+     */
+    @Override
+    public <R> List<R> iterate(final BiFunction<byte[], V, R> fn, final int segments, final int index) {
+        final List<R> returnList = new ArrayList<>();
+        for (final Table table : tables) {
+            table.collect(segments, index).forEach(entry -> returnList.add(fn.apply(entry.getKey(), entry.getValue())));
+        }
+        return returnList;
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (final Table table : tables) {
+            size += table.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return Size of the direct buffers holding the entries, in bytes
+     */
+    @Override
+    public long sizeInBytes() {
+        long sizeInBytes = 0;
+        for (final Table table : tables) {
+            sizeInBytes += table.sizeInBytes();
+        }
+        return sizeInBytes;
+    }
+
+    @Override
+    public void clear() {
+        for (final Table table : tables) {
+            table.clear();
+        }
+        dictionary.clear();
+    }
+
+    @Override
+    public void delete() {
+        for (final Table table : tables) {
+            table.delete();
+        }
+        dictionary.clear();
+    }
+
+    private static long packKey(final byte[] key) {
+        if (key == null || key.length != KEY_SIZE) {
+            throw new IllegalArgumentException("Key must be 8 bytes long");
+        }
+        return Longs.fromByteArray(key);
+    }
+
+    /**
+     * Mixes the bits of the key, since span IDs need not be uniformly random in their low bits.
+     */
+    private static long hash(final long packedKey) {
+        final long hash = packedKey * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private Table tableFor(final long hash) {
+        return tables.get((int) (hash >>> 48) & tableMask);
+    }
+
+    private final class Table {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private ByteBuffer slots;
+        private int capacity;
+        private volatile int size;
+
+        private Table(final int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(final int newCapacity) {
+            capacity = newCapacity;
+            slots = ByteBuffer.allocateDirect(newCapacity * slotSize);
+        }
+
+        private void put(final long packedKey, final long hash, final V value) {
+            lock.writeLock().lock();
+            try {
+                if ((size + 1) * 4L > capacity * 3L) {
+                    grow();
+                }
+                final int slotOffset = findSlot(packedKey, hash);
+                // the record is written first, so that a value which does not fit leaves the slot empty
+                recordLayout.write(value, slots, slotOffset + 1 + KEY_SIZE, dictionary);
+                if (slots.get(slotOffset) == EMPTY) {
+                    slots.put(slotOffset, OCCUPIED);
+                    slots.putLong(slotOffset + 1, packedKey);
+                    size++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private V get(final long packedKey, final long hash) {
+            lock.readLock().lock();
+            try {
+                final int slotOffset = findSlot(packedKey, hash);
+                return slots.get(slotOffset) == EMPTY ? null : recordLayout.read(slots, slotOffset + 1 + KEY_SIZE, dictionary);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @return the offset of the slot holding the key, or of the empty slot where it belongs
+         */
+        private int findSlot(final long packedKey, final long hash) {
+            int slot = (int) hash & (capacity - 1);
+            while (true) {
+                final int slotOffset = slot * slotSize;
+                if (slots.get(slotOffset) == EMPTY || slots.getLong(slotOffset + 1) == packedKey) {
+                    return slotOffset;
+                }
+                slot = (slot + 1) & (capacity - 1);
+            }
+        }
+
+        private void grow() {
+            final ByteBuffer oldSlots = slots;
+            final int oldCapacity = capacity;
+            allocate(oldCapacity * 2);
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                final int oldSlotOffset = slot * slotSize;
+                if (oldSlots.get(oldSlotOffset) != EMPTY) {
+                    final long packedKey = oldSlots.getLong(oldSlotOffset + 1);
+                    final int slotOffset = findSlot(packedKey, hash(packedKey));
+                    for (int i = 0; i < slotSize; i++) {
+                        slots.put(slotOffset + i, oldSlots.get(oldSlotOffset + i));
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return copies of the entries in the share of the slots with the index
+         */
+        private List<Map.Entry<byte[], V>> collect(final int segments, final int index) {
+            lock.readLock().lock();
+            try {
+                final int fromSlot = (int) ((long) capacity * index / segments);
+                final int toSlot = (int) ((long) capacity * (index + 1) / segments);
+                final List<Map.Entry<byte[], V>> entries = new ArrayList<>();
+                for (int slot = fromSlot; slot < toSlot; slot++) {
+                    final int slotOffset = slot * slotSize;
+                    if (slots.get(slotOffset) != EMPTY) {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(
+                                Longs.toByteArray(slots.getLong(slotOffset + 1)),
+                                recordLayout.read(slots, slotOffset + 1 + KEY_SIZE, dictionary)));
+                    }
+                }
+                return entries;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private long sizeInBytes() {
+            lock.readLock().lock();
+            try {
+                return slots.capacity();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void clear() {
+            lock.writeLock().lock();
+            try {
+                for (int slot = 0; slot < capacity; slot++) {
+                    slots.put(slot * slotSize, EMPTY);
+                }
+                size = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void delete() {
+            lock.writeLock().lock();
+            try {
+                allocate(MIN_TABLE_CAPACITY);
+                size = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
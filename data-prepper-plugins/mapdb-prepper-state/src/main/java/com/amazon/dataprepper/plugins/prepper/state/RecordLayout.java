@@ -0,0 +1,51 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.state;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size binary layout of the values stored by {@link OffHeapPrepperState}. Every value takes exactly
+ * {@link #getRecordSize()} bytes, and its string fields are stored as IDs of the state's {@link StringDictionary}.
+ *
+ * @param <V> Type of the values
+ */
+public interface RecordLayout<V> {
+
+    /**
+     * @return Number of bytes of every record
+     */
+    int getRecordSize();
+
+    /**
+     * @param value Value to check
+     * @return Boolean indicating whether the value fits in the layout, so that writing it does not throw
+     */
+    default boolean fits(final V value) {
+        return true;
+    }
+
+    /**
+     * Writes the value into the record starting at the offset of the buffer, using absolute puts only.
+     *
+     * @param value Value to write
+     * @param buffer Buffer holding the record
+     * @param offset Offset of the record in the buffer
+     * @param dictionary Dictionary interning the string fields
+     * @throws IllegalArgumentException if the value does not fit in the layout
+     */
+    void write(V value, ByteBuffer buffer, int offset, StringDictionary dictionary);
+
+    /**
+     * Reads the value of the record starting at the offset of the buffer, using absolute gets only.
+     *
+     * @param buffer Buffer holding the record
+     * @param offset Offset of the record in the buffer
+     * @param dictionary Dictionary the string fields were interned with
+     * @return Value of the record
+     */
+    V read(ByteBuffer buffer, int offset, StringDictionary dictionary);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.state;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns strings to dense int IDs, so that fixed-layout records can store a string field as a 4 byte ID. Interning is
+ * meant for low cardinality fields such as service names, span kinds and span names, as every distinct string is kept
+ * until the dictionary is cleared.
+ */
+public final class StringDictionary {
+    /**
+     * The ID of a null string.
+     */
+    public static final int NULL_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] strings = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return the ID of the string, assigning the next ID if the string was not interned yet
+     */
+    public int intern(final String string) {
+        if (string == null) {
+            return NULL_ID;
+        }
+        final Integer id = ids.get(string);
+        return id != null ? id : internIfAbsent(string);
+    }
+
+    private synchronized int internIfAbsent(final String string) {
+        final Integer id = ids.get(string);
+        if (id != null) {
+            return id;
+        }
+        String[] currentStrings = strings;
+        if (size == currentStrings.length) {
+            currentStrings = Arrays.copyOf(currentStrings, currentStrings.length * 2);
+        }
+        currentStrings[size] = string;
+        // the array is published before the ID, so that any reader holding the ID finds its string
+        strings = currentStrings;
+        ids.put(string, size);
+        return size++;
+    }
+
+    /**
+     * @return the string interned with the ID, or null for {@link #NULL_ID}
+     */
+    public String get(final int id) {
+        return id == NULL_ID ? null : strings[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        ids.clear();
+        strings = new String[INITIAL_CAPACITY];
+        size = 0;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.state;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary serialization of the values stored by a {@link MapDbPrepperState}, which keeps the values serialized in
+ * memory when it is given a serializer. Low cardinality string fields can be written as IDs of the state's
+ * {@link StringDictionary}, and other strings with {@link #writeString(DataOutput, String)}.
+ *
+ * @param <V> Type of the values
+ */
+public interface ValueSerializer<V> {
+
+    /**
+     * @param out Output to write the value to
+     * @param value Value to write
+     * @param dictionary Dictionary interning the low cardinality string fields
+     */
+    void serialize(DataOutput out, V value, StringDictionary dictionary) throws IOException;
+
+    /**
+     * @param in Input to read the value from
+     * @param dictionary Dictionary the string fields were interned with
+     * @return Value read
+     */
+    V deserialize(DataInput in, StringDictionary dictionary) throws IOException;
+
+    /**
+     * Writes a non-negative int in one to five bytes, seven bits per byte with the high bit set on all but the last.
+     */
+    static void writeVarInt(final DataOutput out, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Writes a nullable string as the varint length of its UTF-8 bytes plus one, followed by the bytes. A null string
+     * is written as a length of 0.
+     */
+    static void writeString(final DataOutput out, final String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    static String readString(final DataInput in) throws IOException {
+        final int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.state;
+
+import com.amazon.dataprepper.plugins.prepper.state.PrepperStateTest.DataClass;
+import com.google.common.primitives.Longs;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+public class OffHeapPrepperStateTest {
+
+    private static final Random RANDOM = new Random();
+
+    private OffHeapPrepperState<DataClass> prepperState;
+
+    @Before
+    public void setPrepperState() {
+        prepperState = new OffHeapPrepperState<>(new DataClassLayout(), 16, 4);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        final byte[] key = randomKey();
+        final DataClass data = randomData();
+
+        prepperState.put(key, data);
+
+        Assert.assertEquals(data, prepperState.get(key));
+        Assert.assertNull(prepperState.get(randomKey()));
+        Assert.assertNull(prepperState.get(new byte[]{1, 2, 3}));
+        Assert.assertEquals(1, prepperState.size());
+    }
+
+    @Test
+    public void testPutOverwritesValue() {
+        final byte[] key = randomKey();
+        final DataClass data = randomData();
+
+        prepperState.put(key, randomData());
+        prepperState.put(key, data);
+
+        Assert.assertEquals(data, prepperState.get(key));
+        Assert.assertEquals(1, prepperState.size());
+    }
+
+    @Test
+    public void testPutAllGrowsTables() {
+        final Map<byte[], DataClass> data = randomEntries(10_000);
+        final long initialSizeInBytes = prepperState.sizeInBytes();
+
+        prepperState.putAll(data);
+
+        Assert.assertEquals(data.size(), prepperState.size());
+        Assert.assertTrue(prepperState.sizeInBytes() > initialSizeInBytes);
+        data.forEach((key, value) -> Assert.assertEquals(value, prepperState.get(key)));
+        Assert.assertEquals(data.size(), prepperState.getAll().size());
+    }
+
+    @Test
+    public void testPutAllRejectsInvalidKeys() {
+        final Map<byte[], DataClass> data = randomEntries(10);
+        data.put(new byte[]{1, 2, 3}, randomData());
+
+        try {
+            prepperState.putAll(data);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            Assert.assertEquals(0, prepperState.size());
+        }
+    }
+
+    @Test
+    public void testPutAllRejectsValuesNotFittingLayout() {
+        final Map<byte[], DataClass> data = randomEntries(10);
+        data.put(randomKey(), new DataClass(UUID.randomUUID().toString(), -1));
+
+        try {
+            prepperState.putAll(data);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            Assert.assertEquals(0, prepperState.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutRejectsValueNotFittingLayout() {
+        prepperState.put(randomKey(), new DataClass(UUID.randomUUID().toString(), -1));
+    }
+
+    @Test
+    public void testIterateSegments() {
+        final Map<byte[], DataClass> data = randomEntries(1_000);
+        prepperState.putAll(data);
+
+        final List<Long> keys = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            keys.addAll(prepperState.iterate((key, value) -> {
+                Assert.assertEquals(data.get(findKey(data, key)), value);
+                return Longs.fromByteArray(key);
+            }, 3, index));
+        }
+
+        final Set<Long> expectedKeys = new HashSet<>();
+        data.keySet().forEach(key -> expectedKeys.add(Longs.fromByteArray(key)));
+        Assert.assertEquals(expectedKeys.size(), keys.size());
+        Assert.assertEquals(expectedKeys, new HashSet<>(keys));
+        Assert.assertEquals(data.size(), prepperState.iterate((key, value) -> value).size());
+    }
+
+    @Test
+    public void testClear() {
+        prepperState.putAll(randomEntries(1_000));
+        final long sizeInBytes = prepperState.sizeInBytes();
+
+        prepperState.clear();
+
+        Assert.assertEquals(0, prepperState.size());
+        Assert.assertEquals(Collections.emptyMap(), prepperState.getAll());
+        Assert.assertEquals(sizeInBytes, prepperState.sizeInBytes());
+
+        final byte[] key = randomKey();
+        final DataClass data = randomData();
+        prepperState.put(key, data);
+        Assert.assertEquals(data, prepperState.get(key));
+    }
+
+    @Test
+    public void testDelete() {
+        prepperState.putAll(randomEntries(1_000));
+
+        prepperState.delete();
+
+        Assert.assertEquals(0, prepperState.size());
+        Assert.assertEquals(Collections.emptyMap(), prepperState.getAll());
+    }
+
+    @Test
+    public void testStringDictionary() {
+        final StringDictionary dictionary = new StringDictionary();
+        final List<String> strings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            strings.add(UUID.randomUUID().toString());
+        }
+
+        strings.forEach(string -> Assert.assertEquals(strings.indexOf(string), dictionary.intern(string)));
+        strings.forEach(string -> Assert.assertEquals(strings.indexOf(string), dictionary.intern(string)));
+        strings.forEach(string -> Assert.assertEquals(string, dictionary.get(dictionary.intern(string))));
+        Assert.assertEquals(StringDictionary.NULL_ID, dictionary.intern(null));
+        Assert.assertNull(dictionary.get(StringDictionary.NULL_ID));
+        Assert.assertEquals(strings.size(), dictionary.size());
+
+        dictionary.clear();
+        Assert.assertEquals(0, dictionary.size());
+        Assert.assertEquals(0, dictionary.intern(strings.get(1)));
+    }
+
+    private static byte[] findKey(final Map<byte[], DataClass> data, final byte[] key) {
+        return data.keySet().stream().filter(dataKey -> Longs.fromByteArray(dataKey) == Longs.fromByteArray(key))
+                .findFirst().orElse(null);
+    }
+
+    private static Map<byte[], DataClass> randomEntries(final int count) {
+        final Map<byte[], DataClass> data = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            data.put(randomKey(), randomData());
+        }
+        return data;
+    }
+
+    private static byte[] randomKey() {
+        return Longs.toByteArray(RANDOM.nextLong());
+    }
+
+    private static DataClass randomData() {
+        return new DataClass(UUID.randomUUID().toString(), RANDOM.nextInt(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Stores the string as a dictionary ID, and only non-negative ints.
+     */
+    private static class DataClassLayout implements RecordLayout<DataClass> {
+        @Override
+        public int getRecordSize() {
+            return 2 * Integer.BYTES;
+        }
+
+        @Override
+        public boolean fits(final DataClass value) {
+            return value.intVal >= 0;
+        }
+
+        @Override
+        public void write(final DataClass value, final ByteBuffer buffer, final int offset, final StringDictionary dictionary) {
+            if (!fits(value)) {
+                throw new IllegalArgumentException("Negative int value");
+            }
+            buffer.putInt(offset, dictionary.intern(value.stringVal));
+            buffer.putInt(offset + Integer.BYTES, value.intVal);
+        }
+
+        @Override
+        public DataClass read(final ByteBuffer buffer, final int offset, final StringDictionary dictionary) {
+            return new DataClass(dictionary.get(buffer.getInt(offset)), buffer.getInt(offset + Integer.BYTES));
+        }
+    }
+}
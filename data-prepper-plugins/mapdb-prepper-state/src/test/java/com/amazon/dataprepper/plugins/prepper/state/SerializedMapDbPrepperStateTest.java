@@ -0,0 +1,85 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.state;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Runs the MapDB prepper state tests against a state keeping its values serialized.
+ */
+public class SerializedMapDbPrepperStateTest extends MapDbPrepperStateTest {
+
+    @Override
+    public void setPrepperState() throws Exception {
+        this.prepperState = new MapDbPrepperState<>(temporaryFolder.newFolder(), "testDb", 16, new DataClassSerializer());
+    }
+
+    @Test
+    public void testSizeInBytes() {
+        final long initialSizeInBytes = prepperState.sizeInBytes();
+        // enough entries to grow the store past the space it allocates up front
+        for (int i = 0; i < 100_000; i++) {
+            prepperState.put(UUID.randomUUID().toString().getBytes(), new DataClass("service-" + i % 10, i));
+        }
+
+        Assert.assertTrue(prepperState.sizeInBytes() > initialSizeInBytes);
+        Assert.assertEquals(100_000, prepperState.size());
+    }
+
+    @Test
+    public void testVarIntAndString() throws IOException {
+        final int[] ints = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE};
+        final String[] strings = {null, "", "span", "événement"};
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (final int value : ints) {
+            ValueSerializer.writeVarInt(out, value);
+        }
+        for (final String value : strings) {
+            ValueSerializer.writeString(out, value);
+        }
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (final int value : ints) {
+            Assert.assertEquals(value, ValueSerializer.readVarInt(in));
+        }
+        for (final String value : strings) {
+            Assert.assertEquals(value, ValueSerializer.readString(in));
+        }
+        Assert.assertEquals(0, in.available());
+        Assert.assertEquals(3, writeVarInt(16_384).length);
+    }
+
+    private static byte[] writeVarInt(final int value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ValueSerializer.writeVarInt(new DataOutputStream(bytes), value);
+        return bytes.toByteArray();
+    }
+
+    private static class DataClassSerializer implements ValueSerializer<DataClass> {
+        @Override
+        public void serialize(final DataOutput out, final DataClass value, final StringDictionary dictionary) throws IOException {
+            ValueSerializer.writeString(out, value.stringVal);
+            out.writeInt(value.intVal);
+        }
+
+        @Override
+        public DataClass deserialize(final DataInput in, final StringDictionary dictionary) throws IOException {
+            return new DataClass(ValueSerializer.readString(in), in.readInt());
+        }
+    }
+}
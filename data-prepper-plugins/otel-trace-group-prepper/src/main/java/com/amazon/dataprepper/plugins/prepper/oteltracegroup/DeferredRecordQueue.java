@@ -0,0 +1,103 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltracegroup;
+
+import com.amazon.dataprepper.model.record.Record;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded queue of the records whose trace group could not be found yet, each held for a fixed delay before its trace
+ * group is looked up again. Records are due in the order they were added, so due records are only ever taken from the
+ * head of the queue, and concurrent workers can take them without a lock.
+ */
+final class DeferredRecordQueue {
+    private final long delayMillis;
+    private final int maxSize;
+    private final Queue<DeferredRecord> deferredRecords = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    DeferredRecordQueue(final long delayMillis, final int maxSize) {
+        this.delayMillis = delayMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return false if the queue is full, in which case the record is not added
+     */
+    boolean offer(final DeferredRecord deferredRecord, final long now) {
+        if (size.incrementAndGet() > maxSize) {
+            size.decrementAndGet();
+            return false;
+        }
+        deferredRecord.dueTimeMillis = now + delayMillis;
+        deferredRecords.add(deferredRecord);
+        return true;
+    }
+
+    /**
+     * @param now the current time in milliseconds
+     * @return the records whose delay ended by now
+     */
+    List<DeferredRecord> pollDue(final long now) {
+        final List<DeferredRecord> dueRecords = new ArrayList<>();
+        DeferredRecord head;
+        while ((head = deferredRecords.peek()) != null && head.dueTimeMillis <= now) {
+            // another worker may have taken the head first, in which case the next one is checked
+            if (deferredRecords.remove(head)) {
+                size.decrementAndGet();
+                dueRecords.add(head);
+            }
+        }
+        return dueRecords;
+    }
+
+    /**
+     * @return every record regardless of its delay
+     */
+    List<DeferredRecord> pollAll() {
+        return pollDue(Long.MAX_VALUE);
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * A record missing its trace group, with the number of times its trace group was looked up.
+     */
+    static final class DeferredRecord {
+        private final Record<String> record;
+        private final RawSpanJson rawSpanJson;
+        private int lookups;
+        private long dueTimeMillis;
+
+        DeferredRecord(final Record<String> record, final RawSpanJson rawSpanJson) {
+            this.record = record;
+            this.rawSpanJson = rawSpanJson;
+        }
+
+        Record<String> getRecord() {
+            return record;
+        }
+
+        RawSpanJson getRawSpanJson() {
+            return rawSpanJson;
+        }
+
+        int getLookups() {
+            return lookups;
+        }
+
+        void incrementLookups() {
+            lookups++;
+        }
+    }
+}
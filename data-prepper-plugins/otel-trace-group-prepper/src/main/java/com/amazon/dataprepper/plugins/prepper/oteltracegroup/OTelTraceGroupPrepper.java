@@ -16,18 +16,25 @@ import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.prepper.AbstractPrepper;
 import com.amazon.dataprepper.model.prepper.Prepper;
 import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.TraceGroupCacheStatsCounter;
+import com.amazon.dataprepper.plugins.prepper.oteltracegroup.DeferredRecordQueue.DeferredRecord;
 import com.amazon.dataprepper.plugins.prepper.oteltracegroup.model.TraceGroup;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.base.Strings;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.collect.Iterables;
 import io.micrometer.core.instrument.Counter;
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.common.document.DocumentField;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestStatus;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.slf4j.Logger;
@@ -36,16 +43,20 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 @DataPrepperPlugin(name = "otel_trace_group_prepper", pluginType = Prepper.class)
@@ -54,61 +65,126 @@ public class OTelTraceGroupPrepper extends AbstractPrepper<Record<String>, Recor
     public static final String RECORDS_IN_MISSING_TRACE_GROUP = "recordsInMissingTraceGroup";
     public static final String RECORDS_OUT_FIXED_TRACE_GROUP = "recordsOutFixedTraceGroup";
     public static final String RECORDS_OUT_MISSING_TRACE_GROUP = "recordsOutMissingTraceGroup";
+    public static final String DEFERRED_RECORDS = "deferredRecords";
+    public static final String SEARCH_REQUESTS_THROTTLED = "searchRequestsThrottled";
 
     private static final Logger LOG = LoggerFactory.getLogger(OTelTraceGroupPrepper.class);
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final TypeReference<Map<String, Object>> MAP_TYPE_REFERENCE = new TypeReference<Map<String, Object>>() {};
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    /**
+     * Keeps the size of each search below the default index.max_result_window of 10,000 hits.
+     */
+    static final int MAX_TRACE_IDS_PER_SEARCH = 1000;
+    private static final long SEARCH_BACKOFF_INITIAL_DELAY_MILLIS = 1_000L;
+    private static final long SEARCH_BACKOFF_MAX_DELAY_MILLIS = 60_000L;
 
     private final OTelTraceGroupPrepperConfig otelTraceGroupPrepperConfig;
     private final RestHighLevelClient restHighLevelClient;
+    private final AsyncCache<String, Optional<TraceGroup>> traceGroupCache;
+    private final DeferredRecordQueue deferredRecordQueue;
+    private final SearchBackoff searchBackoff;
 
     private final Counter recordsInMissingTraceGroupCounter;
     private final Counter recordsOutFixedTraceGroupCounter;
     private final Counter recordsOutMissingTraceGroupCounter;
+    private final Counter searchRequestsThrottledCounter;
+
+    private volatile boolean isShuttingDown = false;
 
     public OTelTraceGroupPrepper(final PluginSetting pluginSetting) {
         super(pluginSetting);
         otelTraceGroupPrepperConfig = OTelTraceGroupPrepperConfig.buildConfig(pluginSetting);
         restHighLevelClient = otelTraceGroupPrepperConfig.getEsConnectionConfig().createClient();
+        traceGroupCache = buildTraceGroupCache(otelTraceGroupPrepperConfig);
+        deferredRecordQueue = new DeferredRecordQueue(
+                TimeUnit.SECONDS.toMillis(otelTraceGroupPrepperConfig.getDeferredLookupDelaySec()),
+                otelTraceGroupPrepperConfig.getMaxDeferredRecords());
+        searchBackoff = new SearchBackoff(SEARCH_BACKOFF_INITIAL_DELAY_MILLIS, SEARCH_BACKOFF_MAX_DELAY_MILLIS);
 
         recordsInMissingTraceGroupCounter = pluginMetrics.counter(RECORDS_IN_MISSING_TRACE_GROUP);
         recordsOutFixedTraceGroupCounter = pluginMetrics.counter(RECORDS_OUT_FIXED_TRACE_GROUP);
         recordsOutMissingTraceGroupCounter = pluginMetrics.counter(RECORDS_OUT_MISSING_TRACE_GROUP);
+        searchRequestsThrottledCounter = pluginMetrics.counter(SEARCH_REQUESTS_THROTTLED);
+        pluginMetrics.gauge(DEFERRED_RECORDS, deferredRecordQueue, DeferredRecordQueue::size);
+    }
+
+    /**
+     * Builds the cache of trace groups by trace ID. A trace ID whose root span was not found is cached as an empty
+     * trace group for a shorter time, and concurrent lookups of the same trace ID share a single search.
+     */
+    private AsyncCache<String, Optional<TraceGroup>> buildTraceGroupCache(final OTelTraceGroupPrepperConfig config) {
+        final long ttlNanos = TimeUnit.SECONDS.toNanos(config.getTraceGroupCacheTtlSec());
+        final long negativeTtlNanos = TimeUnit.SECONDS.toNanos(config.getTraceGroupNegativeCacheTtlSec());
+        return Caffeine.newBuilder()
+                .maximumSize(config.getTraceGroupCacheMaxSize())
+                .expireAfter(new Expiry<String, Optional<TraceGroup>>() {
+                    @Override
+                    public long expireAfterCreate(final String traceId, final Optional<TraceGroup> traceGroup,
+                                                  final long currentTime) {
+                        return traceGroup.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(final String traceId, final Optional<TraceGroup> traceGroup,
+                                                  final long currentTime, final long currentDuration) {
+                        return expireAfterCreate(traceId, traceGroup, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(final String traceId, final Optional<TraceGroup> traceGroup,
+                                                final long currentTime, final long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats(() -> new TraceGroupCacheStatsCounter(pluginMetrics))
+                .buildAsync();
     }
 
     @Override
     public Collection<Record<String>> doExecute(final Collection<Record<String>> rawSpanStringRecords) {
-        final List<Record<String>> recordsOut = new LinkedList<>();
-        final Map<Record<String>, Map<String, Object>> recordMissingTraceGroupToRawSpanMap = new HashMap<>();
-        final Set<String> traceIdsToLookUp = new HashSet<>();
+        final long now = System.currentTimeMillis();
+        final List<Record<String>> recordsOut = new ArrayList<>(rawSpanStringRecords.size());
+        final List<DeferredRecord> recordsMissingTraceGroup = new ArrayList<>();
         for (Record<String> record: rawSpanStringRecords) {
             try {
-                final Map<String, Object> rawSpanMap = OBJECT_MAPPER.readValue(record.getData(), MAP_TYPE_REFERENCE);
-                final String traceGroupName = (String) rawSpanMap.get(TraceGroup.TRACE_GROUP_NAME_FIELD);
-                final String traceId = (String) rawSpanMap.get(OTelTraceGroupPrepperConfig.TRACE_ID_FIELD);
-                if (Strings.isNullOrEmpty(traceGroupName)) {
-                    traceIdsToLookUp.add(traceId);
-                    recordMissingTraceGroupToRawSpanMap.put(record, rawSpanMap);
+                final RawSpanJson rawSpanJson = RawSpanJson.scan(JSON_FACTORY, record.getData());
+                if (rawSpanJson.isMissingTraceGroup()) {
+                    recordsMissingTraceGroup.add(new DeferredRecord(record, rawSpanJson));
                     recordsInMissingTraceGroupCounter.increment();
                 } else {
+                    final String traceId = rawSpanJson.getTraceId();
+                    if (rawSpanJson.isRootSpan() && traceId != null) {
+                        final TraceGroup traceGroup = rawSpanJson.getTraceGroup();
+                        if (traceGroup != null) {
+                            traceGroupCache.put(traceId, CompletableFuture.completedFuture(Optional.of(traceGroup)));
+                        }
+                    }
                     recordsOut.add(record);
                 }
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Failed to parse the record: [{}]", record.getData());
             }
         }
+        // The records held since an earlier batch are looked up again together with the records of this batch
+        final List<DeferredRecord> dueRecords = isShuttingDown ? deferredRecordQueue.pollAll() : deferredRecordQueue.pollDue(now);
+        invalidateMissingTraceGroups(dueRecords);
+        recordsMissingTraceGroup.addAll(dueRecords);
 
-        final Map<String, TraceGroup> traceIdToTraceGroup = searchTraceGroupByTraceIds(traceIdsToLookUp);
-        for (final Map.Entry<Record<String>, Map<String, Object>> entry: recordMissingTraceGroupToRawSpanMap.entrySet()) {
-            final Record<String> record = entry.getKey();
-            final Map<String, Object> rawSpanMap = entry.getValue();
-            final String traceId = (String) rawSpanMap.get(OTelTraceGroupPrepperConfig.TRACE_ID_FIELD);
-            final TraceGroup traceGroup = traceIdToTraceGroup.get(traceId);
+        final Set<String> traceIdsToLookUp = new HashSet<>();
+        recordsMissingTraceGroup.stream()
+                .map(deferredRecord -> deferredRecord.getRawSpanJson().getTraceId())
+                .filter(Objects::nonNull)
+                .forEach(traceIdsToLookUp::add);
+        final Map<String, TraceGroup> traceIdToTraceGroup = traceIdsToLookUp.isEmpty()
+                ? Collections.emptyMap() : lookUpTraceGroupByTraceIds(traceIdsToLookUp);
+        for (final DeferredRecord deferredRecord: recordsMissingTraceGroup) {
+            final Record<String> record = deferredRecord.getRecord();
+            final RawSpanJson rawSpanJson = deferredRecord.getRawSpanJson();
+            final String traceId = rawSpanJson.getTraceId();
+            final TraceGroup traceGroup = traceId == null ? null : traceIdToTraceGroup.get(traceId);
+            deferredRecord.incrementLookups();
             if (traceGroup != null) {
                 try {
-                    Map<String, Object> traceGroupMap = OBJECT_MAPPER.convertValue(traceGroup, MAP_TYPE_REFERENCE);
-                    rawSpanMap.putAll(traceGroupMap);
-                    final String newData = OBJECT_MAPPER.writeValueAsString(rawSpanMap);
+                    final String newData = RawSpanJson.withTraceGroup(JSON_FACTORY, record.getData(), traceGroup);
                     recordsOut.add(new Record<>(newData, record.getMetadata()));
                     recordsOutFixedTraceGroupCounter.increment();
                 } catch (Exception e) {
@@ -116,36 +192,134 @@ public class OTelTraceGroupPrepper extends AbstractPrepper<Record<String>, Recor
                     recordsOutMissingTraceGroupCounter.increment();
                     LOG.error("Failed to process the raw span: [{}]", record.getData(), e);
                 }
-            } else {
+            } else if (!shouldDefer(deferredRecord) || !deferredRecordQueue.offer(deferredRecord, now)) {
                 recordsOut.add(record);
                 recordsOutMissingTraceGroupCounter.increment();
-                final String spanId = (String) rawSpanMap.get(OTelTraceGroupPrepperConfig.SPAN_ID_FIELD);
-                LOG.warn("Failed to find traceGroup for spanId: {} due to traceGroup missing for traceId: {}", spanId, traceId);
+                LOG.warn("Failed to find traceGroup for spanId: {} due to traceGroup missing for traceId: {}",
+                        rawSpanJson.getSpanId(), traceId);
             }
         }
 
         return recordsOut;
     }
 
-    private Map<String, TraceGroup> searchTraceGroupByTraceIds(final Collection<String> traceIds) {
+    /**
+     * A record is held for another lookup until it was looked up again the configured number of times, unless the
+     * prepper is shutting down or has no trace ID to look up.
+     */
+    private boolean shouldDefer(final DeferredRecord deferredRecord) {
+        return otelTraceGroupPrepperConfig.getDeferredLookupDelaySec() > 0 && !isShuttingDown
+                && deferredRecord.getRawSpanJson().getTraceId() != null
+                && deferredRecord.getLookups() <= otelTraceGroupPrepperConfig.getDeferredLookupAttempts();
+    }
+
+    /**
+     * Drops the cached empty trace groups of the held records, which were cached when the records were first looked
+     * up, so that looking them up again searches for their root spans even within the negative cache TTL. Entries
+     * replaced by a found trace group in the meantime are kept.
+     */
+    private void invalidateMissingTraceGroups(final List<DeferredRecord> deferredRecords) {
+        for (final DeferredRecord deferredRecord: deferredRecords) {
+            final String traceId = deferredRecord.getRawSpanJson().getTraceId();
+            if (traceId == null) {
+                continue;
+            }
+            final CompletableFuture<Optional<TraceGroup>> cachedTraceGroup = traceGroupCache.getIfPresent(traceId);
+            if (cachedTraceGroup != null && cachedTraceGroup.isDone() && !cachedTraceGroup.isCompletedExceptionally()
+                    && !cachedTraceGroup.join().isPresent()) {
+                traceGroupCache.asMap().remove(traceId, cachedTraceGroup);
+            }
+        }
+    }
+
+    /**
+     * Looks up the trace groups in the cache, and searches for the trace IDs which are neither cached nor already
+     * searched for by another worker.
+     */
+    private Map<String, TraceGroup> lookUpTraceGroupByTraceIds(final Set<String> traceIds) {
         final Map<String, TraceGroup> traceIdToTraceGroup = new HashMap<>();
-        final SearchRequest searchRequest = createSearchRequest(traceIds);
+        try {
+            traceGroupCache.getAll(traceIds, (traceIdsToSearch, executor) ->
+                    CompletableFuture.completedFuture(searchTraceGroupByTraceIds(traceIdsToSearch)))
+                    .join()
+                    .forEach((traceId, traceGroup) -> traceGroup.ifPresent(value -> traceIdToTraceGroup.put(traceId, value)));
+        } catch (CompletionException e) {
+            LOG.error("Lookup for traceGroup failed for traceIds: {} due to {}", traceIds, e.getMessage());
+        }
+        return traceIdToTraceGroup;
+    }
+
+    /**
+     * Searches for the root spans of the trace IDs, in a single multi search request when they take several searches.
+     * The trace IDs of a successful search without a root span map to an empty trace group, while those of a failed
+     * search are left out so that they are not cached.
+     */
+    private Map<String, Optional<TraceGroup>> searchTraceGroupByTraceIds(final Iterable<? extends String> traceIds) {
+        final Map<String, Optional<TraceGroup>> traceIdToTraceGroup = new HashMap<>();
+        if (searchBackoff.isBackingOff(System.currentTimeMillis())) {
+            LOG.debug("Skipped search request for traceGroup for traceIds: {} due to throttling", traceIds);
+            return traceIdToTraceGroup;
+        }
+        final List<List<String>> traceIdBatches = new ArrayList<>();
+        Iterables.partition(traceIds, MAX_TRACE_IDS_PER_SEARCH).forEach(traceIdBatch -> traceIdBatches.add(new ArrayList<>(traceIdBatch)));
 
         try {
-            final SearchResponse searchResponse = restHighLevelClient.search(searchRequest, RequestOptions.DEFAULT);
-            final SearchHit[] searchHits = searchResponse.getHits().getHits();
-            Arrays.asList(searchHits).forEach(searchHit -> {
-                final Optional<Map.Entry<String, TraceGroup>> optionalStringTraceGroupEntry = fromSearchHitToMapEntry(searchHit);
-                optionalStringTraceGroupEntry.ifPresent(entry -> traceIdToTraceGroup.put(entry.getKey(), entry.getValue()));
-            });
+            if (traceIdBatches.size() == 1) {
+                final SearchResponse searchResponse = restHighLevelClient.search(
+                        createSearchRequest(traceIdBatches.get(0)), RequestOptions.DEFAULT);
+                putSearchHits(traceIdBatches.get(0), searchResponse, traceIdToTraceGroup);
+                searchBackoff.onSuccess();
+            } else {
+                final MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+                traceIdBatches.forEach(traceIdBatch -> multiSearchRequest.add(createSearchRequest(traceIdBatch)));
+                final MultiSearchResponse.Item[] items = restHighLevelClient.msearch(multiSearchRequest, RequestOptions.DEFAULT)
+                        .getResponses();
+                boolean isThrottled = false;
+                for (int i = 0; i < items.length; i++) {
+                    if (items[i].isFailure()) {
+                        isThrottled |= isTooManyRequests(items[i].getFailure());
+                        LOG.error("Search request for traceGroup failed for traceIds: {} due to {}", traceIdBatches.get(i),
+                                items[i].getFailureMessage());
+                    } else {
+                        putSearchHits(traceIdBatches.get(i), items[i].getResponse(), traceIdToTraceGroup);
+                    }
+                }
+                if (isThrottled) {
+                    onSearchThrottled();
+                } else {
+                    searchBackoff.onSuccess();
+                }
+            }
         } catch (Exception e) {
-            // TODO: retry for status code 429 of OpenSearchException?
+            if (isTooManyRequests(e)) {
+                onSearchThrottled();
+            }
             LOG.error("Search request for traceGroup failed for traceIds: {} due to {}", traceIds, e.getMessage());
         }
 
         return traceIdToTraceGroup;
     }
 
+    private static boolean isTooManyRequests(final Exception e) {
+        return ExceptionsHelper.status(e) == RestStatus.TOO_MANY_REQUESTS;
+    }
+
+    private void onSearchThrottled() {
+        searchRequestsThrottledCounter.increment();
+        searchBackoff.onTooManyRequests(System.currentTimeMillis());
+    }
+
+    private void putSearchHits(final Collection<String> traceIds, final SearchResponse searchResponse,
+                               final Map<String, Optional<TraceGroup>> traceIdToTraceGroup) {
+        traceIds.forEach(traceId -> traceIdToTraceGroup.put(traceId, Optional.empty()));
+        Arrays.asList(searchResponse.getHits().getHits()).forEach(searchHit -> {
+            final Optional<Map.Entry<String, TraceGroup>> optionalStringTraceGroupEntry = fromSearchHitToMapEntry(searchHit);
+            optionalStringTraceGroupEntry
+                    .filter(entry -> traceIdToTraceGroup.containsKey(entry.getKey()))
+                    .ifPresent(entry -> traceIdToTraceGroup.put(entry.getKey(), Optional.of(entry.getValue())));
+        });
+    }
+
     private SearchRequest createSearchRequest(final Collection<String> traceIds) {
         final SearchRequest searchRequest = new SearchRequest(OTelTraceGroupPrepperConfig.RAW_INDEX_ALIAS);
         final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
@@ -160,6 +334,7 @@ public class OTelTraceGroupPrepper extends AbstractPrepper<Record<String>, Recor
         searchSourceBuilder.docValueField(TraceGroup.TRACE_GROUP_DURATION_IN_NANOS_FIELD);
         searchSourceBuilder.docValueField(TraceGroup.TRACE_GROUP_STATUS_CODE_FIELD);
         searchSourceBuilder.fetchSource(false);
+        searchSourceBuilder.size(traceIds.size());
         searchRequest.source(searchSourceBuilder);
 
         return searchRequest;
@@ -187,12 +362,12 @@ public class OTelTraceGroupPrepper extends AbstractPrepper<Record<String>, Recor
 
     @Override
     public void prepareForShutdown() {
-
+        isShuttingDown = true;
     }
 
     @Override
     public boolean isReadyForShutdown() {
-        return true;
+        return deferredRecordQueue.size() == 0;
     }
 
     @Override
@@ -22,19 +22,86 @@ public class OTelTraceGroupPrepperConfig {
     protected static final String PARENT_SPAN_ID_FIELD = "parentSpanId";
     protected static final String RAW_INDEX_ALIAS = IndexConstants.TYPE_TO_DEFAULT_ALIAS.get(IndexType.TRACE_ANALYTICS_RAW);
     protected static final String STRICT_DATE_TIME = "strict_date_time";
+    protected static final String TRACE_GROUP_CACHE_TTL = "trace_group_cache_ttl";
+    protected static final long DEFAULT_TRACE_GROUP_CACHE_TTL_SEC = 60L;
+    protected static final String TRACE_GROUP_CACHE_MAX_SIZE = "trace_group_cache_max_size";
+    protected static final long DEFAULT_TRACE_GROUP_CACHE_MAX_SIZE = 100_000L;
+    /**
+     * How long a trace ID whose root span was not found is remembered as missing. It is kept short since the root
+     * span may only be indexed shortly after.
+     */
+    protected static final String TRACE_GROUP_NEGATIVE_CACHE_TTL = "trace_group_negative_cache_ttl";
+    protected static final long DEFAULT_TRACE_GROUP_NEGATIVE_CACHE_TTL_SEC = 5L;
+    /**
+     * How long a record whose trace group was not found is held before its trace group is looked up again. Records are
+     * not held when it is 0.
+     */
+    protected static final String DEFERRED_LOOKUP_DELAY = "deferred_lookup_delay";
+    protected static final long DEFAULT_DEFERRED_LOOKUP_DELAY_SEC = 0L;
+    protected static final String DEFERRED_LOOKUP_ATTEMPTS = "deferred_lookup_attempts";
+    protected static final int DEFAULT_DEFERRED_LOOKUP_ATTEMPTS = 3;
+    protected static final String MAX_DEFERRED_RECORDS = "max_deferred_records";
+    protected static final int DEFAULT_MAX_DEFERRED_RECORDS = 100_000;
 
     private final ConnectionConfiguration esConnectionConfig;
+    private final long traceGroupCacheTtlSec;
+    private final long traceGroupCacheMaxSize;
+    private final long traceGroupNegativeCacheTtlSec;
+    private final long deferredLookupDelaySec;
+    private final int deferredLookupAttempts;
+    private final int maxDeferredRecords;
 
     public ConnectionConfiguration getEsConnectionConfig() {
         return esConnectionConfig;
     }
 
-    private OTelTraceGroupPrepperConfig(final ConnectionConfiguration esConnectionConfig) {
+    public long getTraceGroupCacheTtlSec() {
+        return traceGroupCacheTtlSec;
+    }
+
+    public long getTraceGroupCacheMaxSize() {
+        return traceGroupCacheMaxSize;
+    }
+
+    public long getTraceGroupNegativeCacheTtlSec() {
+        return traceGroupNegativeCacheTtlSec;
+    }
+
+    public long getDeferredLookupDelaySec() {
+        return deferredLookupDelaySec;
+    }
+
+    public int getDeferredLookupAttempts() {
+        return deferredLookupAttempts;
+    }
+
+    public int getMaxDeferredRecords() {
+        return maxDeferredRecords;
+    }
+
+    private OTelTraceGroupPrepperConfig(final ConnectionConfiguration esConnectionConfig, final long traceGroupCacheTtlSec,
+                                        final long traceGroupCacheMaxSize, final long traceGroupNegativeCacheTtlSec,
+                                        final long deferredLookupDelaySec, final int deferredLookupAttempts,
+                                        final int maxDeferredRecords) {
         this.esConnectionConfig = esConnectionConfig;
+        this.traceGroupCacheTtlSec = traceGroupCacheTtlSec;
+        this.traceGroupCacheMaxSize = traceGroupCacheMaxSize;
+        this.traceGroupNegativeCacheTtlSec = traceGroupNegativeCacheTtlSec;
+        this.deferredLookupDelaySec = deferredLookupDelaySec;
+        this.deferredLookupAttempts = deferredLookupAttempts;
+        this.maxDeferredRecords = maxDeferredRecords;
     }
 
     public static OTelTraceGroupPrepperConfig buildConfig(final PluginSetting pluginSetting) {
         final ConnectionConfiguration esConnectionConfig = ConnectionConfiguration.readConnectionConfiguration(pluginSetting);
-        return new OTelTraceGroupPrepperConfig(esConnectionConfig);
+        final long traceGroupCacheTtlSec = pluginSetting.getLongOrDefault(TRACE_GROUP_CACHE_TTL, DEFAULT_TRACE_GROUP_CACHE_TTL_SEC);
+        final long traceGroupCacheMaxSize = pluginSetting.getLongOrDefault(TRACE_GROUP_CACHE_MAX_SIZE, DEFAULT_TRACE_GROUP_CACHE_MAX_SIZE);
+        final long traceGroupNegativeCacheTtlSec = pluginSetting.getLongOrDefault(TRACE_GROUP_NEGATIVE_CACHE_TTL,
+                DEFAULT_TRACE_GROUP_NEGATIVE_CACHE_TTL_SEC);
+        final long deferredLookupDelaySec = pluginSetting.getLongOrDefault(DEFERRED_LOOKUP_DELAY, DEFAULT_DEFERRED_LOOKUP_DELAY_SEC);
+        final int deferredLookupAttempts = pluginSetting.getIntegerOrDefault(DEFERRED_LOOKUP_ATTEMPTS, DEFAULT_DEFERRED_LOOKUP_ATTEMPTS);
+        final int maxDeferredRecords = pluginSetting.getIntegerOrDefault(MAX_DEFERRED_RECORDS, DEFAULT_MAX_DEFERRED_RECORDS);
+        return new OTelTraceGroupPrepperConfig(esConnectionConfig, traceGroupCacheTtlSec, traceGroupCacheMaxSize,
+                traceGroupNegativeCacheTtlSec, deferredLookupDelaySec, deferredLookupAttempts, maxDeferredRecords);
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltracegroup;
+
+import com.amazon.dataprepper.plugins.prepper.oteltracegroup.model.TraceGroup;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Strings;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Reads and fills the trace group fields of a raw span JSON document by walking its tokens, without binding the
+ * document to a map. Only the top level fields are inspected, and their values are skipped or copied as they are.
+ */
+final class RawSpanJson {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String traceGroupName;
+    private final String traceGroupEndTime;
+    private final Long traceGroupDurationInNanos;
+    private final Integer traceGroupStatusCode;
+
+    private RawSpanJson(final String traceId, final String spanId, final String parentSpanId, final String traceGroupName,
+                        final String traceGroupEndTime, final Long traceGroupDurationInNanos,
+                        final Integer traceGroupStatusCode) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.traceGroupName = traceGroupName;
+        this.traceGroupEndTime = traceGroupEndTime;
+        this.traceGroupDurationInNanos = traceGroupDurationInNanos;
+        this.traceGroupStatusCode = traceGroupStatusCode;
+    }
+
+    String getTraceId() {
+        return traceId;
+    }
+
+    String getSpanId() {
+        return spanId;
+    }
+
+    boolean isRootSpan() {
+        return Strings.isNullOrEmpty(parentSpanId);
+    }
+
+    boolean isMissingTraceGroup() {
+        return Strings.isNullOrEmpty(traceGroupName);
+    }
+
+    /**
+     * @return the trace group of the span, or null if any of its fields is missing
+     */
+    TraceGroup getTraceGroup() {
+        if (isMissingTraceGroup() || traceGroupEndTime == null || traceGroupDurationInNanos == null
+                || traceGroupStatusCode == null) {
+            return null;
+        }
+        return new TraceGroup(traceGroupName, traceGroupEndTime, traceGroupDurationInNanos, traceGroupStatusCode);
+    }
+
+    /**
+     * Scans the top level fields of a raw span document for its IDs and trace group. The scan stops as soon as the span
+     * is known to carry a trace group, unless it is a root span, for which the rest of the trace group fields are read.
+     */
+    static RawSpanJson scan(final JsonFactory jsonFactory, final String rawSpanJson) throws IOException {
+        String traceId = null;
+        String spanId = null;
+        String parentSpanId = null;
+        String traceGroupName = null;
+        String traceGroupEndTime = null;
+        Long traceGroupDurationInNanos = null;
+        Integer traceGroupStatusCode = null;
+        try (final JsonParser parser = jsonFactory.createParser(rawSpanJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Raw span is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken valueToken = parser.nextToken();
+                switch (fieldName) {
+                    case OTelTraceGroupPrepperConfig.TRACE_ID_FIELD:
+                        traceId = parser.getValueAsString();
+                        break;
+                    case OTelTraceGroupPrepperConfig.SPAN_ID_FIELD:
+                        spanId = parser.getValueAsString();
+                        break;
+                    case OTelTraceGroupPrepperConfig.PARENT_SPAN_ID_FIELD:
+                        parentSpanId = parser.getValueAsString();
+                        break;
+                    case TraceGroup.TRACE_GROUP_NAME_FIELD:
+                        traceGroupName = parser.getValueAsString();
+                        break;
+                    case TraceGroup.TRACE_GROUP_END_TIME_FIELD:
+                        traceGroupEndTime = parser.getValueAsString();
+                        break;
+                    case TraceGroup.TRACE_GROUP_DURATION_IN_NANOS_FIELD:
+                        traceGroupDurationInNanos = valueToken.isNumeric() ? parser.getLongValue() : null;
+                        break;
+                    case TraceGroup.TRACE_GROUP_STATUS_CODE_FIELD:
+                        traceGroupStatusCode = valueToken.isNumeric() ? parser.getIntValue() : null;
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+                if (traceId != null && parentSpanId != null && !Strings.isNullOrEmpty(traceGroupName) && (!parentSpanId.isEmpty()
+                        || (traceGroupEndTime != null && traceGroupDurationInNanos != null && traceGroupStatusCode != null))) {
+                    break;
+                }
+            }
+        }
+        return new RawSpanJson(traceId, spanId, parentSpanId, traceGroupName, traceGroupEndTime, traceGroupDurationInNanos,
+                traceGroupStatusCode);
+    }
+
+    /**
+     * Copies a raw span document with its trace group fields set to the trace group. The fields take the place of the
+     * existing trace group name field, or are appended if the document has none.
+     */
+    static String withTraceGroup(final JsonFactory jsonFactory, final String rawSpanJson, final TraceGroup traceGroup)
+            throws IOException {
+        final StringWriter writer = new StringWriter(rawSpanJson.length() + 128);
+        try (final JsonParser parser = jsonFactory.createParser(rawSpanJson);
+             final JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Raw span is not a JSON object");
+            }
+            generator.writeStartObject();
+            boolean traceGroupWritten = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (isTraceGroupField(fieldName)) {
+                    parser.skipChildren();
+                    if (!traceGroupWritten && TraceGroup.TRACE_GROUP_NAME_FIELD.equals(fieldName)) {
+                        writeTraceGroupFields(generator, traceGroup);
+                        traceGroupWritten = true;
+                    }
+                } else {
+                    generator.writeFieldName(fieldName);
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            if (!traceGroupWritten) {
+                writeTraceGroupFields(generator, traceGroup);
+            }
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    private static boolean isTraceGroupField(final String fieldName) {
+        return TraceGroup.TRACE_GROUP_NAME_FIELD.equals(fieldName)
+                || TraceGroup.TRACE_GROUP_END_TIME_FIELD.equals(fieldName)
+                || TraceGroup.TRACE_GROUP_DURATION_IN_NANOS_FIELD.equals(fieldName)
+                || TraceGroup.TRACE_GROUP_STATUS_CODE_FIELD.equals(fieldName);
+    }
+
+    private static void writeTraceGroupFields(final JsonGenerator generator, final TraceGroup traceGroup) throws IOException {
+        generator.writeStringField(TraceGroup.TRACE_GROUP_NAME_FIELD, traceGroup.getName());
+        generator.writeStringField(TraceGroup.TRACE_GROUP_END_TIME_FIELD, traceGroup.getEndTime());
+        generator.writeObjectField(TraceGroup.TRACE_GROUP_STATUS_CODE_FIELD, traceGroup.getStatusCode());
+        generator.writeObjectField(TraceGroup.TRACE_GROUP_DURATION_IN_NANOS_FIELD, traceGroup.getDurationInNanos());
+    }
+}
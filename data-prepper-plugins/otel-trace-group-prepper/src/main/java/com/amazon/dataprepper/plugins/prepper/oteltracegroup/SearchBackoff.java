@@ -0,0 +1,38 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltracegroup;
+
+/**
+ * Exponential backoff of the trace group searches after OpenSearch rejected them with status 429. Searches are skipped
+ * rather than retried in place while backing off, so that workers keep processing records in the meantime.
+ */
+final class SearchBackoff {
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private long delayMillis;
+    private volatile long backoffEndMillis;
+
+    SearchBackoff(final long initialDelayMillis, final long maxDelayMillis) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    boolean isBackingOff(final long now) {
+        return now < backoffEndMillis;
+    }
+
+    /**
+     * Doubles the backoff delay, starting from the initial delay, and skips searches for that long.
+     */
+    synchronized void onTooManyRequests(final long now) {
+        delayMillis = delayMillis == 0 ? initialDelayMillis : Math.min(delayMillis * 2, maxDelayMillis);
+        backoffEndMillis = now + delayMillis;
+    }
+
+    synchronized void onSuccess() {
+        delayMillis = 0;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltracegroup;
+
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.oteltracegroup.DeferredRecordQueue.DeferredRecord;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeferredRecordQueueTests {
+
+    private static final long TEST_DELAY_MILLIS = 1000L;
+
+    @Test
+    public void testPollDueReturnsRecordsAfterTheirDelay() throws IOException {
+        final DeferredRecordQueue deferredRecordQueue = new DeferredRecordQueue(TEST_DELAY_MILLIS, 10);
+        final DeferredRecord firstRecord = buildDeferredRecord("1");
+        final DeferredRecord secondRecord = buildDeferredRecord("2");
+
+        assertTrue(deferredRecordQueue.offer(firstRecord, 0L));
+        assertTrue(deferredRecordQueue.offer(secondRecord, 10L));
+
+        assertEquals(Collections.emptyList(), deferredRecordQueue.pollDue(TEST_DELAY_MILLIS - 1));
+        assertEquals(Collections.singletonList(firstRecord), deferredRecordQueue.pollDue(TEST_DELAY_MILLIS));
+        assertEquals(1, deferredRecordQueue.size());
+        assertEquals(Collections.singletonList(secondRecord), deferredRecordQueue.pollAll());
+        assertEquals(0, deferredRecordQueue.size());
+    }
+
+    @Test
+    public void testOfferRejectsRecordsBeyondMaxSize() throws IOException {
+        final DeferredRecordQueue deferredRecordQueue = new DeferredRecordQueue(TEST_DELAY_MILLIS, 2);
+        final DeferredRecord firstRecord = buildDeferredRecord("1");
+        final DeferredRecord secondRecord = buildDeferredRecord("2");
+
+        assertTrue(deferredRecordQueue.offer(firstRecord, 0L));
+        assertTrue(deferredRecordQueue.offer(secondRecord, 0L));
+        assertFalse(deferredRecordQueue.offer(buildDeferredRecord("3"), 0L));
+
+        assertEquals(2, deferredRecordQueue.size());
+        assertEquals(Arrays.asList(firstRecord, secondRecord), deferredRecordQueue.pollDue(TEST_DELAY_MILLIS));
+    }
+
+    private DeferredRecord buildDeferredRecord(final String traceId) throws IOException {
+        final String rawSpanJson = "{\"traceId\":\"" + traceId + "\",\"parentSpanId\":\"abc\"}";
+        return new DeferredRecord(new Record<>(rawSpanJson), RawSpanJson.scan(new JsonFactory(), rawSpanJson));
+    }
+}
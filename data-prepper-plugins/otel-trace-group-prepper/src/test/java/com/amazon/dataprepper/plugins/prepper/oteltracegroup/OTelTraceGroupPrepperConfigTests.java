@@ -39,6 +39,35 @@ public class OTelTraceGroupPrepperConfigTests {
             PluginSetting testPluginSetting = new PluginSetting("otel_trace_group_prepper", new HashMap<>());
             OTelTraceGroupPrepperConfig otelTraceGroupPrepperConfig = OTelTraceGroupPrepperConfig.buildConfig(testPluginSetting);
             assertEquals(connectionConfigurationMock, otelTraceGroupPrepperConfig.getEsConnectionConfig());
+            assertEquals(OTelTraceGroupPrepperConfig.DEFAULT_TRACE_GROUP_CACHE_TTL_SEC, otelTraceGroupPrepperConfig.getTraceGroupCacheTtlSec());
+            assertEquals(OTelTraceGroupPrepperConfig.DEFAULT_TRACE_GROUP_CACHE_MAX_SIZE, otelTraceGroupPrepperConfig.getTraceGroupCacheMaxSize());
+            assertEquals(OTelTraceGroupPrepperConfig.DEFAULT_TRACE_GROUP_NEGATIVE_CACHE_TTL_SEC,
+                    otelTraceGroupPrepperConfig.getTraceGroupNegativeCacheTtlSec());
+            assertEquals(OTelTraceGroupPrepperConfig.DEFAULT_DEFERRED_LOOKUP_DELAY_SEC, otelTraceGroupPrepperConfig.getDeferredLookupDelaySec());
+            assertEquals(OTelTraceGroupPrepperConfig.DEFAULT_DEFERRED_LOOKUP_ATTEMPTS, otelTraceGroupPrepperConfig.getDeferredLookupAttempts());
+            assertEquals(OTelTraceGroupPrepperConfig.DEFAULT_MAX_DEFERRED_RECORDS, otelTraceGroupPrepperConfig.getMaxDeferredRecords());
+        }
+    }
+
+    @Test
+    public void testInitializeWithTraceGroupCacheSettings() {
+        try (MockedStatic<ConnectionConfiguration> connectionConfigurationMockedStatic = Mockito.mockStatic(ConnectionConfiguration.class)) {
+            connectionConfigurationMockedStatic.when(() -> ConnectionConfiguration.readConnectionConfiguration(any(PluginSetting.class)))
+                    .thenReturn(connectionConfigurationMock);
+            PluginSetting testPluginSetting = new PluginSetting("otel_trace_group_prepper", new HashMap<>());
+            testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.TRACE_GROUP_CACHE_TTL, 30);
+            testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.TRACE_GROUP_CACHE_MAX_SIZE, 1000);
+            testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.TRACE_GROUP_NEGATIVE_CACHE_TTL, 1);
+            testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.DEFERRED_LOOKUP_DELAY, 10);
+            testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.DEFERRED_LOOKUP_ATTEMPTS, 5);
+            testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.MAX_DEFERRED_RECORDS, 200);
+            OTelTraceGroupPrepperConfig otelTraceGroupPrepperConfig = OTelTraceGroupPrepperConfig.buildConfig(testPluginSetting);
+            assertEquals(30L, otelTraceGroupPrepperConfig.getTraceGroupCacheTtlSec());
+            assertEquals(1000L, otelTraceGroupPrepperConfig.getTraceGroupCacheMaxSize());
+            assertEquals(1L, otelTraceGroupPrepperConfig.getTraceGroupNegativeCacheTtlSec());
+            assertEquals(10L, otelTraceGroupPrepperConfig.getDeferredLookupDelaySec());
+            assertEquals(5, otelTraceGroupPrepperConfig.getDeferredLookupAttempts());
+            assertEquals(200, otelTraceGroupPrepperConfig.getMaxDeferredRecords());
         }
     }
 }
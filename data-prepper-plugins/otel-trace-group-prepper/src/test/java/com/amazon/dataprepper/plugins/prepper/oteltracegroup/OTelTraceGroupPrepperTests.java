@@ -15,6 +15,7 @@ import com.amazon.dataprepper.metrics.MetricNames;
 import com.amazon.dataprepper.metrics.MetricsTestUtil;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.TraceGroupCacheStatsCounter;
 import com.amazon.dataprepper.plugins.prepper.oteltracegroup.model.TraceGroup;
 import com.amazon.dataprepper.plugins.sink.opensearch.ConnectionConfiguration;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -22,11 +23,15 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Measurement;
 import org.opensearch.OpenSearchException;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.common.document.DocumentField;
+import org.opensearch.rest.RestStatus;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
 import org.junit.After;
@@ -57,10 +62,12 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -82,6 +89,7 @@ public class OTelTraceGroupPrepperTests {
     private static final String TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1 = "raw-span-missing-trace-group-1.json";
     private static final String TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_2 = "raw-span-missing-trace-group-2.json";
     private static final int TEST_NUM_WORKERS = 2;
+    private static final long TEST_DEFERRED_LOOKUP_DELAY_MILLIS = 1100L;
 
     private MockedStatic<ConnectionConfiguration> connectionConfigurationMockedStatic;
 
@@ -176,6 +184,70 @@ public class OTelTraceGroupPrepperTests {
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 0.0);
     }
 
+    @Test
+    public void testTraceGroupFillFromCache() throws IOException {
+        // Arrange
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        List<Record<String>> testRecords = Collections.singletonList(testRecord);
+
+        // Act
+        otelTraceGroupPrepper.doExecute(testRecords);
+        List<Record<String>> recordsOut = (List<Record<String>>) otelTraceGroupPrepper.doExecute(testRecords);
+
+        // Assert
+        assertEquals(1, recordsOut.size());
+        assertEquals(TEST_TRACE_GROUP_1, extractTraceGroupFromRecord(recordsOut.get(0)));
+        verify(restHighLevelClient, times(1)).search(any(SearchRequest.class), any(RequestOptions.class));
+        checkMeasurementValue(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_MISSES, 1.0);
+        checkMeasurementValue(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_HITS, 1.0);
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_FIXED_TRACE_GROUP, 2.0);
+    }
+
+    @Test
+    public void testTraceGroupFillFromRootSpan() throws IOException {
+        // Arrange
+        Record<String> testRootRecord = buildRootRawSpanRecord(TEST_RAW_SPAN_COMPLETE_JSON_FILE_1);
+        Record<String> testMissingRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        final TraceGroup expectedTraceGroup = extractTraceGroupFromRecord(testRootRecord);
+
+        // Act
+        otelTraceGroupPrepper.doExecute(Collections.singletonList(testRootRecord));
+        List<Record<String>> recordsOut = (List<Record<String>>) otelTraceGroupPrepper.doExecute(
+                Collections.singletonList(testMissingRecord));
+
+        // Assert
+        assertEquals(1, recordsOut.size());
+        assertEquals(expectedTraceGroup, extractTraceGroupFromRecord(recordsOut.get(0)));
+        verify(restHighLevelClient, never()).search(any(SearchRequest.class), any(RequestOptions.class));
+    }
+
+    @Test
+    public void testTraceGroupFillWithMultiSearch() throws IOException {
+        // Arrange
+        final List<Record<String>> testRecords = new ArrayList<>();
+        testRecords.add(buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1));
+        for (int i = 0; i < OTelTraceGroupPrepper.MAX_TRACE_IDS_PER_SEARCH; i++) {
+            testRecords.add(buildRawSpanRecordWithTraceId(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_2, String.format("%032x", i)));
+        }
+        final MultiSearchResponse multiSearchResponse = Mockito.mock(MultiSearchResponse.class);
+        final MultiSearchResponse.Item item = Mockito.mock(MultiSearchResponse.Item.class);
+        final MultiSearchResponse.Item failedItem = Mockito.mock(MultiSearchResponse.Item.class);
+        when(restHighLevelClient.msearch(any(MultiSearchRequest.class), any(RequestOptions.class))).thenReturn(multiSearchResponse);
+        when(multiSearchResponse.getResponses()).thenReturn(new MultiSearchResponse.Item[] {item, failedItem});
+        when(item.getResponse()).thenReturn(testSearchResponse);
+        when(failedItem.isFailure()).thenReturn(true);
+
+        // Act
+        List<Record<String>> recordsOut = (List<Record<String>>) otelTraceGroupPrepper.doExecute(testRecords);
+
+        // Assert
+        assertEquals(testRecords.size(), recordsOut.size());
+        verify(restHighLevelClient, times(1)).msearch(any(MultiSearchRequest.class), any(RequestOptions.class));
+        verify(restHighLevelClient, never()).search(any(SearchRequest.class), any(RequestOptions.class));
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_FIXED_TRACE_GROUP, 1.0);
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, testRecords.size() - 1.0);
+    }
+
     @Test
     public void testTraceGroupFillFailDueToFailedRequest() throws IOException {
         // Arrange
@@ -196,6 +268,129 @@ public class OTelTraceGroupPrepperTests {
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 1.0);
     }
 
+    @Test
+    public void testTraceGroupFillAfterFailedRequest() throws IOException {
+        // Arrange
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        List<Record<String>> testRecords = Collections.singletonList(testRecord);
+        when(restHighLevelClient.search(any(SearchRequest.class), any(RequestOptions.class)))
+                .thenThrow(new OpenSearchException("Failure due to search request"))
+                .thenReturn(testSearchResponse);
+
+        // Act
+        otelTraceGroupPrepper.doExecute(testRecords);
+        List<Record<String>> recordsOut = (List<Record<String>>) otelTraceGroupPrepper.doExecute(testRecords);
+
+        // Assert
+        assertEquals(1, recordsOut.size());
+        assertEquals(TEST_TRACE_GROUP_1, extractTraceGroupFromRecord(recordsOut.get(0)));
+        verify(restHighLevelClient, times(2)).search(any(SearchRequest.class), any(RequestOptions.class));
+    }
+
+    @Test
+    public void testSearchBackoffOnTooManyRequests() throws IOException {
+        // Arrange
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        List<Record<String>> testRecords = Collections.singletonList(testRecord);
+        when(restHighLevelClient.search(any(SearchRequest.class), any(RequestOptions.class)))
+                .thenThrow(new OpenSearchStatusException("Too many requests", RestStatus.TOO_MANY_REQUESTS));
+
+        // Act
+        otelTraceGroupPrepper.doExecute(testRecords);
+        List<Record<String>> recordsOut = (List<Record<String>>) otelTraceGroupPrepper.doExecute(testRecords);
+
+        // Assert
+        assertEquals(Collections.singletonList(testRecord), recordsOut);
+        verify(restHighLevelClient, times(1)).search(any(SearchRequest.class), any(RequestOptions.class));
+        checkMeasurementValue(OTelTraceGroupPrepper.SEARCH_REQUESTS_THROTTLED, 1.0);
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 2.0);
+    }
+
+    @Test
+    public void testDeferredRecordFilledOnLaterLookup() throws IOException, InterruptedException {
+        // Arrange
+        final OTelTraceGroupPrepper deferringPrepper = createDeferringPrepper(3);
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        when(testSearchHits.getHits()).thenReturn(new SearchHit[] {}).thenReturn(new SearchHit[] {testSearchHit1});
+
+        // Act
+        Collection<Record<String>> recordsOut = deferringPrepper.doExecute(Collections.singletonList(testRecord));
+
+        // Assert
+        assertTrue(recordsOut.isEmpty());
+        checkMeasurementValue(OTelTraceGroupPrepper.DEFERRED_RECORDS, 1.0);
+
+        // Act
+        Thread.sleep(TEST_DEFERRED_LOOKUP_DELAY_MILLIS);
+        recordsOut = deferringPrepper.doExecute(Collections.emptyList());
+
+        // Assert
+        assertEquals(1, recordsOut.size());
+        assertEquals(TEST_TRACE_GROUP_1, extractTraceGroupFromRecord(recordsOut.iterator().next()));
+        checkMeasurementValue(OTelTraceGroupPrepper.DEFERRED_RECORDS, 0.0);
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_IN_MISSING_TRACE_GROUP, 1.0);
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_FIXED_TRACE_GROUP, 1.0);
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 0.0);
+        deferringPrepper.shutdown();
+    }
+
+    @Test
+    public void testDeferredRecordSearchedAgainWithinNegativeCacheTtl() throws IOException, InterruptedException {
+        // Arrange
+        final OTelTraceGroupPrepper deferringPrepper = createDeferringPrepper(3, 5);
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        when(testSearchHits.getHits()).thenReturn(new SearchHit[] {}).thenReturn(new SearchHit[] {testSearchHit1});
+
+        // Act
+        Collection<Record<String>> recordsOut = deferringPrepper.doExecute(Collections.singletonList(testRecord));
+        Thread.sleep(TEST_DEFERRED_LOOKUP_DELAY_MILLIS);
+        recordsOut = deferringPrepper.doExecute(Collections.emptyList());
+
+        // Assert
+        assertEquals(1, recordsOut.size());
+        assertEquals(TEST_TRACE_GROUP_1, extractTraceGroupFromRecord(recordsOut.iterator().next()));
+        verify(restHighLevelClient, times(2)).search(any(SearchRequest.class), any(RequestOptions.class));
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_FIXED_TRACE_GROUP, 1.0);
+        deferringPrepper.shutdown();
+    }
+
+    @Test
+    public void testDeferredRecordEmittedAfterLastLookup() throws IOException, InterruptedException {
+        // Arrange
+        final OTelTraceGroupPrepper deferringPrepper = createDeferringPrepper(1);
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        when(testSearchHits.getHits()).thenReturn(new SearchHit[] {});
+
+        // Act
+        deferringPrepper.doExecute(Collections.singletonList(testRecord));
+        Thread.sleep(TEST_DEFERRED_LOOKUP_DELAY_MILLIS);
+        Collection<Record<String>> recordsOut = deferringPrepper.doExecute(Collections.emptyList());
+
+        // Assert
+        assertEquals(Collections.singletonList(testRecord), recordsOut);
+        verify(restHighLevelClient, times(2)).search(any(SearchRequest.class), any(RequestOptions.class));
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 1.0);
+        deferringPrepper.shutdown();
+    }
+
+    @Test
+    public void testDeferredRecordsEmittedOnShutdown() throws IOException {
+        // Arrange
+        final OTelTraceGroupPrepper deferringPrepper = createDeferringPrepper(3);
+        Record<String> testRecord = buildRawSpanRecord(TEST_RAW_SPAN_MISSING_TRACE_GROUP_JSON_FILE_1);
+        when(testSearchHits.getHits()).thenReturn(new SearchHit[] {});
+        deferringPrepper.doExecute(Collections.singletonList(testRecord));
+
+        // Act
+        deferringPrepper.prepareForShutdown();
+
+        // Assert
+        assertFalse(deferringPrepper.isReadyForShutdown());
+        assertEquals(Collections.singletonList(testRecord), deferringPrepper.doExecute(Collections.emptyList()));
+        assertTrue(deferringPrepper.isReadyForShutdown());
+        deferringPrepper.shutdown();
+    }
+
     @Test
     public void testTraceGroupFillFailDueToNoHits() throws IOException {
         // Arrange
@@ -215,6 +410,13 @@ public class OTelTraceGroupPrepperTests {
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_IN_MISSING_TRACE_GROUP, 1.0);
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_FIXED_TRACE_GROUP, 0.0);
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 1.0);
+
+        // Act
+        otelTraceGroupPrepper.doExecute(testRecords);
+
+        // Assert
+        verify(restHighLevelClient, times(1)).search(any(SearchRequest.class), any(RequestOptions.class));
+        checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 2.0);
     }
 
     @Test
@@ -233,6 +435,7 @@ public class OTelTraceGroupPrepperTests {
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_IN_MISSING_TRACE_GROUP, 0.0);
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_FIXED_TRACE_GROUP, 0.0);
         checkMeasurementValue(OTelTraceGroupPrepper.RECORDS_OUT_MISSING_TRACE_GROUP, 0.0);
+        verify(restHighLevelClient, never()).search(any(SearchRequest.class), any(RequestOptions.class));
     }
 
     @Test
@@ -271,6 +474,22 @@ public class OTelTraceGroupPrepperTests {
         assertTrue(otelTraceGroupPrepper.isReadyForShutdown());
     }
 
+    private OTelTraceGroupPrepper createDeferringPrepper(final int deferredLookupAttempts) {
+        return createDeferringPrepper(deferredLookupAttempts, 0);
+    }
+
+    private OTelTraceGroupPrepper createDeferringPrepper(final int deferredLookupAttempts, final int negativeCacheTtlSec) {
+        final PluginSetting testPluginSetting = new PluginSetting("otel_trace_group_prepper", new HashMap<>()) {{
+            setPipelineName(TEST_PIPELINE_NAME);
+        }};
+        testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.DEFERRED_LOOKUP_DELAY, 1);
+        testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.DEFERRED_LOOKUP_ATTEMPTS, deferredLookupAttempts);
+        testPluginSetting.getSettings().put(OTelTraceGroupPrepperConfig.TRACE_GROUP_NEGATIVE_CACHE_TTL, negativeCacheTtlSec);
+        // Resets the metrics registered by the prepper created in setUp
+        MetricsTestUtil.initMetrics();
+        return new OTelTraceGroupPrepper(testPluginSetting);
+    }
+
     private Record<String> buildRawSpanRecord(String rawSpanJsonFileName) throws IOException {
         final StringBuilder jsonBuilder = new StringBuilder();
         try (final InputStream inputStream = Objects.requireNonNull(
@@ -281,6 +500,20 @@ public class OTelTraceGroupPrepperTests {
         return new Record<>(jsonBuilder.toString());
     }
 
+    private Record<String> buildRootRawSpanRecord(String rawSpanJsonFileName) throws IOException {
+        final Map<String, Object> rawSpanMap = OBJECT_MAPPER.readValue(buildRawSpanRecord(rawSpanJsonFileName).getData(),
+                new TypeReference<Map<String, Object>>() {});
+        rawSpanMap.put("parentSpanId", "");
+        return new Record<>(OBJECT_MAPPER.writeValueAsString(rawSpanMap));
+    }
+
+    private Record<String> buildRawSpanRecordWithTraceId(String rawSpanJsonFileName, String traceId) throws IOException {
+        final Map<String, Object> rawSpanMap = OBJECT_MAPPER.readValue(buildRawSpanRecord(rawSpanJsonFileName).getData(),
+                new TypeReference<Map<String, Object>>() {});
+        rawSpanMap.put("traceId", traceId);
+        return new Record<>(OBJECT_MAPPER.writeValueAsString(rawSpanMap));
+    }
+
     private TraceGroup extractTraceGroupFromRecord(final Record<String> record) throws JsonProcessingException {
         Map<String, Object> rawSpanMap = OBJECT_MAPPER.readValue(record.getData(), new TypeReference<Map<String, Object>>() {});
         final String traceGroupName = (String) rawSpanMap.get(TraceGroup.TRACE_GROUP_NAME_FIELD);
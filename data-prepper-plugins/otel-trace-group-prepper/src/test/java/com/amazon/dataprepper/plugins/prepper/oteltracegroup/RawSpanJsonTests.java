@@ -0,0 +1,105 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltracegroup;
+
+import com.amazon.dataprepper.plugins.prepper.oteltracegroup.model.TraceGroup;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RawSpanJsonTests {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE_REFERENCE =
+            new TypeReference<LinkedHashMap<String, Object>>() {};
+    private static final TraceGroup TEST_TRACE_GROUP = new TraceGroup("/test_trace_group",
+            "2020-08-19T05:30:46.089556800Z", 48545100L, 1);
+
+    @Test
+    public void testScanSpanWithTraceGroupStopsAtTraceGroupName() throws IOException {
+        // Anything after the trace group name is not read, even if it is malformed
+        final String rawSpanJson = "{\"traceId\":\"abc\",\"spanId\":\"def\",\"parentSpanId\":\"123\",\"events\":[{\"name\":\"e\"}]," +
+                "\"traceGroup\":\"/test_trace_group\",\"attributes\":";
+
+        final RawSpanJson scannedRawSpan = RawSpanJson.scan(JSON_FACTORY, rawSpanJson);
+
+        assertEquals("abc", scannedRawSpan.getTraceId());
+        assertEquals("def", scannedRawSpan.getSpanId());
+        assertFalse(scannedRawSpan.isRootSpan());
+        assertFalse(scannedRawSpan.isMissingTraceGroup());
+        assertNull(scannedRawSpan.getTraceGroup());
+    }
+
+    @Test
+    public void testScanRootSpanReadsTraceGroup() throws IOException {
+        final Map<String, Object> rawSpanMap = new LinkedHashMap<>();
+        rawSpanMap.put("traceId", "abc");
+        rawSpanMap.put("parentSpanId", "");
+        rawSpanMap.putAll(OBJECT_MAPPER.convertValue(TEST_TRACE_GROUP, MAP_TYPE_REFERENCE));
+
+        final RawSpanJson scannedRawSpan = RawSpanJson.scan(JSON_FACTORY, OBJECT_MAPPER.writeValueAsString(rawSpanMap));
+
+        assertTrue(scannedRawSpan.isRootSpan());
+        assertEquals(TEST_TRACE_GROUP, scannedRawSpan.getTraceGroup());
+    }
+
+    @Test
+    public void testScanSpanMissingTraceGroup() throws IOException {
+        final String rawSpanJson = "{\"traceId\":\"abc\",\"parentSpanId\":\"123\",\"traceGroup\":null}";
+
+        final RawSpanJson scannedRawSpan = RawSpanJson.scan(JSON_FACTORY, rawSpanJson);
+
+        assertTrue(scannedRawSpan.isMissingTraceGroup());
+        assertNull(scannedRawSpan.getSpanId());
+    }
+
+    @Test(expected = IOException.class)
+    public void testScanNonObject() throws IOException {
+        RawSpanJson.scan(JSON_FACTORY, "[]");
+    }
+
+    @Test
+    public void testWithTraceGroupReplacesNullTraceGroupFields() throws IOException {
+        final String rawSpanJson = "{\"traceId\":\"abc\",\"events\":[{\"name\":\"e\",\"attributes\":{\"a\":1.5}}],\"traceGroup\":null," +
+                "\"traceGroupFields.endTime\":null,\"traceGroupFields.statusCode\":null," +
+                "\"traceGroupFields.durationInNanos\":null,\"span.attributes.b\":true}";
+
+        final String filledRawSpanJson = RawSpanJson.withTraceGroup(JSON_FACTORY, rawSpanJson, TEST_TRACE_GROUP);
+
+        assertEquals(putAllTraceGroupFields(rawSpanJson), OBJECT_MAPPER.readValue(filledRawSpanJson, MAP_TYPE_REFERENCE));
+        assertEquals(new ArrayList<>(putAllTraceGroupFields(rawSpanJson).keySet()),
+                new ArrayList<>(OBJECT_MAPPER.readValue(filledRawSpanJson, MAP_TYPE_REFERENCE).keySet()));
+    }
+
+    @Test
+    public void testWithTraceGroupAppendsMissingTraceGroupFields() throws IOException {
+        final String rawSpanJson = "{\"traceId\":\"abc\",\"links\":[],\"span.attributes.b\":\"c\"}";
+
+        final String filledRawSpanJson = RawSpanJson.withTraceGroup(JSON_FACTORY, rawSpanJson, TEST_TRACE_GROUP);
+
+        assertEquals(putAllTraceGroupFields(rawSpanJson), OBJECT_MAPPER.readValue(filledRawSpanJson, MAP_TYPE_REFERENCE));
+        assertEquals(TEST_TRACE_GROUP, RawSpanJson.scan(JSON_FACTORY, filledRawSpanJson.replace("\"traceId\":\"abc\"",
+                "\"traceId\":\"abc\",\"parentSpanId\":\"\"")).getTraceGroup());
+    }
+
+    private Map<String, Object> putAllTraceGroupFields(final String rawSpanJson) throws IOException {
+        final Map<String, Object> rawSpanMap = OBJECT_MAPPER.readValue(rawSpanJson, MAP_TYPE_REFERENCE);
+        rawSpanMap.putAll(OBJECT_MAPPER.convertValue(TEST_TRACE_GROUP, MAP_TYPE_REFERENCE));
+        return OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(rawSpanMap), MAP_TYPE_REFERENCE);
+    }
+}
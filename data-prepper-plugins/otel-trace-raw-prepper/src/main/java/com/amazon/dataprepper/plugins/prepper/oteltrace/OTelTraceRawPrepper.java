@@ -16,16 +16,18 @@ import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.prepper.AbstractPrepper;
 import com.amazon.dataprepper.model.prepper.Prepper;
 import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.TraceGroupCacheStatsCounter;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.BinaryId;
 import com.amazon.dataprepper.plugins.prepper.oteltrace.model.OTelProtoHelper;
 import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpan;
 import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpanBuilder;
 import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpanSet;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.SharedAttributes;
 import com.amazon.dataprepper.plugins.prepper.oteltrace.model.TraceGroup;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.util.StringUtils;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
 import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
 import io.opentelemetry.proto.trace.v1.ResourceSpans;
@@ -33,40 +35,52 @@ import io.opentelemetry.proto.trace.v1.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 
 @DataPrepperPlugin(name = "otel_trace_raw_prepper", pluginType = Prepper.class)
 public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServiceRequest>, Record<String>> {
     private static final long SEC_TO_MILLIS = 1_000L;
+    /**
+     * Estimated size of a trace group cache entry besides the bytes of its trace ID, name and end time, which are
+     * added to it: the cache node, the ID, the trace group and its boxed fields, and the two strings.
+     */
+    private static final int TRACE_GROUP_CACHE_ENTRY_OVERHEAD_BYTES = 256;
     private static final Logger LOG = LoggerFactory.getLogger(OTelTraceRawPrepper.class);
 
     public static final String SPAN_PROCESSING_ERRORS = "spanProcessingErrors";
     public static final String RESOURCE_SPANS_PROCESSING_ERRORS = "resourceSpansProcessingErrors";
     public static final String TOTAL_PROCESSING_ERRORS = "totalProcessingErrors";
+    public static final String PENDING_SPANS = "pendingSpans";
+    public static final String PENDING_SPANS_BYTES = "pendingSpansBytes";
+    public static final String PENDING_SPANS_EVICTED = "pendingSpansEvicted";
 
     private final long traceFlushInterval;
+    private final long maxPendingSpanBytes;
 
     private final Counter spanErrorsCounter;
     private final Counter resourceSpanErrorsCounter;
     private final Counter totalProcessingErrorsCounter;
+    private final Counter pendingSpansEvictedCounter;
+    private final AtomicLong pendingSpans;
+    private final AtomicLong pendingSpansBytes;
 
-    private final Map<String, RawSpanSet> traceIdRawSpanSetMap = new ConcurrentHashMap<>();
+    private final Map<BinaryId, RawSpanSet> traceIdRawSpanSetMap = new ConcurrentHashMap<>();
 
-    private final Cache<String, TraceGroup> traceIdTraceGroupCache;
+    private final Cache<BinaryId, TraceGroup> traceIdTraceGroupCache;
 
-    private long lastTraceFlushTime = 0L;
+    private final PendingTraceWheel pendingTraceWheel;
 
-    private final ReentrantLock traceFlushLock = new ReentrantLock();
     private final ReentrantLock prepareForShutdownLock = new ReentrantLock();
 
     private volatile boolean isShuttingDown = false;
@@ -75,15 +89,39 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
         super(pluginSetting);
         traceFlushInterval = SEC_TO_MILLIS * pluginSetting.getLongOrDefault(
                 OtelTraceRawPrepperConfig.TRACE_FLUSH_INTERVAL, OtelTraceRawPrepperConfig.DEFAULT_TG_FLUSH_INTERVAL_SEC);
-        final int numProcessWorkers = pluginSetting.getNumberOfProcessWorkers();
-        traceIdTraceGroupCache = CacheBuilder.newBuilder()
-                .concurrencyLevel(numProcessWorkers)
-                .maximumSize(OtelTraceRawPrepperConfig.MAX_TRACE_ID_CACHE_SIZE)
-                .expireAfterWrite(OtelTraceRawPrepperConfig.DEFAULT_TRACE_ID_TTL_SEC, TimeUnit.SECONDS)
-                .build();
+        pendingTraceWheel = new PendingTraceWheel(traceFlushInterval, SEC_TO_MILLIS);
+        maxPendingSpanBytes = pluginSetting.getLongOrDefault(
+                OtelTraceRawPrepperConfig.MAX_PENDING_SPAN_BYTES, OtelTraceRawPrepperConfig.DEFAULT_MAX_PENDING_SPAN_BYTES);
+        traceIdTraceGroupCache = buildTraceGroupCache(pluginSetting);
         spanErrorsCounter = pluginMetrics.counter(SPAN_PROCESSING_ERRORS);
         resourceSpanErrorsCounter = pluginMetrics.counter(RESOURCE_SPANS_PROCESSING_ERRORS);
         totalProcessingErrorsCounter = pluginMetrics.counter(TOTAL_PROCESSING_ERRORS);
+        pendingSpansEvictedCounter = pluginMetrics.counter(PENDING_SPANS_EVICTED);
+        pendingSpans = pluginMetrics.gauge(PENDING_SPANS, new AtomicLong());
+        pendingSpansBytes = pluginMetrics.gauge(PENDING_SPANS_BYTES, new AtomicLong());
+    }
+
+    private Cache<BinaryId, TraceGroup> buildTraceGroupCache(final PluginSetting pluginSetting) {
+        final Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder()
+                .expireAfterWrite(pluginSetting.getLongOrDefault(OtelTraceRawPrepperConfig.TRACE_GROUP_CACHE_TTL,
+                        OtelTraceRawPrepperConfig.DEFAULT_TRACE_ID_TTL_SEC), TimeUnit.SECONDS)
+                .recordStats(() -> new TraceGroupCacheStatsCounter(pluginMetrics));
+        if (pluginSetting.getAttributeFromSettings(OtelTraceRawPrepperConfig.TRACE_GROUP_CACHE_MAX_BYTES) != null) {
+            return cacheBuilder
+                    .maximumWeight(pluginSetting.getLongOrDefault(OtelTraceRawPrepperConfig.TRACE_GROUP_CACHE_MAX_BYTES, 0L))
+                    .<BinaryId, TraceGroup>weigher(OTelTraceRawPrepper::estimateTraceGroupCacheEntryBytes)
+                    .build();
+        }
+        return cacheBuilder
+                .maximumSize(pluginSetting.getLongOrDefault(OtelTraceRawPrepperConfig.TRACE_GROUP_CACHE_MAX_SIZE,
+                        OtelTraceRawPrepperConfig.MAX_TRACE_ID_CACHE_SIZE))
+                .build();
+    }
+
+    private static int estimateTraceGroupCacheEntryBytes(final BinaryId traceId, final TraceGroup traceGroup) {
+        return TRACE_GROUP_CACHE_ENTRY_OVERHEAD_BYTES + traceId.getHexLength() / 2
+                + (traceGroup.getName() == null ? 0 : traceGroup.getName().length())
+                + (traceGroup.getEndTime() == null ? 0 : traceGroup.getEndTime().length());
     }
 
     /**
@@ -95,20 +133,23 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
      */
     @Override
     public Collection<Record<String>> doExecute(Collection<Record<ExportTraceServiceRequest>> records) {
-        final List<RawSpan> rawSpans = new LinkedList<>();
+        final List<RawSpan> rawSpans = new ArrayList<>();
 
         for (Record<ExportTraceServiceRequest> ets : records) {
             for (ResourceSpans rs : ets.getData().getResourceSpansList()) {
                 try {
                     final String serviceName = OTelProtoHelper.getServiceName(rs.getResource()).orElse(null);
-                    final Map<String, Object> resourceAttributes = OTelProtoHelper.getResourceAttributes(rs.getResource());
+                    final SharedAttributes resourceAttributes = SharedAttributes.of(
+                            OTelProtoHelper.getResourceAttributes(rs.getResource()));
                     for (InstrumentationLibrarySpans is : rs.getInstrumentationLibrarySpansList()) {
+                        final SharedAttributes instrumentationLibraryAttributes = SharedAttributes.of(
+                                OTelProtoHelper.getInstrumentationLibraryAttributes(is.getInstrumentationLibrary()));
                         for (Span sp : is.getSpansList()) {
                             final RawSpan rawSpan = new RawSpanBuilder()
-                                    .setFromSpan(sp, is.getInstrumentationLibrary(), serviceName, resourceAttributes)
+                                    .setFromSpan(sp, instrumentationLibraryAttributes, serviceName, resourceAttributes)
                                     .build();
 
-                            processRawSpan(rawSpan, rawSpans);
+                            processRawSpan(rawSpan, sp.getSerializedSize(), rawSpans);
                         }
                     }
                 } catch (Exception ex) {
@@ -129,14 +170,16 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
      * A root span is the first span of a trace, it has no parentSpanId.
      *
      * @param rawSpan Span to be evaluated
+     * @param spanSize Serialized size of the span the RawSpan was built from, which is the size it is accounted for
+     *                 while pending
      * @param spanSet Collection to insert spans to
      */
-    private void processRawSpan(final RawSpan rawSpan, final Collection<RawSpan> spanSet) {
-        if (StringUtils.isBlank(rawSpan.getParentSpanId())) {
+    private void processRawSpan(final RawSpan rawSpan, final long spanSize, final Collection<RawSpan> spanSet) {
+        if (rawSpan.getBinaryParentSpanId().isEmpty()) {
             final List<RawSpan> rootSpanAndChildren = processRootSpan(rawSpan);
             spanSet.addAll(rootSpanAndChildren);
         } else {
-            final Optional<RawSpan> populatedChildSpanOptional = processChildSpan(rawSpan);
+            final Optional<RawSpan> populatedChildSpanOptional = processChildSpan(rawSpan, spanSize);
             if (populatedChildSpanOptional.isPresent()) {
                 spanSet.add(populatedChildSpanOptional.get());
             }
@@ -152,22 +195,22 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
      * @return List containing root span, along with any child spans that have already been processed.
      */
     private List<RawSpan> processRootSpan(final RawSpan parentSpan) {
-        traceIdTraceGroupCache.put(parentSpan.getTraceId(), parentSpan.getTraceGroup());
-
-        final List<RawSpan> recordsToFlush = new LinkedList<>();
-        recordsToFlush.add(parentSpan);
+        traceIdTraceGroupCache.put(parentSpan.getBinaryTraceId(), parentSpan.getTraceGroup());
 
         final TraceGroup traceGroup = parentSpan.getTraceGroup();
-        final String parentSpanTraceId = parentSpan.getTraceId();
+        final BinaryId parentSpanTraceId = parentSpan.getBinaryTraceId();
 
-        final RawSpanSet rawSpanSet = traceIdRawSpanSetMap.get(parentSpanTraceId);
-        if (rawSpanSet != null) {
-            for (final RawSpan rawSpan : rawSpanSet.getRawSpans()) {
-                rawSpan.setTraceGroup(traceGroup);
-                recordsToFlush.add(rawSpan);
-            }
+        final RawSpanSet rawSpanSet = traceIdRawSpanSetMap.remove(parentSpanTraceId);
+        if (rawSpanSet == null) {
+            return Collections.singletonList(parentSpan);
+        }
+        releasePendingSpans(rawSpanSet);
 
-            traceIdRawSpanSetMap.remove(parentSpanTraceId);
+        final List<RawSpan> recordsToFlush = new ArrayList<>(rawSpanSet.getRawSpans().size() + 1);
+        recordsToFlush.add(parentSpan);
+        for (final RawSpan rawSpan : rawSpanSet.getRawSpans()) {
+            rawSpan.setTraceGroup(traceGroup);
+            recordsToFlush.add(rawSpan);
         }
 
         return recordsToFlush;
@@ -178,20 +221,24 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
      * the child span is kept in memory to be populated when its corresponding root span arrives.
      *
      * @param childSpan
+     * @param spanSize
      * @return Optional containing childSpan if its traceGroup is in memory, otherwise an empty Optional
      */
-    private Optional<RawSpan> processChildSpan(final RawSpan childSpan) {
-        final TraceGroup traceGroup = traceIdTraceGroupCache.getIfPresent(childSpan.getTraceId());
+    private Optional<RawSpan> processChildSpan(final RawSpan childSpan, final long spanSize) {
+        final TraceGroup traceGroup = traceIdTraceGroupCache.getIfPresent(childSpan.getBinaryTraceId());
 
         if (traceGroup != null) {
             childSpan.setTraceGroup(traceGroup);
             return Optional.of(childSpan);
         } else {
-            traceIdRawSpanSetMap.compute(childSpan.getTraceId(), (traceId, rawSpanSet) -> {
+            traceIdRawSpanSetMap.compute(childSpan.getBinaryTraceId(), (traceId, rawSpanSet) -> {
                 if (rawSpanSet == null) {
                     rawSpanSet = new RawSpanSet();
+                    pendingTraceWheel.add(traceId, rawSpanSet);
                 }
-                rawSpanSet.addRawSpan(childSpan);
+                rawSpanSet.addRawSpan(childSpan, spanSize);
+                pendingSpans.incrementAndGet();
+                pendingSpansBytes.addAndGet(spanSize);
                 return rawSpanSet;
             });
 
@@ -200,7 +247,7 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
     }
 
     private List<Record<String>> convertRawSpansToJsonRecords(final List<RawSpan> rawSpans) {
-        final List<Record<String>> records = new LinkedList<>();
+        final List<Record<String>> records = new ArrayList<>(rawSpans.size());
 
         for (RawSpan rawSpan : rawSpans) {
             String rawSpanJson;
@@ -220,60 +267,74 @@ public class OTelTraceRawPrepper extends AbstractPrepper<Record<ExportTraceServi
     }
 
     /**
-     * Periodically flush spans from memory. Typically all spans of a trace are written
+     * Flush spans from memory once their trace is due. Typically all spans of a trace are written
      * once the trace's root span arrives, however some child spans my arrive after the root span.
      * This method ensures "orphaned" child spans are eventually flushed from memory.
+     * Only the traces of expired buckets of the {@link PendingTraceWheel} are visited, and concurrent
+     * workers each take different buckets. If the pending spans still exceed their memory limit afterwards,
+     * the oldest traces are flushed before they are due.
      * @return List of RawSpans to be sent down the pipeline
      */
     private List<RawSpan> getTracesToFlushByGarbageCollection() {
-        final List<RawSpan> recordsToFlush = new LinkedList<>();
+        final List<RawSpan> recordsToFlush = new ArrayList<>();
+        final long now = System.currentTimeMillis();
 
-        if (shouldGarbageCollect()) {
-            final boolean isLockAcquired = traceFlushLock.tryLock();
+        Collection<Map.Entry<BinaryId, RawSpanSet>> expiredTraces;
+        while ((expiredTraces = isShuttingDown ? pendingTraceWheel.poll() : pendingTraceWheel.pollExpired(now)) != null) {
+            flushPendingTraces(expiredTraces, recordsToFlush);
+        }
+        if (recordsToFlush.size() > 0) {
+            LOG.info("Flushing {} records due to GC", recordsToFlush.size());
+        }
 
-            if (isLockAcquired) {
-                try {
-                    final long now = System.currentTimeMillis();
-                    lastTraceFlushTime = now;
-
-                    final Iterator<Map.Entry<String, RawSpanSet>> entryIterator = traceIdRawSpanSetMap.entrySet().iterator();
-                    while (entryIterator.hasNext()) {
-                        final Map.Entry<String, RawSpanSet> entry = entryIterator.next();
-                        final String traceId = entry.getKey();
-                        final TraceGroup traceGroup = traceIdTraceGroupCache.getIfPresent(traceId);
-                        final RawSpanSet rawSpanSet = entry.getValue();
-                        final long traceTime = rawSpanSet.getTimeSeen();
-                        if (now - traceTime >= traceFlushInterval || isShuttingDown) {
-                            final Set<RawSpan> rawSpans = rawSpanSet.getRawSpans();
-                            if (traceGroup != null) {
-                                rawSpans.forEach(rawSpan -> {
-                                    rawSpan.setTraceGroup(traceGroup);
-                                    recordsToFlush.add(rawSpan);
-                                });
-                            } else {
-                                rawSpans.forEach(rawSpan -> {
-                                    recordsToFlush.add(rawSpan);
-                                    LOG.warn("Missing trace group for SpanId: {}", rawSpan.getSpanId());
-                                });
-                            }
-
-                            entryIterator.remove();
-                        }
-                    }
-                    if (recordsToFlush.size() > 0) {
-                        LOG.info("Flushing {} records due to GC", recordsToFlush.size());
-                    }
-                } finally {
-                    traceFlushLock.unlock();
-                }
-            }
+        final int flushedRecordsCount = recordsToFlush.size();
+        Collection<Map.Entry<BinaryId, RawSpanSet>> oldestTraces;
+        while (pendingSpansBytes.get() > maxPendingSpanBytes && (oldestTraces = pendingTraceWheel.poll()) != null) {
+            flushPendingTraces(oldestTraces, recordsToFlush);
+        }
+        final int evictedRecordsCount = recordsToFlush.size() - flushedRecordsCount;
+        if (evictedRecordsCount > 0) {
+            LOG.warn("Flushing {} records before their trace flush interval, as pending spans exceed {} bytes",
+                    evictedRecordsCount, maxPendingSpanBytes);
+            pendingSpansEvictedCounter.increment(evictedRecordsCount);
         }
 
         return recordsToFlush;
     }
 
-    private boolean shouldGarbageCollect() {
-        return System.currentTimeMillis() - lastTraceFlushTime >= traceFlushInterval || isShuttingDown;
+    private void flushPendingTraces(final Collection<Map.Entry<BinaryId, RawSpanSet>> pendingTraces,
+                                    final List<RawSpan> recordsToFlush) {
+        for (final Map.Entry<BinaryId, RawSpanSet> pendingTrace : pendingTraces) {
+            final BinaryId traceId = pendingTrace.getKey();
+            final RawSpanSet rawSpanSet = pendingTrace.getValue();
+            // the spans were already flushed if their root span arrived, or if the trace was polled twice
+            if (!traceIdRawSpanSetMap.remove(traceId, rawSpanSet)) {
+                continue;
+            }
+            releasePendingSpans(rawSpanSet);
+            final TraceGroup traceGroup = traceIdTraceGroupCache.getIfPresent(traceId);
+            final Set<RawSpan> rawSpans = rawSpanSet.getRawSpans();
+            if (traceGroup != null) {
+                rawSpans.forEach(rawSpan -> {
+                    rawSpan.setTraceGroup(traceGroup);
+                    recordsToFlush.add(rawSpan);
+                });
+            } else {
+                rawSpans.forEach(rawSpan -> {
+                    recordsToFlush.add(rawSpan);
+                    LOG.warn("Missing trace group for SpanId: {}", rawSpan.getBinarySpanId());
+                });
+            }
+        }
+    }
+
+    /**
+     * Must be called once for every span set removed from {@link #traceIdRawSpanSetMap}, which no span is added to
+     * after its removal.
+     */
+    private void releasePendingSpans(final RawSpanSet rawSpanSet) {
+        pendingSpans.addAndGet(-rawSpanSet.getRawSpans().size());
+        pendingSpansBytes.addAndGet(-rawSpanSet.getSizeInBytes());
     }
 
     /**
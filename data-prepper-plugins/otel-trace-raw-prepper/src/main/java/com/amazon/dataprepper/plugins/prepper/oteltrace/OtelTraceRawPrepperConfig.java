@@ -14,6 +14,17 @@ package com.amazon.dataprepper.plugins.prepper.oteltrace;
 public class OtelTraceRawPrepperConfig {
     static final String TRACE_FLUSH_INTERVAL = "trace_flush_interval";
     static final long DEFAULT_TG_FLUSH_INTERVAL_SEC = 180L;
+    static final String TRACE_GROUP_CACHE_TTL = "trace_group_cache_ttl";
     static final long DEFAULT_TRACE_ID_TTL_SEC = 15L;
+    static final String TRACE_GROUP_CACHE_MAX_SIZE = "trace_group_cache_max_size";
     static final long MAX_TRACE_ID_CACHE_SIZE = 1000_000L;
+    /**
+     * Bounds the trace group cache by the estimated size of its entries instead of their number when set.
+     */
+    static final String TRACE_GROUP_CACHE_MAX_BYTES = "trace_group_cache_max_bytes";
+    static final String MAX_PENDING_SPAN_BYTES = "max_pending_span_bytes";
+    /**
+     * Pending spans take several times their serialized size on the heap, so they are limited to a tenth of it.
+     */
+    static final long DEFAULT_MAX_PENDING_SPAN_BYTES = Runtime.getRuntime().maxMemory() / 10;
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace;
+
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.BinaryId;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpanSet;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Timing wheel of the traces waiting for their root span, bucketed by the tick in which their flush interval ends,
+ * so that flushing orphaned spans only visits the traces which are due instead of every pending trace.
+ * <p>
+ * Every trace is due exactly one flush interval after it was first seen, so the wheel needs a single level of ticks,
+ * and the buckets are kept ordered by the end of their tick. Expired buckets are removed one at a time, each by a
+ * single caller, which lets concurrent workers split a backlog of expired traces between them without a lock.
+ * <p>
+ * A bucket only tracks which traces to check: traces flushed with their root span in the meantime stay in their bucket
+ * until it expires, and a trace may exceptionally be polled more than once, so callers must confirm each trace is still
+ * pending before flushing it.
+ */
+final class PendingTraceWheel {
+    private final long flushIntervalMillis;
+    private final long tickMillis;
+    private final ConcurrentSkipListMap<Long, Queue<Map.Entry<BinaryId, RawSpanSet>>> buckets =
+            new ConcurrentSkipListMap<>();
+
+    PendingTraceWheel(final long flushIntervalMillis, final long tickMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Adds a trace to the bucket of the tick in which it is due, based on the time its span set was created.
+     */
+    void add(final BinaryId traceId, final RawSpanSet rawSpanSet) {
+        final long bucketEnd = (Math.floorDiv(rawSpanSet.getTimeSeen() + flushIntervalMillis, tickMillis) + 1) * tickMillis;
+        final Map.Entry<BinaryId, RawSpanSet> pendingTrace = new AbstractMap.SimpleImmutableEntry<>(traceId, rawSpanSet);
+        // compute only replaces a bucket still in the map, so if a poll removed the bucket before the trace was
+        // visible in it, the trace is added to a new bucket for the same tick instead of being lost
+        buckets.compute(bucketEnd, (key, bucket) -> {
+            final Queue<Map.Entry<BinaryId, RawSpanSet>> pendingTraces = bucket == null
+                    ? new ConcurrentLinkedQueue<>() : bucket;
+            pendingTraces.add(pendingTrace);
+            return pendingTraces;
+        });
+    }
+
+    /**
+     * @param now the current time in milliseconds
+     * @return the traces of the earliest bucket whose tick ended by now, or null if no bucket expired
+     */
+    Collection<Map.Entry<BinaryId, RawSpanSet>> pollExpired(final long now) {
+        while (true) {
+            final Map.Entry<Long, Queue<Map.Entry<BinaryId, RawSpanSet>>> firstBucket = buckets.firstEntry();
+            if (firstBucket == null || firstBucket.getKey() > now) {
+                return null;
+            }
+            // another caller may have removed the bucket first, in which case the next one is polled
+            final Queue<Map.Entry<BinaryId, RawSpanSet>> pendingTraces = buckets.remove(firstBucket.getKey());
+            if (pendingTraces != null) {
+                return pendingTraces;
+            }
+        }
+    }
+
+    /**
+     * @return the traces of the earliest bucket regardless of its tick, or null if the wheel is empty
+     */
+    Collection<Map.Entry<BinaryId, RawSpanSet>> poll() {
+        final Map.Entry<Long, Queue<Map.Entry<BinaryId, RawSpanSet>>> firstBucket = buckets.pollFirstEntry();
+        return firstBucket == null ? null : firstBucket.getValue();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import com.google.protobuf.ByteString;
+
+import java.util.Arrays;
+
+/**
+ * A trace or span ID, such as the 16 byte trace_id or the 8 byte span_id in the
+ * <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L75">OpenTelemetry spec</a>,
+ * kept in its binary form with its hash code computed once, so that it can key maps and caches. It is only encoded
+ * as a lowercase hex string when written out.
+ */
+public final class BinaryId {
+    public static final BinaryId EMPTY = new BinaryId(new byte[0]);
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final byte[] bytes;
+    private final int hashCode;
+
+    private BinaryId(final byte[] bytes) {
+        this.bytes = bytes;
+        this.hashCode = Arrays.hashCode(bytes);
+    }
+
+    public static BinaryId of(final ByteString id) {
+        return id.isEmpty() ? EMPTY : new BinaryId(id.toByteArray());
+    }
+
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    /**
+     * @return the number of characters of the hex string representation
+     */
+    public int getHexLength() {
+        return bytes.length * 2;
+    }
+
+    /**
+     * Encodes the ID as lowercase hex characters at the beginning of the destination, which must hold at least
+     * {@link #getHexLength()} characters.
+     */
+    public void writeHex(final char[] destination) {
+        for (int i = 0; i < bytes.length; i++) {
+            final int value = bytes[i] & 0xFF;
+            destination[i * 2] = HEX_DIGITS[value >>> 4];
+            destination[i * 2 + 1] = HEX_DIGITS[value & 0x0F];
+        }
+    }
+
+    public String toHexString() {
+        final char[] hex = new char[getHexLength()];
+        writeHex(hex);
+        return new String(hex);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BinaryId)) {
+            return false;
+        }
+        final BinaryId otherId = (BinaryId) other;
+        return hashCode == otherId.hashCode && Arrays.equals(bytes, otherId.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return toHexString();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable view of the attributes of a span, made of the span's own span.attributes.*, the {@link SharedAttributes}
+ * of its resource and instrumentation library, and its status attributes, in that order. The layers have disjoint keys
+ * by construction, since each of them uses its own key prefix.
+ * <p>
+ * The span and status layers are owned by the span and are exposed as is to the serialization only.
+ */
+final class LayeredAttributes extends AbstractMap<String, Object> {
+    private final Map<String, Object> spanAttributes;
+    private final SharedAttributes resourceAttributes;
+    private final SharedAttributes instrumentationLibraryAttributes;
+    private final Map<String, Object> statusAttributes;
+    private final List<Map<String, Object>> layers;
+
+    LayeredAttributes(final Map<String, Object> spanAttributes,
+                      final SharedAttributes resourceAttributes,
+                      final SharedAttributes instrumentationLibraryAttributes,
+                      final Map<String, Object> statusAttributes) {
+        this.spanAttributes = spanAttributes;
+        this.resourceAttributes = resourceAttributes;
+        this.instrumentationLibraryAttributes = instrumentationLibraryAttributes;
+        this.statusAttributes = statusAttributes;
+        this.layers = Arrays.asList(this.spanAttributes, resourceAttributes.getAttributes(),
+                instrumentationLibraryAttributes.getAttributes(), this.statusAttributes);
+    }
+
+    Map<String, Object> getSpanAttributes() {
+        return spanAttributes;
+    }
+
+    SharedAttributes getResourceAttributes() {
+        return resourceAttributes;
+    }
+
+    SharedAttributes getInstrumentationLibraryAttributes() {
+        return instrumentationLibraryAttributes;
+    }
+
+    Map<String, Object> getStatusAttributes() {
+        return statusAttributes;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        for (final Map<String, Object> layer : layers) {
+            final Object value = layer.get(key);
+            if (value != null || layer.containsKey(key)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        for (final Map<String, Object> layer : layers) {
+            if (layer.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (final Map<String, Object> layer : layers) {
+            size += layer.size();
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new LayersIterator();
+            }
+
+            @Override
+            public int size() {
+                return LayeredAttributes.this.size();
+            }
+        };
+    }
+
+    private final class LayersIterator implements Iterator<Entry<String, Object>> {
+        private final Iterator<Map<String, Object>> layerIterator = layers.iterator();
+        private Iterator<Entry<String, Object>> entryIterator = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!entryIterator.hasNext()) {
+                if (!layerIterator.hasNext()) {
+                    return false;
+                }
+                entryIterator = layerIterator.next().entrySet().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return new SimpleImmutableEntry<>(entryIterator.next());
+        }
+    }
+}
@@ -11,8 +11,8 @@
 
 package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.opentelemetry.proto.trace.v1.Span;
-import org.apache.commons.codec.binary.Hex;
 
 import java.util.Map;
 
@@ -23,13 +23,13 @@ import java.util.Map;
 public final class RawLink {
 
     /**
-     * HexString representation of the trace_id in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L199">OpenTelemetry spec</a>
+     * Binary trace_id, serialized as its hex string representation, in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L199">OpenTelemetry spec</a>
      */
-    private final String traceId;
+    private final BinaryId traceId;
     /**
-     * HexString representation of the span_id in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L202">OpenTelemetry spec</a>
+     * Binary span_id, serialized as its hex string representation, in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L202">OpenTelemetry spec</a>
      */
-    private final String spanId;
+    private final BinaryId spanId;
 
     private final String traceState;
     private final Map<String, Object> attributes;
@@ -37,10 +37,20 @@ public final class RawLink {
     private final int droppedAttributesCount;
 
     public String getTraceId() {
-        return traceId;
+        return traceId.toHexString();
     }
 
     public String getSpanId() {
+        return spanId.toHexString();
+    }
+
+    @JsonIgnore
+    public BinaryId getBinaryTraceId() {
+        return traceId;
+    }
+
+    @JsonIgnore
+    public BinaryId getBinarySpanId() {
         return spanId;
     }
 
@@ -56,7 +66,7 @@ public final class RawLink {
         return droppedAttributesCount;
     }
 
-    private RawLink(String traceId, String spanId, String traceState, Map<String, Object> attributes, int droppedAttributesCount) {
+    private RawLink(BinaryId traceId, BinaryId spanId, String traceState, Map<String, Object> attributes, int droppedAttributesCount) {
         this.traceId = traceId;
         this.spanId = spanId;
         this.traceState = traceState;
@@ -65,8 +75,8 @@ public final class RawLink {
     }
 
     public static RawLink buildRawLink(final Span.Link link) {
-        return new RawLink(Hex.encodeHexString(link.getTraceId().toByteArray()),
-                Hex.encodeHexString(link.getSpanId().toByteArray()),
+        return new RawLink(BinaryId.of(link.getTraceId()),
+                BinaryId.of(link.getSpanId()),
                 link.getTraceState(),
                 OTelProtoHelper.getLinkAttributes(link),
                 link.getDroppedAttributesCount());
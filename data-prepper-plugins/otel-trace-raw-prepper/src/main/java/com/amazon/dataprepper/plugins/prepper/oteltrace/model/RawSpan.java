@@ -12,33 +12,32 @@
 package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
 
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.List;
 import java.util.Map;
 
 
 public final class RawSpan {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     /**
-     * HexString representation of the trace_id in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L75">OpenTelemetry spec</a>
+     * Binary trace_id, serialized as its hex string representation, in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L75">OpenTelemetry spec</a>
      */
-    private final String traceId;
+    private final BinaryId traceId;
     /**
-     * HexString representation of the span_id in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L75">OpenTelemetry spec</a>
+     * Binary span_id, serialized as its hex string representation, in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L75">OpenTelemetry spec</a>
      */
-    private final String spanId;
+    private final BinaryId spanId;
     /**
      * trace_state in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L80">OpenTelemetry spec</a>
      * This is w3c information field set when different vendors are used.
      */
     private final String traceState;
     /**
-     * HexString representation of the parent_span_id in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L84">OpenTelemetry spec</a>
+     * Binary parent_span_id, serialized as its hex string representation, in the @see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L84">OpenTelemetry spec</a>
      */
-    private final String parentSpanId;
+    private final BinaryId parentSpanId;
     /**
      * String description of the span's operation.
      * name in the the see <a href="https://github.com/open-telemetry/opentelemetry-proto/blob/master/opentelemetry/proto/trace/v1/trace.proto#L99">OpenTelemetry spec</a>
@@ -107,14 +106,29 @@ public final class RawSpan {
 
 
     public String getTraceId() {
-        return traceId;
+        return traceId.toHexString();
     }
 
     public String getSpanId() {
-        return spanId;
+        return spanId.toHexString();
     }
 
     public String getParentSpanId() {
+        return parentSpanId.toHexString();
+    }
+
+    @JsonIgnore
+    public BinaryId getBinaryTraceId() {
+        return traceId;
+    }
+
+    @JsonIgnore
+    public BinaryId getBinarySpanId() {
+        return spanId;
+    }
+
+    @JsonIgnore
+    public BinaryId getBinaryParentSpanId() {
         return parentSpanId;
     }
 
@@ -200,7 +214,10 @@ public final class RawSpan {
         return traceGroup;
     }
 
+    /**
+     * Serializes the span with a streaming writer, into the same document the data binding of this class produces.
+     */
     public String toJson() throws JsonProcessingException {
-        return OBJECT_MAPPER.writeValueAsString(this);
+        return RawSpanJsonWriter.toJson(this);
     }
 }
@@ -13,9 +13,7 @@ package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
 
 import io.opentelemetry.proto.common.v1.InstrumentationLibrary;
 import io.opentelemetry.proto.trace.v1.Span;
-import org.apache.commons.codec.binary.Hex;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,10 +22,10 @@ import java.util.stream.Collectors;
 public final class RawSpanBuilder {
     private static final String SERVICE_NAME = "service.name";
 
-    String traceId;
-    String spanId;
+    BinaryId traceId;
+    BinaryId spanId;
     String traceState;
-    String parentSpanId;
+    BinaryId parentSpanId;
     String name;
     String kind;
     String startTime;
@@ -46,12 +44,12 @@ public final class RawSpanBuilder {
     public RawSpanBuilder() {
     }
 
-    private RawSpanBuilder setTraceId(final String traceId) {
+    private RawSpanBuilder setTraceId(final BinaryId traceId) {
         this.traceId = traceId;
         return this;
     }
 
-    private RawSpanBuilder setSpanId(final String spanId) {
+    private RawSpanBuilder setSpanId(final BinaryId spanId) {
         this.spanId = spanId;
         return this;
     }
@@ -61,7 +59,7 @@ public final class RawSpanBuilder {
         return this;
     }
 
-    private RawSpanBuilder setParentSpanId(final String parentSpanId) {
+    private RawSpanBuilder setParentSpanId(final BinaryId parentSpanId) {
         this.parentSpanId = parentSpanId;
         return this;
     }
@@ -118,14 +116,11 @@ public final class RawSpanBuilder {
 
 
     private RawSpanBuilder setSpanAttributes(final Map<String, Object> spanAttributes,
-                                             final Map<String, Object> resourceAttributes,
-                                             final Map<String, Object> instrumentationAttributes,
+                                             final SharedAttributes resourceAttributes,
+                                             final SharedAttributes instrumentationAttributes,
                                              final Map<String, Object> statusAttributes) {
-        this.attributes = new HashMap<>();
-        this.attributes.putAll(spanAttributes);
-        this.attributes.putAll(resourceAttributes);
-        this.attributes.putAll(instrumentationAttributes);
-        this.attributes.putAll(statusAttributes);
+        this.attributes = new LayeredAttributes(spanAttributes, resourceAttributes, instrumentationAttributes,
+                statusAttributes);
         return this;
     }
 
@@ -145,11 +140,20 @@ public final class RawSpanBuilder {
 
 
     public RawSpanBuilder setFromSpan(final Span span, final InstrumentationLibrary instrumentationLibrary, final String serviceName, final Map<String, Object> resourceAttributes) {
+        return setFromSpan(span, SharedAttributes.of(OTelProtoHelper.getInstrumentationLibraryAttributes(instrumentationLibrary)),
+                serviceName, SharedAttributes.of(resourceAttributes));
+    }
+
+    /**
+     * Builds the span with the attributes of its instrumentation library and resource, which are shared with the other
+     * spans of the same InstrumentationLibrarySpans and ResourceSpans rather than copied into every span.
+     */
+    public RawSpanBuilder setFromSpan(final Span span, final SharedAttributes instrumentationLibraryAttributes, final String serviceName, final SharedAttributes resourceAttributes) {
         return this
-                .setTraceId(Hex.encodeHexString(span.getTraceId().toByteArray()))
-                .setSpanId(Hex.encodeHexString(span.getSpanId().toByteArray()))
+                .setTraceId(BinaryId.of(span.getTraceId()))
+                .setSpanId(BinaryId.of(span.getSpanId()))
                 .setTraceState(span.getTraceState())
-                .setParentSpanId(Hex.encodeHexString(span.getParentSpanId().toByteArray()))
+                .setParentSpanId(BinaryId.of(span.getParentSpanId()))
                 .setName(span.getName())
                 .setKind(span.getKind().name())
                 .setStartTime(OTelProtoHelper.getStartTimeISO8601(span))
@@ -158,7 +162,7 @@ public final class RawSpanBuilder {
                 .setServiceName(serviceName)
                 .setSpanAttributes(OTelProtoHelper.getSpanAttributes(span),
                         resourceAttributes,
-                        OTelProtoHelper.getInstrumentationLibraryAttributes(instrumentationLibrary),
+                        instrumentationLibraryAttributes,
                         OTelProtoHelper.getSpanStatusAttributes(span.getStatus()))
                 .setEvents(span.getEventsList().stream().map(RawEvent::buildRawEvent).collect(Collectors.toList()))
                 .setLinks(span.getLinksList().stream().map(RawLink::buildRawLink).collect(Collectors.toList()))
@@ -0,0 +1,247 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes a {@link RawSpan} with a streaming {@link JsonGenerator}, writing its fields directly instead of
+ * introspecting the bean on every span. The document has the same shape as the data binding of {@link RawSpan}:
+ * the fields in declaration order, the {@link TraceGroup} fields unwrapped after them, and the flattened
+ * span.attributes.*, resource.attributes.*, instrumentation library and status attributes last. The attributes of
+ * {@link SharedAttributes} layers are encoded once per layer and copied into every other span sharing it.
+ * <p>
+ * The document is encoded into a byte buffer every thread reuses, so that a span only allocates the resulting string.
+ * Trace and span IDs are hex-encoded into a reusable character buffer as well, rather than into strings.
+ */
+final class RawSpanJsonWriter {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+    private static final int INITIAL_BUFFER_SIZE = 2_048;
+    /**
+     * Buffers which grew larger than this for an unusually large span are dropped rather than retained by the thread.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1_024;
+    private static final ThreadLocal<ReusableByteArrayOutputStream> BUFFER = ThreadLocal.withInitial(
+            () -> new ReusableByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+    /**
+     * Large enough for the hex representation of a 16 byte trace ID.
+     */
+    private static final int HEX_ID_SIZE = 32;
+    private static final ThreadLocal<char[]> HEX_ID = ThreadLocal.withInitial(() -> new char[HEX_ID_SIZE]);
+
+    private RawSpanJsonWriter() {
+    }
+
+    static String toJson(final RawSpan rawSpan) throws JsonProcessingException {
+        final ReusableByteArrayOutputStream buffer = BUFFER.get();
+        buffer.reset();
+        try (final JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+            writeRawSpan(generator, buffer, HEX_ID.get(), rawSpan);
+        } catch (final JsonProcessingException e) {
+            throw e;
+        } catch (final IOException e) {
+            // the buffer is in memory, so any other failure is unexpected
+            throw new UncheckedIOException(e);
+        }
+        final String json = buffer.toUtf8String();
+        if (buffer.size() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.remove();
+        }
+        return json;
+    }
+
+    private static void writeRawSpan(final JsonGenerator generator, final ReusableByteArrayOutputStream buffer,
+                                     final char[] hexId, final RawSpan rawSpan) throws IOException {
+        generator.writeStartObject();
+        writeIdField(generator, hexId, "traceId", rawSpan.getBinaryTraceId());
+        writeIdField(generator, hexId, "spanId", rawSpan.getBinarySpanId());
+        generator.writeStringField("traceState", rawSpan.getTraceState());
+        writeIdField(generator, hexId, "parentSpanId", rawSpan.getBinaryParentSpanId());
+        generator.writeStringField("name", rawSpan.getName());
+        generator.writeStringField("kind", rawSpan.getKind());
+        generator.writeStringField("startTime", rawSpan.getStartTime());
+        generator.writeStringField("endTime", rawSpan.getEndTime());
+        generator.writeNumberField("durationInNanos", rawSpan.getDurationInNanos());
+        generator.writeStringField("serviceName", rawSpan.getServiceName());
+
+        generator.writeFieldName("events");
+        if (rawSpan.getEvents() == null) {
+            generator.writeNull();
+        } else {
+            writeEvents(generator, rawSpan.getEvents());
+        }
+        generator.writeFieldName("links");
+        if (rawSpan.getLinks() == null) {
+            generator.writeNull();
+        } else {
+            writeLinks(generator, hexId, rawSpan.getLinks());
+        }
+
+        generator.writeNumberField("droppedAttributesCount", rawSpan.getDroppedAttributesCount());
+        generator.writeNumberField("droppedEventsCount", rawSpan.getDroppedEventsCount());
+        generator.writeNumberField("droppedLinksCount", rawSpan.getDroppedLinksCount());
+
+        final TraceGroup traceGroup = rawSpan.getTraceGroup();
+        if (traceGroup != null) {
+            generator.writeStringField("traceGroup", traceGroup.getName());
+            generator.writeStringField("traceGroupFields.endTime", traceGroup.getEndTime());
+            generator.writeFieldName("traceGroupFields.statusCode");
+            writeValue(generator, traceGroup.getStatusCode());
+            generator.writeFieldName("traceGroupFields.durationInNanos");
+            writeValue(generator, traceGroup.getDurationInNanos());
+        }
+
+        final Map<String, Object> attributes = rawSpan.getAttributes();
+        if (attributes instanceof LayeredAttributes) {
+            writeLayeredAttributeFields(generator, buffer, (LayeredAttributes) attributes);
+        } else if (attributes != null) {
+            writeAttributeFields(generator, attributes);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeLayeredAttributeFields(final JsonGenerator generator,
+                                                    final ReusableByteArrayOutputStream buffer,
+                                                    final LayeredAttributes attributes) throws IOException {
+        writeAttributeFields(generator, attributes.getSpanAttributes());
+        writeSharedAttributeFields(generator, buffer, attributes.getResourceAttributes());
+        writeSharedAttributeFields(generator, buffer, attributes.getInstrumentationLibraryAttributes());
+        writeAttributeFields(generator, attributes.getStatusAttributes());
+    }
+
+    /**
+     * Copies the fields of a shared layer as they were encoded for the first span written with the layer, or writes
+     * and captures them if this is that span. The fields include the comma separating them from the preceding field,
+     * which every span has, and the generator is flushed around them, so that they can be copied between the bytes it
+     * writes to the buffer without changing its state.
+     */
+    private static void writeSharedAttributeFields(final JsonGenerator generator,
+                                                   final ReusableByteArrayOutputStream buffer,
+                                                   final SharedAttributes sharedAttributes) throws IOException {
+        if (sharedAttributes.getAttributes().isEmpty()) {
+            return;
+        }
+        generator.flush();
+        final byte[] jsonFields = sharedAttributes.getJsonFields();
+        if (jsonFields != null) {
+            buffer.write(jsonFields, 0, jsonFields.length);
+            return;
+        }
+        final int start = buffer.size();
+        writeAttributeFields(generator, sharedAttributes.getAttributes());
+        generator.flush();
+        sharedAttributes.setJsonFields(buffer.copyFrom(start));
+    }
+
+    private static void writeEvents(final JsonGenerator generator, final List<RawEvent> events) throws IOException {
+        generator.writeStartArray();
+        for (final RawEvent event : events) {
+            generator.writeStartObject();
+            generator.writeStringField("time", event.getTime());
+            generator.writeStringField("name", event.getName());
+            generator.writeFieldName("attributes");
+            writeAttributes(generator, event.getAttributes());
+            generator.writeNumberField("droppedAttributesCount", event.getDroppedAttributesCount());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeLinks(final JsonGenerator generator, final char[] hexId, final List<RawLink> links)
+            throws IOException {
+        generator.writeStartArray();
+        for (final RawLink link : links) {
+            generator.writeStartObject();
+            writeIdField(generator, hexId, "traceId", link.getBinaryTraceId());
+            writeIdField(generator, hexId, "spanId", link.getBinarySpanId());
+            generator.writeStringField("traceState", link.getTraceState());
+            generator.writeFieldName("attributes");
+            writeAttributes(generator, link.getAttributes());
+            generator.writeNumberField("droppedAttributesCount", link.getDroppedAttributesCount());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeIdField(final JsonGenerator generator, final char[] hexId, final String fieldName,
+                                     final BinaryId id) throws IOException {
+        generator.writeFieldName(fieldName);
+        if (id.getHexLength() > hexId.length) {
+            generator.writeString(id.toHexString());
+        } else {
+            id.writeHex(hexId);
+            generator.writeString(hexId, 0, id.getHexLength());
+        }
+    }
+
+    private static void writeAttributes(final JsonGenerator generator, final Map<String, Object> attributes)
+            throws IOException {
+        if (attributes == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeAttributeFields(generator, attributes);
+        generator.writeEndObject();
+    }
+
+    private static void writeAttributeFields(final JsonGenerator generator, final Map<String, Object> attributes)
+            throws IOException {
+        for (final Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            generator.writeFieldName(attribute.getKey());
+            writeValue(generator, attribute.getValue());
+        }
+    }
+
+    /**
+     * Writes the value types {@link OTelProtoHelper#convertAnyValue} produces directly, and any other value through
+     * the data binding.
+     */
+    private static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+        private ReusableByteArrayOutputStream(final int size) {
+            super(size);
+        }
+
+        private String toUtf8String() {
+            return new String(buf, 0, count, StandardCharsets.UTF_8);
+        }
+
+        private byte[] copyFrom(final int start) {
+            return Arrays.copyOfRange(buf, start, count);
+        }
+    }
+}
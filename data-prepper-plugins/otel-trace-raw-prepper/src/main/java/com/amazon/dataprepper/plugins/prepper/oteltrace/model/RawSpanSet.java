@@ -19,6 +19,7 @@ public class RawSpanSet {
 
     private final Set<RawSpan> rawSpans;
     private final long timeSeen;
+    private long sizeInBytes;
 
     public RawSpanSet() {
         this.rawSpans = Sets.newConcurrentHashSet();
@@ -36,4 +37,19 @@ public class RawSpanSet {
     public void addRawSpan(final RawSpan rawSpan) {
         rawSpans.add(rawSpan);
     }
+
+    /**
+     * @param sizeInBytes the estimated size of the span, such as the serialized size of the span it was built from
+     */
+    public void addRawSpan(final RawSpan rawSpan, final long sizeInBytes) {
+        rawSpans.add(rawSpan);
+        this.sizeInBytes += sizeInBytes;
+    }
+
+    /**
+     * @return the total estimated size of the spans added with their size
+     */
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable layer of flattened attributes shared by all spans of a ResourceSpans or an InstrumentationLibrarySpans,
+ * such as the resource.attributes.* or the instrumentation library attributes. Spans reference the layer instead of
+ * copying its attributes, and the layer is encoded to JSON once, the first time a span referencing it is serialized.
+ */
+public final class SharedAttributes {
+    static final SharedAttributes EMPTY = new SharedAttributes(Collections.emptyMap());
+
+    private final Map<String, Object> attributes;
+    private volatile byte[] jsonFields;
+
+    private SharedAttributes(final Map<String, Object> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * @param attributes flattened attributes, which must not be modified afterwards
+     * @return a layer of the attributes
+     */
+    public static SharedAttributes of(final Map<String, Object> attributes) {
+        return attributes.isEmpty() ? EMPTY : new SharedAttributes(Collections.unmodifiableMap(attributes));
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return the attributes as UTF-8 encoded JSON object fields, each preceded by a comma, or null if no span with
+     * the attributes was serialized yet
+     */
+    byte[] getJsonFields() {
+        return jsonFields;
+    }
+
+    /**
+     * Concurrent spans may encode the same fields, so the race between them is benign.
+     */
+    void setJsonFields(final byte[] jsonFields) {
+        this.jsonFields = jsonFields;
+    }
+}
@@ -15,6 +15,7 @@ import com.amazon.dataprepper.metrics.MetricNames;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
 import com.amazon.dataprepper.model.record.Record;
 import com.amazon.dataprepper.metrics.MetricsTestUtil;
+import com.amazon.dataprepper.plugins.prepper.TraceGroupCacheStatsCounter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -200,6 +201,64 @@ public class OTelTraceRawPrepperTest {
         });
     }
 
+    @Test
+    public void testPendingSpansMetrics() throws IOException {
+        final ExportTraceServiceRequest exportTraceServiceRequest = buildExportTraceServiceRequestFromJsonFile(TEST_REQUEST_TWO_TRACE_GROUP_MISSING_ROOTS_JSON_FILE);
+        oTelTraceRawPrepper.doExecute(Collections.singletonList(new Record<>(exportTraceServiceRequest)));
+
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS)).isEqualTo(4.0);
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS_BYTES)).isGreaterThan(0.0);
+
+        oTelTraceRawPrepper.prepareForShutdown();
+        oTelTraceRawPrepper.doExecute(Collections.emptyList());
+
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS)).isEqualTo(0.0);
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS_BYTES)).isEqualTo(0.0);
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS_EVICTED)).isEqualTo(0.0);
+    }
+
+    @Test
+    public void testExportRequestFlushByMaxPendingSpanBytes() throws IOException {
+        oTelTraceRawPrepper.shutdown();
+        pluginSetting.getSettings().put(OtelTraceRawPrepperConfig.MAX_PENDING_SPAN_BYTES, 1L);
+        oTelTraceRawPrepper = new OTelTraceRawPrepper(pluginSetting);
+
+        final ExportTraceServiceRequest exportTraceServiceRequest = buildExportTraceServiceRequestFromJsonFile(TEST_REQUEST_TWO_TRACE_GROUP_MISSING_ROOTS_JSON_FILE);
+        final List<Record<String>> processedRecords = (List<Record<String>>) oTelTraceRawPrepper.doExecute(
+                Collections.singletonList(new Record<>(exportTraceServiceRequest)));
+
+        Assertions.assertThat(processedRecords.size()).isEqualTo(4);
+        Assertions.assertThat(getMissingTraceGroupFieldsSpanCount(processedRecords)).isEqualTo(4);
+        assertTrue(oTelTraceRawPrepper.isReadyForShutdown());
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS_EVICTED)).isEqualTo(4.0);
+        assertThat(getMeasurementValue(OTelTraceRawPrepper.PENDING_SPANS_BYTES)).isEqualTo(0.0);
+    }
+
+    @Test
+    public void testTraceGroupCacheMetrics() throws IOException {
+        final ExportTraceServiceRequest exportTraceServiceRequest = buildExportTraceServiceRequestFromJsonFile(TEST_REQUEST_TWO_FULL_TRACE_GROUP_JSON_FILE);
+        oTelTraceRawPrepper.doExecute(Collections.singletonList(new Record<>(exportTraceServiceRequest)));
+
+        // every child span looks up its trace group once
+        assertThat(getMeasurementValue(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_HITS)
+                + getMeasurementValue(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_MISSES)).isEqualTo(4.0);
+        assertThat(getMeasurementValue(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_EVICTIONS)).isEqualTo(0.0);
+    }
+
+    @Test
+    public void testTraceGroupCacheMaxBytes() throws IOException {
+        oTelTraceRawPrepper.shutdown();
+        pluginSetting.getSettings().put(OtelTraceRawPrepperConfig.TRACE_GROUP_CACHE_MAX_BYTES, 1L);
+        oTelTraceRawPrepper = new OTelTraceRawPrepper(pluginSetting);
+
+        final ExportTraceServiceRequest exportTraceServiceRequest = buildExportTraceServiceRequestFromJsonFile(TEST_REQUEST_TWO_FULL_TRACE_GROUP_JSON_FILE);
+        oTelTraceRawPrepper.doExecute(Collections.singletonList(new Record<>(exportTraceServiceRequest)));
+
+        // no trace group fits in the cache, so both of them are evicted
+        await().atMost(TEST_TRACE_FLUSH_INTERVAL, TimeUnit.SECONDS).untilAsserted(() -> assertThat(
+                getMeasurementValue(TraceGroupCacheStatsCounter.TRACE_GROUP_CACHE_EVICTIONS)).isEqualTo(2.0));
+    }
+
     @Test
     public void testPrepareForShutdown() throws Exception {
         // Assert no records in memory
@@ -240,6 +299,14 @@ public class OTelTraceRawPrepperTest {
         return futures;
     }
 
+    private double getMeasurementValue(final String metricName) {
+        final List<Measurement> measurements = MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add("pipelineOTelTrace").add("OTelTrace")
+                        .add(metricName).toString());
+        Assert.assertEquals(1, measurements.size());
+        return measurements.get(0).getValue();
+    }
+
     private int getMissingTraceGroupFieldsSpanCount(List<Record<String>> records) throws JsonProcessingException {
         int count = 0;
         for (Record<String> record: records) {
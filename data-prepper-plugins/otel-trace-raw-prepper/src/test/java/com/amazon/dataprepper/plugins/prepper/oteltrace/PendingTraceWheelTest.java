@@ -0,0 +1,112 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace;
+
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.BinaryId;
+import com.amazon.dataprepper.plugins.prepper.oteltrace.model.RawSpanSet;
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PendingTraceWheelTest {
+    private static final long FLUSH_INTERVAL_MILLIS = 3_000L;
+    private static final long TICK_MILLIS = 1_000L;
+
+    @Test
+    public void testTraceExpiresAfterTheTickOfItsFlushInterval() {
+        final PendingTraceWheel pendingTraceWheel = new PendingTraceWheel(FLUSH_INTERVAL_MILLIS, TICK_MILLIS);
+        final BinaryId traceId = traceId(1);
+        final RawSpanSet rawSpanSet = new RawSpanSet();
+        final long timeSeen = rawSpanSet.getTimeSeen();
+
+        pendingTraceWheel.add(traceId, rawSpanSet);
+
+        assertThat(pendingTraceWheel.pollExpired(timeSeen)).isNull();
+        assertThat(pendingTraceWheel.pollExpired(timeSeen + FLUSH_INTERVAL_MILLIS)).isNull();
+        final Collection<Map.Entry<BinaryId, RawSpanSet>> expiredTraces =
+                pendingTraceWheel.pollExpired(timeSeen + FLUSH_INTERVAL_MILLIS + TICK_MILLIS);
+        assertThat(expiredTraces).hasSize(1);
+        final Map.Entry<BinaryId, RawSpanSet> expiredTrace = expiredTraces.iterator().next();
+        assertThat(expiredTrace.getKey()).isEqualTo(traceId);
+        assertThat(expiredTrace.getValue()).isSameAs(rawSpanSet);
+        assertThat(pendingTraceWheel.pollExpired(Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    public void testExpiredBucketsArePolledInOrderOfTheirTick() throws InterruptedException {
+        final PendingTraceWheel pendingTraceWheel = new PendingTraceWheel(0L, 1L);
+        final RawSpanSet earlierRawSpanSet = new RawSpanSet();
+        Thread.sleep(5);
+        final RawSpanSet laterRawSpanSet = new RawSpanSet();
+
+        pendingTraceWheel.add(traceId(2), laterRawSpanSet);
+        pendingTraceWheel.add(traceId(1), earlierRawSpanSet);
+
+        assertThat(pendingTraceWheel.pollExpired(Long.MAX_VALUE)).extracting(Map.Entry::getKey).containsExactly(traceId(1));
+        assertThat(pendingTraceWheel.pollExpired(Long.MAX_VALUE)).extracting(Map.Entry::getKey).containsExactly(traceId(2));
+        assertThat(pendingTraceWheel.pollExpired(Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    public void testPollReturnsBucketsBeforeTheyExpire() {
+        final PendingTraceWheel pendingTraceWheel = new PendingTraceWheel(FLUSH_INTERVAL_MILLIS, TICK_MILLIS);
+        final RawSpanSet rawSpanSet = new RawSpanSet();
+        pendingTraceWheel.add(traceId(1), rawSpanSet);
+        pendingTraceWheel.add(traceId(2), rawSpanSet);
+
+        assertThat(pendingTraceWheel.pollExpired(rawSpanSet.getTimeSeen())).isNull();
+        assertThat(pendingTraceWheel.poll()).extracting(Map.Entry::getKey).containsExactly(traceId(1), traceId(2));
+        assertThat(pendingTraceWheel.poll()).isNull();
+    }
+
+    @Test
+    public void testConcurrentPollsTakeEveryTraceOnce() throws Exception {
+        final PendingTraceWheel pendingTraceWheel = new PendingTraceWheel(0L, 1L);
+        final int traceCount = 10_000;
+        final List<BinaryId> traceIds = new ArrayList<>(traceCount);
+        for (int i = 0; i < traceCount; i++) {
+            final BinaryId traceId = traceId(i);
+            traceIds.add(traceId);
+            pendingTraceWheel.add(traceId, new RawSpanSet());
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final List<Future<List<BinaryId>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executorService.submit(() -> {
+                final List<BinaryId> polledTraceIds = new ArrayList<>();
+                Collection<Map.Entry<BinaryId, RawSpanSet>> expiredTraces;
+                while ((expiredTraces = pendingTraceWheel.pollExpired(Long.MAX_VALUE)) != null) {
+                    expiredTraces.forEach(expiredTrace -> polledTraceIds.add(expiredTrace.getKey()));
+                }
+                return polledTraceIds;
+            }));
+        }
+        final List<BinaryId> polledTraceIds = new ArrayList<>();
+        for (final Future<List<BinaryId>> future : futures) {
+            polledTraceIds.addAll(future.get());
+        }
+        executorService.shutdown();
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(polledTraceIds).containsExactlyInAnyOrderElementsOf(traceIds);
+    }
+
+    private static BinaryId traceId(final int value) {
+        return BinaryId.of(ByteString.copyFrom(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16),
+                (byte) (value >>> 8), (byte) value}));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import com.google.protobuf.ByteString;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryIdTest {
+
+    @Test
+    public void testToHexStringMatchesHexEncoding() {
+        final byte[] traceId = TestUtils.getRandomBytes(16);
+        final BinaryId binaryId = BinaryId.of(ByteString.copyFrom(traceId));
+
+        assertThat(binaryId.isEmpty()).isFalse();
+        assertThat(binaryId.getHexLength()).isEqualTo(32);
+        assertThat(binaryId.toHexString()).isEqualTo(Hex.encodeHexString(traceId));
+        assertThat(binaryId.toString()).isEqualTo(binaryId.toHexString());
+    }
+
+    @Test
+    public void testWriteHex() {
+        final BinaryId binaryId = BinaryId.of(ByteString.copyFrom(new byte[]{0x00, 0x0f, (byte) 0xa5, (byte) 0xff}));
+        final char[] destination = new char[10];
+
+        binaryId.writeHex(destination);
+
+        assertThat(new String(destination, 0, binaryId.getHexLength())).isEqualTo("000fa5ff");
+    }
+
+    @Test
+    public void testEmpty() {
+        final BinaryId binaryId = BinaryId.of(ByteString.EMPTY);
+
+        assertThat(binaryId).isSameAs(BinaryId.EMPTY);
+        assertThat(binaryId.isEmpty()).isTrue();
+        assertThat(binaryId.toHexString()).isEmpty();
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        final byte[] spanId = TestUtils.getRandomBytes(8);
+        final BinaryId binaryId = BinaryId.of(ByteString.copyFrom(spanId));
+        final BinaryId sameId = BinaryId.of(ByteString.copyFrom(spanId));
+        spanId[0]++;
+        final BinaryId otherId = BinaryId.of(ByteString.copyFrom(spanId));
+
+        assertThat(binaryId).isEqualTo(sameId);
+        assertThat(binaryId.hashCode()).isEqualTo(sameId.hashCode());
+        assertThat(binaryId).isNotEqualTo(otherId);
+        assertThat(binaryId).isNotEqualTo(binaryId.toHexString());
+    }
+}
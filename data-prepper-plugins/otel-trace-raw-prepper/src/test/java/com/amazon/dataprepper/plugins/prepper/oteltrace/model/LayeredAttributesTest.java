@@ -0,0 +1,96 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import io.opentelemetry.proto.trace.v1.Span;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LayeredAttributesTest {
+
+    @Test
+    public void testLayersAreViewedInOrder() {
+        final LayeredAttributes layeredAttributes = new LayeredAttributes(
+                mapOf("span.attributes.a", "span", "span.attributes.b", null),
+                SharedAttributes.of(mapOf("resource.attributes.a", 1L)),
+                SharedAttributes.of(Collections.emptyMap()),
+                mapOf("status.code", 2));
+
+        final List<String> keys = new ArrayList<>(layeredAttributes.keySet());
+        assertThat(keys).containsExactly("span.attributes.a", "span.attributes.b", "resource.attributes.a",
+                "status.code");
+        assertThat(layeredAttributes.size()).isEqualTo(4);
+        assertThat(layeredAttributes.get("span.attributes.a")).isEqualTo("span");
+        assertThat(layeredAttributes.get("resource.attributes.a")).isEqualTo(1L);
+        assertThat(layeredAttributes.get("status.code")).isEqualTo(2);
+        assertThat(layeredAttributes.get("missing")).isNull();
+        assertThat(layeredAttributes.containsKey("span.attributes.b")).isTrue();
+        assertThat(layeredAttributes.containsKey("missing")).isFalse();
+        assertThat(layeredAttributes).isEqualTo(new HashMap<>(layeredAttributes));
+    }
+
+    @Test
+    public void testEmptyLayers() {
+        final LayeredAttributes layeredAttributes = new LayeredAttributes(Collections.emptyMap(),
+                SharedAttributes.of(new HashMap<>()), SharedAttributes.of(new HashMap<>()), Collections.emptyMap());
+
+        assertThat(layeredAttributes.isEmpty()).isTrue();
+        assertThat(layeredAttributes.entrySet().iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    public void testAttributesCannotBeModified() {
+        final LayeredAttributes layeredAttributes = new LayeredAttributes(mapOf("span.attributes.a", "span"),
+                SharedAttributes.of(mapOf("resource.attributes.a", 1L)), SharedAttributes.EMPTY, new HashMap<>());
+
+        assertThatThrownBy(() -> layeredAttributes.put("key", "value")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> layeredAttributes.entrySet().iterator().next().setValue("value"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> layeredAttributes.getResourceAttributes().getAttributes().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testSharedAttributesAreEncodedOnce() throws Exception {
+        final SharedAttributes sharedAttributes = SharedAttributes.of(mapOf("resource.attributes.name", "é\"",
+                "resource.attributes.count", 3L));
+        assertThat(sharedAttributes.getJsonFields()).isNull();
+
+        final RawSpan firstRawSpan = rawSpanWith(sharedAttributes);
+        final String firstJson = firstRawSpan.toJson();
+        final byte[] jsonFields = sharedAttributes.getJsonFields();
+        assertThat(new String(jsonFields, StandardCharsets.UTF_8))
+                .isEqualTo(",\"resource.attributes.name\":\"é\\\"\",\"resource.attributes.count\":3");
+        assertThat(firstJson).contains(new String(jsonFields, StandardCharsets.UTF_8));
+
+        final RawSpan secondRawSpan = rawSpanWith(sharedAttributes);
+        assertThat(secondRawSpan.toJson()).isEqualTo(firstJson);
+        assertThat(sharedAttributes.getJsonFields()).isSameAs(jsonFields);
+    }
+
+    private static RawSpan rawSpanWith(final SharedAttributes resourceAttributes) {
+        return new RawSpanBuilder().setFromSpan(Span.newBuilder().setName("span").build(), SharedAttributes.EMPTY,
+                "service", resourceAttributes).build();
+    }
+
+    private static Map<String, Object> mapOf(final Object... keysAndValues) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper.oteltrace.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.ArrayValue;
+import io.opentelemetry.proto.common.v1.InstrumentationLibrary;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.common.v1.KeyValueList;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.proto.trace.v1.Status;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RawSpanTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    public void testToJsonMatchesDataBindingForRootSpan() throws JsonProcessingException {
+        final Span span = fullSpan().setParentSpanId(ByteString.EMPTY).build();
+        final Resource resource = Resource.newBuilder()
+                .addAttributes(KeyValue.newBuilder().setKey("service.name")
+                        .setValue(AnyValue.newBuilder().setStringValue("checkout")))
+                .addAttributes(KeyValue.newBuilder().setKey("host.cpu.count")
+                        .setValue(AnyValue.newBuilder().setIntValue(8)))
+                .build();
+        final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(span,
+                InstrumentationLibrary.newBuilder().setName("library").setVersion("1.0").build(), "checkout",
+                OTelProtoHelper.getResourceAttributes(resource)).build();
+
+        assertThat(rawSpan.getTraceGroup().getName()).isEqualTo(span.getName());
+        assertToJsonMatchesDataBinding(rawSpan);
+    }
+
+    @Test
+    public void testToJsonMatchesDataBindingForChildSpan() throws JsonProcessingException {
+        final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(fullSpan().build(),
+                InstrumentationLibrary.newBuilder().build(), "checkout", Collections.emptyMap()).build();
+
+        assertThat(rawSpan.getTraceGroup().getName()).isNull();
+        assertToJsonMatchesDataBinding(rawSpan);
+    }
+
+    @Test
+    public void testToJsonMatchesDataBindingForEmptySpan() throws JsonProcessingException {
+        final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(Span.newBuilder().build(),
+                InstrumentationLibrary.newBuilder().build(), null, Collections.emptyMap()).build();
+
+        assertToJsonMatchesDataBinding(rawSpan);
+    }
+
+    @Test
+    public void testToJsonMatchesDataBindingWithoutTraceGroup() throws JsonProcessingException {
+        final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(fullSpan().build(),
+                InstrumentationLibrary.newBuilder().build(), "checkout", Collections.emptyMap()).build();
+        rawSpan.setTraceGroup(null);
+
+        assertToJsonMatchesDataBinding(rawSpan);
+    }
+
+    @Test
+    public void testToJsonMatchesDataBindingForSpansSharingAttributes() throws JsonProcessingException {
+        final Resource resource = Resource.newBuilder()
+                .addAttributes(KeyValue.newBuilder().setKey("service.name")
+                        .setValue(AnyValue.newBuilder().setStringValue("chéckout \"quoted\"")))
+                .addAttributes(KeyValue.newBuilder().setKey("host.cpu.count")
+                        .setValue(AnyValue.newBuilder().setIntValue(8)))
+                .build();
+        final SharedAttributes resourceAttributes = SharedAttributes.of(OTelProtoHelper.getResourceAttributes(resource));
+        final SharedAttributes instrumentationLibraryAttributes = SharedAttributes.of(
+                OTelProtoHelper.getInstrumentationLibraryAttributes(
+                        InstrumentationLibrary.newBuilder().setName("library").setVersion("1.0").build()));
+
+        for (int i = 0; i < 3; i++) {
+            final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(fullSpan().build(),
+                    instrumentationLibraryAttributes, "checkout", resourceAttributes).build();
+            assertThat(rawSpan.getAttributes().get("resource.attributes.host@cpu@count")).isEqualTo(8L);
+            assertToJsonMatchesDataBinding(rawSpan);
+        }
+    }
+
+    @Test
+    public void testToJsonIsRepeatable() throws JsonProcessingException {
+        final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(fullSpan().build(),
+                InstrumentationLibrary.newBuilder().build(), "checkout", Collections.emptyMap()).build();
+
+        assertThat(rawSpan.toJson()).isEqualTo(rawSpan.toJson());
+    }
+
+    @Test
+    public void testToJsonOfLargeSpan() throws JsonProcessingException {
+        final Span.Builder span = fullSpan();
+        for (int i = 0; i < 2_000; i++) {
+            span.addAttributes(KeyValue.newBuilder().setKey("key." + i)
+                    .setValue(AnyValue.newBuilder().setStringValue("some value to make the document larger " + i)));
+        }
+        final RawSpan rawSpan = new RawSpanBuilder().setFromSpan(span.build(),
+                InstrumentationLibrary.newBuilder().build(), "checkout", Collections.emptyMap()).build();
+
+        assertToJsonMatchesDataBinding(rawSpan);
+        final Map<?, ?> document = OBJECT_MAPPER.readValue(rawSpan.toJson(), Map.class);
+        assertThat(document.get("span.attributes.key@1999")).isEqualTo("some value to make the document larger 1999");
+    }
+
+    private static void assertToJsonMatchesDataBinding(final RawSpan rawSpan) throws JsonProcessingException {
+        assertThat(rawSpan.toJson()).isEqualTo(OBJECT_MAPPER.writeValueAsString(rawSpan));
+    }
+
+    private static Span.Builder fullSpan() {
+        final KeyValue arrayAttribute = KeyValue.newBuilder().setKey("array")
+                .setValue(AnyValue.newBuilder().setArrayValue(ArrayValue.newBuilder()
+                        .addValues(AnyValue.newBuilder().setStringValue("first"))
+                        .addValues(AnyValue.newBuilder().setIntValue(2))))
+                .build();
+        final KeyValue kvListAttribute = KeyValue.newBuilder().setKey("kv.list")
+                .setValue(AnyValue.newBuilder().setKvlistValue(KeyValueList.newBuilder()
+                        .addValues(KeyValue.newBuilder().setKey("nested.key")
+                                .setValue(AnyValue.newBuilder().setBoolValue(true)))))
+                .build();
+        return Span.newBuilder()
+                .setTraceId(ByteString.copyFrom(TestUtils.getRandomBytes(16)))
+                .setSpanId(ByteString.copyFrom(TestUtils.getRandomBytes(8)))
+                .setParentSpanId(ByteString.copyFrom(TestUtils.getRandomBytes(8)))
+                .setTraceState("some state")
+                .setName("GET /checkout?item=\"quoted\"\né")
+                .setKind(Span.SpanKind.SPAN_KIND_SERVER)
+                .setStartTimeUnixNano(651242400000000321L)
+                .setEndTimeUnixNano(651242400000000321L + 3000)
+                .setStatus(Status.newBuilder().setCodeValue(Status.StatusCode.STATUS_CODE_ERROR_VALUE)
+                        .setMessage("status-description"))
+                .addAttributes(KeyValue.newBuilder().setKey("http.method")
+                        .setValue(AnyValue.newBuilder().setStringValue("GET")))
+                .addAttributes(KeyValue.newBuilder().setKey("http.status_code")
+                        .setValue(AnyValue.newBuilder().setIntValue(500)))
+                .addAttributes(KeyValue.newBuilder().setKey("sample.rate")
+                        .setValue(AnyValue.newBuilder().setDoubleValue(0.25)))
+                .addAttributes(KeyValue.newBuilder().setKey("error")
+                        .setValue(AnyValue.newBuilder().setBoolValue(true)))
+                .addAttributes(KeyValue.newBuilder().setKey("unset"))
+                .addAttributes(arrayAttribute)
+                .addAttributes(kvListAttribute)
+                .setDroppedAttributesCount(1)
+                .setDroppedEventsCount(2)
+                .setDroppedLinksCount(3)
+                .addEvents(Span.Event.newBuilder().setName("event-1").setTimeUnixNano(651242400000001321L)
+                        .addAttributes(KeyValue.newBuilder().setKey("event.key")
+                                .setValue(AnyValue.newBuilder().setIntValue(1)))
+                        .setDroppedAttributesCount(4))
+                .addEvents(Span.Event.newBuilder().setName("event-2").setTimeUnixNano(651242400000002321L))
+                .addLinks(Span.Link.newBuilder()
+                        .setTraceId(ByteString.copyFrom(TestUtils.getRandomBytes(16)))
+                        .setSpanId(ByteString.copyFrom(TestUtils.getRandomBytes(8)))
+                        .setTraceState("link state")
+                        .addAttributes(KeyValue.newBuilder().setKey("link.key")
+                                .setValue(AnyValue.newBuilder().setDoubleValue(1.5)))
+                        .setDroppedAttributesCount(5));
+    }
+}
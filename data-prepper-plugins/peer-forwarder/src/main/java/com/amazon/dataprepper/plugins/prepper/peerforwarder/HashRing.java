@@ -12,6 +12,7 @@
 package com.amazon.dataprepper.plugins.prepper.peerforwarder;
 
 import com.amazon.dataprepper.plugins.prepper.peerforwarder.discovery.PeerListProvider;
+import com.google.protobuf.ByteString;
 import com.linecorp.armeria.client.Endpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
@@ -36,6 +38,7 @@ import java.util.function.Consumer;
 public class HashRing implements Consumer<List<Endpoint>> {
     private static final Logger LOG = LoggerFactory.getLogger(HashRing.class);
     private static final String MD5 = "MD5";
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
 
     /* Number of virtual nodes per Data Prepper host to be present on the hash ring */
     private final int numVirtualNodes;
@@ -55,11 +58,28 @@ public class HashRing implements Consumer<List<Endpoint>> {
     }
 
     public Optional<String> getServerIp(final String traceId) {
+        return getServerIpForHash(traceId.getBytes());
+    }
+
+    /**
+     * Looks up the host of a trace by its binary ID, at the same position of the ring as its hex string representation,
+     * without creating the string.
+     */
+    public Optional<String> getServerIp(final ByteString traceId) {
+        final byte[] hexTraceId = new byte[traceId.size() * 2];
+        for (int i = 0; i < traceId.size(); i++) {
+            final int value = traceId.byteAt(i) & 0xFF;
+            hexTraceId[i * 2] = HEX_DIGITS[value >>> 4];
+            hexTraceId[i * 2 + 1] = HEX_DIGITS[value & 0x0F];
+        }
+        return getServerIpForHash(hexTraceId);
+    }
+
+    private Optional<String> getServerIpForHash(final byte[] traceIdInBytes) {
         if (hashServerMap.isEmpty()) {
             return Optional.empty();
         }
 
-        final byte[] traceIdInBytes = traceId.getBytes();
         final MessageDigest md;
         try {
             md = MessageDigest.getInstance(MD5);
@@ -17,6 +17,7 @@ import com.amazon.dataprepper.model.prepper.AbstractPrepper;
 import com.amazon.dataprepper.model.prepper.Prepper;
 import com.amazon.dataprepper.model.record.Record;
 import com.amazon.dataprepper.plugins.prepper.peerforwarder.discovery.StaticPeerListProvider;
+import com.google.protobuf.ByteString;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
@@ -98,9 +99,9 @@ public class PeerForwarder extends AbstractPrepper<Record<ExportTraceServiceRequ
         // Group ResourceSpans by consistent hashing of traceId
         for (final Record<ExportTraceServiceRequest> record : records) {
             for (final ResourceSpans rs : record.getData().getResourceSpansList()) {
-                final List<Map.Entry<String, ResourceSpans>> rsBatch = PeerForwarderUtils.splitByTrace(rs);
-                for (final Map.Entry<String, ResourceSpans> entry : rsBatch) {
-                    final String traceId = entry.getKey();
+                final List<Map.Entry<ByteString, ResourceSpans>> rsBatch = PeerForwarderUtils.splitByTrace(rs);
+                for (final Map.Entry<ByteString, ResourceSpans> entry : rsBatch) {
+                    final ByteString traceId = entry.getKey();
                     final ResourceSpans newRS = entry.getValue();
                     final String dataPrepperIp = hashRing.getServerIp(traceId).orElse(StaticPeerListProvider.LOCAL_ENDPOINT);
                     groupedRS.computeIfAbsent(dataPrepperIp, x -> new ArrayList<>()).add(newRS);
@@ -11,7 +11,7 @@
 
 package com.amazon.dataprepper.plugins.prepper.peerforwarder;
 
-import com.linecorp.armeria.internal.shaded.bouncycastle.util.encoders.Hex;
+import com.google.protobuf.ByteString;
 import io.opentelemetry.proto.trace.v1.InstrumentationLibrarySpans;
 import io.opentelemetry.proto.trace.v1.ResourceSpans;
 import io.opentelemetry.proto.trace.v1.Span;
@@ -27,21 +27,26 @@ public final class PeerForwarderUtils {
         return rs.getInstrumentationLibrarySpansList().stream().mapToInt(InstrumentationLibrarySpans::getSpansCount).sum();
     }
 
-    public static List<Map.Entry<String, ResourceSpans>> splitByTrace(final ResourceSpans rs) {
-        final List<Map.Entry<String, ResourceSpans>> result = new ArrayList<>();
+    /**
+     * Splits the spans of a ResourceSpans into one ResourceSpans per trace and instrumentation library, keyed by the
+     * binary trace ID, which caches its hash code.
+     */
+    public static List<Map.Entry<ByteString, ResourceSpans>> splitByTrace(final ResourceSpans rs) {
+        final List<Map.Entry<ByteString, ResourceSpans>> result = new ArrayList<>();
         for (final InstrumentationLibrarySpans ils: rs.getInstrumentationLibrarySpansList()) {
-            final Map<String, ResourceSpans.Builder> batches = new HashMap<>();
+            final Map<ByteString, ResourceSpans.Builder> batches = new HashMap<>();
             for (final Span span: ils.getSpansList()) {
-                final String sTraceId = Hex.toHexString(span.getTraceId().toByteArray());
-                if (!batches.containsKey(sTraceId)) {
-                    final ResourceSpans.Builder newRSBuilder = ResourceSpans.newBuilder()
+                final ByteString sTraceId = span.getTraceId();
+                ResourceSpans.Builder rsBuilder = batches.get(sTraceId);
+                if (rsBuilder == null) {
+                    rsBuilder = ResourceSpans.newBuilder()
                             .setResource(rs.getResource());
-                    newRSBuilder.addInstrumentationLibrarySpansBuilder().setInstrumentationLibrary(ils.getInstrumentationLibrary());
-                    batches.put(sTraceId, newRSBuilder);
+                    rsBuilder.addInstrumentationLibrarySpansBuilder().setInstrumentationLibrary(ils.getInstrumentationLibrary());
+                    batches.put(sTraceId, rsBuilder);
                 }
 
                 // there is only one instrumentation library per batch
-                batches.get(sTraceId).getInstrumentationLibrarySpansBuilder(0).addSpans(span);
+                rsBuilder.getInstrumentationLibrarySpansBuilder(0).addSpans(span);
             }
 
             batches.forEach((traceId, rsBuilder) -> result.add(new AbstractMap.SimpleEntry<>(traceId, rsBuilder.build())));
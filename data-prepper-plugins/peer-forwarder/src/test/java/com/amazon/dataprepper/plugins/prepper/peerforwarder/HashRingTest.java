@@ -12,6 +12,8 @@
 package com.amazon.dataprepper.plugins.prepper.peerforwarder;
 
 import com.amazon.dataprepper.plugins.prepper.peerforwarder.discovery.PeerListProvider;
+import com.google.protobuf.ByteString;
+import com.linecorp.armeria.internal.shaded.bouncycastle.util.encoders.Hex;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -22,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -112,6 +115,22 @@ public class HashRingTest {
         assertNotEquals(result1.get(), result2.get());
     }
 
+    @Test
+    public void testGetServerIpOfBinaryTraceIdMatchesHexTraceId() {
+        sut = new HashRing(peerListProvider, MULTIPLE_VIRTUAL_NODE_COUNT);
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 100; i++) {
+            final byte[] traceId = new byte[16];
+            random.nextBytes(traceId);
+
+            final Optional<String> result = sut.getServerIp(ByteString.copyFrom(traceId));
+
+            assertTrue(result.isPresent());
+            assertEquals(sut.getServerIp(Hex.toHexString(traceId)).get(), result.get());
+        }
+    }
+
     @Test
     public void testSpecialCaseNoKeyInMapGreaterThanHashValue() {
         when(peerListProvider.getPeerList()).thenReturn(Collections.singletonList("serverIp"));
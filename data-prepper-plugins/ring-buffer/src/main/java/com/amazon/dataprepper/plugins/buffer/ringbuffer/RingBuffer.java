@@ -0,0 +1,310 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.ringbuffer;
+
+import com.amazon.dataprepper.model.CheckpointState;
+import com.amazon.dataprepper.model.annotations.DataPrepperPlugin;
+import com.amazon.dataprepper.model.buffer.AbstractBuffer;
+import com.amazon.dataprepper.model.buffer.Buffer;
+import com.amazon.dataprepper.model.buffer.SizeOverflowException;
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+/**
+ * A bounded RingBuffer is a lock-free implementation of {@link Buffer} backed by a preallocated array. It is bounded
+ * to the provided capacity {@link #ATTRIBUTE_BUFFER_CAPACITY} or {@link #DEFAULT_BUFFER_CAPACITY} (if attribute is
+ * not provided) and follows the same capacity semantics as the bounded_blocking buffer: the capacity limits the
+ * number of unchecked records, i.e. records written into the buffer plus in-flight records not yet checked by
+ * {@link #checkpoint(CheckpointState)}.
+ * <p>
+ * Producers and consumers coordinate through sequence counters instead of locks. A writer claims a contiguous range
+ * of sequences with a single compare-and-set on the write cursor, and a reader claims up to {@link #ATTRIBUTE_BATCH_SIZE}
+ * published sequences with a single compare-and-set on the read cursor. Each slot carries its own sequence number,
+ * so a slot is only handed to a reader once the owning writer has published it, and only reused by a writer once
+ * the owning reader has drained it.
+ */
+@DataPrepperPlugin(name = "ring_buffer", pluginType = Buffer.class)
+public class RingBuffer<T extends Record<?>> extends AbstractBuffer<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(RingBuffer.class);
+    private static final int DEFAULT_BUFFER_CAPACITY = 512;
+    private static final int DEFAULT_BATCH_SIZE = 8;
+    private static final String PLUGIN_NAME = "ring_buffer";
+    private static final String ATTRIBUTE_BUFFER_CAPACITY = "buffer_size";
+    private static final String ATTRIBUTE_BATCH_SIZE = "batch_size";
+    private static final int SPIN_TRIES = 100;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int bufferCapacity;
+    private final int batchSize;
+    private final String pipelineName;
+
+    private final int indexMask;
+    private final Object[] entries;
+    private final AtomicLongArray slotSequences;
+    private final AtomicLong writeCursor = new AtomicLong();
+    private final AtomicLong readCursor = new AtomicLong();
+    private final AtomicLong checkedCursor = new AtomicLong();
+
+    /**
+     * Creates a RingBuffer with the given (fixed) capacity.
+     *
+     * @param bufferCapacity the capacity of the buffer
+     * @param batchSize      the batch size for {@link #read(int)}
+     * @param pipelineName   the name of the associated Pipeline
+     */
+    public RingBuffer(final int bufferCapacity, final int batchSize, final String pipelineName) {
+        super("RingBuffer", pipelineName);
+        checkArgument(bufferCapacity > 0, "buffer_size must be greater than 0");
+        checkArgument(batchSize > 0, "batch_size must be greater than 0");
+        this.bufferCapacity = bufferCapacity;
+        this.batchSize = batchSize;
+        this.pipelineName = pipelineName;
+
+        final int ringSize = ringSizeFor(bufferCapacity);
+        this.indexMask = ringSize - 1;
+        this.entries = new Object[ringSize];
+        this.slotSequences = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            slotSequences.set(i, i);
+        }
+    }
+
+    /**
+     * Mandatory constructor for Data Prepper Component - This constructor is used by Data Prepper runtime engine to construct an
+     * instance of {@link RingBuffer} using an instance of {@link PluginSetting} which has access to
+     * pluginSetting metadata from pipeline pluginSetting file. Buffer settings like `buffer_size` and `batch_size`
+     * are optional and can be passed via {@link PluginSetting}, if not present default values will be used to
+     * create the buffer.
+     *
+     * @param pluginSetting instance with metadata information from pipeline pluginSetting file.
+     */
+    public RingBuffer(final PluginSetting pluginSetting) {
+        this(checkNotNull(pluginSetting, "PluginSetting cannot be null")
+                        .getIntegerOrDefault(ATTRIBUTE_BUFFER_CAPACITY, DEFAULT_BUFFER_CAPACITY),
+                pluginSetting.getIntegerOrDefault(ATTRIBUTE_BATCH_SIZE, DEFAULT_BATCH_SIZE),
+                pluginSetting.getPipelineName());
+    }
+
+    public RingBuffer(final String pipelineName) {
+        this(DEFAULT_BUFFER_CAPACITY, DEFAULT_BATCH_SIZE, pipelineName);
+    }
+
+    @Override
+    public void doWrite(final T record, final int timeoutInMillis) throws TimeoutException {
+        checkNotNull(record, "record cannot be null");
+        try {
+            final long sequence = claimForWrite(1, deadlineFor(timeoutInMillis));
+            if (sequence < 0) {
+                throw new TimeoutException(format("Pipeline [%s] - Buffer is full, timed out waiting for a slot",
+                        pipelineName));
+            }
+            publish(sequence, record);
+        } catch (InterruptedException ex) {
+            LOG.error("Pipeline [{}] - Buffer is full, interrupted while waiting to write the record", pipelineName, ex);
+            throw new TimeoutException("Buffer is full, timed out waiting for a slot");
+        }
+    }
+
+    @Override
+    public void doWriteAll(final Collection<T> records, final int timeoutInMillis) throws Exception {
+        final int size = records.size();
+        if (size > bufferCapacity) {
+            throw new SizeOverflowException(format("Buffer capacity too small for the size of records: %d", size));
+        }
+        for (final T record : records) {
+            checkNotNull(record, "record cannot be null");
+        }
+        try {
+            final long firstSequence = claimForWrite(size, deadlineFor(timeoutInMillis));
+            if (firstSequence < 0) {
+                throw new TimeoutException(
+                        format("Pipeline [%s] - Buffer does not have enough capacity left for the size of records: %d, " +
+                                        "timed out waiting for slots.",
+                                pipelineName, size));
+            }
+            long sequence = firstSequence;
+            for (final T record : records) {
+                publish(sequence++, record);
+            }
+        } catch (InterruptedException ex) {
+            LOG.error("Pipeline [{}] - Buffer does not have enough capacity left for the size of records: {}, " +
+                            "interrupted while waiting to write the records",
+                    pipelineName, size, ex);
+            throw new TimeoutException(
+                    format("Pipeline [%s] - Buffer does not have enough capacity left for the size of records: %d, " +
+                                    "timed out waiting for slots.",
+                            pipelineName, size));
+        }
+    }
+
+    /**
+     * Retrieves and removes the batch of records from the head of the ring. The batch size is defined/determined by
+     * the configuration attribute {@link #ATTRIBUTE_BATCH_SIZE} or the @param timeoutInMillis. Every published record
+     * available at the time of the call is claimed at once, up to the batch size.
+     *
+     * @param timeoutInMillis how long to wait before giving up
+     * @return The earliest batch of records in the buffer which are still not read.
+     */
+    @Override
+    public Map.Entry<Collection<T>, CheckpointState> doRead(final int timeoutInMillis) {
+        return doRead(timeoutInMillis, batchSize);
+    }
+
+    /**
+     * Same as {@link #doRead(int)}, but the batch is capped at maxRecords instead of the configured
+     * {@link #ATTRIBUTE_BATCH_SIZE}.
+     *
+     * @param timeoutInMillis how long to wait before giving up
+     * @param maxRecords maximum number of records in the batch
+     * @return The earliest batch of records in the buffer which are still not read.
+     */
+    @Override
+    public Map.Entry<Collection<T>, CheckpointState> doRead(final int timeoutInMillis, final int maxRecords) {
+        final List<T> records = new ArrayList<>(maxRecords);
+        final long deadline = deadlineFor(timeoutInMillis);
+        int idleCount = 0;
+        try {
+            while (records.size() < maxRecords) {
+                if (drainTo(records, maxRecords - records.size()) > 0) {
+                    idleCount = 0;
+                } else if (System.nanoTime() - deadline >= 0) {
+                    break;
+                } else {
+                    idle(idleCount++, deadline);
+                }
+            }
+        } catch (InterruptedException ex) {
+            LOG.info("Pipeline [{}] - Interrupt received while reading from buffer", pipelineName);
+            throw new RuntimeException(ex);
+        }
+        final CheckpointState checkpointState = new CheckpointState(records.size());
+        return new AbstractMap.SimpleEntry<>(records, checkpointState);
+    }
+
+    /**
+     * Returns the default PluginSetting object with default values.
+     * @return PluginSetting
+     */
+    public static PluginSetting getDefaultPluginSettings() {
+        final Map<String, Object> settings = new HashMap<>();
+        settings.put(ATTRIBUTE_BUFFER_CAPACITY, DEFAULT_BUFFER_CAPACITY);
+        settings.put(ATTRIBUTE_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        return new PluginSetting(PLUGIN_NAME, settings);
+    }
+
+    @Override
+    public void doCheckpoint(final CheckpointState checkpointState) {
+        checkedCursor.addAndGet(checkpointState.getNumRecordsToBeChecked());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return readCursor.get() == writeCursor.get() && getRecordsInFlight() == 0;
+    }
+
+    /**
+     * Claims a contiguous range of sequences for writing, waiting until the number of unchecked records leaves room
+     * for the whole range.
+     *
+     * @return the first claimed sequence, or -1 if the deadline passed before enough capacity was available
+     */
+    private long claimForWrite(final int count, final long deadline) throws InterruptedException {
+        int idleCount = 0;
+        while (true) {
+            final long current = writeCursor.get();
+            if (current + count - checkedCursor.get() <= bufferCapacity) {
+                if (writeCursor.compareAndSet(current, current + count)) {
+                    return current;
+                }
+            } else if (System.nanoTime() - deadline >= 0) {
+                return -1;
+            } else {
+                idle(idleCount++, deadline);
+            }
+        }
+    }
+
+    private void publish(final long sequence, final T record) {
+        final int index = (int) (sequence & indexMask);
+        // A reader may still be copying out the previous occupant of this slot.
+        while (slotSequences.get(index) != sequence) {
+            Thread.yield();
+        }
+        entries[index] = record;
+        slotSequences.lazySet(index, sequence + 1);
+    }
+
+    /**
+     * Claims every sequence written so far, up to maxRecords, with a single compare-and-set and drains them into
+     * the given list.
+     *
+     * @return the number of records drained
+     */
+    @SuppressWarnings("unchecked")
+    private int drainTo(final List<T> records, final int maxRecords) {
+        long first;
+        int count;
+        do {
+            first = readCursor.get();
+            count = (int) Math.min(writeCursor.get() - first, maxRecords);
+            if (count <= 0) {
+                return 0;
+            }
+        } while (!readCursor.compareAndSet(first, first + count));
+
+        for (long sequence = first; sequence < first + count; sequence++) {
+            final int index = (int) (sequence & indexMask);
+            // The writer may have claimed this sequence without having published the record yet.
+            while (slotSequences.get(index) != sequence + 1) {
+                Thread.yield();
+            }
+            records.add((T) entries[index]);
+            entries[index] = null;
+            slotSequences.lazySet(index, sequence + entries.length);
+        }
+        return count;
+    }
+
+    private static void idle(final int idleCount, final long deadline) throws InterruptedException {
+        if (idleCount < SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            final long backoff = Math.min(MAX_PARK_NANOS, 1L << Math.min(idleCount - SPIN_TRIES, 20));
+            LockSupport.parkNanos(Math.max(1, Math.min(backoff, deadline - System.nanoTime())));
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private static long deadlineFor(final int timeoutInMillis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+    }
+
+    private static int ringSizeFor(final int bufferCapacity) {
+        checkArgument(bufferCapacity <= 1 << 30, "buffer_size must not exceed 2^30");
+        final int ringSize = Integer.highestOneBit(bufferCapacity);
+        return ringSize == bufferCapacity ? ringSize : ringSize << 1;
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.buffer.ringbuffer;
+
+import com.amazon.dataprepper.model.CheckpointState;
+import com.amazon.dataprepper.model.buffer.SizeOverflowException;
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferTests {
+    private static final String ATTRIBUTE_BATCH_SIZE = "batch_size";
+    private static final String ATTRIBUTE_BUFFER_SIZE = "buffer_size";
+    private static final String TEST_PIPELINE_NAME = "test-pipeline";
+    private static final int TEST_BATCH_SIZE = 3;
+    private static final int TEST_BUFFER_SIZE = 13;
+    private static final int TEST_WRITE_TIMEOUT = 1_00;
+    private static final int TEST_BATCH_READ_TIMEOUT = 5_000;
+
+    @Test
+    public void testCreationUsingPluginSetting() {
+        final PluginSetting completePluginSetting = completePluginSettingForRingBuffer();
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(completePluginSetting);
+        assertThat(ringBuffer, notNullValue());
+    }
+
+    @Test
+    public void testCreationUsingNullPluginSetting() {
+        final NullPointerException ex = assertThrows(NullPointerException.class,
+                () -> new RingBuffer<Record<String>>((PluginSetting) null));
+        assertThat(ex.getMessage(), is(equalTo("PluginSetting cannot be null")));
+    }
+
+    @Test
+    public void testCreationUsingDefaultPluginSettings() {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(RingBuffer.getDefaultPluginSettings());
+        assertThat(ringBuffer, notNullValue());
+    }
+
+    @Test
+    public void testCreationUsingInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Record<String>>(0, TEST_BATCH_SIZE, TEST_PIPELINE_NAME));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Record<String>>(TEST_BUFFER_SIZE, 0, TEST_PIPELINE_NAME));
+    }
+
+    @Test
+    public void testInsertNull() {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(TEST_BUFFER_SIZE, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        assertThrows(NullPointerException.class, () -> ringBuffer.write(null, TEST_WRITE_TIMEOUT));
+        assertThrows(NullPointerException.class,
+                () -> ringBuffer.writeAll(Collections.singletonList(null), TEST_WRITE_TIMEOUT));
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testWriteAllSizeOverflow() {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(TEST_BUFFER_SIZE, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        final Collection<Record<String>> testRecords = generateBatchRecords(TEST_BUFFER_SIZE + 1);
+        assertThrows(SizeOverflowException.class, () -> ringBuffer.writeAll(testRecords, TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testNoEmptySpaceWriteOnly() throws TimeoutException {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(1, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        ringBuffer.write(new Record<>("FILL_THE_BUFFER"), TEST_WRITE_TIMEOUT);
+        assertThrows(TimeoutException.class, () -> ringBuffer.write(new Record<>("TIMEOUT"), TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testNoAvailSpaceWriteAllOnly() throws Exception {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(2, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        final Collection<Record<String>> testRecords = generateBatchRecords(2);
+        ringBuffer.write(new Record<>("FILL_THE_BUFFER"), TEST_WRITE_TIMEOUT);
+        assertThrows(TimeoutException.class, () -> ringBuffer.writeAll(testRecords, TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testNoEmptySpaceAfterUncheckedRead() throws TimeoutException {
+        // Given
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(1, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        ringBuffer.write(new Record<>("FILL_THE_BUFFER"), TEST_WRITE_TIMEOUT);
+
+        // When
+        ringBuffer.read(TEST_WRITE_TIMEOUT);
+
+        // Then
+        final Record<String> timeoutRecord = new Record<>("TIMEOUT");
+        assertThrows(TimeoutException.class, () -> ringBuffer.write(timeoutRecord, TEST_WRITE_TIMEOUT));
+        assertThrows(TimeoutException.class,
+                () -> ringBuffer.writeAll(Collections.singletonList(timeoutRecord), TEST_WRITE_TIMEOUT));
+    }
+
+    @Test
+    public void testWriteIntoEmptySpaceAfterCheckedRead() throws TimeoutException {
+        // Given
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(1, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        ringBuffer.write(new Record<>("FILL_THE_BUFFER"), TEST_WRITE_TIMEOUT);
+
+        // When
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        ringBuffer.checkpoint(readResult.getValue());
+
+        // Then
+        ringBuffer.write(new Record<>("REFILL_THE_BUFFER"), TEST_WRITE_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readCheckResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        assertEquals(1, readCheckResult.getKey().size());
+        assertThat(readCheckResult.getKey().iterator().next().getData(), equalTo("REFILL_THE_BUFFER"));
+    }
+
+    @Test
+    public void testWriteAllIntoEmptySpaceAfterCheckedRead() throws Exception {
+        // Given
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(2, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        final Collection<Record<String>> testRecords = generateBatchRecords(2);
+        ringBuffer.writeAll(testRecords, TEST_WRITE_TIMEOUT);
+
+        // When
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        ringBuffer.checkpoint(readResult.getValue());
+
+        // Then
+        ringBuffer.writeAll(testRecords, TEST_WRITE_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readCheckResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        assertEquals(2, readCheckResult.getKey().size());
+    }
+
+    @Test
+    public void testReadEmptyBuffer() {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(TEST_BUFFER_SIZE, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        assertThat(readResult.getKey().size(), is(0));
+        assertThat(readResult.getValue().getNumRecordsToBeChecked(), is(0));
+    }
+
+    @Test
+    public void testBatchRead() throws Exception {
+        final PluginSetting completePluginSetting = completePluginSettingForRingBuffer();
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(completePluginSetting);
+        final int testSize = 5;
+        for (int i = 0; i < testSize; i++) {
+            ringBuffer.write(new Record<>("TEST" + i), TEST_WRITE_TIMEOUT);
+        }
+        final Map.Entry<Collection<Record<String>>, CheckpointState> partialReadResult = ringBuffer.read(TEST_BATCH_READ_TIMEOUT);
+        final Collection<Record<String>> partialRecords = partialReadResult.getKey();
+        final int expectedBatchSize = (Integer) completePluginSetting.getAttributeFromSettings(ATTRIBUTE_BATCH_SIZE);
+        assertThat(partialRecords.size(), is(expectedBatchSize));
+        assertEquals(expectedBatchSize, partialReadResult.getValue().getNumRecordsToBeChecked());
+        int i = 0;
+        for (Record<String> record : partialRecords) {
+            assertThat(record.getData(), equalTo("TEST" + i));
+            i++;
+        }
+        final Map.Entry<Collection<Record<String>>, CheckpointState> finalReadResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        final Collection<Record<String>> finalBatch = finalReadResult.getKey();
+        assertThat(finalBatch.size(), is(testSize - expectedBatchSize));
+        assertEquals(testSize - expectedBatchSize, finalReadResult.getValue().getNumRecordsToBeChecked());
+        for (Record<String> record : finalBatch) {
+            assertThat(record.getData(), equalTo("TEST" + i));
+            i++;
+        }
+    }
+
+    @Test
+    public void testBatchReadWithBatchSize() throws Exception {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(8, 2, TEST_PIPELINE_NAME);
+        final int testSize = 5;
+        for (int i = 0; i < testSize; i++) {
+            ringBuffer.write(new Record<>("TEST" + i), TEST_WRITE_TIMEOUT);
+        }
+        final Map.Entry<Collection<Record<String>>, CheckpointState> partialReadResult = ringBuffer.read(TEST_BATCH_READ_TIMEOUT, 3);
+        assertThat(partialReadResult.getKey().size(), is(3));
+        assertEquals(3, partialReadResult.getValue().getNumRecordsToBeChecked());
+        final Map.Entry<Collection<Record<String>>, CheckpointState> finalReadResult = ringBuffer.read(TEST_BATCH_READ_TIMEOUT, 3);
+        assertThat(finalReadResult.getKey().size(), is(testSize - 3));
+        assertThat(finalReadResult.getKey().iterator().next().getData(), equalTo("TEST3"));
+    }
+
+    @Test
+    public void testWrapAroundPreservesOrder() throws Exception {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(3, 2, TEST_PIPELINE_NAME);
+        final List<String> readData = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ringBuffer.writeAll(Collections.singletonList(new Record<>("TEST" + i)), TEST_WRITE_TIMEOUT);
+            final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = ringBuffer.read(0);
+            readResult.getKey().forEach(record -> readData.add(record.getData()));
+            ringBuffer.checkpoint(readResult.getValue());
+        }
+        assertThat(readData.size(), is(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(readData.get(i), equalTo("TEST" + i));
+        }
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers() throws Exception {
+        final int producers = 4;
+        final int consumers = 4;
+        final int recordsPerProducer = 10_000;
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(64, 16, TEST_PIPELINE_NAME);
+        final ExecutorService executorService = Executors.newFixedThreadPool(producers + consumers);
+        final AtomicInteger readCount = new AtomicInteger();
+        final Set<String> readData = Collections.synchronizedSet(new HashSet<>());
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int p = 0; p < producers; p++) {
+                final int producerId = p;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < recordsPerProducer; i++) {
+                        final Record<String> record = new Record<>(producerId + "-" + i);
+                        if (i % 2 == 0) {
+                            ringBuffer.write(record, TEST_BATCH_READ_TIMEOUT);
+                        } else {
+                            ringBuffer.writeAll(Collections.singletonList(record), TEST_BATCH_READ_TIMEOUT);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executorService.submit(() -> {
+                    while (readCount.get() < producers * recordsPerProducer) {
+                        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = ringBuffer.read(10);
+                        readResult.getKey().forEach(record -> readData.add(record.getData()));
+                        readCount.addAndGet(readResult.getKey().size());
+                        ringBuffer.checkpoint(readResult.getValue());
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(readCount.get(), is(producers * recordsPerProducer));
+        assertThat(readData.size(), is(producers * recordsPerProducer));
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testBufferIsEmpty() {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(completePluginSettingForRingBuffer());
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testBufferIsNotEmpty() throws Exception {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(completePluginSettingForRingBuffer());
+        ringBuffer.write(new Record<>("TEST"), TEST_WRITE_TIMEOUT);
+        assertFalse(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testBufferIsNotEmptyWithUncheckedRecords() throws Exception {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(completePluginSettingForRingBuffer());
+        ringBuffer.write(new Record<>("TEST"), TEST_WRITE_TIMEOUT);
+        final Map.Entry<Collection<Record<String>>, CheckpointState> readResult = ringBuffer.read(TEST_WRITE_TIMEOUT);
+        assertFalse(ringBuffer.isEmpty());
+        ringBuffer.checkpoint(readResult.getValue());
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testReadInterrupted() {
+        final RingBuffer<Record<String>> ringBuffer = new RingBuffer<>(TEST_BUFFER_SIZE, TEST_BATCH_SIZE, TEST_PIPELINE_NAME);
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(RuntimeException.class, () -> ringBuffer.read(TEST_BATCH_READ_TIMEOUT));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    private PluginSetting completePluginSettingForRingBuffer() {
+        final Map<String, Object> settings = new HashMap<>();
+        settings.put(ATTRIBUTE_BUFFER_SIZE, TEST_BUFFER_SIZE);
+        settings.put(ATTRIBUTE_BATCH_SIZE, TEST_BATCH_SIZE);
+        final PluginSetting testSettings = new PluginSetting("ring_buffer", settings);
+        testSettings.setPipelineName(TEST_PIPELINE_NAME);
+        return testSettings;
+    }
+
+    private Collection<Record<String>> generateBatchRecords(final int numRecords) {
+        final Collection<Record<String>> results = new ArrayList<>();
+        for (int i = 0; i < numRecords; i++) {
+            results.add(new Record<>(UUID.randomUUID().toString()));
+        }
+        return results;
+    }
+}
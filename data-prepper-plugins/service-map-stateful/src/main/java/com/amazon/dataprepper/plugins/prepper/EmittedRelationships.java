@@ -0,0 +1,43 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded set of the relationships emitted recently, keyed by the 64 bit hash of their fields. A relationship is
+ * forgotten once its time to live passes, so that it is emitted again and its document in the service map index is
+ * refreshed, or earlier when the set is full.
+ */
+final class EmittedRelationships {
+    private final Cache<Long, Boolean> emitted;
+
+    EmittedRelationships(final long ttlMillis, final long maxSize, final Clock clock) {
+        emitted = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maxSize)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                // evicts on the worker adding a relationship, so that the set never grows far past its bound
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * @return true if the relationship was not emitted within its time to live, in which case it is now recorded as
+     * emitted
+     */
+    boolean add(final ServiceMapRelationship relationship) {
+        return emitted.asMap().putIfAbsent(relationship.fieldsHash(), Boolean.TRUE) == null;
+    }
+
+    long size() {
+        return emitted.estimatedSize();
+    }
+}
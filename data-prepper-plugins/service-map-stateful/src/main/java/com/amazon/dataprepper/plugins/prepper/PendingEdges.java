@@ -0,0 +1,129 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index of the edges which could not be resolved yet when evaluating edges incrementally: children whose parent span
+ * has not arrived, keyed by the parent span ID, and parent/child pairs whose trace group is not known, keyed by the
+ * trace ID.
+ * <p>
+ * A span is always put into the window before the index is checked for it, and the index is checked and updated under
+ * the lock of its key, so when the two halves of an edge arrive concurrently at least one of them resolves it. Entries
+ * carry the epoch of the windows they were added in, and expire with those windows.
+ */
+final class PendingEdges {
+    private final Map<ByteBuffer, Pending<ServiceMapStateData>> childrenByParentSpanId = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, Pending<Edge>> edgesByTraceId = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up the parent of the child, adding the child to the index if the parent is not found.
+     *
+     * @param parentLookup looks up a span in the windows by span ID
+     * @return the parent, or null if the child is pending its parent
+     */
+    ServiceMapStateData findParentOrAdd(final ServiceMapStateData child, final long epoch,
+                                        final Function<byte[], ServiceMapStateData> parentLookup) {
+        final ServiceMapStateData[] parent = new ServiceMapStateData[1];
+        childrenByParentSpanId.compute(ByteBuffer.wrap(child.parentSpanId), (parentSpanId, pending) -> {
+            parent[0] = parentLookup.apply(child.parentSpanId);
+            return parent[0] != null ? pending : add(pending, child, epoch);
+        });
+        return parent[0];
+    }
+
+    /**
+     * @return the children pending the span, which are removed from the index
+     */
+    List<ServiceMapStateData> removeChildren(final byte[] spanId) {
+        final Pending<ServiceMapStateData> pending = childrenByParentSpanId.remove(ByteBuffer.wrap(spanId));
+        return pending == null ? Collections.emptyList() : pending.values;
+    }
+
+    /**
+     * Looks up the trace group of the edge, adding the edge to the index if the trace group is not found.
+     *
+     * @param traceGroupLookup looks up a trace group name in the windows by trace ID
+     * @return the trace group name, or null if the edge is pending its trace group
+     */
+    String findTraceGroupOrAdd(final Edge edge, final long epoch, final Function<byte[], String> traceGroupLookup) {
+        final String[] traceGroupName = new String[1];
+        edgesByTraceId.compute(ByteBuffer.wrap(edge.child.traceId), (traceId, pending) -> {
+            traceGroupName[0] = traceGroupLookup.apply(edge.child.traceId);
+            return traceGroupName[0] != null ? pending : add(pending, edge, epoch);
+        });
+        return traceGroupName[0];
+    }
+
+    /**
+     * @return the edges pending the trace group of the trace, which are removed from the index
+     */
+    List<Edge> removeEdges(final byte[] traceId) {
+        final Pending<Edge> pending = edgesByTraceId.remove(ByteBuffer.wrap(traceId));
+        return pending == null ? Collections.emptyList() : pending.values;
+    }
+
+    /**
+     * Removes the entries last added to before the epoch.
+     */
+    void expire(final long epoch) {
+        expire(childrenByParentSpanId, epoch);
+        expire(edgesByTraceId, epoch);
+    }
+
+    private static <T> void expire(final Map<ByteBuffer, Pending<T>> index, final long epoch) {
+        // the epoch is checked again under the lock of the key, as a worker may have just added to the entry
+        index.forEach((key, pending) -> {
+            if (pending.epoch < epoch) {
+                index.computeIfPresent(key, (sameKey, samePending) -> samePending.epoch < epoch ? null : samePending);
+            }
+        });
+    }
+
+    /**
+     * @return Number of keys pending, which is an estimate while spans are being added
+     */
+    int size() {
+        return childrenByParentSpanId.size() + edgesByTraceId.size();
+    }
+
+    void clear() {
+        childrenByParentSpanId.clear();
+        edgesByTraceId.clear();
+    }
+
+    private static <T> Pending<T> add(final Pending<T> pending, final T value, final long epoch) {
+        final Pending<T> updated = pending != null ? pending : new Pending<>();
+        updated.values.add(value);
+        updated.epoch = Math.max(updated.epoch, epoch);
+        return updated;
+    }
+
+    /**
+     * A parent span and its child span in another service.
+     */
+    static final class Edge {
+        final ServiceMapStateData parent;
+        final ServiceMapStateData child;
+
+        Edge(final ServiceMapStateData parent, final ServiceMapStateData child) {
+            this.parent = parent;
+            this.child = child;
+        }
+    }
+
+    private static final class Pending<T> {
+        private final List<T> values = new ArrayList<>();
+        private volatile long epoch = Long.MIN_VALUE;
+    }
+}
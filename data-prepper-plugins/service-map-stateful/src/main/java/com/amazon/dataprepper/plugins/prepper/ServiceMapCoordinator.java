@@ -0,0 +1,488 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.record.Record;
+import com.amazon.dataprepper.plugins.prepper.state.MapDbPrepperState;
+import com.amazon.dataprepper.plugins.prepper.state.OffHeapPrepperState;
+import com.amazon.dataprepper.prepper.state.PrepperState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * State shared by the {@link ServiceMapStatefulPrepper} workers of one pipeline: the windows of spans and trace groups,
+ * the epochs of the workers, the background edge evaluation and the relationships emitted. Each pipeline has its own
+ * coordinator, so several service map pipelines can run in one process, for instance each on a share of the traces.
+ */
+final class ServiceMapCoordinator {
+    static final long IDLE_EPOCH = Long.MAX_VALUE;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceMapCoordinator.class);
+    private static final String EMPTY_SUFFIX = "-empty";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Integer TO_MILLIS = 1_000;
+    private static final int OFF_HEAP_WINDOW_INITIAL_CAPACITY = 16_384;
+    private static final long EDGE_EVALUATION_INTERVAL_MILLIS = 10;
+    private static final ServiceMapStateDataLayout SPAN_LAYOUT = new ServiceMapStateDataLayout();
+
+    private final long windowDurationMillis;
+    private final File dbPath;
+    private final String dbNamePrefix;
+    private final String windowStore;
+    private final int processWorkers;
+    private final Clock clock;
+    private final boolean isIncremental;
+    private final EmittedRelationships emittedRelationships;
+    private volatile boolean isShuttingDown;
+
+    private final AtomicReference<WindowPair> windowPair = new AtomicReference<>();
+    // the epoch of the window pair each worker is putting spans into, or IDLE_EPOCH outside of doExecute
+    private final List<AtomicLong> workerEpochs = new CopyOnWriteArrayList<>();
+    private final Queue<WindowPair> retiredWindowPairs = new ConcurrentLinkedQueue<>();
+    private final Queue<PrepperState<byte[], ServiceMapStateData>> spareWindows = new ConcurrentLinkedQueue<>();
+    private final Queue<PrepperState<byte[], String>> spareTraceGroupWindows = new ConcurrentLinkedQueue<>();
+    private final Queue<Record<String>> relationshipRecords = new ConcurrentLinkedQueue<>();
+    private final PendingEdges pendingEdges = new PendingEdges();
+    private final ScheduledExecutorService edgeEvaluator;
+
+    /**
+     * @throws IllegalArgumentException if the window store or the edge evaluation is unknown
+     */
+    ServiceMapCoordinator(final long windowDurationMillis,
+                          final File databasePath,
+                          final Clock clock,
+                          final int processWorkers,
+                          final PluginSetting pluginSetting) {
+        this.windowDurationMillis = windowDurationMillis;
+        this.dbPath = createPath(databasePath);
+        // the pipeline name keeps the MapDB files of the coordinators of different pipelines apart
+        this.dbNamePrefix = pluginSetting.getPipelineName() == null ? "" : pluginSetting.getPipelineName() + "-";
+        this.windowStore = pluginSetting.getStringOrDefault(ServiceMapPrepperConfig.WINDOW_STORE,
+                ServiceMapPrepperConfig.DEFAULT_WINDOW_STORE);
+        this.processWorkers = processWorkers;
+        this.clock = clock;
+        this.isIncremental = getEdgeEvaluation(pluginSetting);
+        this.emittedRelationships = new EmittedRelationships(
+                (long) pluginSetting.getIntegerOrDefault(ServiceMapPrepperConfig.RELATIONSHIP_TTL, ServiceMapPrepperConfig.DEFAULT_RELATIONSHIP_TTL) * TO_MILLIS,
+                pluginSetting.getIntegerOrDefault(ServiceMapPrepperConfig.MAX_RELATIONSHIPS, ServiceMapPrepperConfig.DEFAULT_MAX_RELATIONSHIPS),
+                clock);
+
+        windowPair.set(new WindowPair(0, clock.millis(),
+                createWindow(getNewDbName() + EMPTY_SUFFIX),
+                createWindow(getNewDbName()),
+                new MapDbPrepperState<>(dbPath, getNewTraceDbName() + EMPTY_SUFFIX, processWorkers),
+                new MapDbPrepperState<>(dbPath, getNewTraceDbName(), processWorkers)));
+
+        edgeEvaluator = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("service-map-edge-evaluator-%d").build());
+        edgeEvaluator.scheduleWithFixedDelay(this::evaluateRetiredWindowPairs,
+                EDGE_EVALUATION_INTERVAL_MILLIS, EDGE_EVALUATION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Boolean indicating whether edges are evaluated incrementally as spans arrive
+     * @throws IllegalArgumentException if the edge evaluation is unknown
+     */
+    private static boolean getEdgeEvaluation(final PluginSetting pluginSetting) {
+        final String edgeEvaluation = pluginSetting.getStringOrDefault(ServiceMapPrepperConfig.EDGE_EVALUATION,
+                ServiceMapPrepperConfig.DEFAULT_EDGE_EVALUATION);
+        switch (edgeEvaluation) {
+            case ServiceMapPrepperConfig.INCREMENTAL_EDGE_EVALUATION:
+                return true;
+            case ServiceMapPrepperConfig.WINDOW_EDGE_EVALUATION:
+                return false;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown %s: %s", ServiceMapPrepperConfig.EDGE_EVALUATION, edgeEvaluation));
+        }
+    }
+
+    /**
+     * Creates a span window in the configured store. The off-heap store keys the spans by their 8 byte span ID, while
+     * the trace group windows stay in MapDB as they are keyed by 16 byte trace IDs. The MapDB store keeps the spans as
+     * objects on the heap, while the compact MapDB store keeps them serialized, trading put and get throughput for a
+     * smaller heap footprint.
+     *
+     * @throws IllegalArgumentException if the store is unknown
+     */
+    private PrepperState<byte[], ServiceMapStateData> createWindow(final String dbName) {
+        switch (windowStore) {
+            case ServiceMapPrepperConfig.OFF_HEAP_WINDOW_STORE:
+                return new OffHeapPrepperState<>(SPAN_LAYOUT, OFF_HEAP_WINDOW_INITIAL_CAPACITY, processWorkers);
+            case ServiceMapPrepperConfig.MAPDB_WINDOW_STORE:
+                return new MapDbPrepperState<>(dbPath, dbName, processWorkers);
+            case ServiceMapPrepperConfig.MAPDB_COMPACT_WINDOW_STORE:
+                return new MapDbPrepperState<>(dbPath, dbName, processWorkers, new ServiceMapStateDataSerializer());
+            default:
+                throw new IllegalArgumentException(String.format("Unknown %s: %s", ServiceMapPrepperConfig.WINDOW_STORE, windowStore));
+        }
+    }
+
+    /**
+     * Checks that the span can be put into the windows of the configured store, so that a span with IDs longer than
+     * the store holds does not fail the batch of spans it arrived with.
+     *
+     * @return Boolean indicating whether the span fits in the windows
+     */
+    boolean fitsWindow(final byte[] spanId, final ServiceMapStateData span) {
+        if (ServiceMapPrepperConfig.OFF_HEAP_WINDOW_STORE.equals(windowStore)) {
+            // the off-heap windows are keyed by span IDs of exactly 8 bytes
+            return spanId.length == ServiceMapStateDataLayout.MAX_SPAN_ID_LENGTH && SPAN_LAYOUT.fits(span);
+        }
+        if (ServiceMapPrepperConfig.MAPDB_COMPACT_WINDOW_STORE.equals(windowStore)) {
+            return ServiceMapStateDataSerializer.fits(span);
+        }
+        return true;
+    }
+
+    /**
+     * This function creates the directory if it doesn't exists and returns the File.
+     *
+     * @param path
+     * @return path
+     * @throws RuntimeException if the directory can not be created.
+     */
+    private static File createPath(File path) {
+        if (!path.exists()) {
+            if (!path.mkdirs()) {
+                throw new RuntimeException(String.format("Unable to create the directory at the provided path: %s", path.getName()));
+            }
+        }
+        return path;
+    }
+
+    /**
+     * @return the epoch of a new worker, idle until it acknowledges a window pair
+     */
+    AtomicLong registerWorker() {
+        final AtomicLong workerEpoch = new AtomicLong(IDLE_EPOCH);
+        workerEpochs.add(workerEpoch);
+        return workerEpoch;
+    }
+
+    boolean isIncremental() {
+        return isIncremental;
+    }
+
+    /**
+     * Records the epoch of the current window pair as the epoch of the worker. The pair is read again after the epoch
+     * is recorded, so that the edge evaluator either sees the epoch or the worker sees a later pair.
+     *
+     * @return the window pair the worker puts spans into
+     */
+    WindowPair acknowledgeWindowPair(final AtomicLong workerEpoch) {
+        WindowPair currentWindowPair;
+        do {
+            currentWindowPair = windowPair.get();
+            workerEpoch.set(currentWindowPair.getEpoch());
+        } while (currentWindowPair != windowPair.get());
+        return currentWindowPair;
+    }
+
+    /**
+     * Publishes the pair of the next epoch, unless another worker rotated the windows first, and retires the given pair
+     * for edge evaluation.
+     *
+     * @return the window pair of the worker after the rotation
+     */
+    WindowPair rotateWindows(final WindowPair currentWindowPair, final AtomicLong workerEpoch) {
+        final PrepperState<byte[], ServiceMapStateData> nextWindow = spareWindows.poll();
+        final PrepperState<byte[], String> nextTraceGroupWindow = spareTraceGroupWindows.poll();
+        final WindowPair nextWindowPair = currentWindowPair.rotate(clock.millis(),
+                nextWindow != null ? nextWindow : createWindow(getNewDbName()),
+                nextTraceGroupWindow != null ? nextTraceGroupWindow : new MapDbPrepperState<>(dbPath, getNewTraceDbName(), processWorkers));
+
+        if (windowPair.compareAndSet(currentWindowPair, nextWindowPair)) {
+            LOG.info("Rotated service map windows to epoch {} at {}", nextWindowPair.getEpoch(), clock.instant());
+            retiredWindowPairs.add(currentWindowPair);
+        } else {
+            spareWindows.add(nextWindowPair.getCurrentWindow());
+            spareTraceGroupWindows.add(nextWindowPair.getCurrentTraceGroupWindow());
+        }
+        return acknowledgeWindowPair(workerEpoch);
+    }
+
+    /**
+     * While shutting down the windows are rotated as soon as the retired windows have been evaluated, so that the
+     * remaining spans are evaluated without waiting for the window duration.
+     *
+     * @return Boolean indicating whether the window duration of the window pair has lapsed
+     */
+    boolean windowDurationHasPassed(final WindowPair currentWindowPair) {
+        if (isShuttingDown) {
+            return retiredWindowPairs.isEmpty();
+        }
+        return (clock.millis() - currentWindowPair.getStartMillis()) >= windowDurationMillis;
+    }
+
+    /**
+     * Resolves the edges the spans complete: the edges of roots whose trace group was missing, of children that were
+     * waiting for the spans, and of the spans with their parents. Edges which cannot be resolved yet are kept in the
+     * pending edges until their other half arrives or their windows expire. The relationships of the resolved edges
+     * are queued for the next worker to poll.
+     */
+    void resolveEdges(final WindowPair currentWindowPair, final Map<byte[], ServiceMapStateData> spans) {
+        final List<Record<String>> serviceDependencyRecords = new ArrayList<>();
+        try {
+            for (final Map.Entry<byte[], ServiceMapStateData> entry : spans.entrySet()) {
+                final ServiceMapStateData span = entry.getValue();
+                if (span.parentSpanId == null) {
+                    for (final PendingEdges.Edge edge : pendingEdges.removeEdges(span.traceId)) {
+                        addRelationshipRecords(serviceDependencyRecords, edge.parent, edge.child, span.name);
+                    }
+                }
+                for (final ServiceMapStateData child : pendingEdges.removeChildren(entry.getKey())) {
+                    resolveTraceGroup(currentWindowPair, span, child, serviceDependencyRecords);
+                }
+                if (span.parentSpanId != null) {
+                    final ServiceMapStateData parent = pendingEdges.findParentOrAdd(span, currentWindowPair.getEpoch(),
+                            parentSpanId -> getSpan(currentWindowPair, parentSpanId));
+                    if (parent != null) {
+                        resolveTraceGroup(currentWindowPair, parent, span, serviceDependencyRecords);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Caught exception trying to resolve service map edges", e);
+        }
+        relationshipRecords.addAll(serviceDependencyRecords);
+    }
+
+    private void resolveTraceGroup(final WindowPair currentWindowPair,
+                                   final ServiceMapStateData parent,
+                                   final ServiceMapStateData child,
+                                   final Collection<Record<String>> serviceDependencyRecords) {
+        if (parent.serviceName.equals(child.serviceName)) {
+            return;
+        }
+        final String traceGroupName = pendingEdges.findTraceGroupOrAdd(new PendingEdges.Edge(parent, child),
+                currentWindowPair.getEpoch(), traceId -> getTraceGroupName(currentWindowPair, traceId));
+        if (traceGroupName != null) {
+            addRelationshipRecords(serviceDependencyRecords, parent, child, traceGroupName);
+        }
+    }
+
+    /**
+     * Evaluates the edges of the retired window pairs, in the order they were retired. A pair is evaluated once every
+     * worker has left its epoch, since a worker still at the epoch of the pair may put spans into its current windows
+     * and read its previous windows. Its previous windows are then cleared and kept as spares for later rotations.
+     * When evaluating incrementally, the pending edges added before the epoch of the pair expire instead.
+     */
+    private void evaluateRetiredWindowPairs() {
+        WindowPair retiredWindowPair;
+        while ((retiredWindowPair = retiredWindowPairs.peek()) != null && minWorkerEpoch() > retiredWindowPair.getEpoch()) {
+            if (isIncremental) {
+                // the edges were resolved as the spans arrived, only those pending spans of expired windows are dropped
+                pendingEdges.expire(retiredWindowPair.getEpoch());
+            } else {
+                try {
+                    LOG.info("Evaluating service map edges");
+                    relationshipRecords.addAll(iteratePrepperState(retiredWindowPair, retiredWindowPair.getPreviousWindow()));
+                    relationshipRecords.addAll(iteratePrepperState(retiredWindowPair, retiredWindowPair.getCurrentWindow()));
+                    LOG.info("Done evaluating service map edges");
+                } catch (RuntimeException e) {
+                    LOG.error("Caught exception trying to evaluate service map edges", e);
+                }
+            }
+            retiredWindowPairs.poll();
+            // no worker reads the previous windows any more, so they can be cleared along with their dictionaries
+            retiredWindowPair.getPreviousWindow().clear();
+            retiredWindowPair.getPreviousTraceGroupWindow().clear();
+            spareWindows.add(retiredWindowPair.getPreviousWindow());
+            spareTraceGroupWindows.add(retiredWindowPair.getPreviousTraceGroupWindow());
+        }
+    }
+
+    private long minWorkerEpoch() {
+        long minWorkerEpoch = IDLE_EPOCH;
+        for (final AtomicLong workerEpoch : workerEpochs) {
+            minWorkerEpoch = Math.min(minWorkerEpoch, workerEpoch.get());
+        }
+        return minWorkerEpoch;
+    }
+
+    private Collection<Record<String>> iteratePrepperState(final WindowPair retiredWindowPair,
+                                                           final PrepperState<byte[], ServiceMapStateData> prepperState) {
+        final List<Record<String>> serviceDependencyRecords = new ArrayList<>();
+
+        if (prepperState.size() > 0) {
+            prepperState.iterate((spanId, child) -> {
+                if (child.parentSpanId == null) {
+                    return null;
+                }
+
+                final ServiceMapStateData parent = getSpan(retiredWindowPair, child.parentSpanId);
+                final String traceGroupName = getTraceGroupName(retiredWindowPair, child.traceId);
+                if (traceGroupName == null || parent == null || parent.serviceName.equals(child.serviceName)) {
+                    return null;
+                }
+
+                addRelationshipRecords(serviceDependencyRecords, parent, child, traceGroupName);
+                return null;
+            });
+        }
+
+        return serviceDependencyRecords;
+    }
+
+    /**
+     * Adds the records of the relationships of the edge from the parent to the child which were not emitted within
+     * their time to live.
+     */
+    private void addRelationshipRecords(final Collection<Record<String>> serviceDependencyRecords,
+                                        final ServiceMapStateData parent,
+                                        final ServiceMapStateData child,
+                                        final String traceGroupName) {
+        final ServiceMapRelationship destinationRelationship =
+                ServiceMapRelationship.newDestinationRelationship(parent.serviceName,
+                        parent.spanKind, child.serviceName, child.name, traceGroupName);
+        final ServiceMapRelationship targetRelationship = ServiceMapRelationship.newTargetRelationship(child.serviceName,
+                child.spanKind, child.serviceName, child.name, traceGroupName);
+
+
+        if (emittedRelationships.add(destinationRelationship)) {
+            try {
+                serviceDependencyRecords.add(new Record<>(OBJECT_MAPPER.writeValueAsString(destinationRelationship)));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        if (emittedRelationships.add(targetRelationship)) {
+            try {
+                serviceDependencyRecords.add(new Record<>(OBJECT_MAPPER.writeValueAsString(targetRelationship)));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Checks both current and previous windows for the span id
+     *
+     * @return Span data for the given span if it exists. Otherwise null.
+     */
+    private static ServiceMapStateData getSpan(final WindowPair currentWindowPair, final byte[] spanId) {
+        final ServiceMapStateData span = currentWindowPair.getCurrentWindow().get(spanId);
+        return span != null ? span : currentWindowPair.getPreviousWindow().get(spanId);
+    }
+
+    /**
+     * Checks both current and previous trace group windows for the trace id
+     *
+     * @param traceId
+     * @return Trace group name for the given trace if it exists. Otherwise null.
+     */
+    private static String getTraceGroupName(final WindowPair retiredWindowPair, final byte[] traceId) {
+        try {
+            final String traceGroupName = retiredWindowPair.getCurrentTraceGroupWindow().get(traceId);
+            return traceGroupName != null ? traceGroupName : retiredWindowPair.getPreviousTraceGroupWindow().get(traceId);
+        } catch (RuntimeException e) {
+            LOG.error("Caught exception trying to get trace group name", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the relationship records evaluated so far, taken from the queue shared by all workers
+     */
+    Collection<Record<String>> pollRelationshipRecords() {
+        final List<Record<String>> records = new ArrayList<>();
+        Record<String> record;
+        while ((record = relationshipRecords.poll()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    void prepareForShutdown() {
+        isShuttingDown = true;
+    }
+
+    boolean isReadyForShutdown() {
+        return windowPair.get().getCurrentWindow().size() == 0 && !isEvaluatingEdges() && relationshipRecords.isEmpty();
+    }
+
+    /**
+     * Stops the edge evaluation and deletes the windows. Every worker shuts down the coordinator, so later calls find
+     * the windows already deleted.
+     */
+    void shutdown() {
+        edgeEvaluator.shutdownNow();
+        final WindowPair currentWindowPair = windowPair.get();
+        currentWindowPair.getPreviousWindow().delete();
+        currentWindowPair.getCurrentWindow().delete();
+        currentWindowPair.getPreviousTraceGroupWindow().delete();
+        currentWindowPair.getCurrentTraceGroupWindow().delete();
+        retiredWindowPairs.forEach(retiredWindowPair -> {
+            retiredWindowPair.getPreviousWindow().delete();
+            retiredWindowPair.getPreviousTraceGroupWindow().delete();
+        });
+        spareWindows.forEach(PrepperState::delete);
+        spareTraceGroupWindows.forEach(PrepperState::delete);
+    }
+
+    /**
+     * @return Boolean indicating whether retired windows are waiting for their edges to be evaluated
+     */
+    boolean isEvaluatingEdges() {
+        return !retiredWindowPairs.isEmpty();
+    }
+
+    /**
+     * @return Number of keys of the edges pending their other half
+     */
+    int getPendingEdgesCount() {
+        return pendingEdges.size();
+    }
+
+    /**
+     * @return Spans database size in bytes
+     */
+    double getSpansDbSize() {
+        final WindowPair currentWindowPair = windowPair.get();
+        return currentWindowPair.getCurrentWindow().sizeInBytes() + currentWindowPair.getPreviousWindow().sizeInBytes();
+    }
+
+    /**
+     * @return Trace group database size in bytes
+     */
+    double getTraceGroupDbSize() {
+        final WindowPair currentWindowPair = windowPair.get();
+        return currentWindowPair.getCurrentTraceGroupWindow().sizeInBytes() + currentWindowPair.getPreviousTraceGroupWindow().sizeInBytes();
+    }
+
+    /**
+     * @return Next database name
+     */
+    private String getNewDbName() {
+        return dbNamePrefix + "db-" + clock.millis();
+    }
+
+    /**
+     * @return Next database name
+     */
+    private String getNewTraceDbName() {
+        return dbNamePrefix + "trace-db-" + clock.millis();
+    }
+}
@@ -15,4 +15,17 @@ public class ServiceMapPrepperConfig {
     static final String WINDOW_DURATION = "window_duration";
     static final int DEFAULT_WINDOW_DURATION = 180;
     static final String DEFAULT_DB_PATH = "data/service-map/";
+    static final String WINDOW_STORE = "window_store";
+    static final String OFF_HEAP_WINDOW_STORE = "off_heap";
+    static final String MAPDB_WINDOW_STORE = "mapdb";
+    static final String MAPDB_COMPACT_WINDOW_STORE = "mapdb_compact";
+    static final String DEFAULT_WINDOW_STORE = OFF_HEAP_WINDOW_STORE;
+    static final String EDGE_EVALUATION = "edge_evaluation";
+    static final String WINDOW_EDGE_EVALUATION = "window";
+    static final String INCREMENTAL_EDGE_EVALUATION = "incremental";
+    static final String DEFAULT_EDGE_EVALUATION = WINDOW_EDGE_EVALUATION;
+    static final String RELATIONSHIP_TTL = "relationship_ttl";
+    static final int DEFAULT_RELATIONSHIP_TTL = 3600;
+    static final String MAX_RELATIONSHIPS = "max_relationships";
+    static final int DEFAULT_MAX_RELATIONSHIPS = 100_000;
 }
@@ -11,6 +11,10 @@
 
 package com.amazon.dataprepper.plugins.prepper;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
@@ -20,6 +24,7 @@ import java.util.Objects;
 public class ServiceMapRelationship {
 
     private static final String MD5 = "MD5";
+    private static final HashFunction FIELDS_HASH_FUNCTION = Hashing.murmur3_128();
 
     /**
      * ThreadLocal object to generate hashes of relationships
@@ -52,7 +57,7 @@ public class ServiceMapRelationship {
     private String traceGroupName;
 
     /**
-     * Deterministic hash id for this relationship
+     * Deterministic hash id for this relationship, computed when first read
      */
     private String hashId;
 
@@ -65,7 +70,6 @@ public class ServiceMapRelationship {
         this.destination = destination;
         this.target = target;
         this.traceGroupName = traceGroupName;
-        this.hashId = md5Hash();
     }
 
     /**
@@ -141,6 +145,9 @@ public class ServiceMapRelationship {
     }
 
     public String getHashId() {
+        if (hashId == null) {
+            hashId = md5Hash();
+        }
         return hashId;
     }
 
@@ -165,6 +172,39 @@ public class ServiceMapRelationship {
         return Objects.hash(serviceName, kind, destination, target, traceGroupName);
     }
 
+    /**
+     * @return 64 bit hash of the fields compared by {@link #equals(Object)}, to deduplicate relationships without
+     * keeping them
+     */
+    long fieldsHash() {
+        final Hasher hasher = FIELDS_HASH_FUNCTION.newHasher();
+        putString(hasher, serviceName);
+        putString(hasher, kind);
+        putString(hasher, traceGroupName);
+        putEndpoint(hasher, target);
+        putEndpoint(hasher, destination);
+        return hasher.hash().asLong();
+    }
+
+    private static void putEndpoint(final Hasher hasher, final Endpoint endpoint) {
+        hasher.putBoolean(endpoint != null);
+        if (endpoint != null) {
+            putString(hasher, endpoint.resource);
+            putString(hasher, endpoint.domain);
+        }
+    }
+
+    /**
+     * Puts the string with its length, so that the boundaries between the fields are part of the hash.
+     */
+    private static void putString(final Hasher hasher, final String string) {
+        if (string == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(string.length()).putUnencodedChars(string);
+        }
+    }
+
     private String unhashedString() {
         String result = serviceName + "," + kind + "," + traceGroupName + ",";
         if (target != null) {
@@ -0,0 +1,33 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import java.io.Serializable;
+
+/**
+ * The data of a span needed to evaluate its service map relationships, stored in the windows by span ID.
+ */
+class ServiceMapStateData implements Serializable {
+    public String serviceName;
+    public byte[] parentSpanId;
+    public byte[] traceId;
+    public String spanKind;
+    public String name;
+
+    public ServiceMapStateData() {
+    }
+
+    public ServiceMapStateData(final String serviceName, final byte[] parentSpanId,
+                               final byte[] traceId,
+                               final String spanKind,
+                               final String name) {
+        this.serviceName = serviceName;
+        this.parentSpanId = parentSpanId;
+        this.traceId = traceId;
+        this.spanKind = spanKind;
+        this.name = name;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.plugins.prepper.state.RecordLayout;
+import com.amazon.dataprepper.plugins.prepper.state.StringDictionary;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed layout of {@link ServiceMapStateData} records in the off-heap windows. The service name, span kind and span
+ * name are stored as dictionary IDs, and the parent span ID and trace ID as a length byte followed by the ID bytes, with
+ * a length of -1 for a missing ID.
+ */
+final class ServiceMapStateDataLayout implements RecordLayout<ServiceMapStateData> {
+    static final int MAX_SPAN_ID_LENGTH = 8;
+    static final int MAX_TRACE_ID_LENGTH = 16;
+
+    private static final int SERVICE_NAME_OFFSET = 0;
+    private static final int PARENT_SPAN_ID_OFFSET = SERVICE_NAME_OFFSET + Integer.BYTES;
+    private static final int TRACE_ID_OFFSET = PARENT_SPAN_ID_OFFSET + 1 + MAX_SPAN_ID_LENGTH;
+    private static final int SPAN_KIND_OFFSET = TRACE_ID_OFFSET + 1 + MAX_TRACE_ID_LENGTH;
+    private static final int NAME_OFFSET = SPAN_KIND_OFFSET + Integer.BYTES;
+    private static final int RECORD_SIZE = NAME_OFFSET + Integer.BYTES;
+    private static final byte NULL_LENGTH = -1;
+
+    @Override
+    public int getRecordSize() {
+        return RECORD_SIZE;
+    }
+
+    @Override
+    public boolean fits(final ServiceMapStateData value) {
+        return fitsLength(value.parentSpanId, MAX_SPAN_ID_LENGTH) && fitsLength(value.traceId, MAX_TRACE_ID_LENGTH);
+    }
+
+    @Override
+    public void write(final ServiceMapStateData value, final ByteBuffer buffer, final int offset, final StringDictionary dictionary) {
+        checkLength(value.parentSpanId, MAX_SPAN_ID_LENGTH, "Parent span ID");
+        checkLength(value.traceId, MAX_TRACE_ID_LENGTH, "Trace ID");
+        buffer.putInt(offset + SERVICE_NAME_OFFSET, dictionary.intern(value.serviceName));
+        putBytes(value.parentSpanId, buffer, offset + PARENT_SPAN_ID_OFFSET);
+        putBytes(value.traceId, buffer, offset + TRACE_ID_OFFSET);
+        buffer.putInt(offset + SPAN_KIND_OFFSET, dictionary.intern(value.spanKind));
+        buffer.putInt(offset + NAME_OFFSET, dictionary.intern(value.name));
+    }
+
+    @Override
+    public ServiceMapStateData read(final ByteBuffer buffer, final int offset, final StringDictionary dictionary) {
+        return new ServiceMapStateData(
+                dictionary.get(buffer.getInt(offset + SERVICE_NAME_OFFSET)),
+                getBytes(buffer, offset + PARENT_SPAN_ID_OFFSET),
+                getBytes(buffer, offset + TRACE_ID_OFFSET),
+                dictionary.get(buffer.getInt(offset + SPAN_KIND_OFFSET)),
+                dictionary.get(buffer.getInt(offset + NAME_OFFSET)));
+    }
+
+    private static boolean fitsLength(final byte[] bytes, final int maxLength) {
+        return bytes == null || bytes.length <= maxLength;
+    }
+
+    private static void checkLength(final byte[] bytes, final int maxLength, final String field) {
+        if (!fitsLength(bytes, maxLength)) {
+            throw new IllegalArgumentException(String.format("%s is longer than %d bytes", field, maxLength));
+        }
+    }
+
+    private static void putBytes(final byte[] bytes, final ByteBuffer buffer, final int offset) {
+        if (bytes == null) {
+            buffer.put(offset, NULL_LENGTH);
+            return;
+        }
+        buffer.put(offset, (byte) bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(offset + 1 + i, bytes[i]);
+        }
+    }
+
+    private static byte[] getBytes(final ByteBuffer buffer, final int offset) {
+        final byte length = buffer.get(offset);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 1 + i);
+        }
+        return bytes;
+    }
+}
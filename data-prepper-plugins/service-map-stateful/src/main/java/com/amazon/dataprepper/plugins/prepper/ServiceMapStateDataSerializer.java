@@ -0,0 +1,86 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.plugins.prepper.state.StringDictionary;
+import com.amazon.dataprepper.plugins.prepper.state.ValueSerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact serialization of {@link ServiceMapStateData} in the MapDB windows. The service name and span kind are written
+ * as varint dictionary IDs, the parent span ID and trace ID as a length byte followed by the ID bytes, with a length of
+ * -1 for a missing ID, and the span name as a varint-length string. A span typically takes about 40 bytes, where Java
+ * serialization writes the class descriptor and every string in full.
+ */
+final class ServiceMapStateDataSerializer implements ValueSerializer<ServiceMapStateData> {
+    private static final byte NULL_LENGTH = -1;
+
+    /**
+     * @return Boolean indicating whether the IDs of the span are short enough to be written
+     */
+    static boolean fits(final ServiceMapStateData value) {
+        return fitsLength(value.parentSpanId) && fitsLength(value.traceId);
+    }
+
+    @Override
+    public void serialize(final DataOutput out, final ServiceMapStateData value, final StringDictionary dictionary) throws IOException {
+        writeId(out, dictionary.intern(value.serviceName));
+        writeBytes(out, value.parentSpanId);
+        writeBytes(out, value.traceId);
+        writeId(out, dictionary.intern(value.spanKind));
+        ValueSerializer.writeString(out, value.name);
+    }
+
+    @Override
+    public ServiceMapStateData deserialize(final DataInput in, final StringDictionary dictionary) throws IOException {
+        return new ServiceMapStateData(
+                dictionary.get(readId(in)),
+                readBytes(in),
+                readBytes(in),
+                dictionary.get(readId(in)),
+                ValueSerializer.readString(in));
+    }
+
+    /**
+     * Writes the dictionary ID shifted by one, so that the ID of a null string is written as 0.
+     */
+    private static void writeId(final DataOutput out, final int id) throws IOException {
+        ValueSerializer.writeVarInt(out, id - StringDictionary.NULL_ID);
+    }
+
+    private static int readId(final DataInput in) throws IOException {
+        return ValueSerializer.readVarInt(in) + StringDictionary.NULL_ID;
+    }
+
+    private static void writeBytes(final DataOutput out, final byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeByte(NULL_LENGTH);
+            return;
+        }
+        if (!fitsLength(bytes)) {
+            throw new IllegalArgumentException(String.format("ID is longer than %d bytes", Byte.MAX_VALUE));
+        }
+        out.writeByte(bytes.length);
+        out.write(bytes);
+    }
+
+    private static boolean fitsLength(final byte[] bytes) {
+        return bytes == null || bytes.length <= Byte.MAX_VALUE;
+    }
+
+    private static byte[] readBytes(final DataInput in) throws IOException {
+        final byte length = in.readByte();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.prepper.state.PrepperState;
+
+/**
+ * The previous and current windows of spans and trace groups for one epoch. Window pairs are immutable, so a rotation
+ * publishes a new pair of the next epoch, whose previous windows are the current windows of this pair.
+ */
+final class WindowPair {
+    private final long epoch;
+    private final long startMillis;
+    private final PrepperState<byte[], ServiceMapStateData> previousWindow;
+    private final PrepperState<byte[], ServiceMapStateData> currentWindow;
+    private final PrepperState<byte[], String> previousTraceGroupWindow;
+    private final PrepperState<byte[], String> currentTraceGroupWindow;
+
+    WindowPair(final long epoch,
+               final long startMillis,
+               final PrepperState<byte[], ServiceMapStateData> previousWindow,
+               final PrepperState<byte[], ServiceMapStateData> currentWindow,
+               final PrepperState<byte[], String> previousTraceGroupWindow,
+               final PrepperState<byte[], String> currentTraceGroupWindow) {
+        this.epoch = epoch;
+        this.startMillis = startMillis;
+        this.previousWindow = previousWindow;
+        this.currentWindow = currentWindow;
+        this.previousTraceGroupWindow = previousTraceGroupWindow;
+        this.currentTraceGroupWindow = currentTraceGroupWindow;
+    }
+
+    /**
+     * @return the pair of the next epoch, starting with the given empty current windows
+     */
+    WindowPair rotate(final long startMillis,
+                      final PrepperState<byte[], ServiceMapStateData> nextWindow,
+                      final PrepperState<byte[], String> nextTraceGroupWindow) {
+        return new WindowPair(epoch + 1, startMillis, currentWindow, nextWindow, currentTraceGroupWindow, nextTraceGroupWindow);
+    }
+
+    long getEpoch() {
+        return epoch;
+    }
+
+    long getStartMillis() {
+        return startMillis;
+    }
+
+    PrepperState<byte[], ServiceMapStateData> getPreviousWindow() {
+        return previousWindow;
+    }
+
+    PrepperState<byte[], ServiceMapStateData> getCurrentWindow() {
+        return currentWindow;
+    }
+
+    PrepperState<byte[], String> getPreviousTraceGroupWindow() {
+        return previousTraceGroupWindow;
+    }
+
+    PrepperState<byte[], String> getCurrentTraceGroupWindow() {
+        return currentTraceGroupWindow;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmittedRelationshipsTest {
+    private static final ServiceMapRelationship RELATIONSHIP =
+            ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName");
+
+    @Test
+    void relationship_is_emitted_again_after_its_ttl() {
+        final Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        final EmittedRelationships objectUnderTest = new EmittedRelationships(1_000, 100, clock);
+
+        assertThat(objectUnderTest.add(RELATIONSHIP), equalTo(true));
+        assertThat(objectUnderTest.add(ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName")),
+                equalTo(false));
+
+        when(clock.millis()).thenReturn(999L);
+        assertThat(objectUnderTest.add(RELATIONSHIP), equalTo(false));
+
+        when(clock.millis()).thenReturn(1_000L);
+        assertThat(objectUnderTest.add(RELATIONSHIP), equalTo(true));
+        assertThat(objectUnderTest.add(RELATIONSHIP), equalTo(false));
+    }
+
+    @Test
+    void relationships_are_bounded() {
+        final EmittedRelationships objectUnderTest = new EmittedRelationships(60_000, 10, Clock.systemUTC());
+
+        for (int i = 0; i < 1_000; i++) {
+            objectUnderTest.add(ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName" + i));
+        }
+
+        assertThat(objectUnderTest.size() <= 10, equalTo(true));
+    }
+}
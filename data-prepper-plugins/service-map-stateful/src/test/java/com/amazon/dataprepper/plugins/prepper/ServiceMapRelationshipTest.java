@@ -8,6 +8,7 @@ package com.amazon.dataprepper.plugins.prepper;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 class ServiceMapRelationshipTest {
@@ -21,4 +22,32 @@ class ServiceMapRelationshipTest {
 
         assertThat(objectUnderTest.getHashId(), equalTo("r7rZwbptLFxOLPUlg/x2nA=="));
     }
-}
\ No newline at end of file
+
+    @Test
+    void fields_hash_is_equal_for_equal_relationships() {
+        final ServiceMapRelationship relationship = ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName");
+        final ServiceMapRelationship equalRelationship = ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName");
+
+        assertThat(relationship.fieldsHash(), equalTo(equalRelationship.fieldsHash()));
+    }
+
+    @Test
+    void fields_hash_differs_between_relationships() {
+        final ServiceMapRelationship destination = ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName");
+
+        assertThat(destination.fieldsHash(), not(equalTo(
+                ServiceMapRelationship.newTargetRelationship("ServiceName", "Kind", "d1", "r1", "TraceGroupName").fieldsHash())));
+        assertThat(destination.fieldsHash(), not(equalTo(
+                ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d1", "r1", "OtherTraceGroupName").fieldsHash())));
+        assertThat(destination.fieldsHash(), not(equalTo(
+                ServiceMapRelationship.newDestinationRelationship("ServiceName", "Kind", "d", "1r1", "TraceGroupName").fieldsHash())));
+    }
+
+    @Test
+    void hash_id_set_is_kept() {
+        final ServiceMapRelationship objectUnderTest = new ServiceMapRelationship();
+        objectUnderTest.setHashId("hashId");
+
+        assertThat(objectUnderTest.getHashId(), equalTo("hashId"));
+    }
+}
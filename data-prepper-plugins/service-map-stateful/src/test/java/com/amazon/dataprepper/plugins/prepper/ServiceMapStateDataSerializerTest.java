@@ -0,0 +1,73 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.amazon.dataprepper.plugins.prepper;
+
+import com.amazon.dataprepper.plugins.prepper.state.StringDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServiceMapStateDataSerializerTest {
+    private final ServiceMapStateDataSerializer objectUnderTest = new ServiceMapStateDataSerializer();
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Test
+    void span_is_read_as_written() throws IOException {
+        final ServiceMapStateData span = new ServiceMapStateData("checkout", ServiceMapTestUtils.getRandomBytes(8),
+                ServiceMapTestUtils.getRandomBytes(16), "SPAN_KIND_SERVER", "place_order");
+
+        final byte[] bytes = serialize(span);
+        final ServiceMapStateData result = deserialize(bytes);
+
+        assertThat(result.serviceName, equalTo(span.serviceName));
+        assertThat(result.parentSpanId, equalTo(span.parentSpanId));
+        assertThat(result.traceId, equalTo(span.traceId));
+        assertThat(result.spanKind, equalTo(span.spanKind));
+        assertThat(result.name, equalTo(span.name));
+        assertThat(bytes.length, lessThan(45));
+    }
+
+    @Test
+    void missing_fields_are_read_as_null() throws IOException {
+        final ServiceMapStateData result = deserialize(serialize(
+                new ServiceMapStateData(null, null, ServiceMapTestUtils.getRandomBytes(16), null, null)));
+
+        assertThat(result.serviceName, nullValue());
+        assertThat(result.parentSpanId, nullValue());
+        assertThat(result.traceId.length, equalTo(16));
+        assertThat(result.spanKind, nullValue());
+        assertThat(result.name, nullValue());
+    }
+
+    @Test
+    void span_with_ids_longer_than_a_length_byte_does_not_fit() {
+        final ServiceMapStateData span = new ServiceMapStateData("checkout", ServiceMapTestUtils.getRandomBytes(128),
+                ServiceMapTestUtils.getRandomBytes(16), "SPAN_KIND_SERVER", "place_order");
+
+        assertThat(ServiceMapStateDataSerializer.fits(span), equalTo(false));
+        assertThrows(IllegalArgumentException.class, () -> serialize(span));
+    }
+
+    private byte[] serialize(final ServiceMapStateData span) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        objectUnderTest.serialize(new DataOutputStream(bytes), span, dictionary);
+        return bytes.toByteArray();
+    }
+
+    private ServiceMapStateData deserialize(final byte[] bytes) throws IOException {
+        return objectUnderTest.deserialize(new DataInputStream(new ByteArrayInputStream(bytes)), dictionary);
+    }
+}
@@ -14,6 +14,7 @@ package com.amazon.dataprepper.plugins.prepper;
 import com.amazon.dataprepper.metrics.MetricNames;
 import com.amazon.dataprepper.metrics.MetricsTestUtil;
 import com.amazon.dataprepper.model.configuration.PluginSetting;
+import com.amazon.dataprepper.model.plugin.SharedPluginState;
 import com.amazon.dataprepper.model.record.Record;
 import io.micrometer.core.instrument.Measurement;
 import io.opentelemetry.proto.trace.v1.ResourceSpans;
@@ -38,6 +39,7 @@ import java.util.StringJoiner;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertFalse;
@@ -56,13 +58,13 @@ public class ServiceMapStatefulPrepperTest {
     private static final String PASSWORD_DATABASE = "PASS";
     private static final String PAYMENT_SERVICE = "PAY";
     private static final String CART_SERVICE = "CART";
+    private static final long EDGE_EVALUATION_TIMEOUT_MILLIS = 10_000;
     private static final PluginSetting PLUGIN_SETTING = new PluginSetting("testServiceMapPrepper", Collections.emptyMap()) {{
         setPipelineName("testPipelineName");
     }};
 
     @Before
     public void setup() {
-        ServiceMapStatefulPrepper.resetStaticCounters();
         MetricsTestUtil.initMetrics();
     }
 
@@ -86,6 +88,25 @@ public class ServiceMapStatefulPrepperTest {
                 }).collect(Collectors.toSet());
     }
 
+    /**
+     * Waits for the edges of the retired windows to be evaluated in the background, then executes every prepper with no
+     * records to collect the relationships.
+     */
+    private Set<ServiceMapRelationship> awaitEdgeEvaluation(final ExecutorService threadpool,
+                                                            final ServiceMapCoordinator coordinator,
+                                                            final ServiceMapStatefulPrepper... preppers) throws Exception {
+        final long deadline = System.currentTimeMillis() + EDGE_EVALUATION_TIMEOUT_MILLIS;
+        while (coordinator.isEvaluatingEdges()) {
+            assertTrue("Timed out waiting for edge evaluation", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        final Set<ServiceMapRelationship> relationships = new HashSet<>();
+        for (final ServiceMapStatefulPrepper prepper : preppers) {
+            relationships.addAll(ServiceMapTestUtils.startExecuteAsync(threadpool, prepper, Collections.emptyList()).get());
+        }
+        return relationships;
+    }
+
     @Test
     public void testPluginSettingConstructor() {
 
@@ -96,6 +117,172 @@ public class ServiceMapStatefulPrepperTest {
         final ServiceMapStatefulPrepper serviceMapStatefulPrepper = new ServiceMapStatefulPrepper(pluginSetting);
     }
 
+    @Test
+    public void testMapDbWindowStore() throws Exception {
+        final PluginSetting pluginSetting = new PluginSetting("testPluginSetting",
+                Collections.<String, Object>singletonMap(ServiceMapPrepperConfig.WINDOW_STORE, ServiceMapPrepperConfig.MAPDB_WINDOW_STORE));
+        pluginSetting.setPipelineName("TestPipeline");
+        final ServiceMapStatefulPrepper serviceMapStatefulPrepper = new ServiceMapStatefulPrepper(pluginSetting,
+                new ServiceMapCoordinator(100, new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH), Clock.systemUTC(), 1, pluginSetting));
+
+        serviceMapStatefulPrepper.execute(Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(
+                ServiceMapTestUtils.getResourceSpans(FRONTEND_SERVICE, "reset_password", ServiceMapTestUtils.getRandomBytes(8),
+                        null, ServiceMapTestUtils.getRandomBytes(16), Span.SpanKind.SPAN_KIND_CLIENT)))));
+
+        assertFalse(serviceMapStatefulPrepper.isReadyForShutdown());
+        serviceMapStatefulPrepper.shutdown();
+    }
+
+    @Test
+    public void testMapDbCompactWindowStore() throws Exception {
+        final PluginSetting pluginSetting = new PluginSetting("testPluginSetting",
+                Collections.<String, Object>singletonMap(ServiceMapPrepperConfig.WINDOW_STORE, ServiceMapPrepperConfig.MAPDB_COMPACT_WINDOW_STORE));
+        pluginSetting.setPipelineName("TestPipeline");
+        final ServiceMapCoordinator coordinator = new ServiceMapCoordinator(100, new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH),
+                Clock.systemUTC(), 1, pluginSetting);
+        final ServiceMapStatefulPrepper serviceMapStatefulPrepper = new ServiceMapStatefulPrepper(pluginSetting, coordinator);
+
+        serviceMapStatefulPrepper.execute(Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(
+                ServiceMapTestUtils.getResourceSpans(FRONTEND_SERVICE, "reset_password", ServiceMapTestUtils.getRandomBytes(8),
+                        null, ServiceMapTestUtils.getRandomBytes(16), Span.SpanKind.SPAN_KIND_CLIENT)))));
+
+        assertFalse(serviceMapStatefulPrepper.isReadyForShutdown());
+        assertFalse(coordinator.fitsWindow(ServiceMapTestUtils.getRandomBytes(8), new ServiceMapStateData(FRONTEND_SERVICE,
+                null, ServiceMapTestUtils.getRandomBytes(Byte.MAX_VALUE + 1), "SPAN_KIND_CLIENT", "reset_password")));
+        serviceMapStatefulPrepper.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownWindowStore() {
+        final PluginSetting pluginSetting = new PluginSetting("testPluginSetting",
+                Collections.<String, Object>singletonMap(ServiceMapPrepperConfig.WINDOW_STORE, "unknown"));
+        pluginSetting.setPipelineName("TestPipeline");
+        new ServiceMapStatefulPrepper(pluginSetting);
+    }
+
+    @Test
+    public void testSharedPluginState() {
+        final PluginSetting pluginSetting = new PluginSetting("testPluginSetting", Collections.emptyMap());
+        pluginSetting.setProcessWorkers(2);
+        pluginSetting.setPipelineName("TestPipeline");
+        final SharedPluginState sharedPluginState = new SharedPluginState();
+
+        final ServiceMapStatefulPrepper serviceMapStateful1 = new ServiceMapStatefulPrepper(pluginSetting, sharedPluginState);
+        final ServiceMapStatefulPrepper serviceMapStateful2 = new ServiceMapStatefulPrepper(pluginSetting, sharedPluginState);
+        final ServiceMapCoordinator coordinator = sharedPluginState.computeIfAbsent(ServiceMapCoordinator.class, () -> null);
+
+        serviceMapStateful1.prepareForShutdown();
+        assertTrue(coordinator.windowDurationHasPassed(coordinator.acknowledgeWindowPair(coordinator.registerWorker())));
+        serviceMapStateful2.shutdown();
+    }
+
+    @Test
+    public void testPipelinesAreIndependent() throws Exception {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenReturn(1L);
+        Mockito.when(clock.instant()).thenReturn(Instant.now());
+        final ExecutorService threadpool = Executors.newCachedThreadPool();
+        final File path = new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH);
+        final PluginSetting pluginSetting1 = new PluginSetting("testServiceMapPrepper", Collections.emptyMap()) {{
+            setPipelineName("testPipelineName1");
+        }};
+        final PluginSetting pluginSetting2 = new PluginSetting("testServiceMapPrepper", Collections.emptyMap()) {{
+            setPipelineName("testPipelineName2");
+        }};
+        final ServiceMapCoordinator coordinator1 = new ServiceMapCoordinator(100, path, clock, 1, pluginSetting1);
+        final ServiceMapCoordinator coordinator2 = new ServiceMapCoordinator(100, path, clock, 1, pluginSetting2);
+        final ServiceMapStatefulPrepper serviceMapStateful1 = new ServiceMapStatefulPrepper(pluginSetting1, coordinator1);
+        final ServiceMapStatefulPrepper serviceMapStateful2 = new ServiceMapStatefulPrepper(pluginSetting2, coordinator2);
+
+        final byte[] traceId1 = ServiceMapTestUtils.getRandomBytes(16);
+        final byte[] traceId2 = ServiceMapTestUtils.getRandomBytes(16);
+        final ResourceSpans frontendSpans1 = ServiceMapTestUtils.getResourceSpans(FRONTEND_SERVICE, "pipeline_checkout", ServiceMapTestUtils.getRandomBytes(8), null, traceId1, Span.SpanKind.SPAN_KIND_CLIENT);
+        final ResourceSpans checkoutSpans1 = ServiceMapTestUtils.getResourceSpans(CHECKOUT_SERVICE, "checkout", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(frontendSpans1), traceId1, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans frontendSpans2 = ServiceMapTestUtils.getResourceSpans(FRONTEND_SERVICE, "pipeline_checkout", ServiceMapTestUtils.getRandomBytes(8), null, traceId2, Span.SpanKind.SPAN_KIND_CLIENT);
+        final ResourceSpans checkoutSpans2 = ServiceMapTestUtils.getResourceSpans(CHECKOUT_SERVICE, "checkout", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(frontendSpans2), traceId2, Span.SpanKind.SPAN_KIND_SERVER);
+
+        // The parent of the first trace goes to the second pipeline, where the child never arrives
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1, Collections.singletonList(
+                new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(checkoutSpans1, frontendSpans2, checkoutSpans2)))).get().isEmpty());
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful2, Collections.singletonList(
+                new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(frontendSpans1, frontendSpans2, checkoutSpans2)))).get().isEmpty());
+
+        Mockito.when(clock.millis()).thenReturn(110L);
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1, Collections.emptyList()).get().isEmpty());
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful2, Collections.emptyList()).get().isEmpty());
+
+        // Each pipeline evaluates the complete second trace, and emits its relationships once
+        final Set<ServiceMapRelationship> expectedRelationships = new HashSet<>(Arrays.asList(
+                ServiceMapRelationship.newDestinationRelationship(FRONTEND_SERVICE, Span.SpanKind.SPAN_KIND_CLIENT.name(), CHECKOUT_SERVICE, "checkout", "pipeline_checkout"),
+                ServiceMapRelationship.newTargetRelationship(CHECKOUT_SERVICE, Span.SpanKind.SPAN_KIND_SERVER.name(), CHECKOUT_SERVICE, "checkout", "pipeline_checkout")));
+        Assert.assertEquals(expectedRelationships, awaitEdgeEvaluation(threadpool, coordinator1, serviceMapStateful1));
+        Assert.assertEquals(expectedRelationships, awaitEdgeEvaluation(threadpool, coordinator2, serviceMapStateful2));
+        serviceMapStateful1.shutdown();
+        serviceMapStateful2.shutdown();
+    }
+
+    @Test
+    public void testSpansNotFittingWindowAreSkipped() throws Exception {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenReturn(1L);
+        Mockito.when(clock.instant()).thenReturn(Instant.now());
+        final ExecutorService threadpool = Executors.newCachedThreadPool();
+        final ServiceMapCoordinator coordinator = new ServiceMapCoordinator(100, new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH), clock, 1, PLUGIN_SETTING);
+        final ServiceMapStatefulPrepper serviceMapStateful = new ServiceMapStatefulPrepper(PLUGIN_SETTING, coordinator);
+
+        final byte[] traceId = ServiceMapTestUtils.getRandomBytes(16);
+        final ResourceSpans frontendSpans = ServiceMapTestUtils.getResourceSpans(FRONTEND_SERVICE, "checkout", ServiceMapTestUtils.getRandomBytes(8), null, traceId, Span.SpanKind.SPAN_KIND_CLIENT);
+        final ResourceSpans checkoutSpans = ServiceMapTestUtils.getResourceSpans(CHECKOUT_SERVICE, "checkout", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(frontendSpans), traceId, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans longSpanIdSpans = ServiceMapTestUtils.getResourceSpans(CART_SERVICE, "get_cart", ServiceMapTestUtils.getRandomBytes(9), ServiceMapTestUtils.getSpanId(frontendSpans), traceId, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans longParentSpanIdSpans = ServiceMapTestUtils.getResourceSpans(PAYMENT_SERVICE, "charge", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getRandomBytes(9), traceId, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans longTraceIdSpans = ServiceMapTestUtils.getResourceSpans(AUTHENTICATION_SERVICE, "reset", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(frontendSpans), ServiceMapTestUtils.getRandomBytes(17), Span.SpanKind.SPAN_KIND_SERVER);
+
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful, Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(
+                longSpanIdSpans, frontendSpans, longParentSpanIdSpans, checkoutSpans, longTraceIdSpans)))).get().isEmpty());
+        Mockito.when(clock.millis()).thenReturn(110L);
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful, Collections.emptyList()).get().isEmpty());
+
+        // Only the spans with longer IDs than the off-heap windows hold are dropped from the batch
+        final Set<ServiceMapRelationship> expectedRelationships = new HashSet<>(Arrays.asList(
+                ServiceMapRelationship.newDestinationRelationship(FRONTEND_SERVICE, Span.SpanKind.SPAN_KIND_CLIENT.name(), CHECKOUT_SERVICE, "checkout", "checkout"),
+                ServiceMapRelationship.newTargetRelationship(CHECKOUT_SERVICE, Span.SpanKind.SPAN_KIND_SERVER.name(), CHECKOUT_SERVICE, "checkout", "checkout")));
+        Assert.assertEquals(expectedRelationships, awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful));
+        serviceMapStateful.shutdown();
+    }
+
+    @Test
+    public void testRetiredWindowsWaitForWorkersAtTheirEpoch() throws Exception {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenReturn(1L);
+        Mockito.when(clock.instant()).thenReturn(Instant.now());
+        final ExecutorService threadpool = Executors.newCachedThreadPool();
+        final ServiceMapCoordinator coordinator = new ServiceMapCoordinator(100, new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH), clock, 2, PLUGIN_SETTING);
+        final ServiceMapStatefulPrepper serviceMapStateful = new ServiceMapStatefulPrepper(PLUGIN_SETTING, coordinator);
+
+        final byte[] traceId = ServiceMapTestUtils.getRandomBytes(16);
+        final ResourceSpans frontendSpans = ServiceMapTestUtils.getResourceSpans(FRONTEND_SERVICE, "reset_password", ServiceMapTestUtils.getRandomBytes(8), null, traceId, Span.SpanKind.SPAN_KIND_CLIENT);
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful, Collections.singletonList(
+                new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(frontendSpans)))).get().isEmpty());
+
+        // A second worker is still putting spans into the windows of the first epoch while the windows rotate
+        final AtomicLong parkedWorkerEpoch = coordinator.registerWorker();
+        final WindowPair parkedWindowPair = coordinator.acknowledgeWindowPair(parkedWorkerEpoch);
+        Mockito.when(clock.millis()).thenReturn(110L);
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful, Collections.emptyList()).get().isEmpty());
+        Thread.sleep(100);
+        assertTrue(coordinator.isEvaluatingEdges());
+
+        parkedWindowPair.getCurrentWindow().put(ServiceMapTestUtils.getRandomBytes(8), new ServiceMapStateData(AUTHENTICATION_SERVICE,
+                ServiceMapTestUtils.getSpanId(frontendSpans), traceId, Span.SpanKind.SPAN_KIND_SERVER.name(), "reset"));
+        parkedWorkerEpoch.set(ServiceMapCoordinator.IDLE_EPOCH);
+
+        final Set<ServiceMapRelationship> expectedRelationships = new HashSet<>(Arrays.asList(
+                ServiceMapRelationship.newDestinationRelationship(FRONTEND_SERVICE, Span.SpanKind.SPAN_KIND_CLIENT.name(), AUTHENTICATION_SERVICE, "reset", "reset_password"),
+                ServiceMapRelationship.newTargetRelationship(AUTHENTICATION_SERVICE, Span.SpanKind.SPAN_KIND_SERVER.name(), AUTHENTICATION_SERVICE, "reset", "reset_password")));
+        Assert.assertEquals(expectedRelationships, awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful));
+        serviceMapStateful.shutdown();
+    }
+
     @Test
     public void testTraceGroups() throws Exception {
         final Clock clock = Mockito.mock(Clock.class);
@@ -103,8 +290,9 @@ public class ServiceMapStatefulPrepperTest {
         Mockito.when(clock.instant()).thenReturn(Instant.now());
         ExecutorService threadpool = Executors.newCachedThreadPool();
         final File path = new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH);
-        final ServiceMapStatefulPrepper serviceMapStateful1 = new ServiceMapStatefulPrepper(100, path, clock, 2, PLUGIN_SETTING);
-        final ServiceMapStatefulPrepper serviceMapStateful2 = new ServiceMapStatefulPrepper(100, path, clock, 2, PLUGIN_SETTING);
+        final ServiceMapCoordinator coordinator = new ServiceMapCoordinator(100, path, clock, 2, PLUGIN_SETTING);
+        final ServiceMapStatefulPrepper serviceMapStateful1 = new ServiceMapStatefulPrepper(PLUGIN_SETTING, coordinator);
+        final ServiceMapStatefulPrepper serviceMapStateful2 = new ServiceMapStatefulPrepper(PLUGIN_SETTING, coordinator);
 
         final byte[] rootSpanId1 = ServiceMapTestUtils.getRandomBytes(8);
         final byte[] rootSpanId2 = ServiceMapTestUtils.getRandomBytes(8);
@@ -161,6 +349,7 @@ public class ServiceMapStatefulPrepperTest {
                 Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(passwordDbSpans, paymentSpans))));
         relationshipsFound.addAll(r3.get());
         relationshipsFound.addAll(r4.get());
+        relationshipsFound.addAll(awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful1, serviceMapStateful2));
 
         //Should find the frontend->checkout relationship indicated in the first batch
         Assert.assertEquals(2, relationshipsFound.size());
@@ -175,6 +364,7 @@ public class ServiceMapStatefulPrepperTest {
         Future<Set<ServiceMapRelationship>> r6 = ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful2, Arrays.asList());
         relationshipsFound.addAll(r5.get());
         relationshipsFound.addAll(r6.get());
+        relationshipsFound.addAll(awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful1, serviceMapStateful2));
 
         //Should find the rest of the relationships
         Assert.assertEquals(10, relationshipsFound.size());
@@ -225,19 +415,93 @@ public class ServiceMapStatefulPrepperTest {
                 Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(authenticationSpansServer2))));
         assertTrue(r7.get().isEmpty());
         assertTrue(r8.get().isEmpty());
+        assertTrue(awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful1, serviceMapStateful2).isEmpty());
 
         when(clock.millis()).thenReturn(560L);
         Future<Set<ServiceMapRelationship>> r9 = ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1, Arrays.asList());
         Future<Set<ServiceMapRelationship>> r10 = ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful2, Arrays.asList());
         assertTrue(r9.get().isEmpty());
         assertTrue(r10.get().isEmpty());
+        assertTrue(awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful1, serviceMapStateful2).isEmpty());
+        serviceMapStateful1.shutdown();
+    }
+
+    @Test
+    public void testIncrementalEdgeEvaluation() throws Exception {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenReturn(1L);
+        Mockito.when(clock.instant()).thenReturn(Instant.now());
+        final ExecutorService threadpool = Executors.newCachedThreadPool();
+        final PluginSetting pluginSetting = new PluginSetting("testServiceMapPrepper", Collections.<String, Object>singletonMap(
+                ServiceMapPrepperConfig.EDGE_EVALUATION, ServiceMapPrepperConfig.INCREMENTAL_EDGE_EVALUATION)) {{
+            setPipelineName("testPipelineName");
+        }};
+        final File path = new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH);
+        final ServiceMapCoordinator coordinator = new ServiceMapCoordinator(100, path, clock, 2, pluginSetting);
+        final ServiceMapStatefulPrepper serviceMapStateful1 = new ServiceMapStatefulPrepper(pluginSetting, coordinator);
+        final ServiceMapStatefulPrepper serviceMapStateful2 = new ServiceMapStatefulPrepper(pluginSetting, coordinator);
+
+        final String frontendService = "INCREMENTAL_FRONTEND";
+        final String backendService = "INCREMENTAL_BACKEND";
+        final String databaseService = "INCREMENTAL_DATABASE";
+        final String traceGroup1 = "incremental_checkout";
+        final String traceGroup2 = "incremental_login";
+        final byte[] traceId1 = ServiceMapTestUtils.getRandomBytes(16);
+        final byte[] traceId2 = ServiceMapTestUtils.getRandomBytes(16);
+
+        final ResourceSpans frontendSpans1 = ServiceMapTestUtils.getResourceSpans(frontendService, traceGroup1, ServiceMapTestUtils.getRandomBytes(8), null, traceId1, Span.SpanKind.SPAN_KIND_CLIENT);
+        final ResourceSpans backendSpans1 = ServiceMapTestUtils.getResourceSpans(backendService, "cart", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(frontendSpans1), traceId1, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans databaseSpans1 = ServiceMapTestUtils.getResourceSpans(databaseService, "query", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(backendSpans1), traceId1, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans frontendSpans2 = ServiceMapTestUtils.getResourceSpans(frontendService, traceGroup2, ServiceMapTestUtils.getRandomBytes(8), null, traceId2, Span.SpanKind.SPAN_KIND_CLIENT);
+        final ResourceSpans backendSpans2 = ServiceMapTestUtils.getResourceSpans(backendService, "cart", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(frontendSpans2), traceId2, Span.SpanKind.SPAN_KIND_SERVER);
+        final ResourceSpans databaseSpans2 = ServiceMapTestUtils.getResourceSpans(databaseService, "query", ServiceMapTestUtils.getRandomBytes(8), ServiceMapTestUtils.getSpanId(backendSpans2), traceId2, Span.SpanKind.SPAN_KIND_SERVER);
+
+        // The child arrives before its parent, and waits for it
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1,
+                Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(backendSpans1)))).get().isEmpty());
+
+        // The parent arrives on another worker, and the edge is emitted without waiting for the window
+        Assert.assertEquals(new HashSet<>(Arrays.asList(
+                ServiceMapRelationship.newDestinationRelationship(frontendService, Span.SpanKind.SPAN_KIND_CLIENT.name(), backendService, "cart", traceGroup1),
+                ServiceMapRelationship.newTargetRelationship(backendService, Span.SpanKind.SPAN_KIND_SERVER.name(), backendService, "cart", traceGroup1))),
+                ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful2,
+                        Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(frontendSpans1)))).get());
+
+        // The parent is already in the window when the child arrives
+        Assert.assertEquals(new HashSet<>(Arrays.asList(
+                ServiceMapRelationship.newDestinationRelationship(backendService, Span.SpanKind.SPAN_KIND_SERVER.name(), databaseService, "query", traceGroup1),
+                ServiceMapRelationship.newTargetRelationship(databaseService, Span.SpanKind.SPAN_KIND_SERVER.name(), databaseService, "query", traceGroup1))),
+                ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1,
+                        Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(databaseSpans1)))).get());
+
+        // The edge from the backend to the database waits for the trace group of the root span
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful2,
+                Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(backendSpans2, databaseSpans2)))).get().isEmpty());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(
+                ServiceMapRelationship.newDestinationRelationship(frontendService, Span.SpanKind.SPAN_KIND_CLIENT.name(), backendService, "cart", traceGroup2),
+                ServiceMapRelationship.newTargetRelationship(backendService, Span.SpanKind.SPAN_KIND_SERVER.name(), backendService, "cart", traceGroup2),
+                ServiceMapRelationship.newDestinationRelationship(backendService, Span.SpanKind.SPAN_KIND_SERVER.name(), databaseService, "query", traceGroup2),
+                ServiceMapRelationship.newTargetRelationship(databaseService, Span.SpanKind.SPAN_KIND_SERVER.name(), databaseService, "query", traceGroup2))),
+                ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1,
+                        Collections.singletonList(new Record<>(ServiceMapTestUtils.getExportTraceServiceRequest(frontendSpans2)))).get());
+
+        final List<Measurement> pendingEdgesMeasurement = MetricsTestUtil.getMeasurementList(
+                new StringJoiner(MetricNames.DELIMITER).add("testPipelineName").add("testServiceMapPrepper")
+                        .add(ServiceMapStatefulPrepper.PENDING_EDGES).toString());
+        Assert.assertEquals(0.0, pendingEdgesMeasurement.get(0).getValue(), 0);
+
+        // Edges are not evaluated again when the windows rotate
+        Mockito.when(clock.millis()).thenReturn(110L);
+        assertTrue(ServiceMapTestUtils.startExecuteAsync(threadpool, serviceMapStateful1, Collections.emptyList()).get().isEmpty());
+        assertTrue(awaitEdgeEvaluation(threadpool, coordinator, serviceMapStateful1, serviceMapStateful2).isEmpty());
         serviceMapStateful1.shutdown();
     }
 
     @Test
     public void testPrepareForShutdown() throws Exception {
         final File path = new File(ServiceMapPrepperConfig.DEFAULT_DB_PATH);
-        final ServiceMapStatefulPrepper serviceMapStateful = new ServiceMapStatefulPrepper(100, path, Clock.systemUTC(), 1, PLUGIN_SETTING);
+        final ServiceMapStatefulPrepper serviceMapStateful = new ServiceMapStatefulPrepper(PLUGIN_SETTING,
+                new ServiceMapCoordinator(100, path, Clock.systemUTC(), 1, PLUGIN_SETTING));
 
         final byte[] rootSpanId1 = ServiceMapTestUtils.getRandomBytes(8);
         final byte[] traceId1 = ServiceMapTestUtils.getRandomBytes(16);
@@ -251,9 +515,11 @@ public class ServiceMapStatefulPrepperTest {
         assertFalse(serviceMapStateful.isReadyForShutdown());
 
         serviceMapStateful.prepareForShutdown();
-        serviceMapStateful.execute(Collections.emptyList());
-
-        assertTrue(serviceMapStateful.isReadyForShutdown());
+        final long deadline = System.currentTimeMillis() + EDGE_EVALUATION_TIMEOUT_MILLIS;
+        do {
+            assertTrue("Timed out waiting to be ready for shutdown", System.currentTimeMillis() < deadline);
+            serviceMapStateful.execute(Collections.emptyList());
+        } while (!serviceMapStateful.isReadyForShutdown());
 
         serviceMapStateful.shutdown();
     }